@@ -16,6 +16,7 @@ package org.apache.oozie.client;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
@@ -31,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Transformer;
@@ -202,7 +204,7 @@ public class OozieClient {
                 URL url = new URL(baseUrl + RestConstants.VERSIONS);
                 HttpURLConnection conn = createConnection(url, "GET");
                 if (conn.getResponseCode() == HttpURLConnection.HTTP_OK) {
-                    JSONArray array = (JSONArray) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
+                    JSONArray array = (JSONArray) JSONValue.parse(createReader(conn));
                     if (array == null) {
                         throw new OozieClientException("HTTP error", "no response message");
                     }
@@ -342,12 +344,29 @@ public class OozieClient {
         if (method.equals("POST") || method.equals("PUT")) {
             conn.setDoOutput(true);
         }
+        conn.setRequestProperty(RestConstants.ACCEPT_ENCODING, RestConstants.GZIP_ENCODING);
         for (Map.Entry<String, String> header : headers.entrySet()) {
             conn.setRequestProperty(header.getKey(), header.getValue());
         }
         return conn;
     }
 
+    /**
+     * Return a reader for the response of an http connection. <p/> If the Oozie server gzipped the response the reader
+     * decompresses it on the fly, the response is decoded as UTF-8.
+     *
+     * @param conn http connection.
+     * @return reader for the response.
+     * @throws IOException thrown if the response stream could not be opened.
+     */
+    static Reader createReader(HttpURLConnection conn) throws IOException {
+        InputStream is = conn.getInputStream();
+        if (RestConstants.GZIP_ENCODING.equalsIgnoreCase(conn.getContentEncoding())) {
+            is = new GZIPInputStream(is);
+        }
+        return new InputStreamReader(is, "UTF-8");
+    }
+
     protected abstract class ClientCallable<T> implements Callable<T> {
         private final String method;
         private final String collection;
@@ -476,7 +495,7 @@ public class OozieClient {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
             writeToXml(conf, conn.getOutputStream());
             if (conn.getResponseCode() == HttpURLConnection.HTTP_CREATED) {
-                JSONObject json = (JSONObject) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
+                JSONObject json = (JSONObject) JSONValue.parse(createReader(conn));
                 return (String) json.get(JsonTags.JOB_ID);
             }
             if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
@@ -610,7 +629,7 @@ public class OozieClient {
         @Override
         protected WorkflowJob call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createWorkflowJob(json);
             }
@@ -630,7 +649,7 @@ public class OozieClient {
         @Override
         protected WorkflowAction call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createWorkflowAction(json);
             }
@@ -723,7 +742,7 @@ public class OozieClient {
         protected String call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
 
-                String output = getReaderAsString(new InputStreamReader(conn.getInputStream()), -1);
+                String output = getReaderAsString(createReader(conn), -1);
                 return output;
             }
             else {
@@ -775,7 +794,7 @@ public class OozieClient {
         @Override
         protected CoordinatorJob call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createCoordinatorJob(json);
             }
@@ -796,7 +815,7 @@ public class OozieClient {
         @Override
         protected BundleJob call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createBundleJob(json);
             }
@@ -816,7 +835,7 @@ public class OozieClient {
         @Override
         protected CoordinatorAction call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createCoordinatorAction(json);
             }
@@ -881,12 +900,18 @@ public class OozieClient {
                     RestConstants.LEN_PARAM, Integer.toString(len)));
         }
 
+        JobsStatus(String filter, String after, int len) {
+            super("GET", RestConstants.JOBS, "", prepareParams(RestConstants.JOBS_FILTER_PARAM, filter,
+                    RestConstants.JOBTYPE_PARAM, "wf", RestConstants.JOBS_AFTER_PARAM, notNull(after, "after"),
+                    RestConstants.LEN_PARAM, Integer.toString(len)));
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         protected List<WorkflowJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 JSONArray workflows = (JSONArray) json.get(JsonTags.WORKFLOWS_JOBS);
                 if (workflows == null) {
@@ -909,11 +934,17 @@ public class OozieClient {
                     RestConstants.LEN_PARAM, Integer.toString(len)));
         }
 
+        CoordJobsStatus(String filter, String after, int len) {
+            super("GET", RestConstants.JOBS, "", prepareParams(RestConstants.JOBS_FILTER_PARAM, filter,
+                    RestConstants.JOBTYPE_PARAM, "coord", RestConstants.JOBS_AFTER_PARAM, notNull(after, "after"),
+                    RestConstants.LEN_PARAM, Integer.toString(len)));
+        }
+
         @Override
         protected List<CoordinatorJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 JSONArray jobs = (JSONArray) json.get(JsonTags.COORDINATOR_JOBS);
                 if (jobs == null) {
@@ -936,11 +967,17 @@ public class OozieClient {
                     RestConstants.LEN_PARAM, Integer.toString(len)));
         }
 
+        BundleJobsStatus(String filter, String after, int len) {
+            super("GET", RestConstants.JOBS, "", prepareParams(RestConstants.JOBS_FILTER_PARAM, filter,
+                    RestConstants.JOBTYPE_PARAM, "bundle", RestConstants.JOBS_AFTER_PARAM, notNull(after, "after"),
+                    RestConstants.LEN_PARAM, Integer.toString(len)));
+        }
+
         @Override
         protected List<BundleJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 JSONArray jobs = (JSONArray) json.get(JsonTags.BUNDLE_JOBS);
                 if (jobs == null) {
@@ -969,7 +1006,7 @@ public class OozieClient {
         protected List<CoordinatorAction> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 JSONArray coordActions = (JSONArray) json.get(JsonTags.COORDINATOR_ACTIONS);
                 return JsonToBean.createCoordinatorActionList(coordActions);
@@ -1047,6 +1084,22 @@ public class OozieClient {
         return new JobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return the info of the workflow jobs that match the filter using keyset paging.
+     * <p/>
+     * The jobs are ordered by creation time, newest first. To get the next page, pass the ID of the last job of the
+     * current page as <code>after</code>. Unlike offset paging, the cost of a page does not depend on how deep it is.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param after ID of the last job of the previous page, an empty string for the first page.
+     * @param len number of jobs to return.
+     * @return a list with the workflow jobs info, without node details.
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public List<WorkflowJob> getJobsInfo(String filter, String after, int len) throws OozieClientException {
+        return new JobsStatus(filter, after, len).call();
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter.
      * <p/>
@@ -1084,7 +1137,7 @@ public class OozieClient {
         protected Void call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream()));
+                BufferedReader br = new BufferedReader(createReader(conn));
                 String line = null;
                 while ((line = br.readLine()) != null) {
                     System.out.println(line);
@@ -1108,7 +1161,7 @@ public class OozieClient {
         @SuppressWarnings("unchecked")
         protected String call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return (String) json.get(JsonTags.JOB_ID);
             }
@@ -1168,7 +1221,7 @@ public class OozieClient {
         @Override
         protected SYSTEM_MODE call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return SYSTEM_MODE.valueOf((String) json.get(JsonTags.OOZIE_SYSTEM_MODE));
             }
@@ -1202,7 +1255,7 @@ public class OozieClient {
         @Override
         protected String call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return (String) json.get(JsonTags.BUILD_VERSION);
             }
@@ -1245,6 +1298,20 @@ public class OozieClient {
         return new CoordJobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return the info of the coordinator jobs that match the filter using keyset paging, the jobs are ordered by
+     * creation time, newest first.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param after ID of the last job of the previous page, an empty string for the first page.
+     * @param len number of jobs to return.
+     * @return a list with the coordinator jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public List<CoordinatorJob> getCoordJobsInfo(String filter, String after, int len) throws OozieClientException {
+        return new CoordJobsStatus(filter, after, len).call();
+    }
+
     /**
      * Return the info of the bundle jobs that match the filter.
      *
@@ -1258,6 +1325,20 @@ public class OozieClient {
         return new BundleJobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return the info of the bundle jobs that match the filter using keyset paging, the jobs are ordered by creation
+     * time, newest first.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param after ID of the last job of the previous page, an empty string for the first page.
+     * @param len number of jobs to return.
+     * @return a list with the bundle jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public List<BundleJob> getBundleJobsInfo(String filter, String after, int len) throws OozieClientException {
+        return new BundleJobsStatus(filter, after, len).call();
+    }
+
     private class GetQueueDump extends ClientCallable<List<String>> {
         GetQueueDump() {
             super("GET", RestConstants.ADMIN, RestConstants.ADMIN_QUEUE_DUMP_RESOURCE, prepareParams());
@@ -1266,7 +1347,7 @@ public class OozieClient {
         @Override
         protected List<String> call(HttpURLConnection conn) throws IOException, OozieClientException {
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream());
+                Reader reader = createReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 JSONArray queueDumpArray = (JSONArray) json.get(JsonTags.QUEUE_DUMP);
 
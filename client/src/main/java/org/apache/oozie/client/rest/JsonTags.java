@@ -158,6 +158,14 @@ public interface JsonTags {
     public static final String INSTR_TIMER_OWN_MAX_TIME = "ownMaxTime";
     public static final String INSTR_TIMER_TOTAL_MIN_TIME = "totalMinTime";
     public static final String INSTR_TIMER_TOTAL_MAX_TIME = "totalMaxTime";
+    public static final String INSTR_TIMER_OWN_TIME_P50 = "ownTimeP50";
+    public static final String INSTR_TIMER_OWN_TIME_P95 = "ownTimeP95";
+    public static final String INSTR_TIMER_OWN_TIME_P99 = "ownTimeP99";
+    public static final String INSTR_TIMER_OWN_TIME_P999 = "ownTimeP999";
+    public static final String INSTR_TIMER_TOTAL_TIME_P50 = "totalTimeP50";
+    public static final String INSTR_TIMER_TOTAL_TIME_P95 = "totalTimeP95";
+    public static final String INSTR_TIMER_TOTAL_TIME_P99 = "totalTimeP99";
+    public static final String INSTR_TIMER_TOTAL_TIME_P999 = "totalTimeP999";
 
     public static final String INSTR_VARIABLE_VALUE = "value";
     public static final String INSTR_SAMPLER_VALUE = "value";
@@ -35,6 +35,12 @@ public interface RestConstants {
 
     public static final String TEXT_CONTENT_TYPE = "text/plain";
 
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+
+    public static final String GZIP_ENCODING = "gzip";
+
     public static final String ACTION_PARAM = "action";
 
     public static final String OFFSET_PARAM = "offset";
@@ -92,6 +98,8 @@ public interface RestConstants {
 
     public static final String JOBS_EXTERNAL_ID_PARAM = "external-id";
 
+    public static final String JOBS_AFTER_PARAM = "after";
+
     public static final String ADMIN_STATUS_RESOURCE = "status";
 
     public static final String ADMIN_SAFE_MODE_PARAM = "safemode";
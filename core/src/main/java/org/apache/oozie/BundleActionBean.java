@@ -64,6 +64,10 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
         @NamedQuery(name = "GET_BUNDLE_ACTIONS_FAILED_NULL_COORD_COUNT", query = "select count(w) from BundleActionBean w where w.bundleId = :bundleId AND w.status = 'FAILED' AND w.coordId IS NULL"),
 
+        @NamedQuery(name = "GET_BUNDLE_ACTIONS_PENDING_FALSE_FAILED_OR_KILLED_NULL_COORD_COUNT", query = "select count(w) from BundleActionBean w where w.bundleId = :bundleId AND w.pending = 0 AND (w.status = 'FAILED' OR w.status = 'KILLED') AND w.coordId IS NULL"),
+
+        @NamedQuery(name = "GET_BUNDLE_ACTIONS_STATUS_PENDING_COUNT_FOR_BUNDLE", query = "select w.status, w.pending, count(w) from BundleActionBean w where w.bundleId = :bundleId group by w.status, w.pending"),
+
         @NamedQuery(name = "GET_BUNDLE_ACTIONS_OLDER_THAN", query = "select OBJECT(w) from BundleActionBean w order by w.lastModifiedTimestamp"),
 
         @NamedQuery(name = "DELETE_COMPLETED_ACTIONS_FOR_BUNDLE", query = "delete from BundleActionBean a where a.bundleId = :bundleId and (a.status = 'SUCCEEDED' OR a.status = 'FAILED' OR a.status= 'KILLED' OR a.status = 'DONEWITHERROR')")})
@@ -307,6 +307,26 @@ public class BundleEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Get bundle jobs using keyset paging, the jobs are ordered by creation time, newest first.
+     *
+     * @param filterStr the filter string
+     * @param after id of the last job of the previous page, empty for the first page
+     * @param len total length to get
+     * @return bundle job info
+     * @throws BundleEngineException thrown if failed to get bundle job info
+     */
+    public BundleJobInfo getBundleJobs(String filterStr, String after, int len) throws BundleEngineException {
+        Map<String, List<String>> filter = parseFilter(filterStr);
+
+        try {
+            return new BundleJobsXCommand(filter, ParamChecker.notNull(after, "after"), len).call();
+        }
+        catch (CommandException ex) {
+            throw new BundleEngineException(ex);
+        }
+    }
+
     /**
      * Parse filter string to a map with key = filter name and values = filter values
      *
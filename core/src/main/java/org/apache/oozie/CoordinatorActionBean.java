@@ -18,7 +18,12 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
@@ -29,7 +34,9 @@ import javax.persistence.NamedNativeQueries;
 import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PostLoad;
 import javax.persistence.SqlResultSetMapping;
+import javax.persistence.Transient;
 
 import org.apache.hadoop.io.Writable;
 import org.apache.oozie.client.CoordinatorAction;
@@ -76,6 +83,8 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
     @NamedQuery(name = "GET_ACTIONS_FOR_COORD_JOB", query = "select OBJECT(a) from CoordinatorActionBean a where a.jobId = :jobId"),
 
+    @NamedQuery(name = "GET_COORD_ACTIONS_STATUS_PENDING_COUNT_FOR_JOB", query = "select a.status, a.pending, count(a) from CoordinatorActionBean a where a.jobId = :jobId group by a.status, a.pending"),
+
     @NamedQuery(name = "GET_COORD_ACTION_FOR_COORD_JOB_BY_ACTION_NUMBER", query = "select OBJECT(a) from CoordinatorActionBean a where a.jobId = :jobId AND a.actionNumber = :actionNumber"),
 
     @NamedQuery(name = "GET_COORD_ACTIONS_BY_LAST_MODIFIED_TIME", query = "select OBJECT(w) from CoordinatorActionBean w where w.lastModifiedTimestamp >= :lastModifiedTime"),
@@ -88,6 +97,10 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
     @NamedQuery(name = "GET_COORD_ACTIONS_FOR_RECOVERY_OLDER_THAN", query = "select OBJECT(a) from CoordinatorActionBean a where a.pending > 0 AND (a.status = 'SUSPENDED' OR a.status = 'KILLED' OR a.status = 'RUNNING') AND a.lastModifiedTimestamp <= :lastModifiedTime"),
 
+    @NamedQuery(name = "GET_RUNNING_ACTION_IDS_OLDER_THAN", query = "select a.id from CoordinatorActionBean a where a.status = 'RUNNING' AND a.lastModifiedTimestamp <= :lastModifiedTime AND a.id > :id order by a.id"),
+
+    @NamedQuery(name = "GET_COORD_ACTIONS_COLUMNS_FOR_RECOVERY_OLDER_THAN", query = "select a.id, a.jobId, a.status, a.externalId from CoordinatorActionBean a where a.lastModifiedTimestamp <= :lastModifiedTime AND (a.status = 'WAITING' OR a.status = 'SUBMITTED' OR (a.pending > 0 AND (a.status = 'SUSPENDED' OR a.status = 'KILLED' OR a.status = 'RUNNING'))) AND a.id > :id order by a.id"),
+
     @NamedQuery(name = "GET_ACTIONS_FOR_DATES", query = "select OBJECT(a) from CoordinatorActionBean a where a.jobId = :jobId AND (a.status = 'TIMEDOUT' OR a.status = 'SUCCEEDED' OR a.status = 'KILLED' OR a.status = 'FAILED') AND a.nominalTimestamp >= :startTime AND a.nominalTimestamp <= :endTime"),
 
     @NamedQuery(name = "GET_ACTION_FOR_NOMINALTIME", query = "select OBJECT(a) from CoordinatorActionBean a where a.jobId = :jobId AND a.nominalTimestamp = :nominalTime"),
@@ -142,6 +155,14 @@ public class CoordinatorActionBean extends JsonCoordinatorAction implements
     @Column(name = "pending")
     private int pending = 0;
 
+    /**
+     * LOB fields, only written by an update when modified.
+     */
+    private static final List<String> LOB_FIELDS = Arrays.asList("createdConf", "runConf", "actionXml", "missingDependencies", "slaXml");
+
+    @Transient
+    private Set<String> dirtyLobFields = new HashSet<String>(LOB_FIELDS);
+
     public CoordinatorActionBean() {
     }
 
@@ -287,12 +308,37 @@ public class CoordinatorActionBean extends JsonCoordinatorAction implements
         this.externalId = externalId;
     }
 
+    @Override
+    public void setCreatedConf(String createdConf) {
+        super.setCreatedConf(createdConf);
+        dirtyLobFields.add("createdConf");
+    }
+
+    @Override
+    public void setRunConf(String runConf) {
+        super.setRunConf(runConf);
+        dirtyLobFields.add("runConf");
+    }
+
+    @Override
+    public void setActionXml(String actionXml) {
+        super.setActionXml(actionXml);
+        dirtyLobFields.add("actionXml");
+    }
+
+    @Override
+    public void setMissingDependencies(String missingDependencies) {
+        super.setMissingDependencies(missingDependencies);
+        dirtyLobFields.add("missingDependencies");
+    }
+
     public String getSlaXml() {
         return slaXml;
     }
 
     public void setSlaXml(String slaXml) {
         this.slaXml = slaXml;
+        dirtyLobFields.add("slaXml");
     }
 
     /**
@@ -361,4 +407,24 @@ public class CoordinatorActionBean extends JsonCoordinatorAction implements
     public boolean isPending() {
         return pending > 0 ? true : false;
     }
+
+    /**
+     * Mark all the LOB fields as not modified, the bean has been loaded from the database or its LOB fields have been
+     * copied from a bean loaded from the database.
+     */
+    @PostLoad
+    public void clearDirtyLobFields() {
+        dirtyLobFields.clear();
+    }
+
+    /**
+     * Return the LOB fields modified since the bean was loaded from the database.
+     * <p/>
+     * All the LOB fields are returned for a bean that has not been loaded from the database.
+     *
+     * @return the modified LOB fields.
+     */
+    public Set<String> getDirtyLobFields() {
+        return Collections.unmodifiableSet(dirtyLobFields);
+    }
 }
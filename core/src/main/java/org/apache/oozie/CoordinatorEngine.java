@@ -420,6 +420,27 @@ public class CoordinatorEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Return the info about a set of coordinator jobs using keyset paging, the jobs are ordered by creation time,
+     * newest first.
+     *
+     * @param filterStr
+     * @param after id of the last job of the previous page, empty for the first page
+     * @param len
+     * @return CoordinatorJobInfo
+     * @throws CoordinatorEngineException
+     */
+    public CoordinatorJobInfo getCoordJobs(String filterStr, String after, int len) throws CoordinatorEngineException {
+        Map<String, List<String>> filter = parseFilter(filterStr);
+
+        try {
+            return new CoordJobsXCommand(filter, ParamChecker.notNull(after, "after"), len).call();
+        }
+        catch (CommandException ex) {
+            throw new CoordinatorEngineException(ex);
+        }
+    }
+
     /**
      * @param filter
      * @return Map<String, List<String>>
@@ -18,14 +18,25 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
+import javax.persistence.ColumnResult;
 import javax.persistence.Entity;
 import javax.persistence.Lob;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PostLoad;
+import javax.persistence.SqlResultSetMapping;
+import javax.persistence.Transient;
 
 import org.apache.hadoop.io.Writable;
 import org.apache.oozie.client.CoordinatorJob;
@@ -40,12 +51,16 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
         @NamedQuery(name = "UPDATE_COORD_JOB_STATUS", query = "update CoordinatorJobBean w set w.status = :status, w.lastModifiedTimestamp = :lastModifiedTime where w.id = :id"),
 
+        @NamedQuery(name = "UPDATE_COORD_JOBS_LAST_MODIFIED_TIME", query = "update CoordinatorJobBean w set w.lastModifiedTimestamp = :lastModifiedTime where w.id IN :ids"),
+
         @NamedQuery(name = "DELETE_COORD_JOB", query = "delete from CoordinatorJobBean w where w.id = :id"),
 
         @NamedQuery(name = "GET_COORD_JOBS", query = "select OBJECT(w) from CoordinatorJobBean w"),
 
         @NamedQuery(name = "GET_COORD_JOB", query = "select OBJECT(w) from CoordinatorJobBean w where w.id = :id"),
 
+        @NamedQuery(name = "GET_COORD_JOBS_OWNER", query = "select w.id, w.user, w.group from CoordinatorJobBean w where w.id IN :ids"),
+
         @NamedQuery(name = "GET_COORD_JOBS_PENDING", query = "select OBJECT(w) from CoordinatorJobBean w where w.pending = 1 order by w.lastModifiedTimestamp"),
 
         @NamedQuery(name = "GET_COORD_JOBS_COUNT", query = "select count(w) from CoordinatorJobBean w"),
@@ -63,6 +78,17 @@ import org.apache.openjpa.persistence.jdbc.Index;
         @NamedQuery(name = "GET_COORD_JOBS_PAUSED", query = "select OBJECT(w) from CoordinatorJobBean w where w.status = 'PAUSED' OR w.status = 'PAUSEDWITHERROR' OR w.status = 'PREPPAUSED' order by w.lastModifiedTimestamp"),
 
         @NamedQuery(name = "GET_COORD_JOBS_FOR_BUNDLE", query = "select OBJECT(w) from CoordinatorJobBean w where w.bundleId = :bundleId order by w.lastModifiedTimestamp") })
+
+@SqlResultSetMapping(
+        name = "CoordJobIdThrottlingActiveCount",
+        columns = {@ColumnResult(name = "job_id"),
+            @ColumnResult(name = "mat_throttling"),
+            @ColumnResult(name = "active_count")})
+
+@NamedNativeQueries({
+
+    @NamedNativeQuery(name = "GET_COORD_JOBS_OLDER_THAN_WITH_ACTIVE_COUNT", query = "select w.id as job_id, w.mat_throttling as mat_throttling, count(a.id) as active_count from COORD_JOBS w left outer join COORD_ACTIONS a on a.job_id = w.id AND a.status = 'WAITING' where w.start_time <= ? AND (w.status = 'PREP' OR w.status = 'RUNNING') AND (w.next_matd_time < ? OR w.next_matd_time IS NULL) AND (w.next_matd_time IS NULL OR (w.end_time > w.next_matd_time AND (w.pause_time IS NULL OR w.pause_time > w.next_matd_time))) GROUP BY w.id, w.mat_throttling, w.last_modified_time order by w.last_modified_time", resultSetMapping = "CoordJobIdThrottlingActiveCount")
+        })
 public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
 
     @Basic
@@ -143,6 +169,14 @@ public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
     @Column(name = "app_namespace")
     private String appNamespace = null;
 
+    /**
+     * LOB fields, only written by an update when modified.
+     */
+    private static final List<String> LOB_FIELDS = Arrays.asList("conf", "authToken", "jobXml", "origJobXml", "slaXml");
+
+    @Transient
+    private Set<String> dirtyLobFields = new HashSet<String>(LOB_FIELDS);
+
     /**
      * Get start timestamp
      *
@@ -252,6 +286,7 @@ public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
      */
     public void setJobXml(String jobXml) {
         this.jobXml = jobXml;
+        dirtyLobFields.add("jobXml");
     }
 
     /**
@@ -270,6 +305,7 @@ public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
      */
     public void setOrigJobXml(String origJobXml) {
         this.origJobXml = origJobXml;
+        dirtyLobFields.add("origJobXml");
     }
 
     /**
@@ -288,6 +324,16 @@ public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
      */
     public void setSlaXml(String slaXml) {
         this.slaXml = slaXml;
+        dirtyLobFields.add("slaXml");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.client.rest.JsonCoordinatorJob#setConf(java.lang.String)
+     */
+    @Override
+    public void setConf(String conf) {
+        super.setConf(conf);
+        dirtyLobFields.add("conf");
     }
 
     /* (non-Javadoc)
@@ -316,6 +362,7 @@ public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
      */
     public void setAuthToken(String authToken) {
         this.authToken = authToken;
+        dirtyLobFields.add("authToken");
     }
 
     /**
@@ -718,4 +765,24 @@ public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
         return this.authToken;
     }
 
+    /**
+     * Mark all the LOB fields as not modified, the bean has been loaded from the database or its LOB fields have been
+     * copied from a bean loaded from the database.
+     */
+    @PostLoad
+    public void clearDirtyLobFields() {
+        dirtyLobFields.clear();
+    }
+
+    /**
+     * Return the LOB fields modified since the bean was loaded from the database.
+     * <p/>
+     * All the LOB fields are returned for a bean that has not been loaded from the database.
+     *
+     * @return the modified LOB fields.
+     */
+    public Set<String> getDirtyLobFields() {
+        return Collections.unmodifiableSet(dirtyLobFields);
+    }
+
 }
@@ -27,6 +27,8 @@ import org.apache.oozie.util.XmlUtils;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Properties;
 import java.util.Map;
 
@@ -38,6 +40,8 @@ public class DagELFunctions {
     private static final String WORKFLOW = "oozie.el.workflow.bean";
     private static final String ACTION = "oozie.el.action.bean";
     private static final String ACTION_PROTO_CONF = "oozie.el.action.proto.conf";
+    private static final String WORKFLOW_INSTANCE = "oozie.el.workflow.instance";
+    private static final String PARSED_ACTION_DATA = "oozie.el.action.data.";
 
     private static final String LAST_ACTION_IN_ERROR = "oozie.el.last.action.in.error";
 
@@ -51,7 +55,9 @@ public class DagELFunctions {
     public static void configureEvaluator(ELEvaluator evaluator, WorkflowJobBean workflow, WorkflowActionBean action) {
         evaluator.setVariable(WORKFLOW, workflow);
         evaluator.setVariable(ACTION, action);
-        for (Map.Entry<String, String> entry : workflow.getWorkflowInstance().getConf()) {
+        LoadedInstance instance = new LoadedInstance(workflow);
+        evaluator.setVariable(WORKFLOW_INSTANCE, instance);
+        for (Map.Entry<String, String> entry : instance.workflowInstance.getConf()) {
             if (ParamChecker.isValidIdentifier(entry.getKey())) {
                 String value = entry.getValue().trim();
                 // escape the characters for xml
@@ -78,6 +84,37 @@ public class DagELFunctions {
         return (WorkflowJobBean) eval.getVariable(WORKFLOW);
     }
 
+    /**
+     * Workflow instance deserialized from the workflow job bean, valid while the bean has the same instance blob.
+     */
+    private static class LoadedInstance {
+        private final byte[] blob;
+        private final WorkflowInstance workflowInstance;
+
+        private LoadedInstance(WorkflowJobBean workflow) {
+            blob = workflow.getWfInstance();
+            workflowInstance = workflow.getWorkflowInstance();
+        }
+    }
+
+    /**
+     * Return the workflow instance of the current workflow job. <p/> The instance is deserialized once per evaluator
+     * and then reused until the workflow job bean is given a new instance, instead of being deserialized by every EL
+     * function call. The returned instance must not be modified, other than its transient variables.
+     *
+     * @return the workflow instance of the current workflow job.
+     */
+    public static WorkflowInstance getWorkflowInstance() {
+        ELEvaluator eval = ELEvaluator.getCurrent();
+        WorkflowJobBean workflow = getWorkflow();
+        LoadedInstance instance = (LoadedInstance) eval.getVariable(WORKFLOW_INSTANCE);
+        if (instance == null || instance.blob != workflow.getWfInstance()) {
+            instance = new LoadedInstance(workflow);
+            eval.setVariable(WORKFLOW_INSTANCE, instance);
+        }
+        return instance.workflowInstance;
+    }
+
     public static Configuration getProtoActionConf() {
         ELEvaluator eval = ELEvaluator.getCurrent();
         return (Configuration) eval.getVariable(ACTION_PROTO_CONF);
@@ -147,7 +184,7 @@ public class DagELFunctions {
      * @return the value of the property, <code>null</code> if the property is undefined.
      */
     public static String wf_conf(String property) {
-        return getWorkflow().getWorkflowInstance().getConf().get(property);
+        return getWorkflowInstance().getConf().get(property);
     }
 
     /**
@@ -185,7 +222,7 @@ public class DagELFunctions {
      * @return the transition taken, <code>null</code> if the action has not completed yet.
      */
     public static String wf_transition(String actionName) {
-        return getWorkflow().getWorkflowInstance().getTransition(actionName);
+        return getWorkflowInstance().getTransition(actionName);
     }
 
     /**
@@ -195,7 +232,7 @@ public class DagELFunctions {
      *         ended in error.
      */
     public static String wf_lastErrorNode() {
-        return getWorkflow().getWorkflowInstance().getVar(LAST_ACTION_IN_ERROR);
+        return getWorkflowInstance().getVar(LAST_ACTION_IN_ERROR);
     }
 
     /**
@@ -205,7 +242,7 @@ public class DagELFunctions {
      * @return the error code for the action, <code>null</code> if the action has not ended in error.
      */
     public static String wf_errorCode(String actionName) {
-        return getWorkflow().getWorkflowInstance()
+        return getWorkflowInstance()
                 .getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_ERROR_CODE);
     }
 
@@ -216,7 +253,7 @@ public class DagELFunctions {
      * @return the error message for the action, <code>null</code> if the action has not ended in error.
      */
     public static String wf_errorMessage(String actionName) {
-        return getWorkflow().getWorkflowInstance()
+        return getWorkflowInstance()
                 .getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_ERROR_MESSAGE);
     }
 
@@ -230,28 +267,33 @@ public class DagELFunctions {
     }
 
     /**
-     * Return the action data for an action.
+     * Return the action data for an action. <p/> The action data is parsed once and kept as a transient variable of
+     * the loaded workflow instance, so all the EL evaluations using the instance share it.
      *
      * @param actionName action name.
      * @return value of the property.
      */
     @SuppressWarnings("unchecked")
     public static Map<String, String> wf_actionData(String actionName) {
-        ELEvaluator eval = ELEvaluator.getCurrent();
-        Properties props = (Properties) eval.getVariable(actionName + ACTION_ERROR_MESSAGE);
-
-        if (props == null) {
-            String data = getWorkflow().getWorkflowInstance()
-                    .getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_DATA);
+        WorkflowInstance instance = getWorkflowInstance();
+        Map<String, String> actionData =
+                (Map<String, String>) instance.getTransientVar(PARSED_ACTION_DATA + actionName);
+        if (actionData == null) {
+            String data = instance.getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_DATA);
             if (data != null) {
-                props = PropertiesUtils.stringToProperties(data);
+                Properties props = PropertiesUtils.stringToProperties(data);
+                actionData = new HashMap<String, String>();
+                for (String name : props.stringPropertyNames()) {
+                    actionData.put(name, props.getProperty(name));
+                }
+                actionData = Collections.unmodifiableMap(actionData);
             }
             else {
-                props = new Properties();
+                actionData = Collections.emptyMap();
             }
-            eval.setVariable(actionName + ACTION_ERROR_MESSAGE, props);
+            instance.setTransientVar(PARSED_ACTION_DATA + actionName, actionData);
         }
-        return (Map<String, String>) (Map) props;
+        return actionData;
     }
 
     /**
@@ -261,7 +303,7 @@ public class DagELFunctions {
      * @return the external ID of an action.
      */
     public static String wf_actionExternalId(String actionName) {
-        return getWorkflow().getWorkflowInstance()
+        return getWorkflowInstance()
                 .getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_EXTERNAL_ID);
     }
 
@@ -272,7 +314,7 @@ public class DagELFunctions {
      * @return the tracker URI of an action.
      */
     public static String wf_actionTrackerUri(String actionName) {
-        return getWorkflow().getWorkflowInstance()
+        return getWorkflowInstance()
                 .getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_TRACKER_URI);
     }
 
@@ -283,12 +325,12 @@ public class DagELFunctions {
      * @return the action external status.
      */
     public static String wf_actionExternalStatus(String actionName) {
-        return getWorkflow().getWorkflowInstance()
+        return getWorkflowInstance()
                 .getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + ACTION_EXTERNAL_STATUS);
     }
 
     public static String getActionVar(String actionName, String varName) {
-        return getWorkflow().getWorkflowInstance().getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + varName);
+        return getWorkflowInstance().getVar(actionName + WorkflowInstance.NODE_VAR_SEPARATOR + varName);
     }
 
 }
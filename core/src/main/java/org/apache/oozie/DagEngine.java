@@ -526,6 +526,28 @@ public class DagEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Return the info about a set of jobs using keyset paging.
+     * <p/>
+     * The jobs are ordered by creation time, newest first. Unlike offset paging, the cost of a page does not depend on
+     * how deep it is.
+     *
+     * @param filterStr job filter. Refer to the {@link org.apache.oozie.client.OozieClient} for the filter syntax.
+     * @param after id of the last job of the previous page, empty for the first page.
+     * @param len number of jobs to return.
+     * @return job info for all matching jobs, the jobs don't contain node action information.
+     * @throws DagEngineException thrown if the jobs info could not be obtained.
+     */
+    public WorkflowsInfo getJobs(String filterStr, String after, int len) throws DagEngineException {
+        Map<String, List<String>> filter = parseFilter(filterStr);
+        try {
+            return new JobsXCommand(filter, ParamChecker.notNull(after, "after"), len).call();
+        }
+        catch (CommandException dce) {
+            throw new DagEngineException(dce);
+        }
+    }
+
     /**
      * Return the workflow Job ID for an external ID. <p/> This is reverse lookup for recovery purposes.
      *
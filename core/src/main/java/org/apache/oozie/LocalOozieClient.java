@@ -289,6 +289,25 @@ public class LocalOozieClient extends OozieClient {
         }
     }
 
+    /**
+     * Return the info of the workflow jobs that match the filter using keyset paging.
+     *
+     * @param filter job filter. Refer to the {@link LocalOozieClient} for the filter syntax.
+     * @param after ID of the last job of the previous page, an empty string for the first page.
+     * @param len number of jobs to return.
+     * @return a list with the workflow jobs info, without node details.
+     * @throws org.apache.oozie.client.OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    @Override
+    public List<WorkflowJob> getJobsInfo(String filter, String after, int len) throws OozieClientException {
+        try {
+            return (List) dagEngine.getJobs(filter, after, len).getWorkflows();
+        }
+        catch (DagEngineException ex) {
+            throw new OozieClientException(ex.getErrorCode().toString(), ex);
+        }
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter. <p/> It returns the first 100 jobs that match the
      * filter.
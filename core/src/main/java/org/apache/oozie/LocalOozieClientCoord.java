@@ -387,6 +387,23 @@ public class LocalOozieClientCoord extends OozieClient {
         throw new OozieClientException(ErrorCode.E0301.toString(), "no-op");
     }
 
+    /**
+     * Return the info of the workflow jobs that match the filter.
+     * <p/>
+     * It is a NOP if called on the coordinator client.
+     *
+     * @param filter job filter.
+     * @param after ID of the last job of the previous page.
+     * @param len number of jobs to return.
+     * @return a list with the workflow jobs info, without node details.
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    @Override
+    @Deprecated
+    public List<WorkflowJob> getJobsInfo(String filter, String after, int len) throws OozieClientException {
+        throw new OozieClientException(ErrorCode.E0301.toString(), "no-op");
+    }
+
     /**
      * Return the info of the coordinator jobs that match the filter.
      *
@@ -415,6 +432,30 @@ public class LocalOozieClientCoord extends OozieClient {
         }
     }
 
+    /**
+     * Return the info of the coordinator jobs that match the filter using keyset paging.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param after ID of the last job of the previous page, an empty string for the first page.
+     * @param len number of jobs to return.
+     * @return a list with the coordinator jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    @Override
+    public List<CoordinatorJob> getCoordJobsInfo(String filter, String after, int len) throws OozieClientException {
+        try {
+            CoordinatorJobInfo info = coordEngine.getCoordJobs(filter, after, len);
+            List<CoordinatorJob> jobs = new ArrayList<CoordinatorJob>();
+            for (CoordinatorJobBean jobBean : info.getCoordJobs()) {
+                jobs.add(jobBean);
+            }
+            return jobs;
+        }
+        catch (CoordinatorEngineException ex) {
+            throw new OozieClientException(ex.getErrorCode().toString(), ex);
+        }
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter.
      * <p/>
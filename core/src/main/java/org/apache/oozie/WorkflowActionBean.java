@@ -18,8 +18,13 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
@@ -27,6 +32,7 @@ import javax.persistence.Entity;
 import javax.persistence.Lob;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PostLoad;
 import javax.persistence.Transient;
 
 import org.apache.hadoop.io.Writable;
@@ -64,6 +70,10 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
     @NamedQuery(name = "GET_RUNNING_ACTIONS", query = "select OBJECT(a) from WorkflowActionBean a where a.pending = 1 AND a.status = 'RUNNING' AND a.lastCheckTimestamp < :lastCheckTime"),
 
+    @NamedQuery(name = "GET_RUNNING_ACTION_IDS", query = "select a.id from WorkflowActionBean a where a.pending = 1 AND a.status = 'RUNNING' AND a.lastCheckTimestamp < :lastCheckTime AND a.id > :id order by a.id"),
+
+    @NamedQuery(name = "GET_PENDING_ACTIONS_COLUMNS", query = "select a.id, a.wfId, a.type, a.status, a.pendingAgeTimestamp from WorkflowActionBean a where a.pending = 1 AND a.pendingAgeTimestamp < :pendingAge AND a.status <> 'RUNNING' AND a.id > :id order by a.id"),
+
     @NamedQuery(name = "GET_RETRY_MANUAL_ACTIONS", query = "select OBJECT(a) from WorkflowActionBean a where a.wfId = :wfId AND (a.status = 'START_RETRY' OR a.status = 'START_MANUAL' OR a.status = 'END_RETRY' OR a.status = 'END_MANUAL')") })
 
 public class WorkflowActionBean extends JsonWorkflowAction implements Writable {
@@ -120,6 +130,14 @@ public class WorkflowActionBean extends JsonWorkflowAction implements Writable {
     @Lob
     private String slaXml = null;
 
+    /**
+     * LOB fields, only written by an update when modified.
+     */
+    private static final List<String> LOB_FIELDS = Arrays.asList("conf", "data", "errorMessage", "slaXml");
+
+    @Transient
+    private Set<String> dirtyLobFields = new HashSet<String>(LOB_FIELDS);
+
     /**
      * Default constructor.
      */
@@ -387,6 +405,25 @@ public class WorkflowActionBean extends JsonWorkflowAction implements Writable {
 
     public void setSlaXml(String slaXml) {
         this.slaXml = slaXml;
+        dirtyLobFields.add("slaXml");
+    }
+
+    @Override
+    public void setConf(String conf) {
+        super.setConf(conf);
+        dirtyLobFields.add("conf");
+    }
+
+    @Override
+    public void setData(String data) {
+        super.setData(data);
+        dirtyLobFields.add("data");
+    }
+
+    @Override
+    public void setErrorInfo(String errorCode, String errorMessage) {
+        super.setErrorInfo(errorCode, errorMessage);
+        dirtyLobFields.add("errorMessage");
     }
 
     @Override
@@ -541,4 +578,24 @@ public class WorkflowActionBean extends JsonWorkflowAction implements Writable {
         this.endTimestamp = DateUtils.convertDateToTimestamp(endTime);
     }
 
+    /**
+     * Mark all the LOB fields as not modified, the bean has been loaded from the database or its LOB fields have been
+     * copied from a bean loaded from the database.
+     */
+    @PostLoad
+    public void clearDirtyLobFields() {
+        dirtyLobFields.clear();
+    }
+
+    /**
+     * Return the LOB fields modified since the bean was loaded from the database.
+     * <p/>
+     * All the LOB fields are returned for a bean that has not been loaded from the database.
+     *
+     * @return the modified LOB fields.
+     */
+    public Set<String> getDirtyLobFields() {
+        return Collections.unmodifiableSet(dirtyLobFields);
+    }
+
 }
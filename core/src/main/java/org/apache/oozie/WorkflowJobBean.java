@@ -25,7 +25,12 @@ import org.apache.hadoop.io.Writable;
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.DataOutput;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.persistence.Entity;
 import javax.persistence.Column;
@@ -33,6 +38,8 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Basic;
 import javax.persistence.Lob;
+import javax.persistence.PostLoad;
+import javax.persistence.Transient;
 
 import java.sql.Timestamp;
 
@@ -60,6 +67,8 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
     @NamedQuery(name = "GET_WORKFLOW_ID_FOR_EXTERNAL_ID", query = "select  w.id from WorkflowJobBean w where w.externalId = :externalId"),
 
+    @NamedQuery(name = "GET_WORKFLOWS_OWNER", query = "select w.id, w.user, w.group from WorkflowJobBean w where w.id IN :ids"),
+
     @NamedQuery(name = "GET_WORKFLOWS_COUNT_WITH_STATUS", query = "select count(w) from WorkflowJobBean w where w.status = :status"),
 
     @NamedQuery(name = "GET_WORKFLOWS_COUNT_WITH_STATUS_IN_LAST_N_SECS", query = "select count(w) from WorkflowJobBean w where w.status = :status and w.lastModifiedTimestamp > :lastModTime")
@@ -117,6 +126,14 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
     @Lob
     private String slaXml = null;
 
+    /**
+     * LOB fields, only written by an update when modified.
+     */
+    private static final List<String> LOB_FIELDS = Arrays.asList("conf", "protoActionConf", "authToken", "wfInstance", "slaXml");
+
+    @Transient
+    private Set<String> dirtyLobFields = new HashSet<String>(LOB_FIELDS);
+
     /**
      * Default constructor.
      */
@@ -181,9 +198,9 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
         setUser(WritableUtils.readStr(dataInput));
         setGroup(WritableUtils.readStr(dataInput));
         setRun(dataInput.readInt());
-        authToken = WritableUtils.readStr(dataInput);
+        setAuthToken(WritableUtils.readStr(dataInput));
         logToken = WritableUtils.readStr(dataInput);
-        protoActionConf = WritableUtils.readStr(dataInput);
+        setProtoActionConf(WritableUtils.readStr(dataInput));
         setExternalId(getExternalId());
         setProtoActionConf(protoActionConf);
     }
@@ -194,6 +211,7 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
 
     public void setAuthToken(String authToken) {
         this.authToken = authToken;
+        dirtyLobFields.add("authToken");
     }
 
     public String getLogToken() {
@@ -210,6 +228,7 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
 
     public void setSlaXml(String slaXml) {
         this.slaXml = slaXml;
+        dirtyLobFields.add("slaXml");
     }
 
     public WorkflowInstance getWorkflowInstance() {
@@ -226,10 +245,12 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
 
     public void setWfInstance(byte[] wfInstance) {
         this.wfInstance = wfInstance;
+        dirtyLobFields.add("wfInstance");
     }
 
     public void setWfInstance(WorkflowInstance wfInstance) {
         this.wfInstance = WritableUtils.toByteArray((LiteWorkflowInstance) wfInstance);
+        dirtyLobFields.add("wfInstance");
     }
 
     public String getProtoActionConf() {
@@ -238,6 +259,7 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
 
     public void setProtoActionConf(String protoActionConf) {
         this.protoActionConf = protoActionConf;
+        dirtyLobFields.add("protoActionConf");
     }
 
     public String getprotoActionConf() {
@@ -268,6 +290,26 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
         return endTimestamp;
     }
 
+    /**
+     * Mark all the LOB fields as not modified, the bean has been loaded from the database or its LOB fields have been
+     * copied from a bean loaded from the database.
+     */
+    @PostLoad
+    public void clearDirtyLobFields() {
+        dirtyLobFields.clear();
+    }
+
+    /**
+     * Return the LOB fields modified since the bean was loaded from the database.
+     * <p/>
+     * All the LOB fields are returned for a bean that has not been loaded from the database.
+     *
+     * @return the modified LOB fields.
+     */
+    public Set<String> getDirtyLobFields() {
+        return Collections.unmodifiableSet(dirtyLobFields);
+    }
+
     @Override
     public void setAppName(String val) {
         super.setAppName(val);
@@ -281,6 +323,7 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
     @Override
     public void setConf(String val) {
         super.setConf(val);
+        dirtyLobFields.add("conf");
     }
 
     @Override
@@ -16,15 +16,10 @@ package org.apache.oozie.action.email;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
 
-import javax.mail.Authenticator;
-import javax.mail.Message;
 import javax.mail.Message.RecipientType;
 import javax.mail.MessagingException;
 import javax.mail.NoSuchProviderException;
-import javax.mail.PasswordAuthentication;
-import javax.mail.Session;
 import javax.mail.Transport;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
@@ -34,13 +29,16 @@ import org.apache.oozie.action.ActionExecutor;
 import org.apache.oozie.action.ActionExecutorException;
 import org.apache.oozie.action.ActionExecutorException.ErrorType;
 import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.service.EmailService;
+import org.apache.oozie.service.Services;
 import org.apache.oozie.util.XmlUtils;
 import org.jdom.Element;
 import org.jdom.Namespace;
 
 /**
  * Email action executor. It takes to, cc addresses along with a subject and body and sends
- * out an email.
+ * out an email. <p/> If the {@link EmailService} is available the email is queued in its outbox and the action
+ * completes once the message has been delivered, otherwise the email is sent synchronously.
  */
 public class EmailActionExecutor extends ActionExecutor {
 
@@ -64,23 +62,32 @@ public class EmailActionExecutor extends ActionExecutor {
         try {
             context.setStartData("-", "-", "-");
             Element actionXml = XmlUtils.parseXml(action.getConf());
-            validateAndMail(context, actionXml);
-            context.setExecutionData("OK", null);
+            EmailService emailService = Services.get().get(EmailService.class);
+            if (emailService == null) {
+                validateAndMail(context, actionXml);
+                context.setExecutionData("OK", null);
+            }
+            else {
+                emailService.send(action.getId(), validateAndCreate(actionXml));
+                context.setExternalStatus(EmailService.STATUS_PENDING);
+            }
         }
         catch (Exception ex) {
             throw convertException(ex);
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected void validateAndMail(Context context, Element element) throws ActionExecutorException {
+        transport(validateAndCreate(element));
+    }
+
+    protected MimeMessage validateAndCreate(Element element) throws ActionExecutorException {
         // The XSD does the min/max occurrence validation for us.
         Namespace ns = Namespace.getNamespace("uri:oozie:email-action:0.1");
         String tos[] = new String[0];
         String ccs[] = new String[0];
         String subject = "";
         String body = "";
-        Element child = null;
 
         // <to> - One ought to exist.
         String text = element.getChildTextTrim(TO, ns);
@@ -103,34 +110,15 @@ public class EmailActionExecutor extends ActionExecutor {
         // <body> - One ought to exist.
         body = element.getChildTextTrim(BOD, ns);
 
-        // All good - lets try to mail!
-        email(context, tos, ccs, subject, body);
+        // All good - lets build the message!
+        return createMessage(tos, ccs, subject, body);
     }
 
-    protected void email(Context context, String[] to, String[] cc, String subject, String body) throws ActionExecutorException {
+    protected MimeMessage createMessage(String[] to, String[] cc, String subject, String body) throws ActionExecutorException {
         // Get mailing server details.
-        String smtpHost = getOozieConf().get("oozie.email.smtp.host");
-        String smtpPort = getOozieConf().get("oozie.email.smtp.port", "25");
-        Boolean smtpAuth = getOozieConf().getBoolean("oozie.email.smtp.auth", false);
-        String smtpUser = getOozieConf().get("oozie.email.smtp.username", "");
-        String smtpPassword = getOozieConf().get("oozie.email.smtp.password", "");
-        String fromAddr = getOozieConf().get("oozie.email.from.address");
-
-        Properties properties = new Properties();
-        properties.setProperty("mail.smtp.host", smtpHost);
-        properties.setProperty("mail.smtp.port", smtpPort);
-        properties.setProperty("mail.smtp.auth", smtpAuth.toString());
-
-        Session session;
-        // Do not use default instance (i.e. Session.getDefaultInstance)
-        // (cause it may lead to issues when used second time).
-        if (!smtpAuth) {
-            session = Session.getInstance(properties);
-        } else {
-            session = Session.getInstance(properties, new JavaMailAuthenticator(smtpUser, smtpPassword));
-        }
+        String fromAddr = getOozieConf().get(EmailService.CONF_FROM_ADDRESS);
 
-        Message message = new MimeMessage(session);
+        MimeMessage message = new MimeMessage(EmailService.createSession(getOozieConf()));
         InternetAddress from;
         List<InternetAddress> toAddrs = new ArrayList<InternetAddress>(to.length);
         List<InternetAddress> ccAddrs = new ArrayList<InternetAddress>(cc.length);
@@ -160,12 +148,16 @@ public class EmailActionExecutor extends ActionExecutor {
             // Set subject, and plain-text body.
             message.setSubject(subject);
             message.setContent(body, "text/plain");
+            message.saveChanges();
         } catch (AddressException e) {
             throw new ActionExecutorException(ErrorType.ERROR, "EM004", "Bad address format in <to> or <cc>.", e);
         } catch (MessagingException e) {
             throw new ActionExecutorException(ErrorType.ERROR, "EM005", "An error occured while adding recipients.", e);
         }
+        return message;
+    }
 
+    protected void transport(MimeMessage message) throws ActionExecutorException {
         try {
             // Send over SMTP Transport
             // (Session+Message has adequate details.)
@@ -182,39 +174,47 @@ public class EmailActionExecutor extends ActionExecutor {
         String externalStatus = action.getExternalStatus();
         WorkflowAction.Status status = externalStatus.equals("OK") ? WorkflowAction.Status.OK :
                                        WorkflowAction.Status.ERROR;
+        EmailService emailService = Services.get().get(EmailService.class);
+        if (emailService != null) {
+            emailService.clearStatus(action.getId());
+        }
         context.setEndData(status, getActionSignal(status));
     }
 
     @Override
     public void check(Context context, WorkflowAction action)
             throws ActionExecutorException {
-
+        EmailService emailService = Services.get().get(EmailService.class);
+        if (emailService == null) {
+            context.setErrorInfo("EM008", "The email message of the action cannot be delivered, the EmailService is not enabled.");
+            context.setExecutionData("ERROR", null);
+            return;
+        }
+        // The delivery status is kept until the action ends, so a check whose commit fails can be done again.
+        String status = emailService.getStatus(action.getId());
+        if (EmailService.STATUS_OK.equals(status)) {
+            context.setExecutionData("OK", null);
+        }
+        else if (EmailService.STATUS_ERROR.equals(status)) {
+            context.setErrorInfo("EM007", "Encountered an error while sending the email message over SMTP: "
+                    + emailService.getError(action.getId()));
+            context.setExecutionData("ERROR", null);
+        }
+        // Otherwise still in the outbox, or its status is being written, check again later.
     }
 
     @Override
     public void kill(Context context, WorkflowAction action)
             throws ActionExecutorException {
-
+        EmailService emailService = Services.get().get(EmailService.class);
+        if (emailService != null) {
+            emailService.cancel(action.getId());
+        }
+        context.setEndData(WorkflowAction.Status.KILLED, getActionSignal(WorkflowAction.Status.KILLED));
     }
 
     @Override
     public boolean isCompleted(String externalStatus) {
-        return true;
-    }
-
-    private static class JavaMailAuthenticator extends Authenticator {
-
-        String user;
-        String password;
-
-        public JavaMailAuthenticator(String user, String password) {
-            this.user = user;
-            this.password = password;
-        }
-
-        @Override
-        protected PasswordAuthentication getPasswordAuthentication() {
-           return new PasswordAuthentication(user, password);
-        }
+        return !EmailService.STATUS_PENDING.equals(externalStatus);
     }
-}
\ No newline at end of file
+}
@@ -40,7 +40,7 @@ public class HadoopELFunctions {
 
     @SuppressWarnings("unchecked")
     public static Map<String, Map<String, Long>> hadoop_counters(String nodeName) throws ELEvaluationException {
-        WorkflowInstance instance = DagELFunctions.getWorkflow().getWorkflowInstance();
+        WorkflowInstance instance = DagELFunctions.getWorkflowInstance();
         Object obj = instance.getTransientVar(nodeName + WorkflowInstance.NODE_VAR_SEPARATOR + HADOOP_COUNTERS);
         Map<String, Map<String, Long>> counters = (Map<String, Map<String, Long>>) obj;
         if (counters == null) {
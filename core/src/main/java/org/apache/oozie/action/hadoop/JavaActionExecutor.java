@@ -38,6 +38,7 @@ import org.apache.hadoop.filecache.DistributedCache;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.AccessControlException;
+import org.apache.hadoop.mapred.Counters;
 import org.apache.hadoop.mapred.JobClient;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.JobID;
@@ -50,6 +51,7 @@ import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.service.HadoopAccessorException;
 import org.apache.oozie.service.HadoopAccessorService;
+import org.apache.oozie.service.LauncherStatusService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.WorkflowAppService;
 import org.apache.oozie.servlet.CallbackServlet;
@@ -781,15 +783,30 @@ public class JavaActionExecutor extends ActionExecutor {
 
     @Override
     public void check(Context context, WorkflowAction action) throws ActionExecutorException {
+        LauncherStatusService statusService = Services.get().get(LauncherStatusService.class);
+        String user = context.getWorkflow().getUser();
+        String group = context.getWorkflow().getGroup();
+        JobConf jobConf = null;
         JobClient jobClient = null;
         boolean exception = false;
         try {
-            Element actionXml = XmlUtils.parseXml(action.getConf());
-            FileSystem actionFs = getActionFileSystem(context, actionXml);
+            Element actionXml = XmlUtils.parseXmlCached(action.getConf());
             Configuration conf = createBaseHadoopConf(context, actionXml);
-            JobConf jobConf = new JobConf();
+            jobConf = new JobConf();
             XConfiguration.copy(conf, jobConf);
-            jobClient = createJobClient(context, jobConf);
+            if (statusService != null) {
+                if (statusService.isRunning(user, group, jobConf, action.getExternalId())) {
+                    context.setExternalStatus(RUNNING);
+                    XLog.getLog(getClass()).info(XLog.STD, "checking action, external ID [{0}] status [{1}]",
+                            action.getExternalId(), action.getExternalStatus());
+                    return;
+                }
+                jobClient = statusService.getJobClient(user, group, jobConf);
+            }
+            else {
+                jobClient = createJobClient(context, jobConf);
+            }
+            FileSystem actionFs = getActionFileSystem(context, actionXml);
             RunningJob runningJob = jobClient.getJob(JobID.forName(action.getExternalId()));
             if (runningJob == null) {
                 context.setExternalStatus(FAILED);
@@ -801,9 +818,9 @@ public class JavaActionExecutor extends ActionExecutor {
             if (runningJob.isComplete()) {
                 Path actionDir = context.getActionDir();
 
-                String user = context.getWorkflow().getUser();
-                String group = context.getWorkflow().getGroup();
-                if (LauncherMapper.hasIdSwap(runningJob, user, group, actionDir)) {
+                // counters are fetched once per job, each call is a round trip to the JobTracker
+                Counters counters = runningJob.getCounters();
+                if (LauncherMapper.hasIdSwap(counters, user, group, actionDir)) {
                     String launcherId = action.getExternalId();
                     Path idSwapPath = LauncherMapper.getIdSwapPath(context.getActionDir());
                     InputStream is = actionFs.open(idSwapPath);
@@ -819,6 +836,7 @@ public class JavaActionExecutor extends ActionExecutor {
                                 action.getId());
                     }
 
+                    counters = null;
                     context.setStartData(newId, action.getTrackerUri(), runningJob.getTrackingURL());
                     XLog.getLog(getClass()).info(XLog.STD, "External ID swap, old ID [{0}] new ID [{1}]", launcherId,
                             newId);
@@ -826,11 +844,14 @@ public class JavaActionExecutor extends ActionExecutor {
                 if (runningJob.isComplete()) {
                     XLog.getLog(getClass()).info(XLog.STD, "action completed, external ID [{0}]",
                             action.getExternalId());
-                    if (runningJob.isSuccessful() && LauncherMapper.isMainSuccessful(runningJob)) {
+                    if (counters == null) {
+                        counters = runningJob.getCounters();
+                    }
+                    if (runningJob.isSuccessful() && LauncherMapper.isMainSuccessful(counters)) {
                         Properties props = null;
                         if (getCaptureOutput(action)) {
                             props = new Properties();
-                            if (LauncherMapper.hasOutputData(runningJob)) {
+                            if (LauncherMapper.hasOutputData(counters)) {
                                 Path actionOutput = LauncherMapper.getOutputDataPath(context.getActionDir());
                                 InputStream is = actionFs.open(actionOutput);
                                 BufferedReader reader = new BufferedReader(new InputStreamReader(is));
@@ -887,10 +908,15 @@ public class JavaActionExecutor extends ActionExecutor {
         catch (Exception ex) {
             XLog.getLog(getClass()).warn("Exception in check(). Message[{0}]", ex.getMessage(), ex);
             exception = true;
+            if (statusService != null && jobClient != null && ex instanceof IOException) {
+                // the shared JobClient may be broken, the next check creates a new one
+                statusService.discardJobClient(user, group, jobConf);
+            }
             throw convertException(ex);
         }
         finally {
-            if (jobClient != null) {
+            // shared JobClients are closed by the launcher status service
+            if (jobClient != null && statusService == null) {
                 try {
                     jobClient.close();
                 }
@@ -907,7 +933,7 @@ public class JavaActionExecutor extends ActionExecutor {
     }
 
     protected boolean getCaptureOutput(WorkflowAction action) throws JDOMException {
-        Element eConf = XmlUtils.parseXml(action.getConf());
+        Element eConf = XmlUtils.parseXmlCached(action.getConf());
         Namespace ns = eConf.getNamespace();
         Element captureOutput = eConf.getChild("capture-output", ns);
         return captureOutput != null;
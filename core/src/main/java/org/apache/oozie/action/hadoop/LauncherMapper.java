@@ -198,20 +198,36 @@ public class LauncherMapper<K1, V1, K2, V2> implements Mapper<K1, V1, K2, V2>, R
     public static boolean isMainSuccessful(RunningJob runningJob) throws IOException {
         boolean succeeded = runningJob.isSuccessful();
         if (succeeded) {
-            Counters counters = runningJob.getCounters();
-            if (counters != null) {
-                Counters.Group group = counters.getGroup(COUNTER_GROUP);
-                if (group != null) {
-                    succeeded = group.getCounter(COUNTER_LAUNCHER_ERROR) == 0;
-                }
+            succeeded = isMainSuccessful(runningJob.getCounters());
+        }
+        return succeeded;
+    }
+
+    /**
+     * @param counters counters of a successful launcher job, fetched once by the caller
+     * @return <code>false</code> if the launcher reported an error in the counters
+     */
+    public static boolean isMainSuccessful(Counters counters) {
+        boolean succeeded = true;
+        if (counters != null) {
+            Counters.Group group = counters.getGroup(COUNTER_GROUP);
+            if (group != null) {
+                succeeded = group.getCounter(COUNTER_LAUNCHER_ERROR) == 0;
             }
         }
         return succeeded;
     }
 
     public static boolean hasOutputData(RunningJob runningJob) throws IOException {
+        return hasOutputData(runningJob.getCounters());
+    }
+
+    /**
+     * @param counters counters of the launcher job, fetched once by the caller
+     * @return <code>true</code> if the launcher reported output data in the counters
+     */
+    public static boolean hasOutputData(Counters counters) {
         boolean output = false;
-        Counters counters = runningJob.getCounters();
         if (counters != null) {
             Counters.Group group = counters.getGroup(COUNTER_GROUP);
             if (group != null) {
@@ -249,11 +265,24 @@ public class LauncherMapper<K1, V1, K2, V2> implements Mapper<K1, V1, K2, V2>, R
      */
     public static boolean hasIdSwap(RunningJob runningJob, String user, String group, Path actionDir)
             throws IOException, HadoopAccessorException {
+        return hasIdSwap(runningJob.getCounters(), user, group, actionDir);
+    }
+
+    /**
+     * @param counters counters of the launcher job, fetched once by the caller
+     * @param user
+     * @param group
+     * @param actionDir
+     * @return
+     * @throws IOException
+     * @throws HadoopAccessorException
+     */
+    public static boolean hasIdSwap(Counters counters, String user, String group, Path actionDir)
+            throws IOException, HadoopAccessorException {
         boolean swap = false;
 
         XLog log = XLog.getLog("org.apache.oozie.action.hadoop.LauncherMapper");
 
-        Counters counters = runningJob.getCounters();
         if (counters != null) {
             Counters.Group counterGroup = counters.getGroup(COUNTER_GROUP);
             if (counterGroup != null) {
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.client.rest;
+
+import org.json.simple.JSONAware;
+import org.json.simple.JSONStreamAware;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * JSON array of beans that is serialized one element at a time. <p/> Unlike a <code>JSONArray</code> built from
+ * <code>toJSONObject()</code> calls, only the JSON tree of the element being written is held in memory. Beans that are
+ * themselves {@link JSONStreamAware} are streamed directly.
+ */
+public class JsonBeanArray implements JSONStreamAware, JSONAware {
+    private List<? extends JsonBean> beans;
+
+    /**
+     * Create a streaming JSON array for a list of beans.
+     *
+     * @param beans beans to serialize, <code>null</code> is serialized as an empty array.
+     */
+    public JsonBeanArray(List<? extends JsonBean> beans) {
+        this.beans = beans;
+    }
+
+    /**
+     * Write the JSON array to a writer.
+     *
+     * @param out writer to write the array to.
+     * @throws IOException thrown if the array could not be written.
+     */
+    public void writeJSONString(Writer out) throws IOException {
+        out.write('[');
+        if (beans != null) {
+            boolean first = true;
+            for (JsonBean bean : beans) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                if (bean == null) {
+                    out.write("null");
+                }
+                else if (bean instanceof JSONStreamAware) {
+                    ((JSONStreamAware) bean).writeJSONString(out);
+                }
+                else {
+                    bean.toJSONObject().writeJSONString(out);
+                }
+            }
+        }
+        out.write(']');
+    }
+
+    /**
+     * Return the JSON array as a string.
+     *
+     * @return the JSON array as a string.
+     */
+    public String toJSONString() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeJSONString(writer);
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return writer.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJSONString();
+    }
+
+}
@@ -15,6 +15,8 @@
 
 package org.apache.oozie.client.rest;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -35,11 +37,12 @@ import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.Job;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
 
 @Entity
 @Table(name = "BUNDLE_JOBS")
 @DiscriminatorColumn(name = "bean_type", discriminatorType = DiscriminatorType.STRING)
-public class JsonBundleJob implements BundleJob, JsonBean {
+public class JsonBundleJob implements BundleJob, JsonBean, JSONStreamAware {
     @Id
     private String id;
 
@@ -136,6 +139,22 @@ public class JsonBundleJob implements BundleJob, JsonBean {
     @Override
     @SuppressWarnings("unchecked")
     public JSONObject toJSONObject() {
+        return toJSONObject(JsonCoordinatorJob.toJSONArray(coordJobs));
+    }
+
+    /**
+     * Write the JSON object for the bean to a writer. <p/> The coordinator jobs are streamed one at a time instead of
+     * being converted into a <code>JSONArray</code> first.
+     *
+     * @param out writer to write the JSON object to.
+     * @throws IOException thrown if the JSON object could not be written.
+     */
+    public void writeJSONString(Writer out) throws IOException {
+        toJSONObject(new JsonBeanArray(coordJobs)).writeJSONString(out);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject toJSONObject(Object coordJobsJson) {
         JSONObject json = new JSONObject();
         json.put(JsonTags.BUNDLE_JOB_PATH, appPath);
         json.put(JsonTags.BUNDLE_JOB_NAME, appName);
@@ -153,7 +172,7 @@ public class JsonBundleJob implements BundleJob, JsonBean {
         json.put(JsonTags.BUNDLE_JOB_USER, getUser());
         json.put(JsonTags.BUNDLE_JOB_GROUP, getGroup());
         json.put(JsonTags.BUNDLE_JOB_CONSOLE_URL, getConsoleUrl());
-        json.put(JsonTags.BUNDLE_COORDINATOR_JOBS, JsonCoordinatorJob.toJSONArray(coordJobs));
+        json.put(JsonTags.BUNDLE_COORDINATOR_JOBS, coordJobsJson);
         json.put(JsonTags.TO_STRING, toString());
 
         return json;
@@ -14,6 +14,8 @@
  */
 package org.apache.oozie.client.rest;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -33,11 +35,12 @@ import org.apache.oozie.client.CoordinatorAction;
 import org.apache.oozie.client.CoordinatorJob;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
 
 @Entity
 @Table(name = "COORD_JOBS")
 @DiscriminatorColumn(name = "bean_type", discriminatorType = DiscriminatorType.STRING)
-public class JsonCoordinatorJob implements CoordinatorJob, JsonBean {
+public class JsonCoordinatorJob implements CoordinatorJob, JsonBean, JSONStreamAware {
 
     @Id
     private String id;
@@ -134,6 +137,22 @@ public class JsonCoordinatorJob implements CoordinatorJob, JsonBean {
 
     @SuppressWarnings("unchecked")
     public JSONObject toJSONObject() {
+        return toJSONObject(JsonCoordinatorAction.toJSONArray(actions));
+    }
+
+    /**
+     * Write the JSON object for the bean to a writer. <p/> The actions are streamed one at a time instead of being
+     * converted into a <code>JSONArray</code> first.
+     *
+     * @param out writer to write the JSON object to.
+     * @throws IOException thrown if the JSON object could not be written.
+     */
+    public void writeJSONString(Writer out) throws IOException {
+        toJSONObject(new JsonBeanArray(actions)).writeJSONString(out);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject toJSONObject(Object actionsJson) {
         JSONObject json = new JSONObject();
         json.put(JsonTags.COORDINATOR_JOB_PATH, getAppPath());
         json.put(JsonTags.COORDINATOR_JOB_NAME, getAppName());
@@ -156,7 +175,7 @@ public class JsonCoordinatorJob implements CoordinatorJob, JsonBean {
         json.put(JsonTags.COORDINATOR_JOB_GROUP, getGroup());
         json.put(JsonTags.COORDINATOR_JOB_CONSOLE_URL, getConsoleUrl());
         json.put(JsonTags.COORDINATOR_JOB_MAT_THROTTLING, getMatThrottling());
-        json.put(JsonTags.COORDINATOR_ACTIONS, JsonCoordinatorAction.toJSONArray(actions));
+        json.put(JsonTags.COORDINATOR_ACTIONS, actionsJson);
         json.put(JsonTags.TO_STRING,toString());
 
         return json;
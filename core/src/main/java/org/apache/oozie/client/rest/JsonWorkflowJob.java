@@ -18,7 +18,10 @@ import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -34,7 +37,7 @@ import javax.persistence.*;
 @Table(name = "WF_JOBS")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "bean_type", discriminatorType = DiscriminatorType.STRING)
-public class JsonWorkflowJob implements WorkflowJob, JsonBean {
+public class JsonWorkflowJob implements WorkflowJob, JsonBean, JSONStreamAware {
 
     @Id
     private String id;
@@ -97,6 +100,22 @@ public class JsonWorkflowJob implements WorkflowJob, JsonBean {
 
     @SuppressWarnings("unchecked")
     public JSONObject toJSONObject() {
+        return toJSONObject(JsonWorkflowAction.toJSONArray(actions));
+    }
+
+    /**
+     * Write the JSON object for the bean to a writer. <p/> The actions are streamed one at a time instead of being
+     * converted into a <code>JSONArray</code> first.
+     *
+     * @param out writer to write the JSON object to.
+     * @throws IOException thrown if the JSON object could not be written.
+     */
+    public void writeJSONString(Writer out) throws IOException {
+        toJSONObject(new JsonBeanArray(actions)).writeJSONString(out);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject toJSONObject(Object actionsJson) {
         JSONObject json = new JSONObject();
         json.put(JsonTags.WORKFLOW_APP_PATH, getAppPath());
         json.put(JsonTags.WORKFLOW_APP_NAME, getAppName());
@@ -113,7 +132,7 @@ public class JsonWorkflowJob implements WorkflowJob, JsonBean {
         json.put(JsonTags.WORKFLOW_GROUP, getGroup());
         json.put(JsonTags.WORKFLOW_RUN, (long) getRun());
         json.put(JsonTags.WORKFLOW_CONSOLE_URL, getConsoleUrl());
-        json.put(JsonTags.WORKFLOW_ACTIONS, JsonWorkflowAction.toJSONArray(actions));
+        json.put(JsonTags.WORKFLOW_ACTIONS, actionsJson);
         json.put(JsonTags.TO_STRING, toString());
         return json;
     }
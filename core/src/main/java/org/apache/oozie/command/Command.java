@@ -570,7 +570,7 @@ public abstract class Command<T, S extends Store> implements XCallable<T> {
             XLog.getLog(getClass()).warn("lock(): Id is null or empty :" + id + ":");
             return false;
         }
-        LockToken token = Services.get().get(MemoryLocksService.class).getWriteLock(id, LOCK_TIMEOUT);
+        LockToken token = Services.get().get(MemoryLocksService.class).getWriteLock(id, LOCK_TIMEOUT, getName());
         if (token != null) {
             locks.add(token);
             return true;
@@ -34,6 +34,7 @@ public class BundleJobsXCommand extends XCommand<BundleJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String after;
 
     /**
      * The constructor for BundleJobsXCommand
@@ -49,6 +50,18 @@ public class BundleJobsXCommand extends XCommand<BundleJobInfo> {
         this.len = length;
     }
 
+    /**
+     * The constructor for BundleJobsXCommand using keyset paging
+     *
+     * @param filter the filter string
+     * @param after id of the last job of the previous page, empty for the first page
+     * @param length total length to get
+     */
+    public BundleJobsXCommand(Map<String, List<String>> filter, String after, int length) {
+        this(filter, 1, length);
+        this.after = after;
+    }
+
     /* (non-Javadoc)
      * @see org.apache.oozie.command.XCommand#isLockRequired()
      */
@@ -88,7 +101,10 @@ public class BundleJobsXCommand extends XCommand<BundleJobInfo> {
             JPAService jpaService = Services.get().get(JPAService.class);
             BundleJobInfo bundleInfo = null;
             if (jpaService != null) {
-                bundleInfo = jpaService.execute(new BundleJobInfoGetJPAExecutor(filter, start, len));
+                BundleJobInfoGetJPAExecutor executor = (after != null)
+                        ? new BundleJobInfoGetJPAExecutor(filter, after, len)
+                        : new BundleJobInfoGetJPAExecutor(filter, start, len);
+                bundleInfo = jpaService.execute(executor);
             }
             else {
                 LOG.error(ErrorCode.E0610);
@@ -27,8 +27,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Validator;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -369,9 +367,8 @@ public class BundleSubmitXCommand extends SubmitTransitionXCommand {
      */
     private void validateXml(String xmlContent) throws BundleJobException {
         javax.xml.validation.Schema schema = Services.get().get(SchemaService.class).getSchema(SchemaName.BUNDLE);
-        Validator validator = schema.newValidator();
         try {
-            validator.validate(new StreamSource(new StringReader(xmlContent)));
+            XmlUtils.validateXml(schema, xmlContent);
         }
         catch (SAXException ex) {
             LOG.warn("SAXException :", ex);
@@ -16,6 +16,7 @@ package org.apache.oozie.command.coord;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -34,6 +35,7 @@ import org.apache.oozie.coord.CoordELFunctions;
 import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.service.DependencyAvailabilityService;
 import org.apache.oozie.service.HadoopAccessorException;
 import org.apache.oozie.service.HadoopAccessorService;
 import org.apache.oozie.service.JPAService;
@@ -54,14 +56,29 @@ import org.jdom.Element;
 public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
 
     private final String actionId;
+    private final boolean notified;
     private final int COMMAND_REQUEUE_INTERVAL = 60000; // 1 minute
     private CoordinatorActionBean coordAction = null;
     private CoordinatorJobBean coordJob = null;
     private JPAService jpaService = null;
 
     public CoordActionInputCheckXCommand(String actionId) {
+        this(actionId, false);
+    }
+
+    /**
+     * Create an input check command.
+     * <p/>
+     * Input checks queued because a missing path appeared have their own key, so they are not discarded as duplicates
+     * of the input check the action has already requeued.
+     *
+     * @param actionId coordinator action ID.
+     * @param notified indicates if the input check is queued because a missing path appeared.
+     */
+    public CoordActionInputCheckXCommand(String actionId, boolean notified) {
         super("coord_action_input", "coord_action_input", 1);
         this.actionId = ParamChecker.notEmpty(actionId, "actionId");
+        this.notified = notified;
     }
 
     /* (non-Javadoc)
@@ -152,7 +169,7 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
      */
     protected boolean checkInput(StringBuilder actionXml, StringBuilder existList, StringBuilder nonExistList,
             Configuration conf) throws Exception {
-        Element eAction = XmlUtils.parseXml(actionXml.toString());
+        Element eAction = XmlUtils.parseXmlCached(actionXml.toString());
         boolean allExist = checkResolvedUris(eAction, existList, nonExistList, conf);
         if (allExist) {
             LOG.debug("[" + actionId + "]::ActionInputCheck:: Checking Latest/future");
@@ -348,11 +365,23 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
         }
 
         nonExistList.delete(0, nonExistList.length());
+        DependencyAvailabilityService dependencyService = Services.get().get(DependencyAvailabilityService.class);
+        boolean[] exist = null;
+        if (dependencyService != null) {
+            String user = ParamChecker.notEmpty(conf.get(OozieClient.USER_NAME), OozieClient.USER_NAME);
+            String group = ParamChecker.notEmpty(conf.get(OozieClient.GROUP_NAME), OozieClient.GROUP_NAME);
+            exist = dependencyService.exists(Arrays.asList(uriList), user, group);
+            for (int i = 0; i < uriList.length; i++) {
+                if (!exist[i]) {
+                    dependencyService.addWaitingAction(uriList[i], actionId, user, group);
+                }
+            }
+        }
         boolean allExists = true;
         String existSeparator = "", nonExistSeparator = "";
         for (int i = 0; i < uriList.length; i++) {
             if (allExists) {
-                allExists = pathExists(uriList[i], conf);
+                allExists = (exist != null) ? exist[i] : pathExists(uriList[i], conf);
                 LOG.info("[" + actionId + "]::ActionInputCheck:: File:" + uriList[i] + ", Exists? :" + allExists);
             }
             if (allExists) {
@@ -497,7 +526,7 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
      */
     @Override
     public String getKey(){
-        return getName() + "_" + actionId;
+        return getName() + "_" + actionId + (notified ? "_notified" : "");
     }
 
 }
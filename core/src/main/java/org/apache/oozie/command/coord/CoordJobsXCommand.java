@@ -33,6 +33,7 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String after;
 
     public CoordJobsXCommand(Map<String, List<String>> filter, int start, int length) {
         super("coord.job.info", "coord.job.info", 1);
@@ -41,6 +42,18 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
         this.len = length;
     }
 
+    /**
+     * Create the command using keyset paging, the jobs are ordered by creation time, newest first.
+     *
+     * @param filter the filter
+     * @param after id of the last job of the previous page, empty for the first page
+     * @param length number of jobs to get
+     */
+    public CoordJobsXCommand(Map<String, List<String>> filter, String after, int length) {
+        this(filter, 1, length);
+        this.after = after;
+    }
+
     /* (non-Javadoc)
      * @see org.apache.oozie.command.XCommand#isLockRequired()
      */
@@ -80,7 +93,10 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
             JPAService jpaService = Services.get().get(JPAService.class);
             CoordinatorJobInfo coordInfo = null;
             if (jpaService != null) {
-                coordInfo = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, start, len));
+                CoordJobInfoGetJPAExecutor executor = (after != null)
+                        ? new CoordJobInfoGetJPAExecutor(filter, after, len)
+                        : new CoordJobInfoGetJPAExecutor(filter, start, len);
+                coordInfo = jpaService.execute(executor);
             }
             else {
                 LOG.error(ErrorCode.E0610);
@@ -25,6 +25,7 @@ import org.apache.oozie.command.wf.KillXCommand;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.KillTransitionXCommand;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
@@ -46,6 +47,7 @@ public class CoordKillXCommand extends KillTransitionXCommand {
     private List<CoordinatorActionBean> actionList;
     private JPAService jpaService = null;
     private CoordinatorJob.Status prevStatus = null;
+    private final BatchJPAExecutor updates = new BatchJPAExecutor();
 
     public CoordKillXCommand(String id) {
         super("coord_kill", "coord_kill", 1);
@@ -101,45 +103,33 @@ public class CoordKillXCommand extends KillTransitionXCommand {
         action.setStatus(CoordinatorActionBean.Status.KILLED);
         action.incrementAndGetPending();
         action.setLastModifiedTime(new Date());
-        try {
-            jpaService.execute(new CoordActionUpdateJPAExecutor(action));
-        }
-        catch (JPAExecutorException e) {
-            throw new CommandException(e);
-        }
+        updates.add(new CoordActionUpdateJPAExecutor(action));
     }
 
     @Override
     public void killChildren() throws CommandException {
-        try {
-            if (actionList != null) {
-                for (CoordinatorActionBean action : actionList) {
-                    if (action.getStatus() != CoordinatorActionBean.Status.FAILED
-                            && action.getStatus() != CoordinatorActionBean.Status.TIMEDOUT
-                            && action.getStatus() != CoordinatorActionBean.Status.SUCCEEDED
-                            && action.getStatus() != CoordinatorActionBean.Status.KILLED) {
-                        // queue a WorkflowKillXCommand to delete the workflow job and actions
-                        if (action.getExternalId() != null) {
-                            queue(new KillXCommand(action.getExternalId()));
-                            updateCoordAction(action);
-                            LOG.debug("Killed coord action = [{0}], new status = [{1}], pending = [{2}] and queue KillXCommand for [{3}]",
-                                            action.getId(), action.getStatus(), action.getPending(), action.getExternalId());
-                        }
-                        else {
-                            updateCoordAction(action);
-                            LOG.debug("Killed coord action = [{0}], current status = [{1}], pending = [{2}]", action.getId(), action
-                                    .getStatus(), action.getPending());
-                        }
+        if (actionList != null) {
+            for (CoordinatorActionBean action : actionList) {
+                if (action.getStatus() != CoordinatorActionBean.Status.FAILED
+                        && action.getStatus() != CoordinatorActionBean.Status.TIMEDOUT
+                        && action.getStatus() != CoordinatorActionBean.Status.SUCCEEDED
+                        && action.getStatus() != CoordinatorActionBean.Status.KILLED) {
+                    // queue a WorkflowKillXCommand to delete the workflow job and actions
+                    if (action.getExternalId() != null) {
+                        queue(new KillXCommand(action.getExternalId()));
+                        updateCoordAction(action);
+                        LOG.debug("Killed coord action = [{0}], new status = [{1}], pending = [{2}] and queue KillXCommand for [{3}]",
+                                        action.getId(), action.getStatus(), action.getPending(), action.getExternalId());
+                    }
+                    else {
+                        updateCoordAction(action);
+                        LOG.debug("Killed coord action = [{0}], current status = [{1}], pending = [{2}]", action.getId(), action
+                                .getStatus(), action.getPending());
                     }
                 }
             }
-            jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
-
-            LOG.debug("Killed coord actions for the coordinator=[{0}]", jobId);
-        }
-        catch (JPAExecutorException ex) {
-            throw new CommandException(ex);
         }
+        LOG.debug("Killed coord actions for the coordinator=[{0}]", jobId);
     }
 
     @Override
@@ -155,7 +145,7 @@ public class CoordKillXCommand extends KillTransitionXCommand {
     public void updateJob() throws CommandException {
         try {
             coordJob.setEndTime(new Date());
-            jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
+            jpaService.execute(updates.add(new CoordJobUpdateJPAExecutor(coordJob)));
         }
         catch (JPAExecutorException ex) {
             throw new CommandException(ex);
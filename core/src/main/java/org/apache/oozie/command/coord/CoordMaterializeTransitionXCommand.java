@@ -17,14 +17,17 @@ package org.apache.oozie.command.coord;
 import java.io.IOException;
 import java.io.StringReader;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.ErrorCode;
+import org.apache.oozie.SLAEventBean;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.Job;
 import org.apache.oozie.client.SLAEvent.SlaAppType;
@@ -33,11 +36,13 @@ import org.apache.oozie.command.MaterializeTransitionXCommand;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.bundle.BundleStatusUpdateXCommand;
 import org.apache.oozie.coord.TimeUnit;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionInsertJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionsActiveCountJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.SLAEventInsertJPAExecutor;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Service;
 import org.apache.oozie.service.Services;
@@ -64,6 +69,10 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
     private final int materializationWindow;
     private int lastActionNumber = 1; // over-ride by DB value
     private CoordinatorJob.Status prevStatus = null;
+    // inserts of the materialized actions and their SLA registrations, committed with the job update
+    private BatchJPAExecutor actionInserts = new BatchJPAExecutor();
+    // actions whose commands are queued once they are all materialized
+    private final List<CoordinatorActionBean> materializedActions = new ArrayList<CoordinatorActionBean>();
     /**
      * Default MAX timeout in minutes, after which coordinator input check will timeout
      */
@@ -94,7 +103,7 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
     @Override
     public void updateJob() throws CommandException {
         try {
-            jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
+            jpaService.execute(actionInserts.add(new CoordJobUpdateJPAExecutor(coordJob)));
         }
         catch (JPAExecutorException jex) {
             throw new CommandException(jex);
@@ -229,9 +238,17 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
         try {
             materializeActions(false);
             updateJobMaterializeInfo(coordJob);
+            for (CoordinatorActionBean actionBean : materializedActions) {
+                // TODO: time 100s should be configurable
+                queue(new CoordActionNotificationXCommand(actionBean), 100);
+                queue(new CoordActionInputCheckXCommand(actionBean.getId()), 100);
+            }
         }
         catch (CommandException ex) {
             LOG.warn("Exception occurs:" + ex.getMessage() + " Making the job failed ", ex);
+            // only the failed job is committed, none of the actions materialized before the failure
+            actionInserts = new BatchJPAExecutor();
+            materializedActions.clear();
             coordJob.setStatus(Job.Status.FAILED);
             coordJob.resetPending();
         }
@@ -260,6 +277,9 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
             throw new CommandException(ErrorCode.E1005, ioe);
         }
 
+        // the job configuration is the created and run configuration of every action, it is serialized once
+        String jobConfXml = XmlUtils.prettyPrint(jobConf).toString();
+
         String jobXml = coordJob.getJobXml();
         Element eJob = XmlUtils.parseXml(jobXml);
         TimeZone appTz = DateUtils.getTimeZone(coordJob.getTimeZone());
@@ -312,7 +332,7 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
                     + " timeout=" + timeout + " minutes");
             Date actualTime = new Date();
             action = CoordCommandUtils.materializeOneInstance(jobId, dryrun, (Element) eJob.clone(),
-                    effStart.getTime(), actualTime, lastActionNumber, jobConf, actionBean);
+                    effStart.getTime(), actualTime, lastActionNumber, jobConf, jobConfXml, actionBean);
             actionBean.setTimeOut(timeout);
 
             if (!dryrun) {
@@ -341,19 +361,20 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
                 + actionXml.length());
         actionBean.setActionXml(actionXml);
 
-        jpaService.execute(new CoordActionInsertJPAExecutor(actionBean));
+        // the insert is batched and committed with the job update, see updateJob()
+        actionInserts.add(new CoordActionInsertJPAExecutor(actionBean));
         writeActionRegistration(actionXml, actionBean);
-
-        // TODO: time 100s should be configurable
-        queue(new CoordActionNotificationXCommand(actionBean), 100);
-        queue(new CoordActionInputCheckXCommand(actionBean.getId()), 100);
+        materializedActions.add(actionBean);
     }
 
     private void writeActionRegistration(String actionXml, CoordinatorActionBean actionBean) throws Exception {
         Element eAction = XmlUtils.parseXml(actionXml);
         Element eSla = eAction.getChild("action", eAction.getNamespace()).getChild("info", eAction.getNamespace("sla"));
-        SLADbOperations.writeSlaRegistrationEvent(eSla, actionBean.getId(), SlaAppType.COORDINATOR_ACTION, coordJob
-                .getUser(), coordJob.getGroup(), LOG);
+        SLAEventBean sla = SLADbOperations.createSlaRegistrationEvent(eSla, actionBean.getId(),
+                SlaAppType.COORDINATOR_ACTION, coordJob.getUser(), coordJob.getGroup());
+        if (sla != null) {
+            actionInserts.add(new SLAEventInsertJPAExecutor(sla));
+        }
     }
 
     private void updateJobMaterializeInfo(CoordinatorJobBean job) throws CommandException {
@@ -28,6 +28,7 @@ import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.ResumeTransitionXCommand;
 import org.apache.oozie.command.bundle.BundleStatusUpdateXCommand;
 import org.apache.oozie.command.wf.ResumeXCommand;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
@@ -48,6 +49,7 @@ public class CoordResumeXCommand extends ResumeTransitionXCommand {
     private CoordinatorJobBean coordJob = null;
     private JPAService jpaService = null;
     private boolean exceptionOccured = false;
+    private final BatchJPAExecutor updates = new BatchJPAExecutor();
     CoordinatorJob.Status prevStatus;
 
     public CoordResumeXCommand(String id) {
@@ -112,7 +114,7 @@ public class CoordResumeXCommand extends ResumeTransitionXCommand {
         coordJob.setLastModifiedTime(new Date());
         LOG.debug("Resume coordinator job id = " + jobId + ", status = " + coordJob.getStatus() + ", pending = " + coordJob.isPending());
         try {
-            jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
+            jpaService.execute(updates.add(new CoordJobUpdateJPAExecutor(coordJob)));
         }
         catch (JPAExecutorException e) {
             throw new CommandException(e);
@@ -179,12 +181,7 @@ public class CoordResumeXCommand extends ResumeTransitionXCommand {
         action.setStatus(CoordinatorActionBean.Status.RUNNING);
         action.incrementAndGetPending();
         action.setLastModifiedTime(new Date());
-        try {
-            jpaService.execute(new CoordActionUpdateJPAExecutor(action));
-        }
-        catch (JPAExecutorException e) {
-            throw new CommandException(e);
-        }
+        updates.add(new CoordActionUpdateJPAExecutor(action));
     }
 
     /* (non-Javadoc)
@@ -30,8 +30,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Validator;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -298,9 +296,8 @@ public class CoordSubmitXCommand extends SubmitTransitionXCommand {
      */
     private void validateXml(String xmlContent) throws CoordinatorJobException {
         javax.xml.validation.Schema schema = Services.get().get(SchemaService.class).getSchema(SchemaName.COORDINATOR);
-        Validator validator = schema.newValidator();
         try {
-            validator.validate(new StreamSource(new StringReader(xmlContent)));
+            XmlUtils.validateXml(schema, xmlContent);
         }
         catch (SAXException ex) {
             LOG.warn("SAXException :", ex);
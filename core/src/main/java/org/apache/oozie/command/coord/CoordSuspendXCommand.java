@@ -28,6 +28,7 @@ import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.SuspendTransitionXCommand;
 import org.apache.oozie.command.bundle.BundleStatusUpdateXCommand;
 import org.apache.oozie.command.wf.SuspendXCommand;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
@@ -49,6 +50,7 @@ public class CoordSuspendXCommand extends SuspendTransitionXCommand {
     private CoordinatorJobBean coordJob;
     private JPAService jpaService;
     private boolean exceptionOccured = false;
+    private final BatchJPAExecutor updates = new BatchJPAExecutor();
     private CoordinatorJob.Status prevStatus = null;
 
     public CoordSuspendXCommand(String id) {
@@ -175,7 +177,7 @@ public class CoordSuspendXCommand extends SuspendTransitionXCommand {
         coordJob.setSuspendedTime(new Date());
         LOG.debug("Suspend coordinator job id = " + jobId + ", status = " + coordJob.getStatus() + ", pending = " + coordJob.isPending());
         try {
-            jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
+            jpaService.execute(updates.add(new CoordJobUpdateJPAExecutor(coordJob)));
         }
         catch (JPAExecutorException e) {
             throw new CommandException(e);
@@ -186,12 +188,7 @@ public class CoordSuspendXCommand extends SuspendTransitionXCommand {
         action.setStatus(CoordinatorActionBean.Status.SUSPENDED);
         action.incrementAndGetPending();
         action.setLastModifiedTime(new Date());
-        try {
-            jpaService.execute(new CoordActionUpdateJPAExecutor(action));
-        }
-        catch (JPAExecutorException e) {
-            throw new CommandException(e);
-        }
+        updates.add(new CoordActionUpdateJPAExecutor(action));
     }
 
     /* (non-Javadoc)
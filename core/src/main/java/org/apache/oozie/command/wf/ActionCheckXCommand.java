@@ -27,6 +27,7 @@ import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.client.WorkflowAction.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -168,16 +169,16 @@ public class ActionCheckXCommand extends ActionXCommand<Void> {
                             "Execution Complete, but Execution Data Missing from Action");
                     failJob(context);
                     wfAction.setLastCheckTime(new Date());
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     return null;
                 }
                 wfAction.setPending();
                 queue(new ActionEndXCommand(wfAction.getId(), wfAction.getType()));
             }
             wfAction.setLastCheckTime(new Date());
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                    new WorkflowJobUpdateJPAExecutor(wfJob)));
         }
         catch (ActionExecutorException ex) {
             LOG.warn("Exception while executing check(). Error Code [{0}], Message[{1}]", ex.getErrorCode(), ex
@@ -190,8 +191,8 @@ public class ActionCheckXCommand extends ActionXCommand<Void> {
             }
             wfAction.setLastCheckTime(new Date());
             try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
             }
             catch (JPAExecutorException e) {
                 throw new CommandException(e);
@@ -31,6 +31,7 @@ import org.apache.oozie.client.SLAEvent.SlaAppType;
 import org.apache.oozie.client.SLAEvent.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -157,14 +158,14 @@ public class ActionEndXCommand extends ActionXCommand<Void> {
                         executor.getType());
                 wfAction.setErrorInfo(END_DATA_MISSING, "Execution Ended, but End Data Missing from Action");
                 failJob(context);
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
                 return null;
             }
             wfAction.setRetries(0);
             wfAction.setEndTime(new Date());
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                    new WorkflowJobUpdateJPAExecutor(wfJob)));
 
             Status slaStatus = null;
             switch (wfAction.getStatus()) {
@@ -226,8 +227,8 @@ public class ActionEndXCommand extends ActionXCommand<Void> {
             wfJob.setWorkflowInstance(wfInstance);
 
             try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
             }
             catch (JPAExecutorException je) {
                 throw new CommandException(je);
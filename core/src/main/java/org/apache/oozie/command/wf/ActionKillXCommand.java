@@ -22,6 +22,7 @@ import org.apache.oozie.client.SLAEvent.SlaAppType;
 import org.apache.oozie.client.SLAEvent.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -117,8 +118,8 @@ public class ActionKillXCommand extends ActionXCommand<Void> {
                     wfAction.resetPending();
                     wfAction.setStatus(WorkflowActionBean.Status.KILLED);
 
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     // Add SLA status event (KILLED) for WF_ACTION
                     SLADbXOperations.writeStausEvent(wfAction.getSlaXml(), wfAction.getId(), Status.KILLED,
                             SlaAppType.WORKFLOW_ACTION);
@@ -131,8 +132,8 @@ public class ActionKillXCommand extends ActionXCommand<Void> {
                             "KILL COMMAND FAILED - exception while executing job kill");
                     wfJob.setStatus(WorkflowJobBean.Status.KILLED);
                     try {
-                        jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                        jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                        jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                                new WorkflowJobUpdateJPAExecutor(wfJob)));
                     }
                     catch (JPAExecutorException je) {
                         throw new CommandException(je);
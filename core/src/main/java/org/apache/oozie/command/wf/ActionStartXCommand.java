@@ -34,6 +34,7 @@ import org.apache.oozie.client.SLAEvent.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -192,8 +193,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
                     wfAction.setErrorInfo(EXEC_DATA_MISSING,
                             "Execution Complete, but Execution Data Missing from Action");
                     failJob(context);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     return null;
                 }
                 wfAction.setPending();
@@ -205,8 +206,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
                             .getType());
                     wfAction.setErrorInfo(START_DATA_MISSING, "Execution Started, but Start Data Missing from Action");
                     failJob(context);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     return null;
                 }
                 queue(new NotificationXCommand(wfJob, wfAction));
@@ -214,8 +215,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
 
             LOG.warn(XLog.STD, "[***" + wfAction.getId() + "***]" + "Action status=" + wfAction.getStatusStr());
 
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                    new WorkflowJobUpdateJPAExecutor(wfJob)));
             // Add SLA status event (STARTED) for WF_ACTION
             SLADbXOperations.writeStausEvent(wfAction.getSlaXml(), wfAction.getId(), Status.STARTED,
                     SlaAppType.WORKFLOW_ACTION);
@@ -259,8 +260,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
                     break;
             }
             try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(wfAction),
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
             }
             catch (JPAExecutorException je) {
                 throw new CommandException(je);
@@ -279,8 +280,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
             throws CommandException {
         failJob(context);
         try {
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(workflow));
+            jpaService.execute(new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(action),
+                    new WorkflowJobUpdateJPAExecutor(workflow)));
         }
         catch (JPAExecutorException je) {
             throw new CommandException(je);
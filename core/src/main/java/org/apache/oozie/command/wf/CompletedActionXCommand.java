@@ -23,6 +23,7 @@ import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.service.ActionService;
+import org.apache.oozie.service.CallableQueueService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.LogUtils;
@@ -32,15 +33,24 @@ import org.apache.oozie.util.ParamChecker;
  * This command is executed once the Workflow command is finished.
  */
 public class CompletedActionXCommand extends WorkflowXCommand<Void> {
+    private static final long PREP_REQUEUE_DELAY = 1000;
+    private static final int PREP_MAX_REQUEUES = 30;
+
     private final String actionId;
     private final String externalStatus;
+    private final int requeues;
     private JPAService jpaService;
     private WorkflowActionBean wfactionBean;
 
     public CompletedActionXCommand(String actionId, String externalStatus, Properties actionData, int priority) {
+        this(actionId, externalStatus, priority, 0);
+    }
+
+    private CompletedActionXCommand(String actionId, String externalStatus, int priority, int requeues) {
         super("callback", "callback", priority);
         this.actionId = ParamChecker.notEmpty(actionId, "actionId");
         this.externalStatus = ParamChecker.notEmpty(externalStatus, "externalStatus");
+        this.requeues = requeues;
     }
 
     public CompletedActionXCommand(String actionId, String externalStatus, Properties actionData) {
@@ -78,6 +88,20 @@ public class CompletedActionXCommand extends WorkflowXCommand<Void> {
     @Override
     protected void eagerVerifyPrecondition() throws CommandException, PreconditionException {
         super.eagerVerifyPrecondition();
+        if (this.wfactionBean.getStatus() == WorkflowActionBean.Status.PREP) {
+            // the callback may arrive before the command starting the action committed it as RUNNING,
+            // re-queue it a bounded number of times instead of dropping it right away
+            if (requeues < PREP_MAX_REQUEUES) {
+                Services.get().get(CallableQueueService.class).queue(
+                        new CompletedActionXCommand(actionId, externalStatus, getPriority(), requeues + 1),
+                        PREP_REQUEUE_DELAY);
+            }
+            else {
+                LOG.warn("Dropping callback for action [{0}], still in PREP after [{1}] re-queues", actionId,
+                         requeues);
+            }
+            throw new PreconditionException(ErrorCode.E0800, actionId, this.wfactionBean.getStatus());
+        }
         if (this.wfactionBean.getStatus() != WorkflowActionBean.Status.RUNNING) {
             throw new CommandException(ErrorCode.E0800, actionId, this.wfactionBean.getStatus());
         }
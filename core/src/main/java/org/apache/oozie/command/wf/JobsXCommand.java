@@ -30,6 +30,7 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
     private final Map<String, List<String>> filter;
     private final int start;
     private final int len;
+    private final String after;
     private WorkflowsInfo workflows;
 
     /**
@@ -45,6 +46,23 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
         this.filter = filter;
         this.start = start;
         this.len = length;
+        this.after = null;
+    }
+
+    /**
+     * Constructor taking the filter information, using keyset paging.
+     *
+     * @param filter Can be name, status, user, group and combination of these
+     * @param after id of the last workflow of the previous page, empty for the first page. The workflows are ordered
+     *        by creation time, newest first.
+     * @param length number of workflows to be returned.
+     */
+    public JobsXCommand(Map<String, List<String>> filter, String after, int length) {
+        super("job.info", "job.info", 1, true);
+        this.filter = filter;
+        this.start = 1;
+        this.len = length;
+        this.after = after;
     }
 
     /* (non-Javadoc)
@@ -55,7 +73,10 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
         try {
             JPAService jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
-                this.workflows = jpaService.execute(new WorkflowsJobGetJPAExecutor(this.filter, this.start, this.len));
+                WorkflowsJobGetJPAExecutor executor = (after != null)
+                        ? new WorkflowsJobGetJPAExecutor(this.filter, this.after, this.len)
+                        : new WorkflowsJobGetJPAExecutor(this.filter, this.start, this.len);
+                this.workflows = jpaService.execute(executor);
             }
             else {
                 throw new CommandException(ErrorCode.E0610);
@@ -24,6 +24,7 @@ import org.apache.oozie.XException;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionsGetForJobJPAExecutor;
@@ -115,13 +116,14 @@ public class KillXCommand extends WorkflowXCommand<Void> {
             wfJob.setWorkflowInstance(wfInstance);
         }
         try {
+            BatchJPAExecutor updates = new BatchJPAExecutor();
             for (WorkflowActionBean action : actionList) {
                 if (action.getStatus() == WorkflowActionBean.Status.RUNNING
                         || action.getStatus() == WorkflowActionBean.Status.DONE) {
                     action.setPending();
                     action.setStatus(WorkflowActionBean.Status.KILLED);
 
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
+                    updates.add(new WorkflowActionUpdateJPAExecutor(action));
 
                     queue(new ActionKillXCommand(action.getId(), action.getType()));
                 }
@@ -135,10 +137,11 @@ public class KillXCommand extends WorkflowXCommand<Void> {
                     action.resetPending();
                     SLADbXOperations.writeStausEvent(action.getSlaXml(), action.getId(), Status.KILLED,
                             SlaAppType.WORKFLOW_ACTION);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
+                    updates.add(new WorkflowActionUpdateJPAExecutor(action));
                 }
             }
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            updates.add(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(updates);
             queue(new NotificationXCommand(wfJob));
         }
         catch (JPAExecutorException je) {
@@ -127,8 +127,8 @@ public class ReRunXCommand extends WorkflowXCommand<Void> {
                 configDefault = new Path(path.getParent(), SubmitCommand.CONFIG_DEFAULT);
             }
 
-            if (fs.exists(configDefault)) {
-                Configuration defaultConf = new XConfiguration(fs.open(configDefault));
+            Configuration defaultConf = wps.readDefaultConf(fs, configDefault, wfBean.getUser());
+            if (defaultConf != null) {
                 PropertiesUtils.checkDisallowedProperties(defaultConf, DISALLOWED_DEFAULT_PROPERTIES);
                 XConfiguration.injectDefaults(defaultConf, conf);
             }
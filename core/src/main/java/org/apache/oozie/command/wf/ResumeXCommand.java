@@ -23,6 +23,7 @@ import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobGetActionsJPAExecutor;
@@ -59,6 +60,7 @@ public class ResumeXCommand extends WorkflowXCommand<Void> {
                 workflow.setWorkflowInstance(wfInstance);
                 workflow.setStatus(WorkflowJob.Status.RUNNING);
 
+                BatchJPAExecutor updates = new BatchJPAExecutor();
 
                 //for (WorkflowActionBean action : store.getActionsForWorkflow(id, false)) {
                 for (WorkflowActionBean action : jpaService.execute(new WorkflowJobGetActionsJPAExecutor(id))) {
@@ -67,7 +69,7 @@ public class ResumeXCommand extends WorkflowXCommand<Void> {
                     // START_MANUAL or END_RETRY or END_MANUAL
                     if (action.isRetryOrManual()) {
                         action.setPendingOnly();
-                        jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
+                        updates.add(new WorkflowActionUpdateJPAExecutor(action));
                     }
 
                     if (action.isPending()) {
@@ -99,7 +101,8 @@ public class ResumeXCommand extends WorkflowXCommand<Void> {
                     }
                 }
 
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(workflow));
+                updates.add(new WorkflowJobUpdateJPAExecutor(workflow));
+                jpaService.execute(updates);
                 queue(new NotificationXCommand(workflow));
             }
             return null;
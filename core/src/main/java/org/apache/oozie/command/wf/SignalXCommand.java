@@ -26,6 +26,7 @@ import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
 import org.apache.oozie.command.wf.ActionXCommand.ActionExecutorContext;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionInsertJPAExecutor;
@@ -127,6 +128,8 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
         workflowInstance.setTransientVar(WorkflowStoreService.WORKFLOW_BEAN, wfJob);
         boolean completed = false;
         boolean skipAction = false;
+        // the action and job changes are committed together at the end
+        BatchJPAExecutor updates = new BatchJPAExecutor();
         if (wfAction == null) {
             if (wfJob.getStatus() == WorkflowJob.Status.PREP) {
                 try {
@@ -166,12 +169,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
             if (!skipAction) {
                 wfAction.setTransition(workflowInstance.getTransition(wfAction.getName()));
             }
-            try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            }
-            catch (JPAExecutorException je) {
-                throw new CommandException(je);
-            }
+            updates.add(new WorkflowActionUpdateJPAExecutor(wfAction));
         }
 
         if (completed) {
@@ -183,7 +181,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
 
                     actionToKill.setPending();
                     actionToKill.setStatus(WorkflowActionBean.Status.KILLED);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(actionToKill));
+                    updates.add(new WorkflowActionUpdateJPAExecutor(actionToKill));
                     queue(new ActionKillXCommand(actionToKill.getId(), actionToKill.getType()));
                 }
 
@@ -194,7 +192,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                     actionToFail.setStatus(WorkflowActionBean.Status.FAILED);
                     SLADbXOperations.writeStausEvent(wfAction.getSlaXml(), wfAction.getId(), Status.FAILED,
                             SlaAppType.WORKFLOW_ACTION);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(actionToFail));
+                    updates.add(new WorkflowActionUpdateJPAExecutor(actionToFail));
                 }
             }
             catch (JPAExecutorException je) {
@@ -239,10 +237,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                         } else {
                             wfAction.setErrorInfo(ErrorCode.E0729.toString(), actionConf);
                         }
-                        jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    }
-                    catch (JPAExecutorException je) {
-                        throw new CommandException(je);
+                        updates.add(new WorkflowActionUpdateJPAExecutor(wfAction));
                     }
                     catch (Exception ex) {
                         LOG.warn("Exception in SignalXCommand ", ex.getMessage(), ex);
@@ -267,7 +262,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                         oldAction = jpaService.execute(new WorkflowActionGetJPAExecutor(newAction.getId()));
 
                         oldAction.setPending();
-                        jpaService.execute(new WorkflowActionUpdateJPAExecutor(oldAction));
+                        updates.add(new WorkflowActionUpdateJPAExecutor(oldAction));
 
                         queue(new SignalXCommand(jobId, oldAction.getId()));
                     }
@@ -276,7 +271,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                         String actionSlaXml = getActionSLAXml(newAction.getName(), workflowInstance.getApp()
                                 .getDefinition(), wfJob.getConf());
                         newAction.setSlaXml(actionSlaXml);
-                        jpaService.execute(new WorkflowActionInsertJPAExecutor(newAction));
+                        updates.add(new WorkflowActionInsertJPAExecutor(newAction));
                         LOG.debug("SignalXCommand: Name: "+ newAction.getName() + ", Id: " +newAction.getId() + ", Authcode:" + newAction.getCred());
                         queue(new ActionStartXCommand(newAction.getId(), newAction.getType()));
                     }
@@ -288,7 +283,8 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
         }
 
         try {
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            updates.add(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(updates);
         }
         catch (JPAExecutorException je) {
             throw new CommandException(je);
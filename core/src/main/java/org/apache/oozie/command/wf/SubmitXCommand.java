@@ -111,15 +111,15 @@ public class SubmitXCommand extends WorkflowXCommand<String> {
                 configDefault = new Path(path.getParent(), SubmitCommand.CONFIG_DEFAULT);
             }
 
-            if (fs.exists(configDefault)) {
-                try {
-                    Configuration defaultConf = new XConfiguration(fs.open(configDefault));
+            try {
+                Configuration defaultConf = wps.readDefaultConf(fs, configDefault, user);
+                if (defaultConf != null) {
                     PropertiesUtils.checkDisallowedProperties(defaultConf, DISALLOWED_DEFAULT_PROPERTIES);
                     XConfiguration.injectDefaults(defaultConf, conf);
                 }
-                catch (IOException ex) {
-                    throw new IOException("default configuration file, " + ex.getMessage(), ex);
-                }
+            }
+            catch (IOException ex) {
+                throw new IOException("default configuration file, " + ex.getMessage(), ex);
             }
 
             PropertiesUtils.checkDisallowedProperties(conf, DISALLOWED_USER_PROPERTIES);
@@ -23,6 +23,7 @@ import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
+import org.apache.oozie.executor.jpa.BatchJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionRetryManualGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -110,6 +111,7 @@ public class SuspendXCommand extends WorkflowXCommand<Void> {
         try {
             actions = jpaService.execute(new WorkflowActionRetryManualGetJPAExecutor(id));
 
+            BatchJPAExecutor updates = new BatchJPAExecutor();
             for (WorkflowActionBean action : actions) {
                 if (actionId != null && actionId.equals(action.getId())) {
                     // this action has been changed in handleNonTransient()
@@ -118,8 +120,10 @@ public class SuspendXCommand extends WorkflowXCommand<Void> {
                 else {
                     action.resetPendingOnly();
                 }
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
-
+                updates.add(new WorkflowActionUpdateJPAExecutor(action));
+            }
+            if (!updates.isEmpty()) {
+                jpaService.execute(updates);
             }
         }
         catch (JPAExecutorException je) {
@@ -29,6 +29,7 @@ import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.service.HadoopAccessorException;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.service.DependencyAvailabilityService;
 import org.apache.oozie.service.HadoopAccessorService;
 
 /**
@@ -810,6 +811,10 @@ public class CoordELFunctions {
     private static boolean isPathAvailable(String sPath, String user, String group, Configuration conf)
             throws IOException, HadoopAccessorException {
         // sPath += "/" + END_OF_OPERATION_INDICATOR_FILE;
+        DependencyAvailabilityService dependencyService = Services.get().get(DependencyAvailabilityService.class);
+        if (dependencyService != null) {
+            return dependencyService.exists(sPath, user, group);
+        }
         Path path = new Path(sPath);
         return Services.get().get(HadoopAccessorService.class).
                 createFileSystem(user, group, path.toUri(), conf).exists(path);
@@ -962,16 +967,10 @@ public class CoordELFunctions {
             // current.getTime());
             return null;
         }
-        Calendar origCurrent = (Calendar) current.clone();
-        while (current.compareTo(calEffectiveTime) <= 0) {
-            current = (Calendar) origCurrent.clone();
-            instanceCount[0]++;
-            current.add(dsTimeUnit.getCalendarUnit(), instanceCount[0] * getDSFrequency());
-        }
-        instanceCount[0]--;
-
-        current = (Calendar) origCurrent.clone();
-        current.add(dsTimeUnit.getCalendarUnit(), instanceCount[0] * getDSFrequency());
+        int dsFrequency = getDSFrequency();
+        instanceCount[0] = DateUtils.getInstanceCount(current, effectiveTime, dsTimeUnit.getCalendarUnit(),
+                                                      dsFrequency);
+        current.add(dsTimeUnit.getCalendarUnit(), instanceCount[0] * dsFrequency);
         return current;
     }
 
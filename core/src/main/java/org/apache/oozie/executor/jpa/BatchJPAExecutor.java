@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Unit of work that executes several JPA executors, typically the inserts, updates and deletes of a command, in the
+ * transaction of a single {@link org.apache.oozie.service.JPAService#execute} call.
+ * <p/>
+ * The changes are committed together, with a single commit, and the JDBC statements of the flush are batched (see the
+ * <code>batchLimit</code> of the <code>openjpa.jdbc.DBDictionary</code>). If any executor fails, the transaction is
+ * rolled back and none of the changes is committed.
+ * <p/>
+ * The executors are executed in the order they were added, the return values are returned in the same order.
+ */
+public class BatchJPAExecutor implements JPAExecutor<List<Object>> {
+
+    private List<JPAExecutor<?>> executors;
+
+    /**
+     * Create a batch with the given executors.
+     *
+     * @param executors executors to add to the batch.
+     */
+    public BatchJPAExecutor(JPAExecutor<?>... executors) {
+        this.executors = new ArrayList<JPAExecutor<?>>();
+        for (JPAExecutor<?> executor : executors) {
+            add(executor);
+        }
+    }
+
+    /**
+     * Add an executor to the batch.
+     *
+     * @param executor executor to add.
+     * @return this batch.
+     */
+    public BatchJPAExecutor add(JPAExecutor<?> executor) {
+        ParamChecker.notNull(executor, "executor");
+        executors.add(executor);
+        return this;
+    }
+
+    /**
+     * Return the number of executors in the batch.
+     *
+     * @return the number of executors in the batch.
+     */
+    public int size() {
+        return executors.size();
+    }
+
+    /**
+     * Return if the batch has no executors.
+     *
+     * @return <code>true</code> if the batch has no executors.
+     */
+    public boolean isEmpty() {
+        return executors.isEmpty();
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BatchJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public List<Object> execute(EntityManager em) throws JPAExecutorException {
+        List<Object> results = new ArrayList<Object>(executors.size());
+        for (JPAExecutor<?> executor : executors) {
+            results.add(executor.execute(em));
+        }
+        return results;
+    }
+
+}
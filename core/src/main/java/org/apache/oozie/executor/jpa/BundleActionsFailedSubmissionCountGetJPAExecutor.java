@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Count the non pending FAILED or KILLED actions of a bundle job without a coordinator job, that is the bundle
+ * actions whose coordinator job failed submission.
+ */
+public class BundleActionsFailedSubmissionCountGetJPAExecutor implements JPAExecutor<Integer> {
+
+    private String bundleJobId = null;
+
+    public BundleActionsFailedSubmissionCountGetJPAExecutor(String bundleJobId) {
+        ParamChecker.notNull(bundleJobId, "bundleJobId");
+        this.bundleJobId = bundleJobId;
+    }
+
+    @Override
+    public String getName() {
+        return "BundleActionsFailedSubmissionCountGetJPAExecutor";
+    }
+
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Query q = em.createNamedQuery("GET_BUNDLE_ACTIONS_PENDING_FALSE_FAILED_OR_KILLED_NULL_COORD_COUNT");
+
+            q.setParameter("bundleId", bundleJobId);
+            Long count = (Long) q.getSingleResult();
+            return Integer.valueOf(count.intValue());
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.HashMap;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.Job;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA command to count the actions of a bundle job by status, using a single grouped query instead of loading
+ * the actions.
+ */
+public class BundleActionsGetStatusCountJPAExecutor implements
+        JPAExecutor<BundleActionsGetStatusCountJPAExecutor.StatusCount> {
+
+    /**
+     * The number of actions of a bundle job.
+     */
+    public static class StatusCount {
+        private final HashMap<Job.Status, Integer> nonPending = new HashMap<Job.Status, Integer>();
+        private int pending;
+        private int total;
+
+        /**
+         * @return the number of non pending actions by status
+         */
+        public HashMap<Job.Status, Integer> getNonPendingCount() {
+            return nonPending;
+        }
+
+        /**
+         * @return the number of pending actions
+         */
+        public int getPendingCount() {
+            return pending;
+        }
+
+        /**
+         * @return the number of actions
+         */
+        public int getTotalCount() {
+            return total;
+        }
+
+        private void add(Job.Status status, boolean isPending, int count) {
+            if (isPending) {
+                pending += count;
+            }
+            else {
+                Integer current = nonPending.get(status);
+                nonPending.put(status, (current == null) ? count : current + count);
+            }
+            total += count;
+        }
+    }
+
+    private String bundleId = null;
+
+    public BundleActionsGetStatusCountJPAExecutor(String bundleId) {
+        ParamChecker.notNull(bundleId, "bundleId");
+        this.bundleId = bundleId;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BundleActionsGetStatusCountJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public StatusCount execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Query q = em.createNamedQuery("GET_BUNDLE_ACTIONS_STATUS_PENDING_COUNT_FOR_BUNDLE");
+            q.setParameter("bundleId", bundleId);
+            List<Object[]> rows = q.getResultList();
+            StatusCount statusCount = new StatusCount();
+            for (Object[] row : rows) {
+                Job.Status status = Job.Status.valueOf((String) row[0]);
+                boolean isPending = ((Number) row[1]).intValue() > 0;
+                statusCount.add(status, isPending, ((Number) row[2]).intValue());
+            }
+            return statusCount;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+}
@@ -26,6 +26,8 @@ import org.apache.oozie.BundleJobBean;
 import org.apache.oozie.BundleJobInfo;
 import org.apache.oozie.client.Job;
 import org.apache.oozie.client.BundleJob.Timeunit;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
 import org.apache.oozie.store.StoreStatusFilter;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
@@ -43,6 +45,7 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String after;
 
     /**
      * The constructor for BundleJobInfoGetJPAExecutor
@@ -58,6 +61,20 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
         this.len = len;
     }
 
+    /**
+     * The constructor for BundleJobInfoGetJPAExecutor using keyset paging.
+     * <p/>
+     * The jobs are ordered by creation time, newest first.
+     *
+     * @param filter the filter string
+     * @param after id of the last job of the previous page, empty for the first page
+     * @param len total length to get
+     */
+    public BundleJobInfoGetJPAExecutor(Map<String, List<String>> filter, String after, int len) {
+        this(filter, 1, len);
+        this.after = ParamChecker.notNull(after, "after");
+    }
+
     /* (non-Javadoc)
      * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
      */
@@ -82,23 +99,32 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
 
         int realLen = 0;
 
+        String countQuery = (orArray.size() == 0) ? null : sb.toString().replace(StoreStatusFilter.bundleSeletStr, StoreStatusFilter.bundleCountStr);
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0) {
+        if (after != null) {
+            boolean afterJob = after.length() > 0;
+            StoreStatusFilter.keyset(sb, StoreStatusFilter.bundleSeletStr, afterJob);
+            q = em.createQuery(sb.toString());
+            if (afterJob) {
+                q.setParameter(StoreStatusFilter.KEYSET_TIME, StoreStatusFilter.getKeysetTime(em, "BundleJobBean",
+                                                                                               after));
+                q.setParameter(StoreStatusFilter.KEYSET_ID, after);
+            }
+            q.setMaxResults(len);
+        }
+        else if (orArray.size() == 0) {
             q = em.createNamedQuery("GET_BUNDLE_JOBS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_BUNDLE_JOBS_COUNT");
         }
         else {
-            StringBuilder sbTotal = new StringBuilder(sb);
             sb.append(" order by w.createdTimestamp desc ");
             q = em.createQuery(sb.toString());
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createQuery(sbTotal.toString().replace(StoreStatusFilter.bundleSeletStr,
-                                                                          StoreStatusFilter.bundleCountStr));
         }
+        qTotal = (countQuery == null) ? em.createNamedQuery("GET_BUNDLE_JOBS_COUNT") : em.createQuery(countQuery);
 
         for (int i = 0; i < orArray.size(); i++) {
             q.setParameter(colArray.get(i), valArray.get(i));
@@ -120,7 +146,9 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
             bundleBeansList.add(bean);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        JPAService jpaService = Services.get().get(JPAService.class);
+        realLen = jpaService.getJobsCount((countQuery == null) ? "GET_BUNDLE_JOBS_COUNT" : countQuery + valArray,
+                                          qTotal);
 
         return new BundleJobInfo(bundleBeansList, start, len, realLen);
     }
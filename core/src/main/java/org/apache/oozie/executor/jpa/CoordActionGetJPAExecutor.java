@@ -90,6 +90,7 @@ public class CoordActionGetJPAExecutor implements JPAExecutor<CoordinatorActionB
             action.setNominalTime(a.getNominalTime());
             action.setSlaXml(a.getSlaXml());
             action.setStatus(a.getStatus());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA Executor to get a page of the IDs of the running coordinator actions to check.
+ * <p/>
+ * The IDs are returned in ascending order, the next page is obtained using the last ID of the previous page.
+ */
+public class CoordActionIdsRunningGetJPAExecutor implements JPAExecutor<List<String>> {
+
+    private final long checkAgeSecs;
+    private final String lastId;
+    private final int limit;
+
+    /**
+     * Create the executor.
+     *
+     * @param checkAgeSecs minimum age, in seconds, of the last modification of the actions.
+     * @param lastId last ID of the previous page, an empty string for the first page.
+     * @param limit maximum number of IDs to return.
+     */
+    public CoordActionIdsRunningGetJPAExecutor(long checkAgeSecs, String lastId, int limit) {
+        this.checkAgeSecs = checkAgeSecs;
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = ParamChecker.checkGTZero(limit, "limit");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Timestamp ts = new Timestamp(System.currentTimeMillis() - checkAgeSecs * 1000);
+            Query q = em.createNamedQuery("GET_RUNNING_ACTION_IDS_OLDER_THAN");
+            q.setParameter("lastModifiedTime", ts);
+            q.setParameter("id", lastId);
+            q.setMaxResults(limit);
+            return q.getResultList();
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordActionIdsRunningGetJPAExecutor";
+    }
+
+}
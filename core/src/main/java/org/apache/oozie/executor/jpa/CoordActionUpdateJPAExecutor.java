@@ -1,8 +1,10 @@
 package org.apache.oozie.executor.jpa;
 
 import java.util.Date;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.ErrorCode;
@@ -13,6 +15,15 @@ import org.apache.oozie.util.ParamChecker;
  */
 public class CoordActionUpdateJPAExecutor implements JPAExecutor<Void> {
 
+    private static final String UPDATE_QUERY = "update CoordinatorActionBean w set w.type = :type, w.actionNumber = :actionNumber, "
+            + "w.timeOut = :timeOut, w.externalStatus = :externalStatus, w.trackerUri = :trackerUri, "
+            + "w.consoleUrl = :consoleUrl, w.errorCode = :errorCode, w.errorMessage = :errorMessage, "
+            + "w.jobId = :jobId, w.status = :status, w.nominalTimestamp = :nominalTime, "
+            + "w.lastModifiedTimestamp = :lastModifiedTime, w.createdTimestamp = :createdTime, "
+            + "w.rerunTimestamp = :rerunTime, w.externalId = :externalId, w.pending = :pending";
+
+    private static final String[] LOB_FIELDS = {"createdConf", "runConf", "actionXml", "missingDependencies", "slaXml"};
+
     private CoordinatorActionBean coordAction = null;
 
     /**
@@ -32,7 +43,41 @@ public class CoordActionUpdateJPAExecutor implements JPAExecutor<Void> {
     public Void execute(EntityManager em) throws JPAExecutorException {
         try {
             coordAction.setLastModifiedTime(new Date());
-            em.merge(coordAction);
+            Set<String> dirtyLobFields = coordAction.getDirtyLobFields();
+            StringBuilder query = new StringBuilder(UPDATE_QUERY);
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    query.append(", w.").append(field).append(" = :").append(field);
+                }
+            }
+            query.append(" where w.id = :id");
+            Query q = em.createQuery(query.toString());
+            q.setParameter("id", coordAction.getId());
+            q.setParameter("type", coordAction.getType());
+            q.setParameter("actionNumber", coordAction.getActionNumber());
+            q.setParameter("timeOut", coordAction.getTimeOut());
+            q.setParameter("externalStatus", coordAction.getExternalStatus());
+            q.setParameter("trackerUri", coordAction.getTrackerUri());
+            q.setParameter("consoleUrl", coordAction.getConsoleUrl());
+            q.setParameter("errorCode", coordAction.getErrorCode());
+            q.setParameter("errorMessage", coordAction.getErrorMessage());
+            q.setParameter("jobId", coordAction.getJobId());
+            q.setParameter("status", coordAction.getStatus().toString());
+            q.setParameter("nominalTime", coordAction.getNominalTimestamp());
+            q.setParameter("lastModifiedTime", coordAction.getLastModifiedTimestamp());
+            q.setParameter("createdTime", coordAction.getCreatedTimestamp());
+            q.setParameter("rerunTime", coordAction.getRerunTimestamp());
+            q.setParameter("externalId", coordAction.getExternalId());
+            q.setParameter("pending", coordAction.getPending());
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    q.setParameter(field, getLobValue(field));
+                }
+            }
+            if (q.executeUpdate() == 0) {
+                // not in the database yet
+                em.merge(coordAction);
+            }
             return null;
         }
         catch (Exception e) {
@@ -40,6 +85,25 @@ public class CoordActionUpdateJPAExecutor implements JPAExecutor<Void> {
         }
     }
 
+    private Object getLobValue(String field) {
+        if (field.equals("createdConf")) {
+            return coordAction.getCreatedConf();
+        }
+        if (field.equals("runConf")) {
+            return coordAction.getRunConf();
+        }
+        if (field.equals("actionXml")) {
+            return coordAction.getActionXml();
+        }
+        if (field.equals("missingDependencies")) {
+            return coordAction.getMissingDependencies();
+        }
+        if (field.equals("slaXml")) {
+            return coordAction.getSlaXml();
+        }
+        throw new IllegalArgumentException(field);
+    }
+
     /* (non-Javadoc)
      * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
      */
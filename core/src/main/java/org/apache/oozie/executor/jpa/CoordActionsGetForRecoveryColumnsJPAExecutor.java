@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA Executor to get a page of the coordinator actions to recover, the WAITING and SUBMITTED actions and the pending
+ * SUSPENDED, KILLED and RUNNING actions not modified for a given time.
+ * <p/>
+ * Only the ID, job ID, status and external ID of the actions are loaded. The actions are returned in ascending ID
+ * order, the next page is obtained using the ID of the last action of the previous page.
+ */
+public class CoordActionsGetForRecoveryColumnsJPAExecutor implements JPAExecutor<List<CoordinatorActionBean>> {
+
+    private final long checkAgeSecs;
+    private final String lastId;
+    private final int limit;
+
+    /**
+     * Create the executor.
+     *
+     * @param checkAgeSecs minimum age, in seconds, of the last modification of the actions.
+     * @param lastId ID of the last action of the previous page, an empty string for the first page.
+     * @param limit maximum number of actions to return.
+     */
+    public CoordActionsGetForRecoveryColumnsJPAExecutor(long checkAgeSecs, String lastId, int limit) {
+        this.checkAgeSecs = checkAgeSecs;
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = ParamChecker.checkGTZero(limit, "limit");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CoordinatorActionBean> execute(EntityManager em) throws JPAExecutorException {
+        List<CoordinatorActionBean> actionList = new ArrayList<CoordinatorActionBean>();
+        try {
+            Timestamp ts = new Timestamp(System.currentTimeMillis() - checkAgeSecs * 1000);
+            Query q = em.createNamedQuery("GET_COORD_ACTIONS_COLUMNS_FOR_RECOVERY_OLDER_THAN");
+            q.setParameter("lastModifiedTime", ts);
+            q.setParameter("id", lastId);
+            q.setMaxResults(limit);
+            List<Object[]> rows = q.getResultList();
+            for (Object[] row : rows) {
+                CoordinatorActionBean action = new CoordinatorActionBean();
+                action.setId((String) row[0]);
+                action.setJobId((String) row[1]);
+                action.setStatus(CoordinatorAction.Status.valueOf((String) row[2]));
+                action.setExternalId((String) row[3]);
+                actionList.add(action);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return actionList;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordActionsGetForRecoveryColumnsJPAExecutor";
+    }
+
+}
@@ -90,6 +90,7 @@ public class CoordActionsRunningGetJPAExecutor implements JPAExecutor<List<Coord
             action.setNominalTime(a.getNominalTime());
             action.setSlaXml(a.getSlaXml());
             action.setStatus(a.getStatus());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
@@ -100,6 +100,7 @@ public class CoordActionsSubsetGetForJobJPAExecutor implements JPAExecutor<List<
             action.setNominalTime(a.getNominalTime());
             action.setSlaXml(a.getSlaXml());
             action.setStatus(a.getStatus());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
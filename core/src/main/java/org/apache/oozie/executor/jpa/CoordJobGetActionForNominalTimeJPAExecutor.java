@@ -85,6 +85,7 @@ public class CoordJobGetActionForNominalTimeJPAExecutor implements JPAExecutor<C
             action.setNominalTime(a.getNominalTime());
             action.setSlaXml(a.getSlaXml());
             action.setStatus(a.getStatus());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
@@ -92,6 +92,7 @@ public class CoordJobGetActionsForDatesJPAExecutor implements JPAExecutor<List<C
             action.setNominalTime(a.getNominalTime());
             action.setSlaXml(a.getSlaXml());
             action.setStatus(a.getStatus());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
@@ -82,6 +82,7 @@ public class CoordJobGetActionsJPAExecutor implements JPAExecutor<List<Coordinat
             action.setNominalTime(a.getNominalTime());
             action.setSlaXml(a.getSlaXml());
             action.setStatus(a.getStatus());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.HashMap;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA command to count the actions of a coordinator job by status, using a single grouped query instead of loading
+ * the actions.
+ */
+public class CoordJobGetActionsStatusCountJPAExecutor implements
+        JPAExecutor<CoordJobGetActionsStatusCountJPAExecutor.StatusCount> {
+
+    /**
+     * The number of actions of a coordinator job.
+     */
+    public static class StatusCount {
+        private final HashMap<CoordinatorAction.Status, Integer> nonPending = new HashMap<CoordinatorAction.Status, Integer>();
+        private int pending;
+        private int total;
+
+        /**
+         * @return the number of non pending actions by status
+         */
+        public HashMap<CoordinatorAction.Status, Integer> getNonPendingCount() {
+            return nonPending;
+        }
+
+        /**
+         * @return the number of pending actions
+         */
+        public int getPendingCount() {
+            return pending;
+        }
+
+        /**
+         * @return the number of actions
+         */
+        public int getTotalCount() {
+            return total;
+        }
+
+        private void add(CoordinatorAction.Status status, boolean isPending, int count) {
+            if (isPending) {
+                pending += count;
+            }
+            else {
+                Integer current = nonPending.get(status);
+                nonPending.put(status, (current == null) ? count : current + count);
+            }
+            total += count;
+        }
+    }
+
+    private String coordJobId = null;
+
+    public CoordJobGetActionsStatusCountJPAExecutor(String coordJobId) {
+        ParamChecker.notNull(coordJobId, "coordJobId");
+        this.coordJobId = coordJobId;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordJobGetActionsStatusCountJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public StatusCount execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Query q = em.createNamedQuery("GET_COORD_ACTIONS_STATUS_PENDING_COUNT_FOR_JOB");
+            q.setParameter("jobId", coordJobId);
+            List<Object[]> rows = q.getResultList();
+            StatusCount statusCount = new StatusCount();
+            for (Object[] row : rows) {
+                CoordinatorAction.Status status = CoordinatorAction.Status.valueOf((String) row[0]);
+                boolean isPending = ((Number) row[1]).intValue() > 0;
+                statusCount.add(status, isPending, ((Number) row[2]).intValue());
+            }
+            return statusCount;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+}
@@ -26,6 +26,8 @@ import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.CoordinatorJobInfo;
 import org.apache.oozie.client.Job.Status;
 import org.apache.oozie.client.CoordinatorJob.Timeunit;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
 import org.apache.oozie.store.StoreStatusFilter;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
@@ -43,6 +45,7 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String after;
 
     public CoordJobInfoGetJPAExecutor(Map<String, List<String>> filter, int start, int len) {
         ParamChecker.notNull(filter, "filter");
@@ -51,6 +54,18 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
         this.len = len;
     }
 
+    /**
+     * Create an executor that uses keyset paging, the jobs are ordered by creation time, newest first.
+     *
+     * @param filter the filter
+     * @param after id of the last job of the previous page, empty for the first page
+     * @param len number of jobs to get
+     */
+    public CoordJobInfoGetJPAExecutor(Map<String, List<String>> filter, String after, int len) {
+        this(filter, 1, len);
+        this.after = ParamChecker.notNull(after, "after");
+    }
+
     @Override
     public String getName() {
         return "CoordInfoGetJPAExecutor";
@@ -69,23 +84,32 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
 
         int realLen = 0;
 
+        String countQuery = (orArray.size() == 0) ? null : sb.toString().replace(StoreStatusFilter.coordSeletStr, StoreStatusFilter.coordCountStr);
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0) {
+        if (after != null) {
+            boolean afterJob = after.length() > 0;
+            StoreStatusFilter.keyset(sb, StoreStatusFilter.coordSeletStr, afterJob);
+            q = em.createQuery(sb.toString());
+            if (afterJob) {
+                q.setParameter(StoreStatusFilter.KEYSET_TIME, StoreStatusFilter.getKeysetTime(em, "CoordinatorJobBean",
+                                                                                               after));
+                q.setParameter(StoreStatusFilter.KEYSET_ID, after);
+            }
+            q.setMaxResults(len);
+        }
+        else if (orArray.size() == 0) {
             q = em.createNamedQuery("GET_COORD_JOBS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_COORD_JOBS_COUNT");
         }
         else {
-            StringBuilder sbTotal = new StringBuilder(sb);
             sb.append(" order by w.createdTimestamp desc ");
             q = em.createQuery(sb.toString());
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createQuery(sbTotal.toString().replace(StoreStatusFilter.coordSeletStr,
-                                                                          StoreStatusFilter.coordCountStr));
         }
+        qTotal = (countQuery == null) ? em.createNamedQuery("GET_COORD_JOBS_COUNT") : em.createQuery(countQuery);
 
         for (int i = 0; i < orArray.size(); i++) {
             q.setParameter(colArray.get(i), valArray.get(i));
@@ -107,7 +131,9 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
             coordBeansList.add(ww);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        JPAService jpaService = Services.get().get(JPAService.class);
+        realLen = jpaService.getJobsCount((countQuery == null) ? "GET_COORD_JOBS_COUNT" : countQuery + valArray,
+                                          qTotal);
 
         return new CoordinatorJobInfo(coordBeansList, start, len, realLen);
     }
@@ -1,8 +1,12 @@
 package org.apache.oozie.executor.jpa;
 
+import java.util.Set;
+
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.DateUtils;
 import org.apache.oozie.util.ParamChecker;
 
 /**
@@ -10,6 +14,20 @@ import org.apache.oozie.util.ParamChecker;
  */
 public class CoordJobUpdateJPAExecutor implements JPAExecutor<Void> {
 
+    private static final String UPDATE_QUERY = "update CoordinatorJobBean w set w.appPath = :appPath, w.appName = :appName, "
+            + "w.externalId = :externalId, w.frequency = :frequency, w.timeZone = :timeZone, "
+            + "w.concurrency = :concurrency, w.matThrottling = :matThrottling, w.timeOut = :timeOut, "
+            + "w.lastActionNumber = :lastActionNumber, w.user = :user, w.group = :groupName, "
+            + "w.bundleId = :bundleId, w.status = :status, w.startTimestamp = :startTime, "
+            + "w.endTimestamp = :endTime, w.pauseTimestamp = :pauseTime, w.createdTimestamp = :createdTime, "
+            + "w.timeUnitStr = :timeUnit, w.execution = :execution, w.lastActionTimestamp = :lastAction, "
+            + "w.nextMaterializedTimestamp = :nextMaterializedTime, "
+            + "w.lastModifiedTimestamp = :lastModifiedTime, w.suspendedTimestamp = :suspendedTime, "
+            + "w.pending = :pending, w.doneMaterialization = :doneMaterialization, "
+            + "w.appNamespace = :appNamespace";
+
+    private static final String[] LOB_FIELDS = {"conf", "authToken", "jobXml", "origJobXml", "slaXml"};
+
     private CoordinatorJobBean coordJob = null;
 
     /**
@@ -29,7 +47,51 @@ public class CoordJobUpdateJPAExecutor implements JPAExecutor<Void> {
     @Override
     public Void execute(EntityManager em) throws JPAExecutorException {
         try {
-            em.merge(coordJob);
+            Set<String> dirtyLobFields = coordJob.getDirtyLobFields();
+            StringBuilder query = new StringBuilder(UPDATE_QUERY);
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    query.append(", w.").append(field).append(" = :").append(field);
+                }
+            }
+            query.append(" where w.id = :id");
+            Query q = em.createQuery(query.toString());
+            q.setParameter("id", coordJob.getId());
+            q.setParameter("appPath", coordJob.getAppPath());
+            q.setParameter("appName", coordJob.getAppName());
+            q.setParameter("externalId", coordJob.getExternalId());
+            q.setParameter("frequency", coordJob.getFrequency());
+            q.setParameter("timeZone", coordJob.getTimeZone());
+            q.setParameter("concurrency", coordJob.getConcurrency());
+            q.setParameter("matThrottling", coordJob.getMatThrottling());
+            q.setParameter("timeOut", coordJob.getTimeout());
+            q.setParameter("lastActionNumber", coordJob.getLastActionNumber());
+            q.setParameter("user", coordJob.getUser());
+            q.setParameter("groupName", coordJob.getGroup());
+            q.setParameter("bundleId", coordJob.getBundleId());
+            q.setParameter("status", coordJob.getStatusStr());
+            q.setParameter("startTime", coordJob.getStartTimestamp());
+            q.setParameter("endTime", coordJob.getEndTimestamp());
+            q.setParameter("pauseTime", DateUtils.convertDateToTimestamp(coordJob.getPauseTime()));
+            q.setParameter("createdTime", coordJob.getCreatedTimestamp());
+            q.setParameter("timeUnit", coordJob.getTimeUnitStr());
+            q.setParameter("execution", coordJob.getExecution());
+            q.setParameter("lastAction", coordJob.getLastActionTimestamp());
+            q.setParameter("nextMaterializedTime", coordJob.getNextMaterializedTimestamp());
+            q.setParameter("lastModifiedTime", coordJob.getLastModifiedTimestamp());
+            q.setParameter("suspendedTime", coordJob.getSuspendedTimestamp());
+            q.setParameter("pending", coordJob.isPending() ? 1 : 0);
+            q.setParameter("doneMaterialization", coordJob.isDoneMaterialization() ? 1 : 0);
+            q.setParameter("appNamespace", coordJob.getAppNamespace());
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    q.setParameter(field, getLobValue(field));
+                }
+            }
+            if (q.executeUpdate() == 0) {
+                // not in the database yet
+                em.merge(coordJob);
+            }
             return null;
         }
         catch (Exception e) {
@@ -37,6 +99,25 @@ public class CoordJobUpdateJPAExecutor implements JPAExecutor<Void> {
         }
     }
 
+    private Object getLobValue(String field) {
+        if (field.equals("conf")) {
+            return coordJob.getConf();
+        }
+        if (field.equals("authToken")) {
+            return coordJob.getAuthToken();
+        }
+        if (field.equals("jobXml")) {
+            return coordJob.getJobXml();
+        }
+        if (field.equals("origJobXml")) {
+            return coordJob.getOrigJobXml();
+        }
+        if (field.equals("slaXml")) {
+            return coordJob.getSlaXml();
+        }
+        throw new IllegalArgumentException(field);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA command to get the coordinator jobs which qualify for materialization together with their number of active
+ * (waiting) actions, using a single grouped query.
+ */
+public class CoordJobsToBeMaterializedWithActiveCountJPAExecutor implements
+        JPAExecutor<List<CoordJobsToBeMaterializedWithActiveCountJPAExecutor.Candidate>> {
+
+    /**
+     * A coordinator job which qualifies for materialization.
+     */
+    public static class Candidate {
+        private final String jobId;
+        private final int matThrottling;
+        private final int activeCount;
+
+        public Candidate(String jobId, int matThrottling, int activeCount) {
+            this.jobId = jobId;
+            this.matThrottling = matThrottling;
+            this.activeCount = activeCount;
+        }
+
+        /**
+         * @return the coordinator job ID
+         */
+        public String getJobId() {
+            return jobId;
+        }
+
+        /**
+         * @return the materialization throttle of the coordinator job
+         */
+        public int getMatThrottling() {
+            return matThrottling;
+        }
+
+        /**
+         * @return the number of active (waiting) actions of the coordinator job
+         */
+        public int getActiveCount() {
+            return activeCount;
+        }
+    }
+
+    private Date dateInput;
+    private int limit;
+
+    /**
+     * @param date materialization time
+     * @param limit maximum number of coordinator jobs to return, no limit if not greater than zero
+     */
+    public CoordJobsToBeMaterializedWithActiveCountJPAExecutor(Date date, int limit) {
+        ParamChecker.notNull(date, "Coord Job Materialization Date");
+        this.dateInput = date;
+        this.limit = limit;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordJobsToBeMaterializedWithActiveCountJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Candidate> execute(EntityManager em) throws JPAExecutorException {
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        try {
+            Query q = em.createNamedQuery("GET_COORD_JOBS_OLDER_THAN_WITH_ACTIVE_COUNT");
+            Timestamp ts = new Timestamp(dateInput.getTime());
+            q.setParameter(1, ts);
+            q.setParameter(2, ts);
+            if (limit > 0) {
+                q.setMaxResults(limit);
+            }
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                if (arr != null && arr[0] != null) {
+                    int matThrottling = (arr[1] != null) ? ((Number) arr[1]).intValue() : 0;
+                    int activeCount = (arr[2] != null) ? ((Number) arr[2]).intValue() : 0;
+                    candidates.add(new Candidate((String) arr[0], matThrottling, activeCount));
+                }
+            }
+            return candidates;
+        }
+        catch (IllegalStateException e) {
+            throw new JPAExecutorException(ErrorCode.E0601, e.getMessage(), e);
+        }
+    }
+
+}
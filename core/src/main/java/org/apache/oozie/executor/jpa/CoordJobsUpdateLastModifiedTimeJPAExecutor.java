@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA command to set the last modified time of a list of coordinator jobs with bulk updates.
+ * <p/>
+ * The IDs are updated in chunks so the IN lists stay within the limits of the databases.
+ */
+public class CoordJobsUpdateLastModifiedTimeJPAExecutor implements JPAExecutor<Integer> {
+
+    static final int IDS_PER_UPDATE = 500;
+
+    private List<String> jobIds;
+    private Date lastModifiedTime;
+
+    /**
+     * @param jobIds coordinator job IDs to update
+     * @param lastModifiedTime last modified time to set
+     */
+    public CoordJobsUpdateLastModifiedTimeJPAExecutor(List<String> jobIds, Date lastModifiedTime) {
+        this.jobIds = ParamChecker.notNull(jobIds, "jobIds");
+        this.lastModifiedTime = ParamChecker.notNull(lastModifiedTime, "lastModifiedTime");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordJobsUpdateLastModifiedTimeJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        int updated = 0;
+        try {
+            for (int i = 0; i < jobIds.size(); i += IDS_PER_UPDATE) {
+                Query q = em.createNamedQuery("UPDATE_COORD_JOBS_LAST_MODIFIED_TIME");
+                q.setParameter("lastModifiedTime", new Timestamp(lastModifiedTime.getTime()));
+                q.setParameter("ids", jobIds.subList(i, Math.min(i + IDS_PER_UPDATE, jobIds.size())));
+                updated += q.executeUpdate();
+            }
+            return updated;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+}
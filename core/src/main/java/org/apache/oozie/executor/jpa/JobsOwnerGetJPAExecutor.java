@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA command to get the owner user and group of a list of workflow, coordinator and bundle jobs.
+ * <p/>
+ * Only the ID, user and group columns are read. The IDs are queried in chunks so the IN lists stay within the limits
+ * of the databases. The returned map has the job ID as key and a <code>{user, group}</code> array as value, jobs that
+ * do not exist are not in the map.
+ */
+public class JobsOwnerGetJPAExecutor implements JPAExecutor<Map<String, String[]>> {
+
+    static final int IDS_PER_QUERY = 500;
+
+    private List<String> jobIds;
+
+    /**
+     * @param jobIds workflow, coordinator and bundle job IDs
+     */
+    public JobsOwnerGetJPAExecutor(List<String> jobIds) {
+        this.jobIds = ParamChecker.notNull(jobIds, "jobIds");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "JobsOwnerGetJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Map<String, String[]> execute(EntityManager em) throws JPAExecutorException {
+        List<String> wfIds = new ArrayList<String>();
+        List<String> bundleIds = new ArrayList<String>();
+        List<String> coordIds = new ArrayList<String>();
+        for (String jobId : jobIds) {
+            if (jobId.endsWith("-W")) {
+                wfIds.add(jobId);
+            }
+            else if (jobId.endsWith("-B")) {
+                bundleIds.add(jobId);
+            }
+            else {
+                coordIds.add(jobId);
+            }
+        }
+        Map<String, String[]> owners = new HashMap<String, String[]>();
+        try {
+            getOwners(em, "GET_WORKFLOWS_OWNER", wfIds, owners);
+            getOwners(em, "GET_BUNDLE_JOBS_OWNER", bundleIds, owners);
+            getOwners(em, "GET_COORD_JOBS_OWNER", coordIds, owners);
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return owners;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void getOwners(EntityManager em, String queryName, List<String> ids, Map<String, String[]> owners) {
+        for (int i = 0; i < ids.size(); i += IDS_PER_QUERY) {
+            Query q = em.createNamedQuery(queryName);
+            q.setParameter("ids", ids.subList(i, Math.min(i + IDS_PER_QUERY, ids.size())));
+            List<Object[]> rows = q.getResultList();
+            for (Object[] row : rows) {
+                owners.put((String) row[0], new String[]{(String) row[1], (String) row[2]});
+            }
+        }
+    }
+
+}
@@ -98,6 +98,7 @@ public class WorkflowActionGetJPAExecutor implements JPAExecutor<WorkflowActionB
             action.setStartTime(a.getStartTime());
             action.setStatus(a.getStatus());
             action.setJobId(a.getWfId());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
@@ -14,7 +14,10 @@
 */
 package org.apache.oozie.executor.jpa;
 
+import java.util.Set;
+
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 
 import org.apache.oozie.WorkflowActionBean;
 import org.apache.oozie.util.ParamChecker;
@@ -25,6 +28,16 @@ import org.apache.oozie.ErrorCode;
 */
 public class WorkflowActionUpdateJPAExecutor implements JPAExecutor<String> {
 
+    private static final String UPDATE_QUERY = "update WorkflowActionBean w set w.name = :name, w.cred = :cred, w.type = :type, "
+            + "w.retries = :retries, w.transition = :transition, w.externalId = :externalId, "
+            + "w.externalStatus = :externalStatus, w.trackerUri = :trackerUri, w.consoleUrl = :consoleUrl, "
+            + "w.errorCode = :errorCode, w.wfId = :wfId, w.status = :status, "
+            + "w.lastCheckTimestamp = :lastCheckTime, w.endTimestamp = :endTime, w.startTimestamp = :startTime, "
+            + "w.executionPath = :executionPath, w.pending = :pending, w.pendingAgeTimestamp = :pendingAge, "
+            + "w.signalValue = :signalValue, w.logToken = :logToken";
+
+    private static final String[] LOB_FIELDS = {"conf", "data", "errorMessage", "slaXml"};
+
     private WorkflowActionBean wfAction = null;
 
     public WorkflowActionUpdateJPAExecutor(WorkflowActionBean wfAction) {
@@ -39,9 +52,46 @@ public class WorkflowActionUpdateJPAExecutor implements JPAExecutor<String> {
 
     @Override
     public String execute(EntityManager em) throws JPAExecutorException {
-
         try {
-            em.merge(wfAction);
+            Set<String> dirtyLobFields = wfAction.getDirtyLobFields();
+            StringBuilder query = new StringBuilder(UPDATE_QUERY);
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    query.append(", w.").append(field).append(" = :").append(field);
+                }
+            }
+            query.append(" where w.id = :id");
+            Query q = em.createQuery(query.toString());
+            q.setParameter("id", wfAction.getId());
+            q.setParameter("name", wfAction.getName());
+            q.setParameter("cred", wfAction.getCred());
+            q.setParameter("type", wfAction.getType());
+            q.setParameter("retries", wfAction.getRetries());
+            q.setParameter("transition", wfAction.getTransition());
+            q.setParameter("externalId", wfAction.getExternalId());
+            q.setParameter("externalStatus", wfAction.getExternalStatus());
+            q.setParameter("trackerUri", wfAction.getTrackerUri());
+            q.setParameter("consoleUrl", wfAction.getConsoleUrl());
+            q.setParameter("errorCode", wfAction.getErrorCode());
+            q.setParameter("wfId", wfAction.getWfId());
+            q.setParameter("status", wfAction.getStatusStr());
+            q.setParameter("lastCheckTime", wfAction.getLastCheckTimestamp());
+            q.setParameter("endTime", wfAction.getEndTimestamp());
+            q.setParameter("startTime", wfAction.getStartTimestamp());
+            q.setParameter("executionPath", wfAction.getExecutionPath());
+            q.setParameter("pending", wfAction.isPending() ? 1 : 0);
+            q.setParameter("pendingAge", wfAction.getPendingAgeTimestamp());
+            q.setParameter("signalValue", wfAction.getSignalValue());
+            q.setParameter("logToken", wfAction.getLogToken());
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    q.setParameter(field, getLobValue(field));
+                }
+            }
+            if (q.executeUpdate() == 0) {
+                // not in the database yet
+                em.merge(wfAction);
+            }
             return null;
         }
         catch (Exception e) {
@@ -49,4 +99,20 @@ public class WorkflowActionUpdateJPAExecutor implements JPAExecutor<String> {
         }
     }
 
+    private Object getLobValue(String field) {
+        if (field.equals("conf")) {
+            return wfAction.getConf();
+        }
+        if (field.equals("data")) {
+            return wfAction.getData();
+        }
+        if (field.equals("errorMessage")) {
+            return wfAction.getErrorMessage();
+        }
+        if (field.equals("slaXml")) {
+            return wfAction.getSlaXml();
+        }
+        throw new IllegalArgumentException(field);
+    }
+
 }
\ No newline at end of file
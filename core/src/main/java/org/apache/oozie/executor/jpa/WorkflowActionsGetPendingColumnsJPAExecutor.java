@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * JPA Executor to get a page of the pending workflow actions to recover.
+ * <p/>
+ * Only the ID, job ID, type, status and pending age of the actions are loaded. The actions are returned in ascending
+ * ID order, the next page is obtained using the ID of the last action of the previous page.
+ */
+public class WorkflowActionsGetPendingColumnsJPAExecutor implements JPAExecutor<List<WorkflowActionBean>> {
+
+    private final long minimumPendingAgeSecs;
+    private final String lastId;
+    private final int limit;
+
+    /**
+     * Create the executor.
+     *
+     * @param minimumPendingAgeSecs minimum pending age, in seconds, of the actions.
+     * @param lastId ID of the last action of the previous page, an empty string for the first page.
+     * @param limit maximum number of actions to return.
+     */
+    public WorkflowActionsGetPendingColumnsJPAExecutor(long minimumPendingAgeSecs, String lastId, int limit) {
+        this.minimumPendingAgeSecs = minimumPendingAgeSecs;
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = ParamChecker.checkGTZero(limit, "limit");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<WorkflowActionBean> execute(EntityManager em) throws JPAExecutorException {
+        List<WorkflowActionBean> actionList = new ArrayList<WorkflowActionBean>();
+        try {
+            Timestamp ts = new Timestamp(System.currentTimeMillis() - minimumPendingAgeSecs * 1000);
+            Query q = em.createNamedQuery("GET_PENDING_ACTIONS_COLUMNS");
+            q.setParameter("pendingAge", ts);
+            q.setParameter("id", lastId);
+            q.setMaxResults(limit);
+            List<Object[]> rows = q.getResultList();
+            for (Object[] row : rows) {
+                WorkflowActionBean action = new WorkflowActionBean();
+                action.setId((String) row[0]);
+                action.setJobId((String) row[1]);
+                action.setType((String) row[2]);
+                action.setStatus(WorkflowAction.Status.valueOf((String) row[3]));
+                action.setPendingAge(DateUtils.toDate((Timestamp) row[4]));
+                actionList.add(action);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return actionList;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "WorkflowActionsGetPendingColumnsJPAExecutor";
+    }
+
+}
@@ -102,6 +102,7 @@ public class WorkflowActionsRunningGetJPAExecutor implements JPAExecutor<List<Wo
             action.setStartTime(bean.getStartTime());
             action.setStatus(bean.getStatus());
             action.setJobId(bean.getWfId());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
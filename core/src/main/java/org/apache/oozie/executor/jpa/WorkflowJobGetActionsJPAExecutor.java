@@ -91,6 +91,7 @@ public class WorkflowJobGetActionsJPAExecutor implements JPAExecutor<List<Workfl
             action.setStartTime(a.getStartTime());
             action.setStatus(a.getStatus());
             action.setJobId(a.getWfId());
+            action.clearDirtyLobFields();
             return action;
         }
         return null;
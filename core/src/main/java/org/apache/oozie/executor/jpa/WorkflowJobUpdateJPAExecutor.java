@@ -15,8 +15,10 @@
 package org.apache.oozie.executor.jpa;
 
 import java.util.Date;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.util.ParamChecker;
@@ -27,6 +29,14 @@ import org.apache.oozie.ErrorCode;
 */
 public class WorkflowJobUpdateJPAExecutor implements JPAExecutor<Void> {
 
+    private static final String UPDATE_QUERY = "update WorkflowJobBean w set w.appName = :appName, w.appPath = :appPath, w.user = :user, "
+            + "w.group = :groupName, w.run = :run, w.parentId = :parentId, w.logToken = :logToken, "
+            + "w.externalId = :externalId, w.status = :status, w.createdTimestamp = :createdTime, "
+            + "w.startTimestamp = :startTime, w.endTimestamp = :endTime, "
+            + "w.lastModifiedTimestamp = :lastModifiedTime";
+
+    private static final String[] LOB_FIELDS = {"conf", "protoActionConf", "authToken", "wfInstance", "slaXml"};
+
     private WorkflowJobBean wfJob = null;
 
     public WorkflowJobUpdateJPAExecutor(WorkflowJobBean wfJob) {
@@ -49,7 +59,38 @@ public class WorkflowJobUpdateJPAExecutor implements JPAExecutor<Void> {
     public Void execute(EntityManager em) throws JPAExecutorException {
         try {
             wfJob.setLastModifiedTime(new Date());
-            em.merge(wfJob);
+            Set<String> dirtyLobFields = wfJob.getDirtyLobFields();
+            StringBuilder query = new StringBuilder(UPDATE_QUERY);
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    query.append(", w.").append(field).append(" = :").append(field);
+                }
+            }
+            query.append(" where w.id = :id");
+            Query q = em.createQuery(query.toString());
+            q.setParameter("id", wfJob.getId());
+            q.setParameter("appName", wfJob.getAppName());
+            q.setParameter("appPath", wfJob.getAppPath());
+            q.setParameter("user", wfJob.getUser());
+            q.setParameter("groupName", wfJob.getGroup());
+            q.setParameter("run", wfJob.getRun());
+            q.setParameter("parentId", wfJob.getParentId());
+            q.setParameter("logToken", wfJob.getLogToken());
+            q.setParameter("externalId", wfJob.getExternalId());
+            q.setParameter("status", wfJob.getStatusStr());
+            q.setParameter("createdTime", wfJob.getCreatedTimestamp());
+            q.setParameter("startTime", wfJob.getStartTimestamp());
+            q.setParameter("endTime", wfJob.getEndTimestamp());
+            q.setParameter("lastModifiedTime", wfJob.getLastModifiedTimestamp());
+            for (String field : LOB_FIELDS) {
+                if (dirtyLobFields.contains(field)) {
+                    q.setParameter(field, getLobValue(field));
+                }
+            }
+            if (q.executeUpdate() == 0) {
+                // not in the database yet
+                em.merge(wfJob);
+            }
             return null;
         }
         catch (Exception e) {
@@ -57,4 +98,23 @@ public class WorkflowJobUpdateJPAExecutor implements JPAExecutor<Void> {
         }
     }
 
+    private Object getLobValue(String field) {
+        if (field.equals("conf")) {
+            return wfJob.getConf();
+        }
+        if (field.equals("protoActionConf")) {
+            return wfJob.getProtoActionConf();
+        }
+        if (field.equals("authToken")) {
+            return wfJob.getAuthToken();
+        }
+        if (field.equals("wfInstance")) {
+            return wfJob.getWfInstance();
+        }
+        if (field.equals("slaXml")) {
+            return wfJob.getSlaXml();
+        }
+        throw new IllegalArgumentException(field);
+    }
+
 }
\ No newline at end of file
@@ -26,6 +26,10 @@ import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.WorkflowsInfo;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowJob.Status;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.store.StoreStatusFilter;
+import org.apache.oozie.util.ParamChecker;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.openjpa.persistence.OpenJPAQuery;
 import org.apache.openjpa.persistence.jdbc.FetchDirection;
@@ -42,6 +46,7 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
     private final Map<String, List<String>> filter;
     private final int start;
     private final int len;
+    private final String after;
 
     /**
      * This JPA Executor gets the workflows info for the range.
@@ -54,6 +59,22 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
         this.filter = filter;
         this.start = start;
         this.len = len;
+        this.after = null;
+    }
+
+    /**
+     * This JPA Executor gets the workflows info using keyset paging, the workflows are ordered by creation time,
+     * newest first.
+     *
+     * @param filter
+     * @param after id of the last workflow of the previous page, empty for the first page
+     * @param len
+     */
+    public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, String after, int len) {
+        this.filter = filter;
+        this.start = 1;
+        this.len = len;
+        this.after = ParamChecker.notNull(after, "after");
     }
 
     /* (non-Javadoc)
@@ -209,27 +230,36 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
 
         int realLen = 0;
 
+        String countQuery = (orArray.size() == 0) ? null : sb.toString().replace(seletStr, countStr);
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0) {
+        if (after != null) {
+            boolean afterJob = after.length() > 0;
+            StoreStatusFilter.keyset(sb, seletStr, afterJob);
+            q = em.createQuery(sb.toString());
+            if (afterJob) {
+                q.setParameter(StoreStatusFilter.KEYSET_TIME, StoreStatusFilter.getKeysetTime(em, "WorkflowJobBean",
+                                                                                               after));
+                q.setParameter(StoreStatusFilter.KEYSET_ID, after);
+            }
+            q.setMaxResults(len);
+        }
+        else if (orArray.size() == 0) {
             q = em.createNamedQuery("GET_WORKFLOWS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_WORKFLOWS_COUNT");
         }
         else {
-            if (orArray.size() > 0) {
-                StringBuilder sbTotal = new StringBuilder(sb);
-                sb.append(" order by w.startTimestamp desc ");
-                q = em.createQuery(sb.toString());
-                q.setFirstResult(start - 1);
-                q.setMaxResults(len);
-                qTotal = em.createQuery(sbTotal.toString().replace(seletStr, countStr));
-                for (int i = 0; i < orArray.size(); i++) {
-                    q.setParameter(colArray.get(i), valArray.get(i));
-                    qTotal.setParameter(colArray.get(i), valArray.get(i));
-                }
-            }
+            sb.append(" order by w.startTimestamp desc ");
+            q = em.createQuery(sb.toString());
+            q.setFirstResult(start - 1);
+            q.setMaxResults(len);
+        }
+        qTotal = (countQuery == null) ? em.createNamedQuery("GET_WORKFLOWS_COUNT") : em.createQuery(countQuery);
+
+        for (int i = 0; i < orArray.size(); i++) {
+            q.setParameter(colArray.get(i), valArray.get(i));
+            qTotal.setParameter(colArray.get(i), valArray.get(i));
         }
 
         OpenJPAQuery kq = OpenJPAPersistence.cast(q);
@@ -247,7 +277,9 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
             wfBeansList.add(ww);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        JPAService jpaService = Services.get().get(JPAService.class);
+        realLen = jpaService.getJobsCount((countQuery == null) ? "GET_WORKFLOWS_COUNT" : countQuery + valArray,
+                                          qTotal);
 
         return new WorkflowsInfo(wfBeansList, start, len, realLen);
     }
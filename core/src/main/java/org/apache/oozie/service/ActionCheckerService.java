@@ -18,17 +18,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.ErrorCode;
-import org.apache.oozie.WorkflowActionBean;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.coord.CoordActionCheckCommand;
 import org.apache.oozie.command.coord.CoordActionCheckXCommand;
 import org.apache.oozie.command.wf.ActionCheckCommand;
 import org.apache.oozie.command.wf.ActionCheckXCommand;
-import org.apache.oozie.executor.jpa.CoordActionsRunningGetJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordActionIdsRunningGetJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
-import org.apache.oozie.executor.jpa.WorkflowActionsRunningGetJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowActionIdsRunningGetJPAExecutor;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
 
@@ -55,9 +54,16 @@ public class ActionCheckerService implements Service {
      */
     public static final String CONF_CALLABLE_BATCH_SIZE = CONF_PREFIX + "callable.batch.size";
 
+    /**
+     * The number of action IDs read from the database at a time.
+     */
+    public static final String CONF_PAGE_SIZE = CONF_PREFIX + "page.size";
+
     protected static final String INSTRUMENTATION_GROUP = "actionchecker";
     protected static final String INSTR_CHECK_ACTIONS_COUNTER = "checks_wf_actions";
     protected static final String INSTR_CHECK_COORD_ACTIONS_COUNTER = "checks_coord_actions";
+    protected static final String INSTR_CHECK_ACTIONS_TIMER = "sweep_wf_actions";
+    protected static final String INSTR_CHECK_COORD_ACTIONS_TIMER = "sweep_coord_actions";
 
     private static boolean useXCommand = true;
 
@@ -109,31 +115,39 @@ public class ActionCheckerService implements Service {
                 throw new CommandException(ErrorCode.E0610);
             }
 
-            List<WorkflowActionBean> actions;
-            try {
-                actions = jpaService
-                        .execute(new WorkflowActionsRunningGetJPAExecutor(actionCheckDelay));
-            }
-            catch (JPAExecutorException je) {
-                throw new CommandException(je);
-            }
-
-            if (actions == null || actions.size() == 0) {
-                return;
-            }
-            msg.append(" WF_ACTIONS : " + actions.size());
-
-            for (WorkflowActionBean action : actions) {
-                Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                        INSTR_CHECK_ACTIONS_COUNTER, 1);
-                if (useXCommand) {
-                    queueCallable(new ActionCheckXCommand(action.getId()));
+            Instrumentation.Cron cron = new Instrumentation.Cron();
+            cron.start();
+            int pageSize = Services.get().getConf().getInt(CONF_PAGE_SIZE, 1000);
+            int count = 0;
+            String lastId = "";
+            List<String> actionIds;
+            do {
+                try {
+                    actionIds = jpaService.execute(new WorkflowActionIdsRunningGetJPAExecutor(actionCheckDelay, lastId,
+                            pageSize));
                 }
-                else {
-                    queueCallable(new ActionCheckCommand(action.getId()));
+                catch (JPAExecutorException je) {
+                    throw new CommandException(je);
                 }
-            }
+                for (String actionId : actionIds) {
+                    if (useXCommand) {
+                        queueCallable(new ActionCheckXCommand(actionId));
+                    }
+                    else {
+                        queueCallable(new ActionCheckCommand(actionId));
+                    }
+                }
+                if (!actionIds.isEmpty()) {
+                    lastId = actionIds.get(actionIds.size() - 1);
+                    count += actionIds.size();
+                }
+            } while (actionIds.size() == pageSize);
+            cron.stop();
+            instrumentSweep(INSTR_CHECK_ACTIONS_TIMER, cron, INSTR_CHECK_ACTIONS_COUNTER, count);
 
+            if (count > 0) {
+                msg.append(" WF_ACTIONS : " + count);
+            }
         }
 
         /**
@@ -147,32 +161,56 @@ public class ActionCheckerService implements Service {
                 throw new CommandException(ErrorCode.E0610);
             }
 
-            List<CoordinatorActionBean> cactions;
-            try {
-                cactions = jpaService.execute(new CoordActionsRunningGetJPAExecutor(
-                        actionCheckDelay));
-            }
-            catch (JPAExecutorException je) {
-                throw new CommandException(je);
-            }
-
-            if (cactions == null || cactions.size() == 0) {
-                return;
-            }
-
-            msg.append(" COORD_ACTIONS : " + cactions.size());
-
-            for (CoordinatorActionBean caction : cactions) {
-                Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                        INSTR_CHECK_COORD_ACTIONS_COUNTER, 1);
-                if (useXCommand) {
-                    queueCallable(new CoordActionCheckXCommand(caction.getId(), actionCheckDelay));
+            Instrumentation.Cron cron = new Instrumentation.Cron();
+            cron.start();
+            int pageSize = Services.get().getConf().getInt(CONF_PAGE_SIZE, 1000);
+            int count = 0;
+            String lastId = "";
+            List<String> actionIds;
+            do {
+                try {
+                    actionIds = jpaService.execute(new CoordActionIdsRunningGetJPAExecutor(actionCheckDelay, lastId,
+                            pageSize));
+                }
+                catch (JPAExecutorException je) {
+                    throw new CommandException(je);
                 }
-                else {
-                    queueCallable(new CoordActionCheckCommand(caction.getId(), actionCheckDelay));
+                for (String actionId : actionIds) {
+                    if (useXCommand) {
+                        queueCallable(new CoordActionCheckXCommand(actionId, actionCheckDelay));
+                    }
+                    else {
+                        queueCallable(new CoordActionCheckCommand(actionId, actionCheckDelay));
+                    }
                 }
+                if (!actionIds.isEmpty()) {
+                    lastId = actionIds.get(actionIds.size() - 1);
+                    count += actionIds.size();
+                }
+            } while (actionIds.size() == pageSize);
+            cron.stop();
+            instrumentSweep(INSTR_CHECK_COORD_ACTIONS_TIMER, cron, INSTR_CHECK_COORD_ACTIONS_COUNTER, count);
+
+            if (count > 0) {
+                msg.append(" COORD_ACTIONS : " + count);
             }
+        }
 
+        /**
+         * Record the duration of a sweep and the number of actions it queued checks for.
+         *
+         * @param timer name of the sweep timer.
+         * @param cron cron of the sweep.
+         * @param counter name of the checked actions counter.
+         * @param count number of actions the sweep queued checks for.
+         */
+        private void instrumentSweep(String timer, Instrumentation.Cron cron, String counter, int count) {
+            InstrumentationService instrumentationService = Services.get().get(InstrumentationService.class);
+            if (instrumentationService != null) {
+                Instrumentation instr = instrumentationService.get();
+                instr.addCron(INSTRUMENTATION_GROUP, timer, cron);
+                instr.incr(INSTRUMENTATION_GROUP, counter, count);
+            }
         }
 
         /**
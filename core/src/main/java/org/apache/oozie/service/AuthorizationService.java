@@ -20,21 +20,22 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.oozie.BundleJobBean;
-import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.ErrorCode;
-import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.client.XOozieClient;
-import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
-import org.apache.oozie.executor.jpa.WorkflowJobGetJPAExecutor;
+import org.apache.oozie.executor.jpa.JobsOwnerGetJPAExecutor;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XLog;
 
@@ -50,6 +51,16 @@ public class AuthorizationService implements Service {
      */
     public static final String CONF_SECURITY_ENABLED = CONF_PREFIX + "security.enabled";
 
+    /**
+     * Configuration parameter for the max number of job owners (user and group) kept in memory, 0 disables the cache.
+     */
+    public static final String CONF_JOB_OWNER_CACHE_SIZE = CONF_PREFIX + "job.owner.cache.size";
+
+    /**
+     * Configuration parameter for the time, in seconds, group membership checks are cached, 0 disables the cache.
+     */
+    public static final String CONF_GROUP_CACHE_TTL = CONF_PREFIX + "group.cache.ttl";
+
     /**
      * File that contains list of admin users for Oozie.
      */
@@ -63,8 +74,13 @@ public class AuthorizationService implements Service {
     protected static final String INSTRUMENTATION_GROUP = "authorization";
     protected static final String INSTR_FAILED_AUTH_COUNTER = "authorization.failed";
 
+    private static final int MAX_GROUP_CACHE_ENTRIES = 10000;
+
     private Set<String> adminUsers;
     private boolean securityEnabled;
+    private Map<String, String[]> jobOwners;
+    private Map<String, CachedMembership> groupMemberships;
+    private long groupCacheTTL;
 
     private final XLog log = XLog.getLog(getClass());
     private Instrumentation instrumentation;
@@ -79,6 +95,9 @@ public class AuthorizationService implements Service {
     public void init(Services services) throws ServiceException {
         adminUsers = new HashSet<String>();
         securityEnabled = services.getConf().getBoolean(CONF_SECURITY_ENABLED, false);
+        jobOwners = createLRUCache(services.getConf().getInt(CONF_JOB_OWNER_CACHE_SIZE, 10000));
+        groupMemberships = createLRUCache(MAX_GROUP_CACHE_ENTRIES);
+        groupCacheTTL = services.getConf().getLong(CONF_GROUP_CACHE_TTL, 300) * 1000;
         instrumentation = Services.get().get(InstrumentationService.class).get();
         if (securityEnabled) {
             log.info("Oozie running with security enabled");
@@ -137,10 +156,21 @@ public class AuthorizationService implements Service {
         }
     }
 
+    private static <V> Map<String, V> createLRUCache(final int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
     /**
-     * Destroy the service. <p/> This implementation does a NOP.
+     * Destroy the service. <p/> Clears the job owner and group membership caches.
      */
     public void destroy() {
+        jobOwners.clear();
+        groupMemberships.clear();
     }
 
     /**
@@ -174,11 +204,47 @@ public class AuthorizationService implements Service {
      * can not be performed.
      */
     public void authorizeForGroup(String user, String group) throws AuthorizationException {
-        if (securityEnabled && !isUserInGroup(user, group)) {
+        if (securityEnabled && !isUserInGroupCached(user, group)) {
             throw new AuthorizationException(ErrorCode.E0502, user, group);
         }
     }
 
+    /**
+     * Group membership check result cached for {@link #CONF_GROUP_CACHE_TTL} seconds.
+     */
+    private static class CachedMembership {
+        private final boolean member;
+        private final long expires;
+
+        CachedMembership(boolean member, long expires) {
+            this.member = member;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Check if the user belongs to the group or not using the group membership cache. <p/> Negative results are cached
+     * as well, so unknown users do not hit the group mapping on every request.
+     *
+     * @param user user name.
+     * @param group group name.
+     * @return if the user belongs to the group or not.
+     * @throws AuthorizationException thrown if the authorization query can not be performed.
+     */
+    private boolean isUserInGroupCached(String user, String group) throws AuthorizationException {
+        if (groupCacheTTL <= 0) {
+            return isUserInGroup(user, group);
+        }
+        String key = user + "\n" + group;
+        long now = System.currentTimeMillis();
+        CachedMembership membership = groupMemberships.get(key);
+        if (membership == null || membership.expires <= now) {
+            membership = new CachedMembership(isUserInGroup(user, group), now + groupCacheTTL);
+            groupMemberships.put(key, membership);
+        }
+        return membership.member;
+    }
+
     /**
      * Return the default group to which the user belongs. <p/> This implementation always returns 'users'.
      *
@@ -331,74 +397,72 @@ public class AuthorizationService implements Service {
      * @throws AuthorizationException thrown if the user is not authorized for the job.
      */
     public void authorizeForJob(String user, String jobId, boolean write) throws AuthorizationException {
+        authorizeForJobs(user, Collections.singletonList(jobId), write);
+    }
+
+    /**
+     * Check if the user+group is authorized to operate on all the specified jobs. <p/> Checks if the user is a
+     * super-user or the one who started each job. <p/> Read operations are allowed to all users. <p/> The owners of the
+     * jobs that are not cached yet are read with a single query.
+     *
+     * @param user user name.
+     * @param jobIds workflow, coordinator and bundle job ids.
+     * @param write indicates if the check is for read or write job tasks.
+     * @throws AuthorizationException thrown if the user is not authorized for any of the jobs.
+     */
+    public void authorizeForJobs(String user, List<String> jobIds, boolean write) throws AuthorizationException {
         if (securityEnabled && write && !isAdmin(user)) {
-            // handle workflow jobs
-            if (jobId.endsWith("-W")) {
-                WorkflowJobBean jobBean = null;
-                JPAService jpaService = Services.get().get(JPAService.class);
-                if (jpaService != null) {
-                    try {
-                        jobBean = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
-                    }
-                    catch (JPAExecutorException je) {
-                        throw new AuthorizationException(je);
-                    }
+            Map<String, String[]> owners = getJobOwners(jobIds);
+            for (String jobId : jobIds) {
+                String[] owner = owners.get(jobId);
+                if (owner == null) {
+                    throw new AuthorizationException(new JPAExecutorException(ErrorCode.E0604, jobId));
                 }
-                else {
-                    throw new AuthorizationException(ErrorCode.E0610);
-                }
-                if (jobBean != null && !jobBean.getUser().equals(user)) {
-                    if (!isUserInGroup(user, jobBean.getGroup())) {
-                        incrCounter(INSTR_FAILED_AUTH_COUNTER, 1);
-                        throw new AuthorizationException(ErrorCode.E0508, user, jobId);
-                    }
+                if (!user.equals(owner[0]) && !isUserInGroupCached(user, owner[1])) {
+                    incrCounter(INSTR_FAILED_AUTH_COUNTER, 1);
+                    throw new AuthorizationException(jobId.endsWith("-W") ? ErrorCode.E0508 : ErrorCode.E0509, user,
+                                                     jobId);
                 }
             }
-            // handle bundle jobs
-            else if (jobId.endsWith("-B")){
-                BundleJobBean jobBean = null;
-                JPAService jpaService = Services.get().get(JPAService.class);
-                if (jpaService != null) {
-                    try {
-                        jobBean = jpaService.execute(new BundleJobGetJPAExecutor(jobId));
-                    }
-                    catch (JPAExecutorException je) {
-                        throw new AuthorizationException(je);
-                    }
-                }
-                else {
-                    throw new AuthorizationException(ErrorCode.E0610);
-                }
-                if (jobBean != null && !jobBean.getUser().equals(user)) {
-                    if (!isUserInGroup(user, jobBean.getGroup())) {
-                        incrCounter(INSTR_FAILED_AUTH_COUNTER, 1);
-                        throw new AuthorizationException(ErrorCode.E0509, user, jobId);
-                    }
-                }
+        }
+    }
+
+    /**
+     * Return the owner user and group of the jobs, reading the ones not in the cache from the database.
+     *
+     * @param jobIds job ids.
+     * @return map with the <code>{user, group}</code> of the jobs by job id, jobs that do not exist are not in the
+     * map.
+     * @throws AuthorizationException thrown if the job owners could not be read.
+     */
+    private Map<String, String[]> getJobOwners(List<String> jobIds) throws AuthorizationException {
+        Map<String, String[]> owners = new HashMap<String, String[]>();
+        List<String> missing = new ArrayList<String>();
+        for (String jobId : jobIds) {
+            String[] owner = jobOwners.get(jobId);
+            if (owner != null) {
+                owners.put(jobId, owner);
             }
-            // handle coordinator jobs
             else {
-                CoordinatorJobBean jobBean = null;
-                JPAService jpaService = Services.get().get(JPAService.class);
-                if (jpaService != null) {
-                    try {
-                        jobBean = jpaService.execute(new CoordJobGetJPAExecutor(jobId));
-                    }
-                    catch (JPAExecutorException je) {
-                        throw new AuthorizationException(je);
-                    }
-                }
-                else {
-                    throw new AuthorizationException(ErrorCode.E0610);
-                }
-                if (jobBean != null && !jobBean.getUser().equals(user)) {
-                    if (!isUserInGroup(user, jobBean.getGroup())) {
-                        incrCounter(INSTR_FAILED_AUTH_COUNTER, 1);
-                        throw new AuthorizationException(ErrorCode.E0509, user, jobId);
-                    }
-                }
+                missing.add(jobId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            JPAService jpaService = Services.get().get(JPAService.class);
+            if (jpaService == null) {
+                throw new AuthorizationException(ErrorCode.E0610);
+            }
+            Map<String, String[]> loaded;
+            try {
+                loaded = jpaService.execute(new JobsOwnerGetJPAExecutor(missing));
+            }
+            catch (JPAExecutorException je) {
+                throw new AuthorizationException(je);
             }
+            owners.putAll(loaded);
+            jobOwners.putAll(loaded);
         }
+        return owners;
     }
 
     /**
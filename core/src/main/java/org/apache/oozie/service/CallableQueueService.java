@@ -16,10 +16,8 @@ package org.apache.oozie.service;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
 import java.util.concurrent.BlockingQueue;
@@ -34,6 +32,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.client.OozieClient.SYSTEM_MODE;
 import org.apache.oozie.util.Instrumentable;
 import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.PartitionedPriorityDelayQueue;
 import org.apache.oozie.util.PollablePriorityDelayQueue;
 import org.apache.oozie.util.PriorityDelayQueue;
 import org.apache.oozie.util.XCallable;
@@ -76,55 +75,72 @@ public class CallableQueueService implements Service, Instrumentable {
     public static final String CONF_THREADS = CONF_PREFIX + "threads";
     public static final String CONF_CALLABLE_CONCURRENCY = CONF_PREFIX + "callable.concurrency";
     public static final String CONF_CALLABLE_NEXT_ELIGIBLE = CONF_PREFIX + "callable.next.eligible";
+    public static final String CONF_QUEUE_PARTITIONED = CONF_PREFIX + "queue.partitioned";
 
     public static final int CONCURRENCY_DELAY = 500;
 
     public static final int SAFE_MODE_DELAY = 60000;
 
-    private final Map<String, AtomicInteger> activeCallables = new HashMap<String, AtomicInteger>();
+    private final ConcurrentHashMap<String, AtomicInteger> activeCallables =
+            new ConcurrentHashMap<String, AtomicInteger>();
 
-    private final Map<String, Date> uniqueCallables = new ConcurrentHashMap<String, Date>();
+    private final ConcurrentHashMap<String, Date> uniqueCallables = new ConcurrentHashMap<String, Date>();
 
     private int maxCallableConcurrency;
 
-    private boolean callableBegin(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
+    /**
+     * Return the concurrency counter for a callable type, creating it if necessary.
+     * <p/>
+     * Counters are never removed, the number of callable types is small and bounded.
+     *
+     * @param type callable type.
+     * @return the concurrency counter for the type.
+     */
+    private AtomicInteger getActiveCounter(String type) {
+        AtomicInteger counter = activeCallables.get(type);
+        if (counter == null) {
+            AtomicInteger newCounter = new AtomicInteger(0);
+            counter = activeCallables.putIfAbsent(type, newCounter);
             if (counter == null) {
-                counter = new AtomicInteger(1);
-                activeCallables.put(callable.getType(), counter);
-                return true;
-            }
-            else {
-                int i = counter.incrementAndGet();
-                return i <= maxCallableConcurrency;
+                counter = newCounter;
             }
         }
+        return counter;
     }
 
-    private void callableEnd(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                throw new IllegalStateException("It should not happen");
+    /**
+     * Try to acquire a concurrency slot for the callable type.
+     * <p/>
+     * The slot is only taken if the type is under its maximum concurrency, if the slot is taken {@link #callableEnd}
+     * must be invoked to release it.
+     *
+     * @param callable callable to acquire the slot for.
+     * @return <code>true</code> if a slot was acquired, <code>false</code> if the type reached its maximum concurrency.
+     */
+    private boolean callableBegin(XCallable<?> callable) {
+        AtomicInteger counter = getActiveCounter(callable.getType());
+        while (true) {
+            int current = counter.get();
+            if (current >= maxCallableConcurrency) {
+                return false;
             }
-            else {
-                counter.decrementAndGet();
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
             }
         }
     }
 
-    private boolean callableReachMaxConcurrency(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                return true;
-            }
-            else {
-                int i = counter.get();
-                return i < maxCallableConcurrency;
-            }
+    private void callableEnd(XCallable<?> callable) {
+        AtomicInteger counter = activeCallables.get(callable.getType());
+        if (counter == null) {
+            throw new IllegalStateException("It should not happen");
         }
+        counter.decrementAndGet();
+    }
+
+    private boolean callableReachMaxConcurrency(XCallable<?> callable) {
+        AtomicInteger counter = activeCallables.get(callable.getType());
+        return counter == null || counter.get() < maxCallableConcurrency;
     }
 
     // Callables are wrapped with the this wrapper for execution, for logging
@@ -150,8 +166,8 @@ public class CallableQueueService implements Service, Instrumentable {
                 return;
             }
             XCallable<?> callable = getElement();
-            try {
-                if (callableBegin(callable)) {
+            if (callableBegin(callable)) {
+                try {
                     cron.stop();
                     addInQueueCron(cron);
                     XLog.Info.get().clear();
@@ -172,17 +188,17 @@ public class CallableQueueService implements Service, Instrumentable {
                         XLog.Info.get().clear();
                     }
                 }
-                else {
-                    log.warn("max concurrency for callable [{0}] exceeded, requeueing with [{1}]ms delay", callable
-                            .getType(), CONCURRENCY_DELAY);
-                    setDelay(CONCURRENCY_DELAY, TimeUnit.MILLISECONDS);
-                    removeFromUniqueCallables();
-                    queue(this, true);
-                    incrCounter(callable.getType() + "#exceeded.concurrency", 1);
+                finally {
+                    callableEnd(callable);
                 }
             }
-            finally {
-                callableEnd(callable);
+            else {
+                log.warn("max concurrency for callable [{0}] exceeded, requeueing with [{1}]ms delay", callable
+                        .getType(), CONCURRENCY_DELAY);
+                setDelay(CONCURRENCY_DELAY, TimeUnit.MILLISECONDS);
+                removeFromUniqueCallables();
+                queue(this, true);
+                incrCounter(callable.getType() + "#exceeded.concurrency", 1);
             }
         }
 
@@ -195,11 +211,14 @@ public class CallableQueueService implements Service, Instrumentable {
         }
 
         /**
-         * Filter the duplicate callables from the list before queue this.
+         * Filter the duplicate callables from the list before queue this, adding the keys of the retained callables
+         * to the unique map.
          * <p/>
-         * If it is single callable, checking if key is in unique map or not.
+         * If it is single callable, the key is added to the unique map only if it is not there already.
          * <p/>
          * If it is composite callable, remove duplicates callables from the composite.
+         * <p/>
+         * The check and the add are atomic, two threads queuing callables with the same key cannot both succeed.
          *
          * @return true if this callable should be queued
          */
@@ -209,20 +228,7 @@ public class CallableQueueService implements Service, Instrumentable {
                 return ((CompositeCallable) callable).removeDuplicates();
             }
             else {
-                return uniqueCallables.containsKey(callable.getKey()) == false;
-            }
-        }
-
-        /**
-         * Add the keys to the set
-         */
-        public void addToUniqueCallables() {
-            XCallable<?> callable = getElement();
-            if (callable instanceof CompositeCallable) {
-                ((CompositeCallable) callable).addToUniqueCallables();
-            }
-            else {
-                ((ConcurrentHashMap<String, Date>) uniqueCallables).putIfAbsent(callable.getKey(), new Date());
+                return uniqueCallables.putIfAbsent(callable.getKey(), new Date()) == null;
             }
         }
 
@@ -336,7 +342,8 @@ public class CallableQueueService implements Service, Instrumentable {
         }
 
         /**
-         * Remove the duplicate callables from the list before queue them
+         * Remove the duplicate callables from the list before queue them, adding the keys of the retained callables
+         * to the unique map.
          *
          * @return true if callables should be queued
          */
@@ -347,9 +354,8 @@ public class CallableQueueService implements Service, Instrumentable {
                 return false;
             }
             for (XCallable<?> callable : callables) {
-                if (!uniqueCallables.containsKey(callable.getKey()) && !set.contains(callable.getKey())) {
+                if (set.add(callable.getKey()) && uniqueCallables.putIfAbsent(callable.getKey(), new Date()) == null) {
                     filteredCallables.add(callable);
-                    set.add(callable.getKey());
                 }
             }
             callables = filteredCallables;
@@ -359,15 +365,6 @@ public class CallableQueueService implements Service, Instrumentable {
             return true;
         }
 
-        /**
-         * Add the keys to the set
-         */
-        public void addToUniqueCallables() {
-            for (XCallable<?> callable : callables) {
-                ((ConcurrentHashMap<String, Date>) uniqueCallables).putIfAbsent(callable.getKey(), new Date());
-            }
-        }
-
         /**
          * Remove the keys from the set
          */
@@ -382,7 +379,7 @@ public class CallableQueueService implements Service, Instrumentable {
     private XLog log = XLog.getLog(getClass());
 
     private int queueSize;
-    private PriorityDelayQueue<CallableWrapper> queue;
+    private BlockingQueue<QueueElement<CallableWrapper>> queue;
     private AtomicLong delayQueueExecCounter = new AtomicLong(0);
     private ThreadPoolExecutor executor;
     private Instrumentation instrumentation;
@@ -418,8 +415,47 @@ public class CallableQueueService implements Service, Instrumentable {
         queueSize = conf.getInt(CONF_QUEUE_SIZE, 10000);
         int threads = conf.getInt(CONF_THREADS, 10);
         boolean callableNextEligible = conf.getBoolean(CONF_CALLABLE_NEXT_ELIGIBLE, true);
+        boolean partitioned = conf.getBoolean(CONF_QUEUE_PARTITIONED, false);
+
+        if (partitioned) {
+            // Callables are partitioned by type within each priority, the eligibility (max concurrency) check is
+            // done once per type and no queue wide lock is taken. Anti-starvation runs in the scheduler.
+            final PartitionedPriorityDelayQueue<CallableWrapper> partitionedQueue =
+                    new PartitionedPriorityDelayQueue<CallableWrapper>(3, 1000 * 30, TimeUnit.MILLISECONDS,
+                                                                       queueSize) {
+                        @Override
+                        protected void debug(String msgTemplate, Object... msgArgs) {
+                            log.trace(msgTemplate, msgArgs);
+                        }
 
-        if (!callableNextEligible) {
+                        @Override
+                        protected String getPartition(QueueElement<CallableWrapper> element) {
+                            QueueElement<?> wrapper = element;
+                            return ((CallableWrapper) wrapper).getElement().getType();
+                        }
+
+                        @Override
+                        protected boolean eligibleToPoll(QueueElement<?> element) {
+                            if (element != null) {
+                                CallableWrapper wrapper = (CallableWrapper) element;
+                                if (element.getElement() != null) {
+                                    return callableReachMaxConcurrency(wrapper.getElement());
+                                }
+                            }
+                            return false;
+                        }
+                    };
+            Runnable antiStarvation = new Runnable() {
+                public void run() {
+                    partitionedQueue.antiStarvation();
+                }
+            };
+            services.get(SchedulerService.class).schedule(antiStarvation, PriorityDelayQueue.ANTI_STARVATION_INTERVAL,
+                                                          PriorityDelayQueue.ANTI_STARVATION_INTERVAL,
+                                                          SchedulerService.Unit.MILLISEC);
+            queue = partitionedQueue;
+        }
+        else if (!callableNextEligible) {
             queue = new PriorityDelayQueue<CallableWrapper>(3, 1000 * 30, TimeUnit.MILLISECONDS, queueSize) {
                 @Override
                 protected void debug(String msgTemplate, Object... msgArgs) {
@@ -516,18 +552,28 @@ public class CallableQueueService implements Service, Instrumentable {
     /**
      * @return int size of queue
      */
-    public synchronized int queueSize() {
+    public int queueSize() {
         return queue.size();
     }
 
-    private synchronized boolean queue(CallableWrapper wrapper, boolean ignoreQueueSize) {
+    /**
+     * Queue a callable wrapper for execution.
+     * <p/>
+     * This method does not lock, the queue size check is a best effort check and the queue may briefly exceed its
+     * configured size under heavy concurrent queuing.
+     *
+     * @param wrapper callable wrapper to queue.
+     * @param ignoreQueueSize if the queue size limit should be ignored (used when requeuing).
+     * @return <code>true</code> if the callable was queued or discarded as a duplicate, <code>false</code> if the queue
+     *         is full.
+     */
+    private boolean queue(CallableWrapper wrapper, boolean ignoreQueueSize) {
         if (!ignoreQueueSize && queue.size() >= queueSize) {
             log.warn("queue if full, ignoring queuing for [{0}]", wrapper.getElement());
             return false;
         }
         if (!executor.isShutdown()) {
             if (wrapper.filterDuplicates()) {
-                wrapper.addToUniqueCallables();
                 try {
                     executor.execute(wrapper);
                 }
@@ -578,7 +624,7 @@ public class CallableQueueService implements Service, Instrumentable {
      * @return <code>true</code> if the callable was queued, <code>false</code> if the queue is full and the callable
      *         was not queued.
      */
-    public synchronized boolean queue(XCallable<?> callable, long delay) {
+    public boolean queue(XCallable<?> callable, long delay) {
         if (callable == null) {
             return true;
         }
@@ -611,7 +657,7 @@ public class CallableQueueService implements Service, Instrumentable {
      *         were not queued.
      */
     @SuppressWarnings("unchecked")
-    public synchronized boolean queueSerial(List<? extends XCallable<?>> callables, long delay) {
+    public boolean queueSerial(List<? extends XCallable<?>> callables, long delay) {
         boolean queued;
         if (callables == null || callables.size() == 0) {
             queued = true;
@@ -19,12 +19,9 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.command.coord.CoordMaterializeTransitionXCommand;
-import org.apache.oozie.executor.jpa.CoordActionsActiveCountJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobGetRunningActionsCountJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobUpdateJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobsToBeMaterializedJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobsToBeMaterializedWithActiveCountJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobsUpdateLastModifiedTimeJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
@@ -48,23 +45,34 @@ public class CoordMaterializeTriggerService implements Service {
      * The number of callables to be queued in a batch.
      */
     public static final String CONF_CALLABLE_BATCH_SIZE = CONF_PREFIX + "callable.batch.size";
+    /**
+     * The maximum number of coordinator jobs looked up for materialization at every interval.
+     */
+    public static final String CONF_MATERIALIZATION_PAGE_SIZE = CONF_PREFIX + "materialization.page.size";
 
     private static final String INSTRUMENTATION_GROUP = "coord_job_mat";
     private static final String INSTR_MAT_JOBS_COUNTER = "jobs";
     private static final int CONF_LOOKUP_INTERVAL_DEFAULT = 300;
     private static final int CONF_MATERIALIZATION_WINDOW_DEFAULT = 3600;
+    private static final int CONF_MATERIALIZATION_PAGE_SIZE_DEFAULT = 500;
 
     /**
      * This runnable class will run in every "interval" to queue CoordMaterializeTransitionXCommand.
      */
     static class CoordMaterializeTriggerRunnable implements Runnable {
         private int materializationWindow;
+        private int pageSize;
         private long delay = 0;
         private List<XCallable<Void>> callables;
         private List<XCallable<Void>> delayedCallables;
 
         public CoordMaterializeTriggerRunnable(int materializationWindow) {
+            this(materializationWindow, CONF_MATERIALIZATION_PAGE_SIZE_DEFAULT);
+        }
+
+        public CoordMaterializeTriggerRunnable(int materializationWindow, int pageSize) {
             this.materializationWindow = materializationWindow;
+            this.pageSize = pageSize;
         }
 
         @Override
@@ -96,6 +104,10 @@ public class CoordMaterializeTriggerService implements Service {
 
         /**
          * Recover coordinator jobs that should be materialized
+         * <p/>
+         * The candidate jobs and their number of waiting actions are looked up with a single grouped query, the
+         * materialization throttle is applied in memory and the last modified time of the jobs queued for
+         * materialization is updated in bulk.
          */
         private void runCoordJobMatLookup() {
             XLog.Info.get().clear();
@@ -106,27 +118,28 @@ public class CoordMaterializeTriggerService implements Service {
                 // get current date
                 Date currDate = new Date(new Date().getTime() + CONF_LOOKUP_INTERVAL_DEFAULT * 1000);
                 // get list of all jobs that have actions that should be materialized.
-                CoordJobsToBeMaterializedJPAExecutor cmatcmd = new CoordJobsToBeMaterializedJPAExecutor(currDate, 50);
-                List<CoordinatorJobBean> materializeJobs = jpaService.execute(cmatcmd);
+                List<CoordJobsToBeMaterializedWithActiveCountJPAExecutor.Candidate> materializeJobs = jpaService
+                        .execute(new CoordJobsToBeMaterializedWithActiveCountJPAExecutor(currDate, pageSize));
                 LOG.debug("CoordMaterializeTriggerService - Curr Date= " + currDate + ", Num jobs to materialize = "
                         + materializeJobs.size());
-                for (CoordinatorJobBean coordJob : materializeJobs) {
+                List<String> queuedJobIds = new ArrayList<String>();
+                for (CoordJobsToBeMaterializedWithActiveCountJPAExecutor.Candidate coordJob : materializeJobs) {
                     Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
                             INSTR_MAT_JOBS_COUNTER, 1);
-                    int numWaitingActions = jpaService
-                            .execute(new CoordActionsActiveCountJPAExecutor(coordJob.getId()));
-                    LOG.debug("Job :" + coordJob.getId() + "  numWaitingActions : " + numWaitingActions + " MatThrottle : "
-                            + coordJob.getMatThrottling());
+                    int numWaitingActions = coordJob.getActiveCount();
+                    LOG.debug("Job :" + coordJob.getJobId() + "  numWaitingActions : " + numWaitingActions
+                            + " MatThrottle : " + coordJob.getMatThrottling());
                     if (numWaitingActions >= coordJob.getMatThrottling()) {
-                        LOG.debug("Materialization skipped for JobID [" + coordJob.getId() + " already waiting "
+                        LOG.debug("Materialization skipped for JobID [" + coordJob.getJobId() + " already waiting "
                                 + numWaitingActions + " actions. MatThrottle is : " + coordJob.getMatThrottling());
                         continue;
                     }
-                    queueCallable(new CoordMaterializeTransitionXCommand(coordJob.getId(), materializationWindow));
-                    //update lastModifiedTime so next time others might have higher chance to get pick up
-                    coordJob.setLastModifiedTime(new Date());
-                    jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
-
+                    queueCallable(new CoordMaterializeTransitionXCommand(coordJob.getJobId(), materializationWindow));
+                    queuedJobIds.add(coordJob.getJobId());
+                }
+                //update lastModifiedTime so next time others might have higher chance to get pick up
+                if (!queuedJobIds.isEmpty()) {
+                    jpaService.execute(new CoordJobsUpdateLastModifiedTimeJPAExecutor(queuedJobIds, new Date()));
                 }
 
             }
@@ -165,7 +178,8 @@ public class CoordMaterializeTriggerService implements Service {
     public void init(Services services) throws ServiceException {
         Configuration conf = services.getConf();
         Runnable lookupTriggerJobsRunnable = new CoordMaterializeTriggerRunnable(conf.getInt(
-                CONF_MATERIALIZATION_WINDOW, CONF_MATERIALIZATION_WINDOW_DEFAULT));// Default is 1 hour
+                CONF_MATERIALIZATION_WINDOW, CONF_MATERIALIZATION_WINDOW_DEFAULT),// Default is 1 hour
+                conf.getInt(CONF_MATERIALIZATION_PAGE_SIZE, CONF_MATERIALIZATION_PAGE_SIZE_DEFAULT));
         services.get(SchedulerService.class).schedule(lookupTriggerJobsRunnable, 10,
                                                       conf.getInt(CONF_LOOKUP_INTERVAL, CONF_LOOKUP_INTERVAL_DEFAULT),// Default is 5 minutes
                                                       SchedulerService.Unit.SEC);
@@ -100,6 +100,7 @@ public class DBLiteWorkflowStoreService extends LiteWorkflowStoreService impleme
     }
 
     public void init(Services services) throws ServiceException {
+        super.init(services);
         Configuration conf = services.getConf();
         statusWindow = conf.getInt(CONF_METRICS_INTERVAL_WINDOW, 3600);
         int statusMetricsCollectionInterval = conf.getInt(CONF_METRICS_INTERVAL_MINS, 5);
@@ -157,6 +158,7 @@ public class DBLiteWorkflowStoreService extends LiteWorkflowStoreService impleme
 
     @Override
     public void instrument(Instrumentation instr) {
+        super.instrument(instr);
         final WorkflowJob.Status[] wfStatusArr = WorkflowJob.Status.values();
         for (WorkflowJob.Status aWfStatusArr : wfStatusArr) {
             final String statusName = aWfStatusArr.name();
@@ -0,0 +1,407 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.oozie.command.coord.CoordActionInputCheckXCommand;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XLog;
+
+/**
+ * The dependency availability service checks the existence of coordinator input dependencies on behalf of all the
+ * waiting coordinator actions.
+ * <p/>
+ * Paths are deduplicated across the actions of a user: a path known to exist is cached for as long as it stays in the
+ * cache, a path known not to exist is cached for a short time. Paths are cached per user and group, a path available
+ * to one user is not assumed to be available to other users, as they may not have access to it. Paths not cached are checked in batches, the paths of a batch sharing
+ * the same parent directory are checked with a single listing of the parent directory.
+ * <p/>
+ * Actions waiting for a missing path register themselves with the service. The service periodically checks the missing
+ * paths with registered actions and, when a path appears, queues an input check for the actions waiting for it. The
+ * waiting actions still requeue their own input check, the notification only shortens the wait.
+ */
+public class DependencyAvailabilityService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "DependencyAvailabilityService.";
+
+    /**
+     * Maximum number of existing paths kept in the cache.
+     */
+    public static final String CONF_POSITIVE_CACHE_SIZE = CONF_PREFIX + "positive.cache.size";
+
+    /**
+     * Time, in seconds, a missing path is cached.
+     */
+    public static final String CONF_NEGATIVE_CACHE_TTL = CONF_PREFIX + "negative.cache.ttl";
+
+    /**
+     * Time interval, in seconds, at which the missing paths with waiting actions are checked.
+     */
+    public static final String CONF_NOTIFICATION_INTERVAL = CONF_PREFIX + "notification.interval";
+
+    /**
+     * Time, in seconds, an action stays registered as waiting for a missing path if it does not register again.
+     */
+    public static final String CONF_WAITING_TTL = CONF_PREFIX + "waiting.ttl";
+
+    private static final String INSTRUMENTATION_GROUP = "dependencies";
+
+    private static XLog LOG = XLog.getLog(DependencyAvailabilityService.class);
+
+    private Map<String, Boolean> existing;
+    private final ConcurrentHashMap<String, Long> missing = new ConcurrentHashMap<String, Long>();
+    private final ConcurrentHashMap<String, Waiting> waiting = new ConcurrentHashMap<String, Waiting>();
+    private long negativeTTL;
+    private long waitingTTL;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong existsCalls = new AtomicLong();
+    private final AtomicLong listStatusCalls = new AtomicLong();
+    private final AtomicLong notifications = new AtomicLong();
+
+    /**
+     * The actions waiting for a missing path and the user used to check it.
+     */
+    private static class Waiting {
+        private final String path;
+        private final String user;
+        private final String group;
+        private final ConcurrentHashMap<String, Long> actions = new ConcurrentHashMap<String, Long>();
+
+        private Waiting(String path, String user, String group) {
+            this.path = path;
+            this.user = user;
+            this.group = group;
+        }
+    }
+
+    /**
+     * Runnable that checks the missing paths with waiting actions and notifies the actions of the paths that appeared.
+     */
+    class NotificationRunnable implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                notifyWaitingActions();
+            }
+            catch (Throwable ex) {
+                LOG.warn("Exception while checking dependencies with waiting actions, {0}", ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Initialize the dependency availability service.
+     *
+     * @param services services instance.
+     */
+    @Override
+    public void init(Services services) {
+        Configuration conf = services.getConf();
+        final int cacheSize = conf.getInt(CONF_POSITIVE_CACHE_SIZE, 100000);
+        existing = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        negativeTTL = conf.getInt(CONF_NEGATIVE_CACHE_TTL, 60) * 1000L;
+        waitingTTL = conf.getInt(CONF_WAITING_TTL, 600) * 1000L;
+        int interval = conf.getInt(CONF_NOTIFICATION_INTERVAL, 60);
+        services.get(SchedulerService.class).schedule(new NotificationRunnable(), interval, interval,
+                                                      SchedulerService.Unit.SEC);
+    }
+
+    /**
+     * Destroy the dependency availability service.
+     */
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Return the public interface for the dependency availability service.
+     *
+     * @return {@link DependencyAvailabilityService}.
+     */
+    @Override
+    public Class<? extends Service> getInterface() {
+        return DependencyAvailabilityService.class;
+    }
+
+    /**
+     * Instrument the dependency availability service.
+     *
+     * @param instr instrumentation to use.
+     */
+    @Override
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.existing", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                synchronized (existing) {
+                    return (long) existing.size();
+                }
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.missing", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) missing.size();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "waiting.paths", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) waiting.size();
+            }
+        });
+        addCounterVariable(instr, "cache.hits", cacheHits);
+        addCounterVariable(instr, "exists.calls", existsCalls);
+        addCounterVariable(instr, "liststatus.calls", listStatusCalls);
+        addCounterVariable(instr, "notifications", notifications);
+    }
+
+    private void addCounterVariable(Instrumentation instr, String name, final AtomicLong counter) {
+        instr.addVariable(INSTRUMENTATION_GROUP, name, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return counter.get();
+            }
+        });
+    }
+
+    /**
+     * Check if a path exists.
+     *
+     * @param path path to check.
+     * @param user user to check the path as.
+     * @param group group to check the path as.
+     * @return <code>true</code> if the path exists.
+     * @throws IOException thrown if the path could not be checked.
+     */
+    public boolean exists(String path, String user, String group) throws IOException {
+        return exists(Arrays.asList(path), user, group)[0];
+    }
+
+    /**
+     * Check if a list of paths exist.
+     * <p/>
+     * The paths not cached are checked in a single batch.
+     *
+     * @param paths paths to check.
+     * @param user user to check the paths as.
+     * @param group group to check the paths as.
+     * @return the existence of each one of the paths, in the same order.
+     * @throws IOException thrown if the paths could not be checked.
+     */
+    public boolean[] exists(List<String> paths, String user, String group) throws IOException {
+        return check(paths, user, group, true);
+    }
+
+    /**
+     * Register an action as waiting for a missing path.
+     * <p/>
+     * When the path appears an input check is queued for the action. Actions must register again each time they find
+     * the path missing, registrations expire after {@link #CONF_WAITING_TTL}.
+     *
+     * @param path missing path.
+     * @param actionId coordinator action ID.
+     * @param user user to check the path as.
+     * @param group group to check the path as.
+     */
+    public void addWaitingAction(String path, String actionId, String user, String group) {
+        Waiting newWaiting = new Waiting(path, user, group);
+        Waiting pathWaiting = waiting.putIfAbsent(getCacheKey(path, user, group), newWaiting);
+        if (pathWaiting == null) {
+            pathWaiting = newWaiting;
+        }
+        pathWaiting.actions.put(actionId, System.currentTimeMillis() + waitingTTL);
+    }
+
+    /**
+     * Check the missing paths with waiting actions, ignoring the missing paths cache, and queue an input check for the
+     * actions waiting for the paths that appeared.
+     */
+    void notifyWaitingActions() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Long> expirations = missing.values().iterator(); expirations.hasNext();) {
+            if (expirations.next() < now) {
+                expirations.remove();
+            }
+        }
+
+        Map<String, List<Waiting>> pathsByUser = new LinkedHashMap<String, List<Waiting>>();
+        for (Iterator<Map.Entry<String, Waiting>> it = waiting.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Waiting> entry = it.next();
+            Waiting pathWaiting = entry.getValue();
+            for (Iterator<Long> expirations = pathWaiting.actions.values().iterator(); expirations.hasNext();) {
+                if (expirations.next() < now) {
+                    expirations.remove();
+                }
+            }
+            if (pathWaiting.actions.isEmpty()) {
+                it.remove();
+                continue;
+            }
+            String key = pathWaiting.user + ":" + pathWaiting.group;
+            List<Waiting> userWaiting = pathsByUser.get(key);
+            if (userWaiting == null) {
+                userWaiting = new ArrayList<Waiting>();
+                pathsByUser.put(key, userWaiting);
+            }
+            userWaiting.add(pathWaiting);
+        }
+
+        CallableQueueService callableQueue = Services.get().get(CallableQueueService.class);
+        for (List<Waiting> userWaiting : pathsByUser.values()) {
+            Waiting user = userWaiting.get(0);
+            List<String> paths = new ArrayList<String>(userWaiting.size());
+            for (Waiting pathWaiting : userWaiting) {
+                paths.add(pathWaiting.path);
+            }
+            try {
+                boolean[] exist = check(paths, user.user, user.group, false);
+                for (int i = 0; i < exist.length; i++) {
+                    if (exist[i]) {
+                        Waiting pathWaiting = waiting.remove(getCacheKey(paths.get(i), user.user, user.group));
+                        if (pathWaiting != null) {
+                            for (String actionId : pathWaiting.actions.keySet()) {
+                                LOG.debug("Path [{0}] is available, notifying action [{1}]", paths.get(i), actionId);
+                                callableQueue.queue(new CoordActionInputCheckXCommand(actionId, true));
+                                notifications.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            }
+            catch (IOException ex) {
+                LOG.warn("Could not check [{0}] paths as user [{1}], {2}", paths.size(), user.user,
+                         ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private boolean[] check(List<String> paths, String user, String group, boolean useMissingCache)
+            throws IOException {
+        boolean[] exist = new boolean[paths.size()];
+        long now = System.currentTimeMillis();
+
+        // paths not cached, grouped by parent directory
+        Map<Path, List<Integer>> unknown = new LinkedHashMap<Path, List<Integer>>();
+        for (int i = 0; i < exist.length; i++) {
+            String path = paths.get(i);
+            String key = getCacheKey(path, user, group);
+            Boolean cached;
+            synchronized (existing) {
+                cached = existing.get(key);
+            }
+            if (cached != null) {
+                exist[i] = true;
+                cacheHits.incrementAndGet();
+                continue;
+            }
+            Long expiration = missing.get(key);
+            if (expiration != null) {
+                if (useMissingCache && expiration >= now) {
+                    cacheHits.incrementAndGet();
+                    continue;
+                }
+                if (expiration < now) {
+                    missing.remove(key, expiration);
+                }
+            }
+            Path parent = new Path(path).getParent();
+            List<Integer> children = unknown.get(parent);
+            if (children == null) {
+                children = new ArrayList<Integer>();
+                unknown.put(parent, children);
+            }
+            children.add(i);
+        }
+
+        for (Map.Entry<Path, List<Integer>> entry : unknown.entrySet()) {
+            List<Integer> children = entry.getValue();
+            FileSystem fs = createFileSystem(user, group, entry.getKey() != null ? entry.getKey()
+                    : new Path(paths.get(children.get(0))));
+            if (children.size() == 1 || entry.getKey() == null) {
+                for (int i : children) {
+                    existsCalls.incrementAndGet();
+                    exist[i] = fs.exists(new Path(paths.get(i)));
+                }
+            }
+            else {
+                listStatusCalls.incrementAndGet();
+                Set<String> names = new HashSet<String>();
+                try {
+                    FileStatus[] statuses = fs.listStatus(entry.getKey());
+                    if (statuses != null) {
+                        for (FileStatus status : statuses) {
+                            names.add(status.getPath().getName());
+                        }
+                    }
+                }
+                catch (FileNotFoundException ex) {
+                    // the parent directory does not exist, neither do the paths
+                }
+                for (int i : children) {
+                    exist[i] = names.contains(new Path(paths.get(i)).getName());
+                }
+            }
+            for (int i : children) {
+                String key = getCacheKey(paths.get(i), user, group);
+                if (exist[i]) {
+                    synchronized (existing) {
+                        existing.put(key, Boolean.TRUE);
+                    }
+                    missing.remove(key);
+                }
+                else {
+                    missing.put(key, now + negativeTTL);
+                }
+            }
+        }
+        return exist;
+    }
+
+    private String getCacheKey(String path, String user, String group) {
+        return user + ":" + group + "\n" + path;
+    }
+
+    private FileSystem createFileSystem(String user, String group, Path path) throws IOException {
+        try {
+            return Services.get().get(HadoopAccessorService.class).createFileSystem(user, group, path.toUri(),
+                                                                                    new Configuration());
+        }
+        catch (HadoopAccessorException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+}
@@ -54,6 +54,8 @@ public class ELService implements Service {
     private HashMap<String, List<ELConstant>> constants;
     //<Group Name>, <List of functions>
     private HashMap<String, List<ELFunction>> functions;
+    //<Group Name>, <Context with the constants and functions of the group>
+    private HashMap<String, ELEvaluator.Context> groupContexts;
 
     private static class ELConstant {
         private String name;
@@ -131,6 +133,17 @@ public class ELService implements Service {
             tmpFunctions.addAll(extractFunctions(services.getConf(), CONF_EXT_FUNCTIONS + group));
             functions.put(group, tmpFunctions);
         }
+        groupContexts = new HashMap<String, ELEvaluator.Context>();
+        for (String group : groupList) {
+            ELEvaluator.Context context = new ELEvaluator.Context();
+            for (ELConstant constant : constants.get(group)) {
+                context.setVariable(constant.name, constant.value);
+            }
+            for (ELFunction function : functions.get(group)) {
+                context.addFunction(function.prefix, function.name, function.method);
+            }
+            groupContexts.put(group, context);
+        }
     }
 
     /**
@@ -140,6 +153,7 @@ public class ELService implements Service {
     public void destroy() {
         constants = null;
         functions = null;
+        groupContexts = null;
     }
 
     /**
@@ -155,30 +169,18 @@ public class ELService implements Service {
     /**
      * Return an {@link ELEvaluator} pre-configured with the constants and functions for the specific group of
      * EL-functions and variables defined in the configuration. If the group name doesn't exist,
-     * IllegalArgumentException is thrown
+     * IllegalArgumentException is thrown <p/> The constants and functions of the group are not copied into the
+     * evaluator, the evaluator context is created on top of a context shared by all the evaluators of the group.
      *
      * @param group: Name of the group of required EL Evaluator.
      * @return a preconfigured {@link ELEvaluator}.
      */
     public ELEvaluator createEvaluator(String group) {
-        ELEvaluator.Context context = new ELEvaluator.Context();
-        boolean groupDefined = false;
-        if (constants.containsKey(group)) {
-            for (ELConstant constant : constants.get(group)) {
-                context.setVariable(constant.name, constant.value);
-            }
-            groupDefined = true;
-        }
-        if (functions.containsKey(group)) {
-            for (ELFunction function : functions.get(group)) {
-                context.addFunction(function.prefix, function.name, function.method);
-            }
-            groupDefined = true;
-        }
-        if (groupDefined == false) {
+        ELEvaluator.Context groupContext = groupContexts.get(group);
+        if (groupContext == null) {
             throw new IllegalArgumentException("Group " + group + " is not defined");
         }
-        return new ELEvaluator(context);
+        return new ELEvaluator(new ELEvaluator.Context(groupContext));
     }
 
     private static String[] parseDefinition(String str) throws ServiceException {
@@ -0,0 +1,525 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Authenticator;
+import javax.mail.MessagingException;
+import javax.mail.PasswordAuthentication;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.command.wf.CompletedActionXCommand;
+import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.XLog;
+
+/**
+ * The email service delivers the messages of email actions asynchronously. <p/> Messages are written to a local outbox
+ * directory and the action moves on, a pool of sender threads delivers them in batches over a single SMTP connection
+ * per batch, retrying connection failures, and the action is completed through the callback mechanism once the
+ * message is delivered or has definitely failed. <p/> Pending messages found in the outbox at startup are delivered
+ * again.
+ */
+public class EmailService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "EmailService.";
+
+    /**
+     * Directory used as outbox, if empty the <code>oozie-email-outbox</code> directory under the Oozie data directory
+     * is used, or under the runtime directory if there is no data directory.
+     */
+    public static final String CONF_OUTBOX_DIR = CONF_PREFIX + "outbox.dir";
+
+    /**
+     * Number of sender threads.
+     */
+    public static final String CONF_THREADS = CONF_PREFIX + "threads";
+
+    /**
+     * Maximum number of messages delivered over the same SMTP connection.
+     */
+    public static final String CONF_BATCH_SIZE = CONF_PREFIX + "batch.size";
+
+    /**
+     * Number of delivery retries after a connection failure before the action is failed.
+     */
+    public static final String CONF_MAX_RETRIES = CONF_PREFIX + "max.retries";
+
+    /**
+     * Interval in seconds between delivery retries.
+     */
+    public static final String CONF_RETRY_INTERVAL = CONF_PREFIX + "retry.interval";
+
+    public static final String CONF_SMTP_HOST = "oozie.email.smtp.host";
+    public static final String CONF_SMTP_PORT = "oozie.email.smtp.port";
+    public static final String CONF_SMTP_AUTH = "oozie.email.smtp.auth";
+    public static final String CONF_SMTP_USERNAME = "oozie.email.smtp.username";
+    public static final String CONF_SMTP_PASSWORD = "oozie.email.smtp.password";
+    public static final String CONF_FROM_ADDRESS = "oozie.email.from.address";
+
+    public static final String STATUS_PENDING = "RUNNING";
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_ERROR = "ERROR";
+
+    public static final String INSTRUMENTATION_GROUP = "email";
+
+    private static final String MESSAGE_EXT = ".eml";
+    private static final String TMP_EXT = ".tmp";
+    private static final String OK_EXT = ".ok";
+    private static final String ERROR_EXT = ".error";
+
+    private static final XLog LOG = XLog.getLog(EmailService.class);
+
+    private Configuration conf;
+    private File outboxDir;
+    private int batchSize;
+    private int maxRetries;
+    private long retryInterval;
+    private DelayQueue<PendingMessage> outbox;
+    private ExecutorService senders;
+    private volatile boolean running;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    /**
+     * Initialize the email service. <p/> It creates the outbox directory, queues the messages left pending in it and
+     * starts the sender threads.
+     *
+     * @param services services instance.
+     * @throws ServiceException thrown if the outbox directory could not be created.
+     */
+    public void init(Services services) throws ServiceException {
+        conf = services.getConf();
+        batchSize = Math.max(1, conf.getInt(CONF_BATCH_SIZE, 20));
+        maxRetries = conf.getInt(CONF_MAX_RETRIES, 3);
+        retryInterval = conf.getLong(CONF_RETRY_INTERVAL, 60) * 1000;
+
+        String dir = conf.get(CONF_OUTBOX_DIR, "").trim();
+        if (dir.length() == 0) {
+            String dataDir = System.getProperty(ConfigurationService.OOZIE_DATA_DIR);
+            dir = ((dataDir != null) ? dataDir : services.getRuntimeDir()) + File.separator + "oozie-email-outbox";
+        }
+        outboxDir = new File(dir);
+        if (!outboxDir.isDirectory() && !outboxDir.mkdirs()) {
+            throw new ServiceException(ErrorCode.E0100, getClass().getName(),
+                                       "could not create outbox directory [" + outboxDir + "]");
+        }
+
+        outbox = new DelayQueue<PendingMessage>();
+        String[] pending = outboxDir.list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(MESSAGE_EXT);
+            }
+        });
+        for (String name : pending) {
+            outbox.add(new PendingMessage(name.substring(0, name.length() - MESSAGE_EXT.length())));
+        }
+        LOG.info("Email outbox [{0}], [{1}] pending messages", outboxDir, outbox.size());
+
+        running = true;
+        int threads = Math.max(1, conf.getInt(CONF_THREADS, 2));
+        senders = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            senders.execute(new Sender());
+        }
+    }
+
+    /**
+     * Destroy the email service. <p/> Pending messages stay in the outbox and are delivered after a restart.
+     */
+    public void destroy() {
+        running = false;
+        try {
+            senders.shutdownNow();
+            if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOG.warn("Gave up, continuing without waiting for email senders to shutdown");
+            }
+        }
+        catch (InterruptedException ex) {
+            LOG.warn(ex);
+        }
+    }
+
+    /**
+     * Return the public interface for email service.
+     *
+     * @return {@link EmailService}.
+     */
+    public Class<? extends Service> getInterface() {
+        return EmailService.class;
+    }
+
+    /**
+     * Instrument the email service.
+     *
+     * @param instr instrumentation to use.
+     */
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP, "pending", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) outbox.size();
+            }
+        });
+        addCounterVariable(instr, "sent", sent);
+        addCounterVariable(instr, "failed", failed);
+        addCounterVariable(instr, "retried", retried);
+        addCounterVariable(instr, "connections", connections);
+    }
+
+    private void addCounterVariable(Instrumentation instr, String name, final AtomicLong counter) {
+        instr.addVariable(INSTRUMENTATION_GROUP, name, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return counter.get();
+            }
+        });
+    }
+
+    /**
+     * Create a mail session for the SMTP server defined in the Oozie configuration.
+     *
+     * @param conf Oozie configuration.
+     * @return a new mail session.
+     */
+    public static Session createSession(Configuration conf) {
+        boolean smtpAuth = conf.getBoolean(CONF_SMTP_AUTH, false);
+
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.host", conf.get(CONF_SMTP_HOST));
+        properties.setProperty("mail.smtp.port", conf.get(CONF_SMTP_PORT, "25"));
+        properties.setProperty("mail.smtp.auth", Boolean.toString(smtpAuth));
+
+        // Do not use default instance (i.e. Session.getDefaultInstance)
+        // (cause it may lead to issues when used second time).
+        if (!smtpAuth) {
+            return Session.getInstance(properties);
+        }
+        else {
+            return Session.getInstance(properties, new JavaMailAuthenticator(conf.get(CONF_SMTP_USERNAME, ""),
+                                                                             conf.get(CONF_SMTP_PASSWORD, "")));
+        }
+    }
+
+    /**
+     * Queue the message of an action for delivery. <p/> The message is written to the outbox before returning, the
+     * action is completed through a callback once the message has been delivered or has failed.
+     *
+     * @param actionId action ID.
+     * @param message message to deliver.
+     * @throws IOException thrown if the message could not be written to the outbox.
+     * @throws MessagingException thrown if the message could not be serialized.
+     */
+    public void send(String actionId, MimeMessage message) throws IOException, MessagingException {
+        ParamChecker.notEmpty(actionId, "actionId");
+        clearStatus(actionId);
+        File tmp = getFile(actionId, TMP_EXT);
+        OutputStream os = new FileOutputStream(tmp);
+        try {
+            message.writeTo(os);
+        }
+        finally {
+            os.close();
+        }
+        File file = getFile(actionId, MESSAGE_EXT);
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Could not move message to outbox [" + file + "]");
+        }
+        outbox.add(new PendingMessage(actionId));
+    }
+
+    /**
+     * Return the delivery status of the message of an action.
+     *
+     * @param actionId action ID.
+     * @return {@link #STATUS_PENDING}, {@link #STATUS_OK}, {@link #STATUS_ERROR} or <code>null</code> if the outbox
+     * has no message for the action.
+     */
+    public String getStatus(String actionId) {
+        if (getFile(actionId, MESSAGE_EXT).exists()) {
+            return STATUS_PENDING;
+        }
+        if (getFile(actionId, OK_EXT).exists()) {
+            return STATUS_OK;
+        }
+        if (getFile(actionId, ERROR_EXT).exists()) {
+            return STATUS_ERROR;
+        }
+        return null;
+    }
+
+    /**
+     * Return the delivery error of the message of an action.
+     *
+     * @param actionId action ID.
+     * @return the delivery error, <code>null</code> if the delivery did not fail.
+     */
+    public String getError(String actionId) {
+        File file = getFile(actionId, ERROR_EXT);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return IOUtils.getReaderAsString(new FileReader(file), -1);
+        }
+        catch (IOException ex) {
+            LOG.warn("Could not read delivery error [{0}], {1}", file, ex.getMessage(), ex);
+            return "unknown error";
+        }
+    }
+
+    /**
+     * Remove the delivery status of the message of an action from the outbox.
+     *
+     * @param actionId action ID.
+     */
+    public void clearStatus(String actionId) {
+        getFile(actionId, OK_EXT).delete();
+        getFile(actionId, ERROR_EXT).delete();
+    }
+
+    /**
+     * Remove the message of an action from the outbox if it has not been delivered yet.
+     *
+     * @param actionId action ID.
+     */
+    public void cancel(String actionId) {
+        getFile(actionId, MESSAGE_EXT).delete();
+        clearStatus(actionId);
+    }
+
+    private File getFile(String actionId, String ext) {
+        return new File(outboxDir, actionId + ext);
+    }
+
+    /**
+     * Deliver a batch of messages over a single SMTP connection. <p/> Messages rejected by the server fail, if the
+     * connection fails the undelivered messages are retried.
+     *
+     * @param batch messages to deliver.
+     */
+    private void deliver(List<PendingMessage> batch) {
+        Session session = createSession(conf);
+        Transport transport = null;
+        Iterator<PendingMessage> it = batch.iterator();
+        try {
+            transport = session.getTransport("smtp");
+            transport.connect();
+            connections.incrementAndGet();
+            while (it.hasNext()) {
+                PendingMessage pending = it.next();
+                MimeMessage message = load(session, pending.actionId);
+                if (message != null) {
+                    try {
+                        transport.sendMessage(message, message.getAllRecipients());
+                        complete(pending.actionId, null);
+                    }
+                    catch (SendFailedException ex) {
+                        // the server rejected the message or its recipients, retrying would not help
+                        complete(pending.actionId, ex);
+                    }
+                }
+                it.remove();
+            }
+        }
+        catch (MessagingException ex) {
+            LOG.warn("SMTP delivery failed, [{0}] messages undelivered, {1}", batch.size(), ex.getMessage(), ex);
+            for (PendingMessage pending : batch) {
+                retry(pending, ex);
+            }
+        }
+        catch (RuntimeException ex) {
+            // the undelivered messages are not in the outbox queue anymore, they must be queued again
+            LOG.error("Email delivery error, [{0}] messages undelivered, {1}", batch.size(), ex.getMessage(), ex);
+            for (PendingMessage pending : batch) {
+                retry(pending, ex);
+            }
+        }
+        finally {
+            if (transport != null) {
+                try {
+                    transport.close();
+                }
+                catch (MessagingException ex) {
+                    LOG.debug("Could not close SMTP connection, {0}", ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    private MimeMessage load(Session session, String actionId) throws MessagingException {
+        File file = getFile(actionId, MESSAGE_EXT);
+        try {
+            InputStream is = new FileInputStream(file);
+            try {
+                return new MimeMessage(session, is);
+            }
+            finally {
+                is.close();
+            }
+        }
+        catch (IOException ex) {
+            // the action has been killed and its message removed from the outbox
+            LOG.debug("Message not in outbox [{0}], {1}", file, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void retry(PendingMessage pending, Exception ex) {
+        if (!getFile(pending.actionId, MESSAGE_EXT).exists()) {
+            return;
+        }
+        if (pending.attempts < maxRetries) {
+            retried.incrementAndGet();
+            outbox.add(new PendingMessage(pending.actionId, pending.attempts + 1,
+                                          System.currentTimeMillis() + retryInterval));
+        }
+        else {
+            complete(pending.actionId, ex);
+        }
+    }
+
+    /**
+     * Record the delivery status of a message and notify the action through the callback command.
+     *
+     * @param actionId action ID.
+     * @param ex delivery error, <code>null</code> if the message was delivered.
+     */
+    private void complete(String actionId, Exception ex) {
+        String status = STATUS_OK;
+        try {
+            if (ex == null) {
+                getFile(actionId, OK_EXT).createNewFile();
+                sent.incrementAndGet();
+            }
+            else {
+                status = STATUS_ERROR;
+                Writer writer = new FileWriter(getFile(actionId, ERROR_EXT));
+                try {
+                    writer.write(String.valueOf(ex.getMessage()));
+                }
+                finally {
+                    writer.close();
+                }
+                failed.incrementAndGet();
+                LOG.warn("Could not deliver email of action [{0}], {1}", actionId, ex.getMessage(), ex);
+            }
+        }
+        catch (IOException ioe) {
+            LOG.error("Could not record email delivery status of action [{0}], {1}", actionId, ioe.getMessage(), ioe);
+        }
+        getFile(actionId, MESSAGE_EXT).delete();
+        Services.get().get(CallableQueueService.class).queue(new CompletedActionXCommand(actionId, status, null));
+    }
+
+    /**
+     * Sender thread, it takes batches of due messages from the outbox and delivers them.
+     */
+    private class Sender implements Runnable {
+
+        public void run() {
+            while (running) {
+                try {
+                    PendingMessage first = outbox.poll(1, TimeUnit.SECONDS);
+                    if (first != null) {
+                        List<PendingMessage> batch = new ArrayList<PendingMessage>(batchSize);
+                        batch.add(first);
+                        outbox.drainTo(batch, batchSize - 1);
+                        deliver(batch);
+                    }
+                }
+                catch (InterruptedException ex) {
+                    break;
+                }
+                catch (RuntimeException ex) {
+                    LOG.error("Email sender error, {0}", ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * A message in the outbox waiting for its next delivery attempt.
+     */
+    private static class PendingMessage implements Delayed {
+        private final String actionId;
+        private final int attempts;
+        private final long dueTime;
+
+        public PendingMessage(String actionId) {
+            this(actionId, 0, System.currentTimeMillis());
+        }
+
+        public PendingMessage(String actionId, int attempts, long dueTime) {
+            this.actionId = actionId;
+            this.attempts = attempts;
+            this.dueTime = dueTime;
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        public int compareTo(Delayed o) {
+            long diff = getDelay(TimeUnit.MILLISECONDS) - o.getDelay(TimeUnit.MILLISECONDS);
+            return (diff < 0) ? -1 : ((diff > 0) ? 1 : 0);
+        }
+    }
+
+    private static class JavaMailAuthenticator extends Authenticator {
+
+        String user;
+        String password;
+
+        public JavaMailAuthenticator(String user, String password) {
+            this.user = user;
+            this.password = password;
+        }
+
+        @Override
+        protected PasswordAuthentication getPasswordAuthentication() {
+           return new PasswordAuthentication(user, password);
+        }
+    }
+}
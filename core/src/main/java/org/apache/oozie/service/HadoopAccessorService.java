@@ -21,7 +21,10 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.filecache.DistributedCache;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XLog;
@@ -30,25 +33,232 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The HadoopAccessorService returns HadoopAccessor instances configured to work on behalf of a user-group. <p/> The
  * default accessor used is the base accessor which just injects the UGI into the configuration instance used to
  * create/obtain JobClient and ileSystem instances. <p/> The HadoopAccess class to use can be configured in the
  * <code>oozie-site.xml</code> using the <code>oozie.service.HadoopAccessorService.accessor.class</code> property.
+ * <p/>
+ * FileSystem handles, and the shared JobClient handles returned by {@link #getJobClient}, are cached by user, group
+ * and authority, see {@link #HANDLE_CACHE_SIZE} and {@link #HANDLE_CACHE_TTL}.
  */
-public class HadoopAccessorService implements Service {
+public class HadoopAccessorService implements Service, Instrumentable {
 
     public static final String CONF_PREFIX = Service.CONF_PREFIX + "HadoopAccessorService.";
     public static final String JOB_TRACKER_WHITELIST = CONF_PREFIX + "jobTracker.whitelist";
     public static final String NAME_NODE_WHITELIST = CONF_PREFIX + "nameNode.whitelist";
 
+    /**
+     * Maximum number of FileSystem handles, and of JobClient handles, cached. Zero disables the caches.
+     */
+    public static final String HANDLE_CACHE_SIZE = CONF_PREFIX + "handle.cache.size";
+
+    /**
+     * Time, in seconds, a cached handle is kept without being used. Evicted handles are closed after the same time.
+     */
+    public static final String HANDLE_CACHE_TTL = CONF_PREFIX + "handle.cache.ttl";
+
+    private static final String INSTRUMENTATION_GROUP = "hadoop.handles";
+
     private Set<String> jobTrackerWhitelist = new HashSet<String>();
     private Set<String> nameNodeWhitelist = new HashSet<String>();
 
+    private HandleCache<FileSystem> fileSystems;
+    private HandleCache<JobClient> jobClients;
+
+    /**
+     * Bounded cache of handles by key.
+     * <p/>
+     * A handle not used for the TTL is evicted, and the least recently used handle is evicted when the cache is full.
+     * Callers may still be using an evicted handle, so it is closed only after it has been evicted for the TTL. If the
+     * same handle is back in the cache by then, it is not closed. Expired handles are evicted as the cache is used.
+     */
+    private abstract static class HandleCache<T> {
+
+        private static class Handle<T> {
+            private final T handle;
+            private long lastUsed;
+
+            private Handle(T handle, long lastUsed) {
+                this.handle = handle;
+                this.lastUsed = lastUsed;
+            }
+        }
+
+        private final int maxSize;
+        private final long ttl;
+        private final LinkedHashMap<String, Handle<T>> handles = new LinkedHashMap<String, Handle<T>>(16, 0.75f, true);
+        private final List<Handle<T>> evicted = new ArrayList<Handle<T>>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong closed = new AtomicLong();
+
+        private HandleCache(int maxSize, long ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+
+        /**
+         * Close a handle.
+         *
+         * @param handle handle to close.
+         * @throws IOException thrown if the handle could not be closed.
+         */
+        protected abstract void close(T handle) throws IOException;
+
+        public T get(String key) {
+            List<T> toClose;
+            T handle = null;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                toClose = expire(now);
+                Handle<T> cached = handles.get(key);
+                if (cached != null) {
+                    cached.lastUsed = now;
+                    handle = cached.handle;
+                }
+            }
+            if (handle != null) {
+                hits.incrementAndGet();
+            }
+            else {
+                misses.incrementAndGet();
+            }
+            closeAll(toClose);
+            return handle;
+        }
+
+        public void put(String key, T handle) {
+            if (maxSize <= 0) {
+                return;
+            }
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                Handle<T> previous = handles.put(key, new Handle<T>(handle, now));
+                if (previous != null && previous.handle != handle) {
+                    evict(previous, now);
+                }
+                Iterator<Handle<T>> it = handles.values().iterator();
+                while (handles.size() > maxSize) {
+                    Handle<T> eldest = it.next();
+                    it.remove();
+                    evict(eldest, now);
+                }
+            }
+        }
+
+        public synchronized void remove(String key) {
+            Handle<T> cached = handles.remove(key);
+            if (cached != null) {
+                evict(cached, System.currentTimeMillis());
+            }
+        }
+
+        public synchronized int size() {
+            return handles.size();
+        }
+
+        public boolean isEnabled() {
+            return maxSize > 0;
+        }
+
+        public void clear() {
+            List<T> toClose = new ArrayList<T>();
+            synchronized (this) {
+                Map<T, Boolean> all = new IdentityHashMap<T, Boolean>();
+                for (Handle<T> cached : handles.values()) {
+                    all.put(cached.handle, Boolean.TRUE);
+                }
+                for (Handle<T> cached : evicted) {
+                    all.put(cached.handle, Boolean.TRUE);
+                }
+                toClose.addAll(all.keySet());
+                handles.clear();
+                evicted.clear();
+            }
+            closeAll(toClose);
+        }
+
+        private void evict(Handle<T> cached, long now) {
+            cached.lastUsed = now;
+            evicted.add(cached);
+        }
+
+        private List<T> expire(long now) {
+            for (Iterator<Handle<T>> it = handles.values().iterator(); it.hasNext();) {
+                Handle<T> cached = it.next();
+                if (cached.lastUsed + ttl > now) {
+                    break;
+                }
+                it.remove();
+                evict(cached, now);
+            }
+            List<T> toClose = null;
+            for (Iterator<Handle<T>> it = evicted.iterator(); it.hasNext();) {
+                Handle<T> cached = it.next();
+                if (cached.lastUsed + ttl <= now) {
+                    it.remove();
+                    if (!isCached(cached.handle)) {
+                        if (toClose == null) {
+                            toClose = new ArrayList<T>();
+                        }
+                        toClose.add(cached.handle);
+                    }
+                }
+            }
+            return toClose;
+        }
+
+        private boolean isCached(T handle) {
+            for (Handle<T> cached : handles.values()) {
+                if (cached.handle == handle) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void closeAll(List<T> toClose) {
+            if (toClose != null) {
+                for (T handle : toClose) {
+                    try {
+                        close(handle);
+                        closed.incrementAndGet();
+                    }
+                    catch (IOException ex) {
+                        XLog.getLog(HadoopAccessorService.class).warn("Could not close handle, {0}", ex.getMessage(),
+                                                                      ex);
+                    }
+                }
+            }
+        }
+    }
+
     public void init(Services services) throws ServiceException {
+        int cacheSize = services.getConf().getInt(HANDLE_CACHE_SIZE, 500);
+        long cacheTTL = services.getConf().getInt(HANDLE_CACHE_TTL, 600) * 1000L;
+        fileSystems = new HandleCache<FileSystem>(cacheSize, cacheTTL) {
+            @Override
+            protected void close(FileSystem handle) throws IOException {
+                handle.close();
+            }
+        };
+        jobClients = new HandleCache<JobClient>(cacheSize, cacheTTL) {
+            @Override
+            protected void close(JobClient handle) throws IOException {
+                handle.close();
+            }
+        };
         for (String name : services.getConf().getStringCollection(JOB_TRACKER_WHITELIST)) {
             String tmp = name.toLowerCase().trim();
             if (tmp.length() == 0) {
@@ -76,12 +286,47 @@ public class HadoopAccessorService implements Service {
     }
 
     public void destroy() {
+        if (fileSystems != null) {
+            fileSystems.clear();
+        }
+        if (jobClients != null) {
+            jobClients.clear();
+        }
     }
 
     public Class<? extends Service> getInterface() {
         return HadoopAccessorService.class;
     }
 
+    /**
+     * Instrument the handle caches of the Hadoop accessor service.
+     *
+     * @param instr instrumentation to use.
+     */
+    public void instrument(Instrumentation instr) {
+        instrumentCache(instr, "filesystem", fileSystems);
+        instrumentCache(instr, "jobclient", jobClients);
+    }
+
+    private void instrumentCache(Instrumentation instr, String name, final HandleCache<?> cache) {
+        instr.addVariable(INSTRUMENTATION_GROUP, name + ".cached", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) cache.size();
+            }
+        });
+        addCounterVariable(instr, name + ".hits", cache.hits);
+        addCounterVariable(instr, name + ".misses", cache.misses);
+        addCounterVariable(instr, name + ".closed", cache.closed);
+    }
+
+    private void addCounterVariable(Instrumentation instr, String name, final AtomicLong counter) {
+        instr.addVariable(INSTRUMENTATION_GROUP, name, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return counter.get();
+            }
+        });
+    }
+
     /**
      * Return a JobClient created with the provided user/group.
      * 
@@ -101,6 +346,37 @@ public class HadoopAccessorService implements Service {
         }
     }
 
+    /**
+     * Return a shared JobClient for the provided user/group and the JobTracker of the configuration.
+     * <p/>
+     * Unlike the JobClients returned by {@link #createJobClient}, the JobClient is cached and must not be closed by the
+     * caller. If a call to the JobClient fails, the caller should discard it with {@link #discardJobClient}.
+     *
+     * @param conf JobConf with all necessary information to create the JobClient.
+     * @return the shared JobClient for the provided user/group.
+     * @throws HadoopAccessorException if the client could not be created.
+     */
+    public JobClient getJobClient(String user, String group, JobConf conf) throws HadoopAccessorException {
+        ParamChecker.notEmpty(user, "user");
+        ParamChecker.notEmpty(group, "group");
+        String key = getHandleKey(user, group, conf.get("mapred.job.tracker"));
+        JobClient jobClient = jobClients.get(key);
+        if (jobClient == null) {
+            jobClient = createJobClient(user, group, conf);
+            jobClients.put(key, jobClient);
+        }
+        return jobClient;
+    }
+
+    /**
+     * Discard the shared JobClient for the provided user/group and the JobTracker of the configuration.
+     *
+     * @param conf JobConf with the JobTracker.
+     */
+    public void discardJobClient(String user, String group, JobConf conf) {
+        jobClients.remove(getHandleKey(user, group, conf.get("mapred.job.tracker")));
+    }
+
     /**
      * Return a FileSystem created with the provided user/group.
      * 
@@ -111,12 +387,7 @@ public class HadoopAccessorService implements Service {
      */
     public FileSystem createFileSystem(String user, String group, Configuration conf) throws HadoopAccessorException {
         try {
-            validateNameNode(new URI(conf.get("fs.default.name")).getAuthority());
-            conf = createConfiguration(user, group, conf);
-            return FileSystem.get(conf);
-        }
-        catch (IOException e) {
-            throw new HadoopAccessorException(ErrorCode.E0902, e);
+            return createFileSystem(user, group, new URI(conf.get("fs.default.name")), conf);
         }
         catch (URISyntaxException e) {
             throw new HadoopAccessorException(ErrorCode.E0902, e);
@@ -135,16 +406,77 @@ public class HadoopAccessorService implements Service {
      */
     public FileSystem createFileSystem(String user, String group, URI uri, Configuration conf)
             throws HadoopAccessorException {
+        ParamChecker.notEmpty(user, "user");
+        ParamChecker.notEmpty(group, "group");
         validateNameNode(uri.getAuthority());
+        // a URI without scheme refers to the default file system of the configuration, it is not cached
+        String key = (uri.getScheme() != null)
+                ? getHandleKey(user, group, uri.getScheme() + "://" + uri.getAuthority()) : null;
+        FileSystem fs = (key != null) ? fileSystems.get(key) : null;
+        if (fs == null) {
+            if (key != null && fileSystems.isEnabled()) {
+                // cached handles are closed when evicted, they must not be the instances shared through the
+                // Hadoop FileSystem cache, closing those would close them for any other code using them
+                conf = new Configuration(conf);
+                conf.setBoolean("fs." + uri.getScheme() + ".impl.disable.cache", true);
+            }
+            fs = newFileSystem(user, group, uri, conf);
+            if (key != null) {
+                fileSystems.put(key, fs);
+            }
+        }
+        return fs;
+    }
+
+    /**
+     * Create a FileSystem with the provided user/group for the specified URI, bypassing the FileSystem handle cache.
+     *
+     * @param uri file system URI.
+     * @param conf Configuration with all necessary information to create the
+     *        FileSystem.
+     * @return FileSystem created with the provided user/group.
+     * @throws HadoopAccessorException if the filesystem could not be created.
+     */
+    protected FileSystem newFileSystem(String user, String group, URI uri, Configuration conf)
+            throws HadoopAccessorException {
         conf = createConfiguration(user, group, conf);
         try {
-            return FileSystem.get(uri, conf);
+            return getFileSystem(uri, conf);
         }
         catch (IOException e) {
             throw new HadoopAccessorException(ErrorCode.E0902, e);
         }
     }
 
+    /**
+     * Return the FileSystem for a URI. If the Hadoop FileSystem cache is disabled for the URI scheme in the
+     * configuration a new instance is created, otherwise the instance shared through the Hadoop FileSystem cache is
+     * returned.
+     *
+     * @param uri file system URI.
+     * @param conf Configuration to create the FileSystem with.
+     * @return FileSystem for the URI.
+     * @throws IOException thrown if the FileSystem could not be created.
+     */
+    protected static FileSystem getFileSystem(URI uri, Configuration conf) throws IOException {
+        String scheme = uri.getScheme();
+        if (scheme != null && conf.getBoolean("fs." + scheme + ".impl.disable.cache", false)) {
+            // not every Hadoop version honors the flag in FileSystem.get(), the instance is created explicitly
+            Class<?> klass = conf.getClass("fs." + scheme + ".impl", null);
+            if (klass == null) {
+                throw new IOException("No FileSystem for scheme: " + scheme);
+            }
+            FileSystem fs = (FileSystem) ReflectionUtils.newInstance(klass, conf);
+            fs.initialize(uri, conf);
+            return fs;
+        }
+        return FileSystem.get(uri, conf);
+    }
+
+    private String getHandleKey(String user, String group, String authority) {
+        return user + "," + group + "@" + ((authority == null) ? "" : authority.toLowerCase().trim());
+    }
+
     /**
      * Validate Job tracker
      * @param jobTrackerUri
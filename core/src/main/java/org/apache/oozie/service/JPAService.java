@@ -16,11 +16,14 @@ package org.apache.oozie.service;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.persistence.Query;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.BundleActionBean;
@@ -66,10 +69,14 @@ public class JPAService implements Service, Instrumentable {
     public static final String CONF_VALIDATE_DB_CONN = CONF_PREFIX + "validate.db.connection";
     public static final String CONF_VALIDATE_DB_CONN_EVICTION_INTERVAL = CONF_PREFIX + "validate.db.connection.eviction.interval";
     public static final String CONF_VALIDATE_DB_CONN_EVICTION_NUM = CONF_PREFIX + "validate.db.connection.eviction.num";
+    public static final String CONF_JOBS_COUNT_TTL = CONF_PREFIX + "jobs.count.ttl";
 
+    private static final int JOBS_COUNT_MAX_ENTRIES = 1000;
 
     private EntityManagerFactory factory;
     private Instrumentation instr;
+    private long jobsCountTtl;
+    private final Map<String, long[]> jobsCounts = new HashMap<String, long[]>();
 
     private static XLog LOG;
 
@@ -106,6 +113,7 @@ public class JPAService implements Service, Instrumentable {
         boolean validateDbConn = conf.getBoolean(CONF_VALIDATE_DB_CONN, false);
         String evictionInterval = conf.get(CONF_VALIDATE_DB_CONN_EVICTION_INTERVAL, "300000").trim();
         String evictionNum = conf.get(CONF_VALIDATE_DB_CONN_EVICTION_NUM, "10").trim();
+        jobsCountTtl = conf.getLong(CONF_JOBS_COUNT_TTL, 0) * 1000;
 
         if (!url.startsWith("jdbc:")) {
             throw new ServiceException(ErrorCode.E0608, url, "invalid JDBC URL, must start with 'jdbc:'");
@@ -184,6 +192,40 @@ public class JPAService implements Service, Instrumentable {
         if (factory != null && factory.isOpen()) {
             factory.close();
         }
+        synchronized (jobsCounts) {
+            jobsCounts.clear();
+        }
+    }
+
+    /**
+     * Return the total number of jobs of a job listing.
+     * <p/>
+     * If {@link #CONF_JOBS_COUNT_TTL} is greater than zero, the totals are cached by key for that many seconds, so
+     * clients polling the same listing do not run the count query on every request.
+     *
+     * @param key key of the total, the count query and its parameter values.
+     * @param countQuery query that counts the jobs of the listing.
+     * @return the total number of jobs of the listing.
+     */
+    public int getJobsCount(String key, Query countQuery) {
+        if (jobsCountTtl > 0) {
+            synchronized (jobsCounts) {
+                long[] cached = jobsCounts.get(key);
+                if (cached != null && System.currentTimeMillis() - cached[1] < jobsCountTtl) {
+                    return (int) cached[0];
+                }
+            }
+        }
+        int count = ((Long) countQuery.getSingleResult()).intValue();
+        if (jobsCountTtl > 0) {
+            synchronized (jobsCounts) {
+                if (jobsCounts.size() >= JOBS_COUNT_MAX_ENTRIES) {
+                    jobsCounts.clear();
+                }
+                jobsCounts.put(key, new long[]{count, System.currentTimeMillis()});
+            }
+        }
+        return count;
     }
 
     /**
@@ -35,7 +35,6 @@ import org.apache.oozie.service.ServiceException;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.security.PrivilegedExceptionAction;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -142,51 +141,15 @@ public class KerberosHadoopAccessorService extends HadoopAccessorService {
     }
 
     /**
-     * Return a FileSystem created with the provided user/group.
-     *
-     * @param conf Configuration with all necessary information to create the FileSystem.
-     * @return FileSystem created with the provided user/group.
-     * @throws HadoopAccessorException if the filesystem could not be created.
-     */
-    public FileSystem createFileSystem(String user, String group, final Configuration conf)
-            throws HadoopAccessorException {
-        ParamChecker.notEmpty(user, "user");
-        ParamChecker.notEmpty(group, "group");
-        try {
-            validateNameNode(new URI(conf.get("fs.default.name")).getAuthority());
-            UserGroupInformation ugi = getUGI(user);
-            return ugi.doAs(new PrivilegedExceptionAction<FileSystem>() {
-                public FileSystem run() throws Exception {
-                    Configuration defaultConf = new Configuration();
-                    XConfiguration.copy(conf, defaultConf);
-                    return FileSystem.get(defaultConf);
-                }
-            });
-        }
-        catch (InterruptedException ex) {
-            throw new HadoopAccessorException(ErrorCode.E0902, ex);
-        }
-        catch (IOException ex) {
-            throw new HadoopAccessorException(ErrorCode.E0902, ex);
-        }
-        catch (URISyntaxException ex) {
-            throw new HadoopAccessorException(ErrorCode.E0902, ex);
-        }
-    }
-
-    /**
-     * Return a FileSystem created with the provided user/group for the specified URI.
+     * Create a FileSystem with the provided user/group for the specified URI, bypassing the FileSystem handle cache.
      *
      * @param uri file system URI.
      * @param conf Configuration with all necessary information to create the FileSystem.
      * @return FileSystem created with the provided user/group.
      * @throws HadoopAccessorException if the filesystem could not be created.
      */
-    public FileSystem createFileSystem(String user, String group, final URI uri, final Configuration conf)
+    protected FileSystem newFileSystem(String user, String group, final URI uri, final Configuration conf)
             throws HadoopAccessorException {
-        ParamChecker.notEmpty(user, "user");
-        ParamChecker.notEmpty(group, "group");
-        validateNameNode(uri.getAuthority());
         try {
             UserGroupInformation ugi = getUGI(user);
             return ugi.doAs(new PrivilegedExceptionAction<FileSystem>() {
@@ -197,7 +160,7 @@ public class KerberosHadoopAccessorService extends HadoopAccessorService {
                     defaultConf.set(WorkflowAppService.HADOOP_NN_KERBEROS_NAME, "hdfs/_HOST@" + localRealm);
 
                     XConfiguration.copy(conf, defaultConf);
-                    return FileSystem.get(uri, defaultConf);
+                    return getFileSystem(uri, defaultConf);
                 }
             });
         }
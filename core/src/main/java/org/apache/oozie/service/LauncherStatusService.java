@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.mapred.JobClient;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.JobStatus;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XLog;
+
+/**
+ * The launcher status service checks the status of launcher jobs on behalf of the Hadoop action executors.
+ * <p/>
+ * It uses the shared JobClients of the {@link HadoopAccessorService} instead of creating and closing one for every
+ * check.
+ * <p/>
+ * It also keeps, per JobTracker, a snapshot of the jobs not yet complete. The snapshot is refreshed with a single call
+ * to the JobTracker at most once every {@link #CONF_STATUS_TTL} seconds. A job found in the snapshot is running and
+ * does not need to be queried, a job not found in it must be queried to get its completion status.
+ */
+public class LauncherStatusService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "LauncherStatusService.";
+
+    /**
+     * Time, in seconds, the snapshot of the jobs not yet complete of a JobTracker is used before being refreshed.
+     */
+    public static final String CONF_STATUS_TTL = CONF_PREFIX + "status.ttl";
+
+    private static final String INSTRUMENTATION_GROUP = "launcher.status";
+
+    private static XLog LOG = XLog.getLog(LauncherStatusService.class);
+
+    private final ConcurrentHashMap<String, RunningJobs> runningJobs = new ConcurrentHashMap<String, RunningJobs>();
+    private long statusTTL;
+
+    private final AtomicLong statusRefreshes = new AtomicLong();
+    private final AtomicLong runningHits = new AtomicLong();
+    private final AtomicLong runningMisses = new AtomicLong();
+
+    /**
+     * The jobs not yet complete of a JobTracker.
+     */
+    private static class RunningJobs {
+        private long expiration;
+        private Set<String> ids = Collections.emptySet();
+    }
+
+    /**
+     * Initialize the launcher status service.
+     *
+     * @param services services instance.
+     */
+    @Override
+    public void init(Services services) {
+        statusTTL = services.getConf().getInt(CONF_STATUS_TTL, 30) * 1000L;
+    }
+
+    /**
+     * Destroy the launcher status service.
+     */
+    @Override
+    public void destroy() {
+        runningJobs.clear();
+    }
+
+    /**
+     * Return the public interface for the launcher status service.
+     *
+     * @return {@link LauncherStatusService}.
+     */
+    @Override
+    public Class<? extends Service> getInterface() {
+        return LauncherStatusService.class;
+    }
+
+    /**
+     * Instrument the launcher status service.
+     *
+     * @param instr instrumentation to use.
+     */
+    @Override
+    public void instrument(Instrumentation instr) {
+        addCounterVariable(instr, "status.refreshes", statusRefreshes);
+        addCounterVariable(instr, "running.hits", runningHits);
+        addCounterVariable(instr, "running.misses", runningMisses);
+    }
+
+    private void addCounterVariable(Instrumentation instr, String name, final AtomicLong counter) {
+        instr.addVariable(INSTRUMENTATION_GROUP, name, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return counter.get();
+            }
+        });
+    }
+
+    /**
+     * Return the JobClient of a user for the JobTracker of a configuration.
+     * <p/>
+     * The JobClient is shared through {@link HadoopAccessorService#getJobClient}, it must not be closed by the caller.
+     * If a call to the JobClient fails the caller should discard it with {@link #discardJobClient}.
+     *
+     * @param user user name.
+     * @param group group name.
+     * @param conf configuration with the JobTracker and all the information necessary to create the JobClient.
+     * @return the JobClient.
+     * @throws HadoopAccessorException thrown if the JobClient could not be created.
+     */
+    public JobClient getJobClient(String user, String group, JobConf conf) throws HadoopAccessorException {
+        return Services.get().get(HadoopAccessorService.class).getJobClient(user, group, conf);
+    }
+
+    /**
+     * Discard the JobClient of a user for the JobTracker of a configuration.
+     *
+     * @param user user name.
+     * @param group group name.
+     * @param conf configuration with the JobTracker.
+     */
+    public void discardJobClient(String user, String group, JobConf conf) {
+        Services.get().get(HadoopAccessorService.class).discardJobClient(user, group, conf);
+    }
+
+    /**
+     * Check if a job is known to be running.
+     * <p/>
+     * The job is looked up in the snapshot of the jobs not yet complete of the JobTracker, the snapshot is refreshed
+     * first if it has expired. If the snapshot could not be refreshed the job is not known to be running.
+     *
+     * @param user user name.
+     * @param group group name.
+     * @param conf configuration with the JobTracker and all the information necessary to create the JobClient.
+     * @param jobId job ID.
+     * @return <code>true</code> if the job was running when the snapshot was taken, <code>false</code> if the job must
+     * be queried to get its status.
+     */
+    public boolean isRunning(String user, String group, JobConf conf, String jobId) {
+        String jobTracker = getJobTracker(conf);
+        RunningJobs running = runningJobs.get(jobTracker);
+        if (running == null) {
+            RunningJobs newRunning = new RunningJobs();
+            running = runningJobs.putIfAbsent(jobTracker, newRunning);
+            if (running == null) {
+                running = newRunning;
+            }
+        }
+        boolean isRunning;
+        synchronized (running) {
+            long now = System.currentTimeMillis();
+            if (now >= running.expiration) {
+                try {
+                    JobStatus[] statuses = getJobClient(user, group, conf).jobsToComplete();
+                    Set<String> ids = new HashSet<String>();
+                    if (statuses != null) {
+                        for (JobStatus status : statuses) {
+                            ids.add(status.getJobID().toString());
+                        }
+                    }
+                    running.ids = ids;
+                    statusRefreshes.incrementAndGet();
+                }
+                catch (Exception ex) {
+                    LOG.warn("Could not get the running jobs of JobTracker [{0}], {1}", jobTracker, ex.getMessage(), ex);
+                    discardJobClient(user, group, conf);
+                    running.ids = Collections.emptySet();
+                }
+                running.expiration = now + statusTTL;
+            }
+            isRunning = running.ids.contains(jobId);
+        }
+        if (isRunning) {
+            runningHits.incrementAndGet();
+        }
+        else {
+            runningMisses.incrementAndGet();
+        }
+        return isRunning;
+    }
+
+    private String getJobTracker(JobConf conf) {
+        String jobTracker = conf.get("mapred.job.tracker");
+        return (jobTracker == null) ? "" : jobTracker.toLowerCase().trim();
+    }
+
+}
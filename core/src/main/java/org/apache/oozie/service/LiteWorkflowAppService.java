@@ -41,8 +41,19 @@ public class LiteWorkflowAppService extends WorkflowAppService {
         return parseDef(workflowXml);
     }
 
+    /**
+     * Parse workflow definition. <p/> Definitions already parsed are returned from the cache.
+     *
+     * @param workflowXml workflow definition.
+     * @return workflow application.
+     */
     public WorkflowApp parseDef(String workflowXml) throws WorkflowException {
-        WorkflowLib workflowLib = Services.get().get(WorkflowStoreService.class).getWorkflowLibWithNoDB();
-        return workflowLib.parseDef(workflowXml);
+        WorkflowApp app = getCachedApp(workflowXml);
+        if (app == null) {
+            WorkflowLib workflowLib = Services.get().get(WorkflowStoreService.class).getWorkflowLibWithNoDB();
+            app = workflowLib.parseDef(workflowXml);
+            cacheApp(workflowXml, app);
+        }
+        return app;
     }
 }
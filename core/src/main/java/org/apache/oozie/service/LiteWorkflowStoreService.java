@@ -25,17 +25,158 @@ import org.apache.oozie.workflow.WorkflowInstance;
 import org.apache.oozie.workflow.lite.ActionNodeDef;
 import org.apache.oozie.workflow.lite.ActionNodeHandler;
 import org.apache.oozie.workflow.lite.DecisionNodeHandler;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
 import org.apache.oozie.workflow.lite.NodeHandler;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.util.XmlUtils;
 import org.jdom.Element;
 import org.jdom.JDOMException;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class LiteWorkflowStoreService extends WorkflowStoreService {
 
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "LiteWorkflowStoreService.";
+
+    /**
+     * Serialization format version of the workflow instances written to the store, <code>1</code> (legacy, the
+     * default) or <code>2</code>. Both versions are always readable, previous releases can only read version 1.
+     */
+    public static final String CONF_INSTANCE_FORMAT_VERSION = CONF_PREFIX + "instance.format.version";
+
+    /**
+     * Compression of the workflow instances written with the format version <code>2</code>, <code>none</code> or
+     * <code>deflate</code>.
+     */
+    public static final String CONF_INSTANCE_COMPRESSION = CONF_PREFIX + "instance.compression";
+
+    /**
+     * Maximum number of workflow definitions kept in the definitions cache, <code>0</code> disables the cache.
+     */
+    public static final String CONF_DEFINITION_CACHE_SIZE = CONF_PREFIX + "definition.cache.size";
+
+    private static final String INSTRUMENTATION_GROUP_DEFINITIONS = "workflow.definitions";
+
+    private Map<String, LiteWorkflowApp> definitions;
+    private final AtomicLong definitionHits = new AtomicLong();
+    private final AtomicLong definitionMisses = new AtomicLong();
+
+    /**
+     * Initialize the lite workflow store service, it creates the workflow definitions cache.
+     * <p/>
+     * Subclasses must invoke this method from their <code>init()</code> method.
+     *
+     * @param services services instance.
+     * @throws ServiceException thrown if the service could not be initialized.
+     */
+    public void init(Services services) throws ServiceException {
+        final int cacheSize = services.getConf().getInt(CONF_DEFINITION_CACHE_SIZE, 500);
+        if (cacheSize > 0) {
+            definitions = new LinkedHashMap<String, LiteWorkflowApp>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LiteWorkflowApp> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * Instrument the workflow definitions cache.
+     * <p/>
+     * Subclasses must invoke this method from their <code>instrument()</code> method.
+     *
+     * @param instr instrumentation to use.
+     */
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP_DEFINITIONS, "resident", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                if (definitions == null) {
+                    return 0L;
+                }
+                synchronized (definitions) {
+                    return (long) definitions.size();
+                }
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP_DEFINITIONS, "hits", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return definitionHits.get();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP_DEFINITIONS, "misses", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return definitionMisses.get();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP_DEFINITIONS, "hit.ratio", new Instrumentation.Variable<Double>() {
+            public Double getValue() {
+                long hits = definitionHits.get();
+                long total = hits + definitionMisses.get();
+                return (total == 0) ? 0d : (double) hits / total;
+            }
+        });
+    }
+
+    /**
+     * Return a cached workflow definition.
+     * <p/>
+     * Cached definitions are shared by all the workflow instances using them and they must not be modified.
+     *
+     * @param appPath application path of the workflow, it may be <code>null</code>.
+     * @param hash content hash of the workflow definition.
+     * @return the cached workflow definition, <code>null</code> if not cached.
+     */
+    public LiteWorkflowApp getDefinition(String appPath, String hash) {
+        LiteWorkflowApp app = null;
+        if (definitions != null) {
+            synchronized (definitions) {
+                app = definitions.get(getDefinitionKey(appPath, hash));
+            }
+            if (app != null) {
+                definitionHits.incrementAndGet();
+            }
+        }
+        return app;
+    }
+
+    /**
+     * Intern a workflow definition in the definitions cache.
+     * <p/>
+     * If a definition for the same application path and content hash is already cached, the cached definition is
+     * returned, otherwise the given definition is cached, evicting the least recently used definition if the cache is
+     * full, and returned.
+     *
+     * @param appPath application path of the workflow, it may be <code>null</code>.
+     * @param hash content hash of the workflow definition.
+     * @param app workflow definition to intern.
+     * @return the shared workflow definition.
+     */
+    public LiteWorkflowApp internDefinition(String appPath, String hash, LiteWorkflowApp app) {
+        if (definitions != null) {
+            String key = getDefinitionKey(appPath, hash);
+            synchronized (definitions) {
+                LiteWorkflowApp cached = definitions.get(key);
+                if (cached != null) {
+                    definitionHits.incrementAndGet();
+                    return cached;
+                }
+                definitions.put(key, app);
+            }
+            definitionMisses.incrementAndGet();
+        }
+        return app;
+    }
+
+    private static String getDefinitionKey(String appPath, String hash) {
+        return (appPath != null) ? appPath + "#" + hash : "#" + hash;
+    }
+
     /**
      * Delegation method used by the Action and Decision {@link NodeHandler} on start. <p/> This method provides the
      * necessary information to create ActionExecutors.
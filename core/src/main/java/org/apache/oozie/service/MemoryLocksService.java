@@ -20,7 +20,9 @@ import org.apache.oozie.util.MemoryLocks;
 
 public class MemoryLocksService implements Service, Instrumentable {
     private static final String INSTRUMENTATION_GROUP = "locks";
+    private static final String INSTR_WAIT_TIMER = ".wait";
     private MemoryLocks locks;
+    private Instrumentation instrumentation;
 
     /**
      * Initialize the memory locks service
@@ -38,6 +40,7 @@ public class MemoryLocksService implements Service, Instrumentable {
     @Override
     public void destroy() {
         locks = null;
+        instrumentation = null;
     }
 
     /**
@@ -56,6 +59,7 @@ public class MemoryLocksService implements Service, Instrumentable {
      * @param instr instance to instrument the memory locks service to.
      */
     public void instrument(Instrumentation instr) {
+        instrumentation = instr;
         final MemoryLocks finalLocks = this.locks;
         instr.addVariable(INSTRUMENTATION_GROUP, "locks", new Instrumentation.Variable<Long>() {
             public Long getValue() {
@@ -88,4 +92,56 @@ public class MemoryLocksService implements Service, Instrumentable {
         return locks.getWriteLock(resource, wait);
     }
 
+    /**
+     * Obtain a READ lock for a source, instrumenting the time spent obtaining the lock.
+     * <p/>
+     * The time is recorded in the <code>locks</code> instrumentation group, in the <code>[TYPE].wait</code> timer.
+     *
+     * @param resource resource name.
+     * @param wait time out in milliseconds to wait for the lock, -1 means no timeout and 0 no wait.
+     * @param type type of the requester of the lock (i.e. the command name), used for instrumentation.
+     * @return the lock token for the resource, or <code>null</code> if the lock could not be obtained.
+     * @throws InterruptedException thrown if the thread was interrupted while waiting.
+     */
+    public MemoryLocks.LockToken getReadLock(String resource, long wait, String type) throws InterruptedException {
+        Instrumentation.Cron cron = new Instrumentation.Cron();
+        cron.start();
+        try {
+            return locks.getReadLock(resource, wait);
+        }
+        finally {
+            cron.stop();
+            addWaitCron(type, cron);
+        }
+    }
+
+    /**
+     * Obtain a WRITE lock for a source, instrumenting the time spent obtaining the lock.
+     * <p/>
+     * The time is recorded in the <code>locks</code> instrumentation group, in the <code>[TYPE].wait</code> timer.
+     *
+     * @param resource resource name.
+     * @param wait time out in milliseconds to wait for the lock, -1 means no timeout and 0 no wait.
+     * @param type type of the requester of the lock (i.e. the command name), used for instrumentation.
+     * @return the lock token for the resource, or <code>null</code> if the lock could not be obtained.
+     * @throws InterruptedException thrown if the thread was interrupted while waiting.
+     */
+    public MemoryLocks.LockToken getWriteLock(String resource, long wait, String type) throws InterruptedException {
+        Instrumentation.Cron cron = new Instrumentation.Cron();
+        cron.start();
+        try {
+            return locks.getWriteLock(resource, wait);
+        }
+        finally {
+            cron.stop();
+            addWaitCron(type, cron);
+        }
+    }
+
+    private void addWaitCron(String type, Instrumentation.Cron cron) {
+        if (instrumentation != null && type != null) {
+            instrumentation.addCron(INSTRUMENTATION_GROUP, type + INSTR_WAIT_TIMER, cron);
+        }
+    }
+
 }
@@ -18,7 +18,9 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.BundleActionBean;
@@ -51,11 +53,12 @@ import org.apache.oozie.command.wf.SignalXCommand;
 import org.apache.oozie.command.wf.SuspendXCommand;
 import org.apache.oozie.executor.jpa.BundleActionsGetWaitingOlderJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordActionsGetForRecoveryJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordActionsGetForRecoveryColumnsJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionsGetReadyGroupbyJobIDJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
-import org.apache.oozie.executor.jpa.WorkflowActionsGetPendingJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowActionsGetPendingColumnsJPAExecutor;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.JobUtils;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XConfiguration;
@@ -97,10 +100,17 @@ public class RecoveryService implements Service {
      */
     public static final String CONF_BUNDLE_OLDER_THAN = CONF_PREFIX_BUNDLE + "older.than";
 
+    /**
+     * The number of actions read from the database at a time.
+     */
+    public static final String CONF_PAGE_SIZE = CONF_PREFIX + "page.size";
+
     private static final String INSTRUMENTATION_GROUP = "recovery";
     private static final String INSTR_RECOVERED_ACTIONS_COUNTER = "actions";
     private static final String INSTR_RECOVERED_COORD_ACTIONS_COUNTER = "coord_actions";
     private static final String INSTR_RECOVERED_BUNDLE_ACTIONS_COUNTER = "bundle_actions";
+    private static final String INSTR_RECOVERY_ACTIONS_TIMER = "sweep_actions";
+    private static final String INSTR_RECOVERY_COORD_ACTIONS_TIMER = "sweep_coord_actions";
 
     private static boolean useXCommand = true;
 
@@ -216,57 +226,86 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
 
+            Instrumentation.Cron cron = new Instrumentation.Cron();
+            cron.start();
+            int count = 0;
             try {
-                List<CoordinatorActionBean> cactions = jpaService.execute(new CoordActionsGetForRecoveryJPAExecutor(coordOlderThan));
-                msg.append(", COORD_ACTIONS : " + cactions.size());
-                for (CoordinatorActionBean caction : cactions) {
-                    Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                                                                                INSTR_RECOVERED_COORD_ACTIONS_COUNTER, 1);
-                    if (caction.getStatus() == CoordinatorActionBean.Status.WAITING) {
-                        if (useXCommand) {
-                            queueCallable(new CoordActionInputCheckXCommand(caction.getId()));
-                        } else {
-                            queueCallable(new CoordActionInputCheckCommand(caction.getId()));
-                        }
-
-                        log.info("Recover a WAITTING coord action and resubmit CoordActionInputCheckXCommand :" + caction.getId());
-                    }
-                    else if (caction.getStatus() == CoordinatorActionBean.Status.SUBMITTED) {
-                        CoordinatorJobBean coordJob = jpaService.execute(new CoordJobGetJPAExecutor(caction.getJobId()));
-
-                        if (useXCommand) {
-                            queueCallable(new CoordActionStartXCommand(caction.getId(), coordJob.getUser(), coordJob
-                                    .getAuthToken()));
-                        } else {
-                            queueCallable(new CoordActionStartCommand(caction.getId(), coordJob.getUser(), coordJob
-                                    .getAuthToken()));
-                        }
-
-                        log.info("Recover a SUBMITTED coord action and resubmit CoordActionStartCommand :" + caction.getId());
-                    }
-                    else if (caction.getStatus() == CoordinatorActionBean.Status.SUSPENDED) {
-                        if (caction.getExternalId() != null) {
-                            queueCallable(new SuspendXCommand(caction.getExternalId()));
-                            log.debug("Recover a SUSPENDED coord action and resubmit SuspendXCommand :" + caction.getId());
-                        }
-                    }
-                    else if (caction.getStatus() == CoordinatorActionBean.Status.KILLED) {
-                        if (caction.getExternalId() != null) {
-                            queueCallable(new KillXCommand(caction.getExternalId()));
-                            log.debug("Recover a KILLED coord action and resubmit KillXCommand :" + caction.getId());
-                        }
-                    }
-                    else if (caction.getStatus() == CoordinatorActionBean.Status.RUNNING) {
-                        if (caction.getExternalId() != null) {
-                            queueCallable(new ResumeXCommand(caction.getExternalId()));
-                            log.debug("Recover a RUNNING coord action and resubmit ResumeXCommand :" + caction.getId());
-                        }
+                int pageSize = Services.get().getConf().getInt(CONF_PAGE_SIZE, 1000);
+                Map<String, CoordinatorJobBean> coordJobs = new HashMap<String, CoordinatorJobBean>();
+                String lastId = "";
+                List<CoordinatorActionBean> cactions;
+                do {
+                    cactions = jpaService.execute(new CoordActionsGetForRecoveryColumnsJPAExecutor(coordOlderThan,
+                            lastId, pageSize));
+                    for (CoordinatorActionBean caction : cactions) {
+                        recoverCoordAction(caction, coordJobs);
+                        lastId = caction.getId();
+                        count++;
                     }
-                }
+                } while (cactions.size() == pageSize);
             }
             catch (Exception ex) {
                 log.error("Exception, {0}", ex.getMessage(), ex);
             }
+            cron.stop();
+            instrumentSweep(INSTR_RECOVERY_COORD_ACTIONS_TIMER, cron, INSTR_RECOVERED_COORD_ACTIONS_COUNTER, count);
+            msg.append(", COORD_ACTIONS : " + count);
+        }
+
+        /**
+         * Queue the command to recover a coordinator action.
+         *
+         * @param caction coordinator action with its ID, job ID, status and external ID.
+         * @param coordJobs coordinator jobs already read by the sweep, by job ID.
+         * @throws JPAExecutorException thrown if the coordinator job of a SUBMITTED action could not be read.
+         */
+        private void recoverCoordAction(CoordinatorActionBean caction, Map<String, CoordinatorJobBean> coordJobs)
+                throws JPAExecutorException {
+            XLog log = XLog.getLog(getClass());
+            if (caction.getStatus() == CoordinatorActionBean.Status.WAITING) {
+                if (useXCommand) {
+                    queueCallable(new CoordActionInputCheckXCommand(caction.getId()));
+                } else {
+                    queueCallable(new CoordActionInputCheckCommand(caction.getId()));
+                }
+
+                log.info("Recover a WAITTING coord action and resubmit CoordActionInputCheckXCommand :" + caction.getId());
+            }
+            else if (caction.getStatus() == CoordinatorActionBean.Status.SUBMITTED) {
+                CoordinatorJobBean coordJob = coordJobs.get(caction.getJobId());
+                if (coordJob == null) {
+                    coordJob = jpaService.execute(new CoordJobGetJPAExecutor(caction.getJobId()));
+                    coordJobs.put(caction.getJobId(), coordJob);
+                }
+
+                if (useXCommand) {
+                    queueCallable(new CoordActionStartXCommand(caction.getId(), coordJob.getUser(), coordJob
+                            .getAuthToken()));
+                } else {
+                    queueCallable(new CoordActionStartCommand(caction.getId(), coordJob.getUser(), coordJob
+                            .getAuthToken()));
+                }
+
+                log.info("Recover a SUBMITTED coord action and resubmit CoordActionStartCommand :" + caction.getId());
+            }
+            else if (caction.getStatus() == CoordinatorActionBean.Status.SUSPENDED) {
+                if (caction.getExternalId() != null) {
+                    queueCallable(new SuspendXCommand(caction.getExternalId()));
+                    log.debug("Recover a SUSPENDED coord action and resubmit SuspendXCommand :" + caction.getId());
+                }
+            }
+            else if (caction.getStatus() == CoordinatorActionBean.Status.KILLED) {
+                if (caction.getExternalId() != null) {
+                    queueCallable(new KillXCommand(caction.getExternalId()));
+                    log.debug("Recover a KILLED coord action and resubmit KillXCommand :" + caction.getId());
+                }
+            }
+            else if (caction.getStatus() == CoordinatorActionBean.Status.RUNNING) {
+                if (caction.getExternalId() != null) {
+                    queueCallable(new ResumeXCommand(caction.getExternalId()));
+                    log.debug("Recover a RUNNING coord action and resubmit ResumeXCommand :" + caction.getId());
+                }
+            }
         }
 
         /**
@@ -301,74 +340,109 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
             // queue command for action recovery
+            Instrumentation.Cron cron = new Instrumentation.Cron();
+            cron.start();
+            int count = 0;
             try {
-                List<WorkflowActionBean> actions = null;
-                try {
-                    actions = jpaService.execute(new WorkflowActionsGetPendingJPAExecutor(olderThan));
-                }
-                catch (JPAExecutorException ex) {
-                    log.warn("Exception while reading pending actions from storage", ex);
-                }
-                //log.debug("QUEUING[{0}] pending wf actions for potential recovery", actions.size());
-                msg.append(" WF_ACTIONS " + actions.size());
-
-                for (WorkflowActionBean action : actions) {
-                    Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                            INSTR_RECOVERED_ACTIONS_COUNTER, 1);
-                    if (action.getStatus() == WorkflowActionBean.Status.PREP
-                            || action.getStatus() == WorkflowActionBean.Status.START_MANUAL) {
-
-                        if (useXCommand) {
-                            queueCallable(new ActionStartXCommand(action.getId(), action.getType()));
-                        } else {
-                            queueCallable(new ActionStartCommand(action.getId(), action.getType()));
-                        }
-
+                int pageSize = Services.get().getConf().getInt(CONF_PAGE_SIZE, 1000);
+                String lastId = "";
+                List<WorkflowActionBean> actions;
+                do {
+                    try {
+                        actions = jpaService.execute(new WorkflowActionsGetPendingColumnsJPAExecutor(olderThan, lastId,
+                                pageSize));
                     }
-                    else if (action.getStatus() == WorkflowActionBean.Status.START_RETRY) {
-                        Date nextRunTime = action.getPendingAge();
-                        if (useXCommand) {
-                            queueCallable(new ActionStartXCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        } else {
-                            queueCallable(new ActionStartCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        }
-
+                    catch (JPAExecutorException ex) {
+                        log.warn("Exception while reading pending actions from storage", ex);
+                        break;
                     }
-                    else if (action.getStatus() == WorkflowActionBean.Status.DONE
-                            || action.getStatus() == WorkflowActionBean.Status.END_MANUAL) {
-                        if (useXCommand) {
-                            queueCallable(new ActionEndXCommand(action.getId(), action.getType()));
-                        } else {
-                            queueCallable(new ActionEndCommand(action.getId(), action.getType()));
-                        }
-
+                    for (WorkflowActionBean action : actions) {
+                        recoverWFAction(action);
+                        lastId = action.getId();
+                        count++;
                     }
-                    else if (action.getStatus() == WorkflowActionBean.Status.END_RETRY) {
-                        Date nextRunTime = action.getPendingAge();
-                        if (useXCommand) {
-                            queueCallable(new ActionEndXCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        } else {
-                            queueCallable(new ActionEndCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        }
+                } while (actions.size() == pageSize);
+            }
+            catch (Exception ex) {
+                log.error("Exception, {0}", ex.getMessage(), ex);
+            }
+            cron.stop();
+            instrumentSweep(INSTR_RECOVERY_ACTIONS_TIMER, cron, INSTR_RECOVERED_ACTIONS_COUNTER, count);
+            msg.append(" WF_ACTIONS " + count);
+        }
 
-                    }
-                    else if (action.getStatus() == WorkflowActionBean.Status.OK
-                            || action.getStatus() == WorkflowActionBean.Status.ERROR) {
-                        if (useXCommand) {
-                            queueCallable(new SignalXCommand(action.getJobId(), action.getId()));
-                        } else {
-                            queueCallable(new SignalCommand(action.getJobId(), action.getId()));
-                        }
+        /**
+         * Queue the command to recover a workflow action.
+         *
+         * @param action workflow action with its ID, job ID, type, status and pending age.
+         */
+        private void recoverWFAction(WorkflowActionBean action) {
+            if (action.getStatus() == WorkflowActionBean.Status.PREP
+                    || action.getStatus() == WorkflowActionBean.Status.START_MANUAL) {
+
+                if (useXCommand) {
+                    queueCallable(new ActionStartXCommand(action.getId(), action.getType()));
+                } else {
+                    queueCallable(new ActionStartCommand(action.getId(), action.getType()));
+                }
 
-                    }
+            }
+            else if (action.getStatus() == WorkflowActionBean.Status.START_RETRY) {
+                Date nextRunTime = action.getPendingAge();
+                if (useXCommand) {
+                    queueCallable(new ActionStartXCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                } else {
+                    queueCallable(new ActionStartCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
                 }
+
             }
-            catch (Exception ex) {
-                log.error("Exception, {0}", ex.getMessage(), ex);
+            else if (action.getStatus() == WorkflowActionBean.Status.DONE
+                    || action.getStatus() == WorkflowActionBean.Status.END_MANUAL) {
+                if (useXCommand) {
+                    queueCallable(new ActionEndXCommand(action.getId(), action.getType()));
+                } else {
+                    queueCallable(new ActionEndCommand(action.getId(), action.getType()));
+                }
+
+            }
+            else if (action.getStatus() == WorkflowActionBean.Status.END_RETRY) {
+                Date nextRunTime = action.getPendingAge();
+                if (useXCommand) {
+                    queueCallable(new ActionEndXCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                } else {
+                    queueCallable(new ActionEndCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                }
+
+            }
+            else if (action.getStatus() == WorkflowActionBean.Status.OK
+                    || action.getStatus() == WorkflowActionBean.Status.ERROR) {
+                if (useXCommand) {
+                    queueCallable(new SignalXCommand(action.getJobId(), action.getId()));
+                } else {
+                    queueCallable(new SignalCommand(action.getJobId(), action.getId()));
+                }
+
+            }
+        }
+
+        /**
+         * Record the duration of a sweep and the number of actions it recovered.
+         *
+         * @param timer name of the sweep timer.
+         * @param cron cron of the sweep.
+         * @param counter name of the recovered actions counter.
+         * @param count number of actions the sweep recovered.
+         */
+        private void instrumentSweep(String timer, Instrumentation.Cron cron, String counter, int count) {
+            InstrumentationService instrumentationService = Services.get().get(InstrumentationService.class);
+            if (instrumentationService != null) {
+                Instrumentation instr = instrumentationService.get();
+                instr.addCron(INSTRUMENTATION_GROUP, timer, cron);
+                instr.incr(INSTRUMENTATION_GROUP, counter, count);
             }
         }
 
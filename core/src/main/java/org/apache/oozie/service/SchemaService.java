@@ -26,13 +26,19 @@ import javax.xml.validation.SchemaFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XmlUtils;
 import org.xml.sax.SAXException;
 
 /**
  * Service that loads Oozie workflow definition schema and registered extension
  * schemas.
+ * <p/>
+ * It also configures the cache of parsed XML documents of {@link XmlUtils#parseXmlCached(String)}, see {@link
+ * #PARSED_CACHE_MAX_BYTES}.
  */
-public class SchemaService implements Service {
+public class SchemaService implements Service, Instrumentable {
 
     public static final String CONF_PREFIX = Service.CONF_PREFIX + "SchemaService.";
 
@@ -44,6 +50,13 @@ public class SchemaService implements Service {
 
     public static final String SLA_CONF_EXT_SCHEMAS = CONF_PREFIX + "sla.ext.schemas";
 
+    /**
+     * Maximum size, in bytes, of the XML documents kept by the parsed XML cache. Zero disables the cache.
+     */
+    public static final String PARSED_CACHE_MAX_BYTES = CONF_PREFIX + "parsed.cache.max.bytes";
+
+    private static final String INSTRUMENTATION_GROUP = "xml.parsed";
+
     public static final String SLA_NAME_SPACE_URI = "uri:oozie:sla:0.1";
 
     public static final String COORDINATOR_NAMESPACE_URI_1 = "uri:oozie:coordinator:0.1";
@@ -85,6 +98,8 @@ public class SchemaService implements Service {
      * @throws ServiceException thrown if the service could not be initialized.
      */
     public void init(Services services) throws ServiceException {
+        XmlUtils.setParsedCacheMaxBytes(services.getConf().getLong(PARSED_CACHE_MAX_BYTES,
+                                                                   XmlUtils.PARSED_CACHE_DEFAULT_MAX_BYTES));
         try {
             wfSchema = loadSchema(services.getConf(), OOZIE_WORKFLOW_XSD, WF_CONF_EXT_SCHEMAS);
             coordSchema = loadSchema(services.getConf(), OOZIE_COORDINATOR_XSD, COORD_CONF_EXT_SCHEMAS);
@@ -100,6 +115,29 @@ public class SchemaService implements Service {
         }
     }
 
+    /**
+     * Instrument the parsed XML cache.
+     *
+     * @param instr instrumentation to use.
+     */
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP, "cached.bytes", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return XmlUtils.getParsedCacheBytes();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "hits", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return XmlUtils.getParsedCacheHits();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "misses", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return XmlUtils.getParsedCacheMisses();
+            }
+        });
+    }
+
     /**
      * Return the public interface of the service.
      *
@@ -31,14 +31,15 @@ import org.apache.oozie.client.Job;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.bundle.BundleKillXCommand;
 import org.apache.oozie.command.bundle.BundleStatusUpdateXCommand;
+import org.apache.oozie.executor.jpa.BundleActionsFailedSubmissionCountGetJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleActionsGetByLastModifiedTimeJPAExecutor;
-import org.apache.oozie.executor.jpa.BundleActionsGetJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleActionsGetStatusCountJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobsGetPendingJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobsGetRunningJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionsGetByLastModifiedTimeJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobGetActionsStatusCountJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobsGetPendingJPAExecutor;
@@ -166,61 +167,49 @@ public class StatusTransitService implements Service {
                             String jobId = bundleJob.getId();
                             Job.Status[] bundleStatus = new Job.Status[1];
                             bundleStatus[0] = bundleJob.getStatus();
-                            List<BundleActionBean> bundleActions = jpaService.execute(new BundleActionsGetJPAExecutor(
-                                    jobId));
-                            HashMap<Job.Status, Integer> bundleActionStatus = new HashMap<Job.Status, Integer>();
-                            boolean foundPending = false;
-                            for (BundleActionBean bAction : bundleActions) {
-                                if (!bAction.isPending()) {
-                                    int counter = 0;
-                                    if (bundleActionStatus.containsKey(bAction.getStatus())) {
-                                        counter = bundleActionStatus.get(bAction.getStatus()) + 1;
-                                    }
-                                    else {
-                                        ++counter;
-                                    }
-                                    bundleActionStatus.put(bAction.getStatus(), counter);
-                                    if (bAction.getCoordId() == null
-                                            && (bAction.getStatus() == Job.Status.FAILED || bAction.getStatus() == Job.Status.KILLED)) {
-                                        (new BundleKillXCommand(jobId)).call();
-                                        LOG.info("Bundle job ["+ jobId
-                                                        + "] has been killed since one of its coordinator job failed submission.");
-                                    }
-                                }
-                                else {
-                                    foundPending = true;
-                                    break;
+                            BundleActionsGetStatusCountJPAExecutor.StatusCount statusCount = jpaService
+                                    .execute(new BundleActionsGetStatusCountJPAExecutor(jobId));
+                            HashMap<Job.Status, Integer> bundleActionStatus = statusCount.getNonPendingCount();
+                            int bundleActionsCount = statusCount.getTotalCount();
+                            if (bundleActionStatus.containsKey(Job.Status.FAILED)
+                                    || bundleActionStatus.containsKey(Job.Status.KILLED)) {
+                                int failedSubmissions = jpaService
+                                        .execute(new BundleActionsFailedSubmissionCountGetJPAExecutor(jobId));
+                                if (failedSubmissions > 0) {
+                                    (new BundleKillXCommand(jobId)).call();
+                                    LOG.info("Bundle job ["+ jobId
+                                                    + "] has been killed since one of its coordinator job failed submission.");
                                 }
                             }
 
-                            if (foundPending) {
+                            if (statusCount.getPendingCount() > 0) {
                                 continue;
                             }
 
-                            if (checkTerminalStatus(bundleActionStatus, bundleActions, bundleStatus)) {
+                            if (checkTerminalStatus(bundleActionStatus, bundleActionsCount, bundleStatus)) {
                                 LOG.info("Set bundle job [" + jobId + "] status to '" + bundleStatus[0].toString()
                                         + "' from '" + bundleJob.getStatus() + "'");
-                                updateBundleJob(bundleActionStatus, bundleActions, bundleJob, bundleStatus[0]);
+                                updateBundleJob(bundleActionStatus, bundleActionsCount, bundleJob, bundleStatus[0]);
                             }
-                            else if (checkPrepStatus(bundleActionStatus, bundleActions, bundleStatus)) {
+                            else if (checkPrepStatus(bundleActionStatus, bundleActionsCount, bundleStatus)) {
                                 LOG.info("Set bundle job [" + jobId + "] status to '" + bundleStatus[0].toString()
                                         + "' from '" + bundleJob.getStatus() + "'");
-                                updateBundleJob(bundleActionStatus, bundleActions, bundleJob, bundleStatus[0]);
+                                updateBundleJob(bundleActionStatus, bundleActionsCount, bundleJob, bundleStatus[0]);
                             }
-                            else if (checkPausedStatus(bundleActionStatus, bundleActions, bundleStatus)) {
+                            else if (checkPausedStatus(bundleActionStatus, bundleActionsCount, bundleStatus)) {
                                 LOG.info("Set bundle job [" + jobId + "] status to '" + bundleStatus[0].toString()
                                         + "' from '" + bundleJob.getStatus() + "'");
-                                updateBundleJob(bundleActionStatus, bundleActions, bundleJob, bundleStatus[0]);
+                                updateBundleJob(bundleActionStatus, bundleActionsCount, bundleJob, bundleStatus[0]);
                             }
-                            else if (checkSuspendStatus(bundleActionStatus, bundleActions, bundleStatus)) {
+                            else if (checkSuspendStatus(bundleActionStatus, bundleActionsCount, bundleStatus)) {
                                 LOG.info("Set bundle job [" + jobId + "] status to '" + bundleStatus[0].toString()
                                         + "' from '" + bundleJob.getStatus() + "'");
-                                updateBundleJob(bundleActionStatus, bundleActions, bundleJob, bundleStatus[0]);
+                                updateBundleJob(bundleActionStatus, bundleActionsCount, bundleJob, bundleStatus[0]);
                             }
-                            else if (checkRunningStatus(bundleActionStatus, bundleActions, bundleStatus)) {
+                            else if (checkRunningStatus(bundleActionStatus, bundleActionsCount, bundleStatus)) {
                                 LOG.info("Set bundle job [" + jobId + "] status to '" + bundleStatus[0].toString()
                                         + "' from '" + bundleJob.getStatus() + "'");
-                                updateBundleJob(bundleActionStatus, bundleActions, bundleJob, bundleStatus[0]);
+                                updateBundleJob(bundleActionStatus, bundleActionsCount, bundleJob, bundleStatus[0]);
                             }
                         }
                         catch (Exception ex) {
@@ -248,51 +237,34 @@ public class StatusTransitService implements Service {
                         String jobId = coordJob.getId();
                         Job.Status[] coordStatus = new Job.Status[1];
                         coordStatus[0] = coordJob.getStatus();
-                        List<CoordinatorActionBean> coordActions = jpaService
-                                .execute(new CoordJobGetActionsJPAExecutor(jobId));
-                        HashMap<CoordinatorAction.Status, Integer> coordActionStatus = new HashMap<CoordinatorAction.Status, Integer>();
-                        boolean foundPending = false;
-                        for (CoordinatorActionBean cAction : coordActions) {
-                            if (!cAction.isPending()) {
-                                int counter = 0;
-                                if (coordActionStatus.containsKey(cAction.getStatus())) {
-                                    counter = coordActionStatus.get(cAction.getStatus()) + 1;
-                                }
-                                else {
-                                    ++counter;
-                                }
-                                coordActionStatus.put(cAction.getStatus(), counter);
-                            }
-                            else {
-                                foundPending = true;
-                                break;
-                            }
-                        }
-
-                        if (foundPending) {
+                        CoordJobGetActionsStatusCountJPAExecutor.StatusCount statusCount = jpaService
+                                .execute(new CoordJobGetActionsStatusCountJPAExecutor(jobId));
+                        if (statusCount.getPendingCount() > 0) {
                             continue;
                         }
+                        HashMap<CoordinatorAction.Status, Integer> coordActionStatus = statusCount.getNonPendingCount();
+                        int coordActionsCount = statusCount.getTotalCount();
 
                         if (coordJob.isDoneMaterialization()
-                                && checkCoordTerminalStatus(coordActionStatus, coordActions, coordStatus)) {
+                                && checkCoordTerminalStatus(coordActionStatus, coordActionsCount, coordStatus)) {
                             LOG.info("Set coordinator job [" + jobId + "] status to '" + coordStatus[0].toString()
                                     + "' from '" + coordJob.getStatus() + "'");
-                            updateCoordJob(coordActionStatus, coordActions, coordJob, coordStatus[0]);
+                            updateCoordJob(coordActionStatus, coordActionsCount, coordJob, coordStatus[0]);
                         }
                         else if (coordJob.isDoneMaterialization()
-                                && checkCoordSuspendStatus(coordActionStatus, coordActions, coordStatus)) {
+                                && checkCoordSuspendStatus(coordActionStatus, coordActionsCount, coordStatus)) {
                             LOG.info("Set coordinator job [" + jobId + "] status to " + coordStatus[0].toString()
                                     + "' from '" + coordJob.getStatus() + "'");
-                            updateCoordJob(coordActionStatus, coordActions, coordJob, coordStatus[0]);
+                            updateCoordJob(coordActionStatus, coordActionsCount, coordJob, coordStatus[0]);
                         }
-                        else if (checkCoordRunningStatus(coordActionStatus, coordActions, coordStatus)) {
+                        else if (checkCoordRunningStatus(coordActionStatus, coordActionsCount, coordStatus)) {
                             LOG.info("Set coordinator job [" + jobId + "] status to " + coordStatus[0].toString()
                                     + "' from '" + coordJob.getStatus() + "'");
-                            updateCoordJob(coordActionStatus, coordActions, coordJob, coordStatus[0]);
+                            updateCoordJob(coordActionStatus, coordActionsCount, coordJob, coordStatus[0]);
                         }
                         // checking pending flag for job when user killed or suspended the job
                         else {
-                            checkCoordPending(coordActionStatus, coordActions, coordJob, true);
+                            checkCoordPending(coordActionStatus, coordActionsCount, coordJob, true);
                         }
                     }
                     catch (Exception ex) {
@@ -305,7 +277,7 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkTerminalStatus(HashMap<Job.Status, Integer> bundleActionStatus,
-                List<BundleActionBean> bundleActions, Job.Status[] bundleStatus) {
+                int bundleActionsCount, Job.Status[] bundleStatus) {
             boolean ret = false;
             int totalValuesSucceed = 0;
             if (bundleActionStatus.containsKey(Job.Status.SUCCEEDED)) {
@@ -325,18 +297,18 @@ public class StatusTransitService implements Service {
                 totalValuesDoneWithError = bundleActionStatus.get(Job.Status.DONEWITHERROR);
             }
 
-            if (bundleActions.size() == (totalValuesSucceed + totalValuesFailed + totalValuesKilled + totalValuesDoneWithError)) {
+            if (bundleActionsCount == (totalValuesSucceed + totalValuesFailed + totalValuesKilled + totalValuesDoneWithError)) {
                 // If all the bundle actions are succeeded then bundle job should be succeeded.
-                if (bundleActions.size() == totalValuesSucceed) {
+                if (bundleActionsCount == totalValuesSucceed) {
                     bundleStatus[0] = Job.Status.SUCCEEDED;
                     ret = true;
                 }
-                else if (bundleActions.size() == totalValuesKilled) {
+                else if (bundleActionsCount == totalValuesKilled) {
                     // If all the bundle actions are KILLED then bundle job should be KILLED.
                     bundleStatus[0] = Job.Status.KILLED;
                     ret = true;
                 }
-                else if (bundleActions.size() == totalValuesFailed) {
+                else if (bundleActionsCount == totalValuesFailed) {
                     // If all the bundle actions are FAILED then bundle job should be FAILED.
                     bundleStatus[0] = Job.Status.FAILED;
                     ret = true;
@@ -350,7 +322,7 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkCoordTerminalStatus(HashMap<CoordinatorAction.Status, Integer> coordActionStatus,
-                List<CoordinatorActionBean> coordActions, Job.Status[] coordStatus) {
+                int coordActionsCount, Job.Status[] coordStatus) {
             boolean ret = false;
             int totalValuesSucceed = 0;
             if (coordActionStatus.containsKey(CoordinatorAction.Status.SUCCEEDED)) {
@@ -370,18 +342,18 @@ public class StatusTransitService implements Service {
                 totalValuesTimeOut = coordActionStatus.get(CoordinatorAction.Status.TIMEDOUT);
             }
 
-            if (coordActions.size() == (totalValuesSucceed + totalValuesFailed + totalValuesKilled + totalValuesTimeOut)) {
+            if (coordActionsCount == (totalValuesSucceed + totalValuesFailed + totalValuesKilled + totalValuesTimeOut)) {
                 // If all the coordinator actions are succeeded then coordinator job should be succeeded.
-                if (coordActions.size() == totalValuesSucceed) {
+                if (coordActionsCount == totalValuesSucceed) {
                     coordStatus[0] = Job.Status.SUCCEEDED;
                     ret = true;
                 }
-                else if (coordActions.size() == totalValuesKilled) {
+                else if (coordActionsCount == totalValuesKilled) {
                     // If all the coordinator actions are KILLED then coordinator job should be KILLED.
                     coordStatus[0] = Job.Status.KILLED;
                     ret = true;
                 }
-                else if (coordActions.size() == totalValuesFailed) {
+                else if (coordActionsCount == totalValuesFailed) {
                     // If all the coordinator actions are FAILED then coordinator job should be FAILED.
                     coordStatus[0] = Job.Status.FAILED;
                     ret = true;
@@ -395,11 +367,11 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkPrepStatus(HashMap<Job.Status, Integer> bundleActionStatus,
-                List<BundleActionBean> bundleActions, Job.Status[] bundleStatus) {
+                int bundleActionsCount, Job.Status[] bundleStatus) {
             boolean ret = false;
             if (bundleActionStatus.containsKey(Job.Status.PREP)) {
                 // If all the bundle actions are PREP then bundle job should be RUNNING.
-                if (bundleActions.size() > bundleActionStatus.get(Job.Status.PREP)) {
+                if (bundleActionsCount > bundleActionStatus.get(Job.Status.PREP)) {
                     bundleStatus[0] = Job.Status.RUNNING;
                     ret = true;
                 }
@@ -408,15 +380,15 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkPausedStatus(HashMap<Job.Status, Integer> bundleActionStatus,
-                List<BundleActionBean> bundleActions, Job.Status[] bundleStatus) {
+                int bundleActionsCount, Job.Status[] bundleStatus) {
             boolean ret = false;
             if (bundleActionStatus.containsKey(Job.Status.PAUSED)) {
-                if (bundleActions.size() == bundleActionStatus.get(Job.Status.PAUSED)) {
+                if (bundleActionsCount == bundleActionStatus.get(Job.Status.PAUSED)) {
                     bundleStatus[0] = Job.Status.PAUSED;
                     ret = true;
                 }
                 else if (bundleActionStatus.containsKey(Job.Status.PAUSEDWITHERROR)
-                        && (bundleActions.size() == bundleActionStatus.get(Job.Status.PAUSED)
+                        && (bundleActionsCount == bundleActionStatus.get(Job.Status.PAUSED)
                                 + bundleActionStatus.get(Job.Status.PAUSEDWITHERROR))) {
                     // bundleStatus = Job.Status.PAUSEDWITHERROR;
                     // We need to change this to PAUSEDWITHERROR in future when we add this to coordinator
@@ -428,15 +400,15 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkSuspendStatus(HashMap<Job.Status, Integer> bundleActionStatus,
-                List<BundleActionBean> bundleActions, Job.Status[] bundleStatus) {
+                int bundleActionsCount, Job.Status[] bundleStatus) {
             boolean ret = false;
             if (bundleActionStatus.containsKey(Job.Status.SUSPENDED)) {
-                if (bundleActions.size() == bundleActionStatus.get(Job.Status.SUSPENDED)) {
+                if (bundleActionsCount == bundleActionStatus.get(Job.Status.SUSPENDED)) {
                     bundleStatus[0] = Job.Status.SUSPENDED;
                     ret = true;
                 }
                 else if (bundleActionStatus.containsKey(Job.Status.SUSPENDEDWITHERROR)
-                        && (bundleActions.size() == bundleActionStatus.get(Job.Status.SUSPENDED)
+                        && (bundleActionsCount == bundleActionStatus.get(Job.Status.SUSPENDED)
                                 + bundleActionStatus.get(Job.Status.SUSPENDEDWITHERROR))) {
                     // bundleStatus = Job.Status.SUSPENDEDWITHERROR;
                     // We need to change this to SUSPENDEDWITHERROR in future when we add this to coordinator
@@ -448,10 +420,10 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkCoordSuspendStatus(HashMap<CoordinatorAction.Status, Integer> coordActionStatus,
-                List<CoordinatorActionBean> coordActions, Job.Status[] coordStatus) {
+                int coordActionsCount, Job.Status[] coordStatus) {
             boolean ret = false;
             if (coordActionStatus.containsKey(CoordinatorAction.Status.SUSPENDED)) {
-                if (coordActions.size() == coordActionStatus.get(CoordinatorAction.Status.SUSPENDED)) {
+                if (coordActionsCount == coordActionStatus.get(CoordinatorAction.Status.SUSPENDED)) {
                     coordStatus[0] = Job.Status.SUSPENDED;
                     ret = true;
                 }
@@ -460,11 +432,11 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkCoordRunningStatus(HashMap<CoordinatorAction.Status, Integer> coordActionStatus,
-                List<CoordinatorActionBean> coordActions, Job.Status[] coordStatus) {
+                int coordActionsCount, Job.Status[] coordStatus) {
             boolean ret = false;
             if (coordActionStatus.containsKey(CoordinatorAction.Status.RUNNING)) {
                 // If all the bundle actions are succeeded then bundle job should be succeeded.
-                if (coordActions.size() == coordActionStatus.get(CoordinatorAction.Status.RUNNING)) {
+                if (coordActionsCount == coordActionStatus.get(CoordinatorAction.Status.RUNNING)) {
                     coordStatus[0] = Job.Status.RUNNING;
                     ret = true;
                 }
@@ -485,11 +457,11 @@ public class StatusTransitService implements Service {
         }
 
         private boolean checkRunningStatus(HashMap<Job.Status, Integer> bundleActionStatus,
-                List<BundleActionBean> bundleActions, Job.Status[] bundleStatus) {
+                int bundleActionsCount, Job.Status[] bundleStatus) {
             boolean ret = false;
             if (bundleActionStatus.containsKey(Job.Status.RUNNING)) {
                 // If all the bundle actions are succeeded then bundle job should be succeeded.
-                if (bundleActions.size() == bundleActionStatus.get(Job.Status.RUNNING)) {
+                if (bundleActionsCount == bundleActionStatus.get(Job.Status.RUNNING)) {
                     bundleStatus[0] = Job.Status.RUNNING;
                     ret = true;
                 }
@@ -512,7 +484,7 @@ public class StatusTransitService implements Service {
         }
 
         private void updateBundleJob(HashMap<Job.Status, Integer> bundleActionStatus,
-                List<BundleActionBean> bundleActions, BundleJobBean bundleJob, Job.Status bundleStatus)
+                int bundleActionsCount, BundleJobBean bundleJob, Job.Status bundleStatus)
                 throws JPAExecutorException {
             String jobId = bundleJob.getId();
             boolean pendingBundleJob = bundleJob.isPending();
@@ -522,7 +494,7 @@ public class StatusTransitService implements Service {
                 totalNonPendingActions += bundleActionStatus.get(js);
             }
 
-            if (totalNonPendingActions == bundleActions.size()) {
+            if (totalNonPendingActions == bundleActionsCount) {
                 pendingBundleJob = false;
             }
 
@@ -540,7 +512,7 @@ public class StatusTransitService implements Service {
         }
 
         private void updateCoordJob(HashMap<CoordinatorAction.Status, Integer> coordActionStatus,
-                List<CoordinatorActionBean> coordActions, CoordinatorJobBean coordJob, Job.Status coordStatus)
+                int coordActionsCount, CoordinatorJobBean coordJob, Job.Status coordStatus)
                 throws JPAExecutorException, CommandException {
             Job.Status prevStatus = coordJob.getStatus();
             // Update the Coord Job
@@ -553,7 +525,7 @@ public class StatusTransitService implements Service {
                 }
             }
 
-            checkCoordPending(coordActionStatus, coordActions, coordJob, false);
+            checkCoordPending(coordActionStatus, coordActionsCount, coordJob, false);
             coordJob.setStatus(coordStatus);
             coordJob.setStatus(StatusUtils.getStatus(coordJob));
             coordJob.setLastModifiedTime(new Date());
@@ -568,7 +540,7 @@ public class StatusTransitService implements Service {
         }
 
         private void checkCoordPending(HashMap<CoordinatorAction.Status, Integer> coordActionStatus,
-                List<CoordinatorActionBean> coordActions, CoordinatorJobBean coordJob, boolean saveToDB) throws JPAExecutorException {
+                int coordActionsCount, CoordinatorJobBean coordJob, boolean saveToDB) throws JPAExecutorException {
             boolean pendingCoordJob = coordJob.isPending();
             // Checking the coordinator pending should be updated or not
             int totalNonPendingActions = 0;
@@ -576,7 +548,7 @@ public class StatusTransitService implements Service {
                 totalNonPendingActions += coordActionStatus.get(js);
             }
 
-            if (totalNonPendingActions == coordActions.size()) {
+            if (totalNonPendingActions == coordActionsCount) {
                 pendingCoordJob = false;
             }
 
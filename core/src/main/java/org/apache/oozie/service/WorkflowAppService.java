@@ -23,10 +23,13 @@ import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.workflow.WorkflowApp;
 import org.apache.oozie.workflow.WorkflowException;
 import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.ErrorCode;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -34,13 +37,20 @@ import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service that provides application workflow definition reading from the path and creation of the proto configuration.
+ * <p/>
+ * The workflow definition, the parsed workflow application, the <code>config-default.xml</code> configuration and the
+ * lib directory listings are cached by user and path. A cached file is used while its modification time and length in
+ * the file system do not change, so only its status is read from the file system on a cache hit.
  */
-public abstract class WorkflowAppService implements Service {
+public abstract class WorkflowAppService implements Service, Instrumentable {
 
     public static final String CONF_PREFIX = Service.CONF_PREFIX + "WorkflowAppService.";
 
@@ -56,8 +66,38 @@ public abstract class WorkflowAppService implements Service {
 
     public static final String HADOOP_NN_KERBEROS_NAME = "dfs.namenode.kerberos.principal";
 
+    /**
+     * Maximum number of application files, and of parsed workflow applications, cached. Zero disables the caches.
+     */
+    public static final String APP_CACHE_SIZE = CONF_PREFIX + "app.cache.size";
+
+    private static final String INSTRUMENTATION_GROUP = "workflow.apps";
+
     private Path systemLibPath;
 
+    /**
+     * Application file content, or directory listing, cached for a file status.
+     */
+    private static class CachedAppFile {
+        private final long modificationTime;
+        private final long length;
+        private final Object value;
+
+        private CachedAppFile(FileStatus status, Object value) {
+            this.modificationTime = status.getModificationTime();
+            this.length = status.getLen();
+            this.value = value;
+        }
+    }
+
+    private Map<String, CachedAppFile> appFiles;
+    private Map<String, WorkflowApp> parsedApps;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong parsedHits = new AtomicLong();
+    private final AtomicLong parsedMisses = new AtomicLong();
+
     /**
      * Initialize the workflow application service.
      *
@@ -68,12 +108,118 @@ public abstract class WorkflowAppService implements Service {
         if (path.trim().length() > 0) {
             systemLibPath = new Path(path.trim());
         }
+        int cacheSize = services.getConf().getInt(APP_CACHE_SIZE, 500);
+        appFiles = createLRUCache(cacheSize);
+        parsedApps = createLRUCache(cacheSize);
+    }
+
+    private static <V> Map<String, V> createLRUCache(final int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
     }
 
     /**
      * Destroy the workflow application service.
      */
     public void destroy() {
+        appFiles.clear();
+        parsedApps.clear();
+    }
+
+    /**
+     * Instrument the application caches of the workflow application service.
+     *
+     * @param instr instrumentation to use.
+     */
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP, "cached", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) appFiles.size();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "hit.ratio", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                long total = hits.get() + misses.get();
+                return (total == 0) ? 0 : hits.get() * 100 / total;
+            }
+        });
+        addCounterVariable(instr, "hits", hits);
+        addCounterVariable(instr, "misses", misses);
+        addCounterVariable(instr, "bytes.saved", bytesSaved);
+        instr.addVariable(INSTRUMENTATION_GROUP, "parsed.cached", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) parsedApps.size();
+            }
+        });
+        addCounterVariable(instr, "parsed.hits", parsedHits);
+        addCounterVariable(instr, "parsed.misses", parsedMisses);
+    }
+
+    private void addCounterVariable(Instrumentation instr, String name, final AtomicLong counter) {
+        instr.addVariable(INSTRUMENTATION_GROUP, name, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return counter.get();
+            }
+        });
+    }
+
+    private String getCacheKey(String type, String user, FileSystem fs, Path path) {
+        return type + "\n" + user + "\n" + fs.makeQualified(path);
+    }
+
+    /**
+     * Return the cached value for an application file if the file did not change since it was cached.
+     *
+     * @param key cache key.
+     * @param status current status of the file.
+     * @return the cached value, <code>null</code> if not cached or if the file changed.
+     */
+    private Object getCachedFile(String key, FileStatus status) {
+        CachedAppFile cached = appFiles.get(key);
+        if (cached != null && cached.modificationTime == status.getModificationTime()
+                && cached.length == status.getLen()) {
+            hits.incrementAndGet();
+            bytesSaved.addAndGet(status.getLen());
+            return cached.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private void putCachedFile(String key, FileStatus status, Object value) {
+        appFiles.put(key, new CachedAppFile(status, value));
+    }
+
+    /**
+     * Return the cached workflow application for a workflow definition.
+     *
+     * @param definition workflow definition.
+     * @return the cached workflow application, <code>null</code> if not cached.
+     */
+    protected WorkflowApp getCachedApp(String definition) {
+        WorkflowApp app = parsedApps.get(definition);
+        if (app != null) {
+            parsedHits.incrementAndGet();
+        }
+        else {
+            parsedMisses.incrementAndGet();
+        }
+        return app;
+    }
+
+    /**
+     * Cache a parsed workflow application by its workflow definition. <p/> Workflow applications are not modified
+     * once parsed, so the same instance is shared by all the jobs created from the definition.
+     *
+     * @param definition workflow definition.
+     * @param app parsed workflow application.
+     */
+    protected void cacheApp(String definition, WorkflowApp app) {
+        parsedApps.put(definition, app);
     }
 
     /**
@@ -104,14 +250,22 @@ public abstract class WorkflowAppService implements Service {
 
             // app path could be a directory
             Path path = new Path(uri.getPath());
-            if (!fs.isFile(path)) {
+            FileStatus status = fs.getFileStatus(path);
+            if (status.isDir()) {
                 path = new Path(path, "workflow.xml");
+                status = fs.getFileStatus(path);
             }
 
-            Reader reader = new InputStreamReader(fs.open(path));
-            StringWriter writer = new StringWriter();
-            IOUtils.copyCharStream(reader, writer);
-            return writer.toString();
+            String key = getCacheKey("definition", user, fs, path);
+            String definition = (String) getCachedFile(key, status);
+            if (definition == null) {
+                Reader reader = new InputStreamReader(fs.open(path));
+                StringWriter writer = new StringWriter();
+                IOUtils.copyCharStream(reader, writer);
+                definition = writer.toString();
+                putCachedFile(key, status, definition);
+            }
+            return definition;
 
         }
         catch (IOException ex) {
@@ -128,6 +282,34 @@ public abstract class WorkflowAppService implements Service {
         }
     }
 
+    /**
+     * Read the default configuration of a workflow application, <code>config-default.xml</code>.
+     *
+     * @param fs file system of the application, created for the user.
+     * @param path path of the default configuration file.
+     * @param user user name.
+     * @return a copy of the default configuration, <code>null</code> if the file does not exist.
+     * @throws IOException thrown if the default configuration could not be read.
+     */
+    public XConfiguration readDefaultConf(FileSystem fs, Path path, String user) throws IOException {
+        FileStatus status;
+        try {
+            status = fs.getFileStatus(path);
+        }
+        catch (FileNotFoundException ex) {
+            return null;
+        }
+        String key = getCacheKey("default", user, fs, path);
+        XConfiguration defaultConf = (XConfiguration) getCachedFile(key, status);
+        if (defaultConf == null) {
+            defaultConf = new XConfiguration(fs.open(path));
+            putCachedFile(key, status, defaultConf);
+        }
+        XConfiguration conf = new XConfiguration();
+        XConfiguration.copy(defaultConf, conf);
+        return conf;
+    }
+
     /**
      * Create proto configuration. <p/> The proto configuration includes the user,group and the paths which need to be
      * added to distributed cache. These paths include .jar,.so and the resource file paths.
@@ -166,9 +348,9 @@ public abstract class WorkflowAppService implements Service {
                 // app path could be a directory
                 Path path = new Path(uri.getPath());
                 if (!fs.isFile(path)) {
-                    filePaths = getLibFiles(fs, new Path(appPath + "/lib"));
+                    filePaths = getLibFiles(fs, new Path(appPath + "/lib"), user);
                 } else {
-                    filePaths = getLibFiles(fs, new Path(appPath.getParent(), "lib"));
+                    filePaths = getLibFiles(fs, new Path(appPath.getParent(), "lib"), user);
                 }
             }
             else {
@@ -177,12 +359,12 @@ public abstract class WorkflowAppService implements Service {
 
             if (jobConf.get(OozieClient.LIBPATH) != null) {
                 Path libPath = new Path(jobConf.get(OozieClient.LIBPATH));
-                List<String> libPaths = getLibFiles(fs, libPath);
+                List<String> libPaths = getLibFiles(fs, libPath, user);
                 filePaths.addAll(libPaths);
             }
 
             if (systemLibPath != null && jobConf.getBoolean(OozieClient.USE_SYSTEM_LIBPATH, false)) {
-                List<String> libPaths = getLibFiles(fs, systemLibPath);
+                List<String> libPaths = getLibFiles(fs, systemLibPath, user);
                 filePaths.addAll(libPaths);
             }
 
@@ -232,26 +414,37 @@ public abstract class WorkflowAppService implements Service {
     public abstract WorkflowApp parseDef(String wfXml) throws WorkflowException;
 
     /**
-     * Get all library paths.
+     * Get all library paths. <p/> The listing is cached while the modification time of the library directory does not
+     * change, adding, removing or renaming files in the directory changes it.
      *
      * @param fs file system object.
      * @param libPath hdfs library path.
+     * @param user user name.
      * @return list of paths.
      * @throws IOException thrown if the lib paths could not be obtained.
      */
-    private List<String> getLibFiles(FileSystem fs, Path libPath) throws IOException {
-        List<String> libPaths = new ArrayList<String>();
-        if (fs.exists(libPath)) {
+    @SuppressWarnings("unchecked")
+    private List<String> getLibFiles(FileSystem fs, Path libPath, String user) throws IOException {
+        FileStatus dirStatus;
+        try {
+            dirStatus = fs.getFileStatus(libPath);
+        }
+        catch (FileNotFoundException ex) {
+            XLog.getLog(getClass()).warn("libpath [{0}] does not exists", libPath);
+            return new ArrayList<String>();
+        }
+        String key = getCacheKey("lib", user, fs, libPath);
+        List<String> libPaths = (List<String>) getCachedFile(key, dirStatus);
+        if (libPaths == null) {
+            libPaths = new ArrayList<String>();
             FileStatus[] files = fs.listStatus(libPath, new NoPathFilter());
 
             for (FileStatus file : files) {
                 libPaths.add(file.getPath().toUri().getPath().trim());
             }
+            putCachedFile(key, dirStatus, libPaths);
         }
-        else {
-            XLog.getLog(getClass()).warn("libpath [{0}] does not exists", libPath);
-        }
-        return libPaths;
+        return new ArrayList<String>(libPaths);
     }
 
     /*
@@ -73,6 +73,11 @@ public class XLogService implements Service, Instrumentable {
      */
     public static final String LOG4J_RELOAD = "oozie.log4j.reload";
 
+    /**
+     * System property that indicates if the rotated log files are indexed by job ID to stream job logs.
+     */
+    public static final String LOG_INDEX = "oozie.log.index";
+
     /**
      * Default value for the log4j configuration file if {@link #LOG4J_FILE} is not set.
      */
@@ -83,11 +88,17 @@ public class XLogService implements Service, Instrumentable {
      */
     public static final String DEFAULT_RELOAD_INTERVAL = "10";
 
+    /**
+     * Default value for the log index if {@link #LOG_INDEX} is not set.
+     */
+    public static final String DEFAULT_LOG_INDEX = "true";
+
     private XLog log;
     private long interval;
     private boolean fromClasspath;
     private String log4jFileName;
     private boolean logOverWS = true;
+    private boolean logIndex;
 
     private static final String STARTUP_MESSAGE = "{E}"
             + " ******************************************************************************* {E}"
@@ -159,6 +170,9 @@ public class XLogService implements Service, Instrumentable {
             log.info("Log4j configuration file loaded from [{0}]", from);
             log.info("Log4j reload interval [{0}]", reload);
 
+            logIndex = Boolean.parseBoolean(System.getProperty(LOG_INDEX, DEFAULT_LOG_INDEX));
+            log.info("Log index [{0}]", (logIndex) ? "enabled" : "disabled");
+
             XLog.Info.reset();
             XLog.Info.defineParameter(USER);
             XLog.Info.defineParameter(GROUP);
@@ -289,10 +303,17 @@ public class XLogService implements Service, Instrumentable {
                 return logOverWS;
             }
         });
+        instr.addVariable(INSTRUMENTATION_GROUP, "log.index", new Instrumentation.Variable<Boolean>() {
+            public Boolean getValue() {
+                return logIndex;
+            }
+        });
     }
 
     /**
      * Stream the log of a job.
+     * <p/>
+     * If the log index is enabled, the rotated log files are read using their job ID index.
      *
      * @param filter log streamer filter.
      * @param startTime start time for log events to filter.
@@ -302,7 +323,8 @@ public class XLogService implements Service, Instrumentable {
      */
     public void streamLog(XLogStreamer.Filter filter, Date startTime, Date endTime, Writer writer) throws IOException {
         if (logOverWS) {
-            new XLogStreamer(filter, writer, oozieLogPath, oozieLogName, oozieLogRotation)
+            String indexParameter = (logIndex) ? DagXLogInfoService.JOB : null;
+            new XLogStreamer(filter, writer, oozieLogPath, oozieLogName, oozieLogRotation, indexParameter)
                     .streamLog(startTime, endTime);
         }
         else {
@@ -315,6 +337,10 @@ public class XLogService implements Service, Instrumentable {
         return log4jFileName;
     }
 
+    boolean isLogIndex() {
+        return logIndex;
+    }
+
     boolean getFromClasspath() {
         return fromClasspath;
     }
@@ -145,6 +145,14 @@ public abstract class BaseAdminServlet extends JsonRestServlet {
                     dataJson.put(JsonTags.INSTR_TIMER_OWN_MAX_TIME, timer.getOwnMax());
                     dataJson.put(JsonTags.INSTR_TIMER_TOTAL_MIN_TIME, timer.getTotalMin());
                     dataJson.put(JsonTags.INSTR_TIMER_TOTAL_MAX_TIME, timer.getTotalMax());
+                    dataJson.put(JsonTags.INSTR_TIMER_OWN_TIME_P50, timer.getOwnPercentile(50));
+                    dataJson.put(JsonTags.INSTR_TIMER_OWN_TIME_P95, timer.getOwnPercentile(95));
+                    dataJson.put(JsonTags.INSTR_TIMER_OWN_TIME_P99, timer.getOwnPercentile(99));
+                    dataJson.put(JsonTags.INSTR_TIMER_OWN_TIME_P999, timer.getOwnPercentile(99.9));
+                    dataJson.put(JsonTags.INSTR_TIMER_TOTAL_TIME_P50, timer.getTotalPercentile(50));
+                    dataJson.put(JsonTags.INSTR_TIMER_TOTAL_TIME_P95, timer.getTotalPercentile(95));
+                    dataJson.put(JsonTags.INSTR_TIMER_TOTAL_TIME_P99, timer.getTotalPercentile(99));
+                    dataJson.put(JsonTags.INSTR_TIMER_TOTAL_TIME_P999, timer.getTotalPercentile(99.9));
                 }
                 else {
                     dataJson.put(JsonTags.INSTR_VARIABLE_VALUE, value);
@@ -31,6 +31,7 @@ import org.apache.oozie.DagEngine;
 import org.apache.oozie.DagEngineException;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.client.rest.JsonBeanArray;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.JsonWorkflowJob;
 import org.apache.oozie.client.rest.RestConstants;
@@ -129,7 +130,7 @@ public class JobServlet extends JsonRestServlet {
                         Boolean.valueOf(noCleanup));
                 List<CoordinatorActionBean> actions = coordInfo.getCoordActions();
                 JSONObject json = new JSONObject();
-                json.put(JsonTags.COORDINATOR_ACTIONS, CoordinatorActionBean.toJSONArray(actions));
+                json.put(JsonTags.COORDINATOR_ACTIONS, new JsonBeanArray(actions));
                 startCron();
                 sendJsonResponse(response, HttpServletResponse.SC_OK, json);
             }
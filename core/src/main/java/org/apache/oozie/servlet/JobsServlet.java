@@ -16,6 +16,7 @@ package org.apache.oozie.servlet;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.client.rest.RestConstants;
+import org.apache.oozie.client.rest.JsonBeanArray;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.util.XConfiguration;
@@ -147,7 +148,7 @@ public class JobsServlet extends JsonRestServlet {
                 List<WorkflowJobBean> jsonWorkflows = jobs.getWorkflows();
                 startCron();
                 JSONObject json = new JSONObject();
-                json.put(JsonTags.WORKFLOWS_JOBS, WorkflowJobBean.toJSONArray(jsonWorkflows));
+                json.put(JsonTags.WORKFLOWS_JOBS, new JsonBeanArray(jsonWorkflows));
                 json.put(JsonTags.WORKFLOWS_TOTAL, jobs.getTotal());
                 json.put(JsonTags.WORKFLOWS_OFFSET, jobs.getStart());
                 json.put(JsonTags.WORKFLOWS_LEN, jobs.getLen());
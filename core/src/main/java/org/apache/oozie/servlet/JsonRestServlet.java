@@ -25,7 +25,6 @@ import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.ErrorCode;
-import org.json.simple.JSONObject;
 import org.json.simple.JSONStreamAware;
 
 import javax.servlet.ServletConfig;
@@ -33,13 +32,17 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Base class for Oozie web service API Servlets. <p/> This class provides common instrumentation, error logging and
@@ -59,6 +62,11 @@ public abstract class JsonRestServlet extends HttpServlet {
     protected static final String AUDIT_ERROR_MESSAGE = "audit.error.message";
     protected static final String AUDIT_HTTP_STATUS_CODE = "audit.http.status.code";
 
+    /**
+     * Configuration property that enables gzip content encoding of JSON responses for clients that accept it.
+     */
+    public static final String CONF_GZIP_ENABLED = "oozie.servlet.JsonRestServlet.gzip.enabled";
+
     private XLog auditLog;
     XLog.Info logInfo;
 
@@ -131,6 +139,8 @@ public abstract class JsonRestServlet extends HttpServlet {
     private String instrumentationName;
     private AtomicLong samplerCounter = new AtomicLong();
     private ThreadLocal<Instrumentation.Cron> requestCron = new ThreadLocal<Instrumentation.Cron>();
+    private ThreadLocal<Boolean> requestGzip = new ThreadLocal<Boolean>();
+    private boolean gzipEnabled;
     private List<ResourceInfo> resourcesInfo = new ArrayList<ResourceInfo>();
     private boolean allowSafeModeChanges;
 
@@ -207,6 +217,7 @@ public abstract class JsonRestServlet extends HttpServlet {
     public void init(ServletConfig servletConfig) throws ServletException {
         super.init(servletConfig);
         instrumentation = Services.get().get(InstrumentationService.class).get();
+        gzipEnabled = Services.get().getConf().getBoolean(CONF_GZIP_ENABLED, true);
         synchronized (JsonRestServlet.class) {
             if (TOTAL_REQUESTS_SAMPLER_COUNTER == null) {
                 TOTAL_REQUESTS_SAMPLER_COUNTER = new AtomicLong();
@@ -270,6 +281,7 @@ public abstract class JsonRestServlet extends HttpServlet {
         }
         Instrumentation.Cron cron = new Instrumentation.Cron();
         requestCron.set(cron);
+        requestGzip.set(gzipEnabled && acceptsGzip(request));
         try {
             cron.start();
             validateRestUrl(request.getMethod(), getResourceName(request), request.getParameterMap());
@@ -309,9 +321,15 @@ public abstract class JsonRestServlet extends HttpServlet {
             addCron(instrumentationName, cron);
             addCron(instrumentationName + "-" + request.getMethod(), cron);
             requestCron.remove();
+            requestGzip.remove();
         }
     }
 
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(RestConstants.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(RestConstants.GZIP_ENCODING);
+    }
+
     private String getRequestUrl(HttpServletRequest request) {
         StringBuffer url = request.getRequestURL();
         if (request.getQueryString() != null) {
@@ -330,9 +348,31 @@ public abstract class JsonRestServlet extends HttpServlet {
      */
     protected void sendJsonResponse(HttpServletResponse response, int statusCode, JsonBean bean) throws IOException {
         response.setStatus(statusCode);
-        JSONObject json = bean.toJSONObject();
+        writeJsonResponse(response, (bean instanceof JSONStreamAware) ? (JSONStreamAware) bean : bean.toJSONObject());
+    }
+
+    /**
+     * Writes a JSON value to the response. <p/> The value is streamed to the response, gzipped if enabled and the client
+     * accepts gzip content encoding.
+     *
+     * @param response servlet response.
+     * @param json JSON value to write.
+     * @throws java.io.IOException thrown if the JSON value could not be written to the response output stream.
+     */
+    private void writeJsonResponse(HttpServletResponse response, JSONStreamAware json) throws IOException {
         response.setContentType(JSTON_UTF8);
-        json.writeJSONString(response.getWriter());
+        if (Boolean.TRUE.equals(requestGzip.get())) {
+            response.setHeader(RestConstants.CONTENT_ENCODING, RestConstants.GZIP_ENCODING);
+            response.addHeader("Vary", RestConstants.ACCEPT_ENCODING);
+            GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream());
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, "UTF-8"));
+            json.writeJSONString(writer);
+            writer.flush();
+            gzip.finish();
+        }
+        else {
+            json.writeJSONString(response.getWriter());
+        }
     }
 
     /**
@@ -360,8 +400,7 @@ public abstract class JsonRestServlet extends HttpServlet {
             response.sendError(statusCode);
         }
         response.setStatus(statusCode);
-        response.setContentType(JSTON_UTF8);
-        json.writeJSONString(response.getWriter());
+        writeJsonResponse(response, json);
     }
 
     /**
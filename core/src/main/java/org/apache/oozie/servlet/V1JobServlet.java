@@ -33,6 +33,7 @@ import org.apache.oozie.DagEngine;
 import org.apache.oozie.DagEngineException;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.rest.JsonBean;
+import org.apache.oozie.client.rest.JsonBeanArray;
 import org.apache.oozie.client.rest.JsonCoordinatorJob;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.RestConstants;
@@ -612,7 +613,7 @@ public class V1JobServlet extends BaseJobServlet {
             CoordinatorActionInfo coordInfo = coordEngine.reRun(jobId, rerunType, scope, Boolean.valueOf(refresh),
                     Boolean.valueOf(noCleanup));
             List<CoordinatorActionBean> actions = coordInfo.getCoordActions();
-            json.put(JsonTags.COORDINATOR_ACTIONS, CoordinatorActionBean.toJSONArray(actions));
+            json.put(JsonTags.COORDINATOR_ACTIONS, new JsonBeanArray(actions));
         }
         catch (BaseEngineException ex) {
             throw new XServletException(HttpServletResponse.SC_BAD_REQUEST, ex);
@@ -35,6 +35,7 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.WorkflowsInfo;
 import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.client.rest.JsonBeanArray;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.service.CoordinatorEngineService;
@@ -281,15 +282,17 @@ public class V1JobsServlet extends BaseJobsServlet {
             String filter = request.getParameter(RestConstants.JOBS_FILTER_PARAM);
             String startStr = request.getParameter(RestConstants.OFFSET_PARAM);
             String lenStr = request.getParameter(RestConstants.LEN_PARAM);
+            String after = request.getParameter(RestConstants.JOBS_AFTER_PARAM);
             int start = (startStr != null) ? Integer.parseInt(startStr) : 1;
             start = (start < 1) ? 1 : start;
             int len = (lenStr != null) ? Integer.parseInt(lenStr) : 50;
             len = (len < 1) ? 50 : len;
             DagEngine dagEngine = Services.get().get(DagEngineService.class).getDagEngine(getUser(request),
                     getAuthToken(request));
-            WorkflowsInfo jobs = dagEngine.getJobs(filter, start, len);
+            WorkflowsInfo jobs = (after != null) ? dagEngine.getJobs(filter, after, len)
+                    : dagEngine.getJobs(filter, start, len);
             List<WorkflowJobBean> jsonWorkflows = jobs.getWorkflows();
-            json.put(JsonTags.WORKFLOWS_JOBS, WorkflowJobBean.toJSONArray(jsonWorkflows));
+            json.put(JsonTags.WORKFLOWS_JOBS, new JsonBeanArray(jsonWorkflows));
             json.put(JsonTags.WORKFLOWS_TOTAL, jobs.getTotal());
             json.put(JsonTags.WORKFLOWS_OFFSET, jobs.getStart());
             json.put(JsonTags.WORKFLOWS_LEN, jobs.getLen());
@@ -313,15 +316,17 @@ public class V1JobsServlet extends BaseJobsServlet {
             String filter = request.getParameter(RestConstants.JOBS_FILTER_PARAM);
             String startStr = request.getParameter(RestConstants.OFFSET_PARAM);
             String lenStr = request.getParameter(RestConstants.LEN_PARAM);
+            String after = request.getParameter(RestConstants.JOBS_AFTER_PARAM);
             int start = (startStr != null) ? Integer.parseInt(startStr) : 1;
             start = (start < 1) ? 1 : start;
             int len = (lenStr != null) ? Integer.parseInt(lenStr) : 50;
             len = (len < 1) ? 50 : len;
             CoordinatorEngine coordEngine = Services.get().get(CoordinatorEngineService.class).getCoordinatorEngine(
                     getUser(request), getAuthToken(request));
-            CoordinatorJobInfo jobs = coordEngine.getCoordJobs(filter, start, len);
+            CoordinatorJobInfo jobs = (after != null) ? coordEngine.getCoordJobs(filter, after, len)
+                    : coordEngine.getCoordJobs(filter, start, len);
             List<CoordinatorJobBean> jsonJobs = jobs.getCoordJobs();
-            json.put(JsonTags.COORDINATOR_JOBS, CoordinatorJobBean.toJSONArray(jsonJobs));
+            json.put(JsonTags.COORDINATOR_JOBS, new JsonBeanArray(jsonJobs));
             json.put(JsonTags.COORD_JOB_TOTAL, jobs.getTotal());
             json.put(JsonTags.COORD_JOB_OFFSET, jobs.getStart());
             json.put(JsonTags.COORD_JOB_LEN, jobs.getLen());
@@ -340,6 +345,7 @@ public class V1JobsServlet extends BaseJobsServlet {
             String filter = request.getParameter(RestConstants.JOBS_FILTER_PARAM);
             String startStr = request.getParameter(RestConstants.OFFSET_PARAM);
             String lenStr = request.getParameter(RestConstants.LEN_PARAM);
+            String after = request.getParameter(RestConstants.JOBS_AFTER_PARAM);
             int start = (startStr != null) ? Integer.parseInt(startStr) : 1;
             start = (start < 1) ? 1 : start;
             int len = (lenStr != null) ? Integer.parseInt(lenStr) : 50;
@@ -347,10 +353,11 @@ public class V1JobsServlet extends BaseJobsServlet {
 
             BundleEngine bundleEngine = Services.get().get(BundleEngineService.class).getBundleEngine(getUser(request),
                     getAuthToken(request));
-            BundleJobInfo jobs = bundleEngine.getBundleJobs(filter, start, len);
+            BundleJobInfo jobs = (after != null) ? bundleEngine.getBundleJobs(filter, after, len)
+                    : bundleEngine.getBundleJobs(filter, start, len);
             List<BundleJobBean> jsonJobs = jobs.getBundleJobs();
 
-            json.put(JsonTags.BUNDLE_JOBS, BundleJobBean.toJSONArray(jsonJobs));
+            json.put(JsonTags.BUNDLE_JOBS, new JsonBeanArray(jsonJobs));
             json.put(JsonTags.BUNDLE_JOB_TOTAL, jobs.getTotal());
             json.put(JsonTags.BUNDLE_JOB_OFFSET, jobs.getStart());
             json.put(JsonTags.BUNDLE_JOB_LEN, jobs.getLen());
@@ -14,10 +14,16 @@
  */
 package org.apache.oozie.store;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
 
 public class StoreStatusFilter {
     public static final String coordSeletStr = "Select w.id, w.appName, w.status, w.user, w.group, w.startTimestamp, w.endTimestamp, w.appPath, w.concurrency, w.frequency, w.lastActionTimestamp, w.nextMaterializedTimestamp, w.createdTimestamp, w.timeUnitStr, w.timeZone, w.timeOut from CoordinatorJobBean w";
@@ -32,6 +38,53 @@ public class StoreStatusFilter {
 
     public static final String bundleCountStr = "Select count(w) from BundleJobBean w";
 
+    public static final String KEYSET_TIME = "keysetTime";
+
+    public static final String KEYSET_ID = "keysetId";
+
+    /**
+     * Complete a job listing query for keyset paging.
+     * <p/>
+     * The jobs are ordered by creation time and id, newest first. If <code>after</code> is true the query selects only
+     * the jobs after the cursor job, the {@link #KEYSET_TIME} and {@link #KEYSET_ID} parameters must be set to the
+     * creation time and id of the cursor job.
+     *
+     * @param sb query built by {@link #filter}, empty if there is no filter.
+     * @param seletStr select clause of the query.
+     * @param after if the query selects only the jobs after the cursor job.
+     */
+    public static void keyset(StringBuilder sb, String seletStr, boolean after) {
+        boolean filtered = sb.length() > 0;
+        if (!filtered) {
+            sb.append(seletStr);
+        }
+        if (after) {
+            sb.append((filtered) ? " and " : " where ");
+            sb.append("(w.createdTimestamp < :" + KEYSET_TIME + " or (w.createdTimestamp = :" + KEYSET_TIME
+                    + " and w.id < :" + KEYSET_ID + "))");
+        }
+        sb.append(" order by w.createdTimestamp desc, w.id desc");
+    }
+
+    /**
+     * Return the creation time of the cursor job of a keyset paging query.
+     *
+     * @param em entity manager.
+     * @param entity entity name of the jobs.
+     * @param jobId id of the cursor job.
+     * @return the creation time of the cursor job.
+     * @throws JPAExecutorException thrown if the cursor job does not exist.
+     */
+    public static Timestamp getKeysetTime(EntityManager em, String entity, String jobId) throws JPAExecutorException {
+        Query q = em.createQuery("select w.createdTimestamp from " + entity + " w where w.id = :id");
+        q.setParameter("id", jobId);
+        List<?> list = q.getResultList();
+        if (list.isEmpty()) {
+            throw new JPAExecutorException(ErrorCode.E0604, jobId);
+        }
+        return (Timestamp) list.get(0);
+    }
+
     public static void filter(Map<String, List<String>> filter, List<String> orArray, List<String> colArray, List<String> valArray, StringBuilder sb, String seletStr, String countStr) {
         boolean isStatus = false;
         boolean isGroup = false;
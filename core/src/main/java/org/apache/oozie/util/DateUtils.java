@@ -193,6 +193,65 @@ public class DateUtils {
         }
     }
 
+    /**
+     * Return the number of whole periods elapsed between an initial time and an effective time, the largest
+     * <code>n</code> for which <code>initial + n * frequency</code> calendar units is not after the effective time.
+     * <p/>
+     * The count is estimated in constant time from the elapsed time (or the elapsed months) and then corrected using
+     * calendar arithmetic in the time zone of the initial calendar. Day and month periods are counted as
+     * <code>Calendar.add()</code> does, across DST changes and months of different lengths.
+     *
+     * @param initial initial time, with the time zone for the calendar arithmetic.
+     * @param effective effective time, it must not be before the initial time.
+     * @param calendarUnit calendar unit of the period, <code>Calendar.MINUTE</code>, <code>Calendar.HOUR</code>,
+     * <code>Calendar.DATE</code> or <code>Calendar.MONTH</code>.
+     * @param frequency number of calendar units of the period, it must be greater than zero.
+     * @return the number of whole periods elapsed.
+     */
+    public static int getInstanceCount(Calendar initial, Date effective, int calendarUnit, int frequency) {
+        ParamChecker.checkGTZero(frequency, "frequency");
+        long elapsed = effective.getTime() - initial.getTimeInMillis();
+        if (elapsed < 0) {
+            throw new IllegalArgumentException("effective time cannot be before the initial time");
+        }
+        long estimate;
+        switch (calendarUnit) {
+            case Calendar.MINUTE:
+                estimate = elapsed / (60L * 1000 * frequency);
+                break;
+            case Calendar.HOUR:
+            case Calendar.HOUR_OF_DAY:
+                estimate = elapsed / (60L * 60 * 1000 * frequency);
+                break;
+            case Calendar.DATE:
+                estimate = elapsed / (24L * 60 * 60 * 1000 * frequency);
+                break;
+            case Calendar.MONTH:
+                Calendar cal = (Calendar) initial.clone();
+                cal.setTime(effective);
+                estimate = ((cal.get(Calendar.YEAR) - initial.get(Calendar.YEAR)) * 12L
+                        + cal.get(Calendar.MONTH) - initial.get(Calendar.MONTH)) / frequency;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported calendar unit: " + calendarUnit);
+        }
+        // the estimate is off by at most one period because of DST changes or the days of the month
+        int count = (int) Math.max(0, estimate);
+        while (!isAfter(initial, calendarUnit, (count + 1) * frequency, effective)) {
+            count++;
+        }
+        while (count > 0 && isAfter(initial, calendarUnit, count * frequency, effective)) {
+            count--;
+        }
+        return count;
+    }
+
+    private static boolean isAfter(Calendar initial, int calendarUnit, int amount, Date effective) {
+        Calendar cal = (Calendar) initial.clone();
+        cal.add(calendarUnit, amount);
+        return cal.getTimeInMillis() > effective.getTime();
+    }
+
     /**
      * Create a Calendar instance using the specified date and Time zone
      * @param dateString
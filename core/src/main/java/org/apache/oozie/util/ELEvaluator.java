@@ -14,27 +14,57 @@
  */
 package org.apache.oozie.util;
 
+import org.apache.commons.el.Coercions;
+import org.apache.commons.el.Expression;
 import org.apache.commons.el.ExpressionEvaluatorImpl;
+import org.apache.commons.el.ExpressionString;
+import org.apache.commons.el.Logger;
 
 import javax.servlet.jsp.el.ELException;
-import javax.servlet.jsp.el.ExpressionEvaluator;
 import javax.servlet.jsp.el.FunctionMapper;
 import javax.servlet.jsp.el.VariableResolver;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * JSP Expression Language Evaluator. <p/> It provides a more convenient way of using the JSP EL Evaluator.
+ * JSP Expression Language Evaluator. <p/> It provides a more convenient way of using the JSP EL Evaluator. <p/> Parsed
+ * expressions are kept in a bounded cache shared by all evaluators, keyed by the expression text.
  */
 public class ELEvaluator {
 
+    /**
+     * Max number of parsed expressions cached.
+     */
+    static final int PARSED_CACHE_MAX_ENTRIES = 5000;
+
+    /**
+     * Max length of the expressions cached, longer expressions are parsed on every evaluation.
+     */
+    static final int PARSED_CACHE_MAX_LENGTH = 4 * 1024;
+
+    private static final Map<String, Object> PARSED_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, Object>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > PARSED_CACHE_MAX_ENTRIES;
+                }
+            });
+
+    // the commons-el cache is bypassed as it is unbounded, parsing is done by this class cache
+    private static final ExpressionEvaluatorImpl PARSER = new ExpressionEvaluatorImpl(true);
+
+    private static final Logger EL_LOGGER = new Logger(System.out);
+
     /**
      * Provides functions and variables for the EL evaluator. <p/> All functions and variables in the context of an EL
      * evaluator are accessible from EL expressions.
      */
     public static class Context implements VariableResolver, FunctionMapper {
+        private Context parent;
         private Map<String, Object> vars;
         private Map<String, Method> functions;
 
@@ -46,6 +76,18 @@ public class ELEvaluator {
             functions = new HashMap<String, Method>();
         }
 
+        /**
+         * Create a context on top of a parent context. <p/> Variables and functions of the parent context are visible
+         * in the new context, variables and functions added to the new context are not visible in the parent context.
+         * The parent context is not copied, it must not be modified while it is in use by other contexts.
+         *
+         * @param parent parent context.
+         */
+        public Context(Context parent) {
+            this.parent = ParamChecker.notNull(parent, "parent");
+            vars = new HashMap<String, Object>();
+        }
+
         /**
          * Add variables to the context. <p/>
          *
@@ -72,7 +114,10 @@ public class ELEvaluator {
          * @return the variable value.
          */
         public Object getVariable(String name) {
-            return vars.get(name);
+            if (vars.containsKey(name) || parent == null) {
+                return vars.get(name);
+            }
+            return parent.getVariable(name);
         }
 
         /**
@@ -87,6 +132,9 @@ public class ELEvaluator {
                 throw new IllegalArgumentException(XLog.format("Method[{0}] must be public and static", method));
             }
             prefix = (prefix.length() > 0) ? prefix + ":" : "";
+            if (functions == null) {
+                functions = new HashMap<String, Method>();
+            }
             functions.put(prefix + functionName, method);
         }
 
@@ -99,6 +147,9 @@ public class ELEvaluator {
          */
         public Object resolveVariable(String name) throws ELException {
             if (!vars.containsKey(name)) {
+                if (parent != null) {
+                    return parent.resolveVariable(name);
+                }
                 throw new ELException(XLog.format("variable [{0}] cannot be resolved", name));
             }
             return vars.get(name);
@@ -115,7 +166,15 @@ public class ELEvaluator {
             if (prefix.length() > 0) {
                 name = prefix + ":" + name;
             }
-            return functions.get(name);
+            return getFunction(name);
+        }
+
+        private Method getFunction(String name) {
+            Method method = (functions != null) ? functions.get(name) : null;
+            if (method == null && parent != null) {
+                method = parent.getFunction(name);
+            }
+            return method;
         }
     }
 
@@ -135,8 +194,6 @@ public class ELEvaluator {
 
     private Context context;
 
-    private ExpressionEvaluator evaluator = new ExpressionEvaluatorImpl();
-
     /**
      * Creates an ELEvaluator with no functions and no variables defined.
      */
@@ -196,7 +253,18 @@ public class ELEvaluator {
         ELEvaluator existing = current.get();
         try {
             current.set(this);
-            return (T) evaluator.evaluate(expr, clazz, context, context);
+            Object parsed = parse(expr);
+            Object value;
+            if (parsed instanceof Expression) {
+                value = ((Expression) parsed).evaluate(context, context, EL_LOGGER);
+            }
+            else if (parsed instanceof ExpressionString) {
+                value = ((ExpressionString) parsed).evaluate(context, context, EL_LOGGER);
+            }
+            else {
+                value = parsed;
+            }
+            return (T) Coercions.coerce(value, clazz, EL_LOGGER);
         }
         catch (ELException ex) {
             if (ex.getRootCause() instanceof Exception) {
@@ -211,4 +279,26 @@ public class ELEvaluator {
         }
     }
 
+    /**
+     * Return the parsed form of an EL expression, a <code>String</code>, an <code>Expression</code> or an
+     * <code>ExpressionString</code>.
+     *
+     * @param expr EL expression.
+     * @return the parsed EL expression.
+     * @throws ELException thrown if the EL expression could not be parsed.
+     */
+    private static Object parse(String expr) throws ELException {
+        if (expr == null) {
+            throw new ELException("Null expression");
+        }
+        Object parsed = PARSED_CACHE.get(expr);
+        if (parsed == null) {
+            parsed = PARSER.parseExpressionString(expr);
+            if (expr.length() <= PARSED_CACHE_MAX_LENGTH) {
+                PARSED_CACHE.put(expr, parsed);
+            }
+        }
+        return parsed;
+    }
+
 }
@@ -20,16 +20,17 @@ import org.apache.oozie.service.ConfigurationService;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -39,15 +40,12 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class Instrumentation {
     private ScheduledExecutorService scheduler;
-    private Lock counterLock;
-    private Lock timerLock;
-    private Lock variableLock;
     private Lock samplerLock;
     private Configuration configuration;
     private Map<String, Map<String, Map<String, Object>>> all;
-    private Map<String, Map<String, Element<Long>>> counters;
-    private Map<String, Map<String, Element<Timer>>> timers;
-    private Map<String, Map<String, Element<Variable>>> variables;
+    private ConcurrentMap<String, Map<String, Element<Long>>> counters;
+    private ConcurrentMap<String, Map<String, Element<Timer>>> timers;
+    private ConcurrentMap<String, Map<String, Element<Variable>>> variables;
     private Map<String, Map<String, Element<Double>>> samplers;
 
     /**
@@ -55,9 +53,6 @@ public class Instrumentation {
      */
     @SuppressWarnings("unchecked")
     public Instrumentation() {
-        counterLock = new ReentrantLock();
-        timerLock = new ReentrantLock();
-        variableLock = new ReentrantLock();
         samplerLock = new ReentrantLock();
         all = new LinkedHashMap<String, Map<String, Map<String, Object>>>();
         counters = new ConcurrentHashMap<String, Map<String, Element<Long>>>();
@@ -198,10 +193,75 @@ public class Instrumentation {
         T getValue();
     }
 
+    /**
+     * Number of stripes of the striped accumulators, a power of two.
+     */
+    private static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 64) {
+            stripes *= 2;
+        }
+        STRIPES = stripes;
+    }
+
+    /**
+     * Lock-free accumulator of a fixed number of long values. <p/> Each thread adds to one of several stripes, the
+     * stripes are padded to a cache line so threads adding to different stripes do not contend. The value of an
+     * accumulator is the sum of its stripes.
+     */
+    private static class StripedAccumulator {
+        private static final int PADDING = 8;
+        private final int values;
+        private final int stride;
+        private final AtomicLongArray cells;
+
+        StripedAccumulator(int values) {
+            this.values = values;
+            stride = ((values + PADDING - 1) / PADDING) * PADDING;
+            cells = new AtomicLongArray((STRIPES + 1) * stride);
+        }
+
+        private int getStripeOffset() {
+            // the first stride is padding
+            return (1 + ((int) Thread.currentThread().getId() & (STRIPES - 1))) * stride;
+        }
+
+        void add(int value, long delta) {
+            cells.addAndGet(getStripeOffset() + value, delta);
+        }
+
+        void add(long[] deltas) {
+            int offset = getStripeOffset();
+            for (int i = 0; i < values; i++) {
+                cells.addAndGet(offset + i, deltas[i]);
+            }
+        }
+
+        long get(int value) {
+            long sum = 0;
+            for (int i = 1; i <= STRIPES; i++) {
+                sum += cells.get(i * stride + value);
+            }
+            return sum;
+        }
+    }
+
     /**
      * Counter Instrumentation element.
      */
-    private static class Counter extends AtomicLong implements Element<Long> {
+    private static class Counter implements Element<Long> {
+        private final StripedAccumulator accumulator = new StripedAccumulator(1);
+
+        /**
+         * Add to the counter.
+         *
+         * @param count value to add.
+         */
+        public void addAndGet(long count) {
+            accumulator.add(0, count);
+        }
 
         /**
          * Return the counter snapshot.
@@ -209,7 +269,7 @@ public class Instrumentation {
          * @return the counter snapshot.
          */
         public Long getValue() {
-            return get();
+            return accumulator.get(0);
         }
 
         /**
@@ -218,16 +278,112 @@ public class Instrumentation {
          * @return the String representation of the counter value.
          */
         public String toString() {
-            return Long.toString(get());
+            return Long.toString(accumulator.get(0));
         }
 
     }
 
     /**
-     * Timer Instrumentation element.
+     * Log-linear histogram of non negative long values. <p/> Values below {@link #SUB_BUCKETS} have their own bucket,
+     * larger values are bucketed by their power of two, each power of two split in {@link #SUB_BUCKETS} linear
+     * sub-buckets. The relative error of the values reported for a bucket is below 1 / {@link #SUB_BUCKETS}. <p/>
+     * Buckets are incremented with atomic operations, there is no locking.
+     */
+    static class Histogram {
+        static final int SUB_BUCKET_BITS = 4;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        static final int MAX_EXPONENT = 40;
+        static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        static int getBucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (value < 0) ? 0 : (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent >= MAX_EXPONENT) {
+                return BUCKETS - 1;
+            }
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * Return the highest value of a bucket.
+         *
+         * @param bucket bucket index.
+         * @return the highest value of the bucket.
+         */
+        static long getBucketValue(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = SUB_BUCKET_BITS + (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+            long subBucket = SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        void record(long value) {
+            buckets.incrementAndGet(getBucket(value));
+        }
+
+        long[] getCounts() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return counts;
+        }
+
+        /**
+         * Return the value at a given percentile of bucket counts.
+         *
+         * @param counts bucket counts.
+         * @param percentile percentile, between 0 and 100.
+         * @param max maximum recorded value, the value returned is never greater.
+         * @return the value at the percentile, <code>0</code> if there are no values.
+         */
+        static long getPercentile(long[] counts, double percentile, long max) {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(getBucketValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Timer Instrumentation element. <p/> Crons are added to a timer without locking, using striped accumulators for
+     * the sums and atomic updates for the minimum and maximum times. The own and total times are recorded in
+     * log-linear histograms to provide percentiles.
      */
     public static class Timer implements Element<Timer> {
-        Lock lock = new ReentrantLock();
+        private static final int TICKS = 0;
+        private static final int OWN = 1;
+        private static final int TOTAL = 2;
+        private static final int OWN_SQUARE = 3;
+        private static final int TOTAL_SQUARE = 4;
+
+        private StripedAccumulator accumulator;
+        private AtomicLong ownMin;
+        private AtomicLong ownMax;
+        private AtomicLong totalMin;
+        private AtomicLong totalMax;
+        private Histogram ownHistogram;
+        private Histogram totalHistogram;
+
         private long ownTime;
         private long totalTime;
         private long ticks;
@@ -237,11 +393,39 @@ public class Instrumentation {
         private long ownMaxTime;
         private long totalMinTime;
         private long totalMaxTime;
+        private long[] ownCounts;
+        private long[] totalCounts;
 
         /**
          * Timer constructor. <p/> It is project private for test purposes.
          */
         Timer() {
+            accumulator = new StripedAccumulator(5);
+            ownMin = new AtomicLong(Long.MAX_VALUE);
+            ownMax = new AtomicLong(Long.MIN_VALUE);
+            totalMin = new AtomicLong(Long.MAX_VALUE);
+            totalMax = new AtomicLong(Long.MIN_VALUE);
+            ownHistogram = new Histogram();
+            totalHistogram = new Histogram();
+        }
+
+        private Timer(Timer timer) {
+            ticks = timer.accumulator.get(TICKS);
+            ownTime = timer.accumulator.get(OWN);
+            totalTime = timer.accumulator.get(TOTAL);
+            ownSquareTime = timer.accumulator.get(OWN_SQUARE);
+            totalSquareTime = timer.accumulator.get(TOTAL_SQUARE);
+            // a cron being added may not have updated the minimum and maximum times yet
+            ownMinTime = (timer.ownMin.get() != Long.MAX_VALUE) ? timer.ownMin.get() : 0;
+            ownMaxTime = (timer.ownMax.get() != Long.MIN_VALUE) ? timer.ownMax.get() : 0;
+            totalMinTime = (timer.totalMin.get() != Long.MAX_VALUE) ? timer.totalMin.get() : 0;
+            totalMaxTime = (timer.totalMax.get() != Long.MIN_VALUE) ? timer.totalMax.get() : 0;
+            ownCounts = timer.ownHistogram.getCounts();
+            totalCounts = timer.totalHistogram.getCounts();
+        }
+
+        private Timer snapshot() {
+            return (accumulator != null) ? new Timer(this) : this;
         }
 
         /**
@@ -250,32 +434,20 @@ public class Instrumentation {
          * @return the String representation of the timer value.
          */
         public String toString() {
-            return XLog.format("ticks[{0}] totalAvg[{1}] ownAvg[{2}]", ticks, getTotalAvg(), getOwnAvg());
+            Timer timer = snapshot();
+            return XLog.format("ticks[{0}] totalAvg[{1}] ownAvg[{2}] ownP50[{3}] ownP99[{4}]", timer.ticks,
+                               timer.getTotalAvg(), timer.getOwnAvg(), timer.getOwnPercentile(50),
+                               timer.getOwnPercentile(99));
         }
 
         /**
-         * Return the timer snapshot.
+         * Return the timer snapshot. <p/> The values of the snapshot are read without locking, a cron added while the
+         * snapshot is taken may be reflected in some of the values only.
          *
          * @return the timer snapshot.
          */
         public Timer getValue() {
-            try {
-                lock.lock();
-                Timer timer = new Timer();
-                timer.ownTime = ownTime;
-                timer.totalTime = totalTime;
-                timer.ticks = ticks;
-                timer.ownSquareTime = ownSquareTime;
-                timer.totalSquareTime = totalSquareTime;
-                timer.ownMinTime = ownMinTime;
-                timer.ownMaxTime = ownMaxTime;
-                timer.totalMinTime = totalMinTime;
-                timer.totalMaxTime = totalMaxTime;
-                return timer;
-            }
-            finally {
-                lock.unlock();
-            }
+            return snapshot();
         }
 
         /**
@@ -284,30 +456,28 @@ public class Instrumentation {
          * @param cron Cron to add.
          */
         void addCron(Cron cron) {
-            try {
-                lock.lock();
-                long own = cron.getOwn();
-                long total = cron.getTotal();
-                ownTime += own;
-                totalTime += total;
-                ticks++;
-                ownSquareTime += own * own;
-                totalSquareTime += total * total;
-                if (ticks == 1) {
-                    ownMinTime = own;
-                    ownMaxTime = own;
-                    totalMinTime = total;
-                    totalMaxTime = total;
-                }
-                else {
-                    ownMinTime = Math.min(ownMinTime, own);
-                    ownMaxTime = Math.max(ownMaxTime, own);
-                    totalMinTime = Math.min(totalMinTime, total);
-                    totalMaxTime = Math.max(totalMaxTime, total);
-                }
+            long own = cron.getOwn();
+            long total = cron.getTotal();
+            accumulator.add(new long[]{1, own, total, own * own, total * total});
+            updateMin(ownMin, own);
+            updateMax(ownMax, own);
+            updateMin(totalMin, total);
+            updateMax(totalMax, total);
+            ownHistogram.record(own);
+            totalHistogram.record(total);
+        }
+
+        private static void updateMin(AtomicLong min, long value) {
+            long current = min.get();
+            while (value < current && !min.compareAndSet(current, value)) {
+                current = min.get();
             }
-            finally {
-                lock.unlock();
+        }
+
+        private static void updateMax(AtomicLong max, long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
             }
         }
 
@@ -317,7 +487,7 @@ public class Instrumentation {
          * @return own accumulated computing time by the timer.
          */
         public long getOwn() {
-            return ownTime;
+            return snapshot().ownTime;
         }
 
         /**
@@ -326,7 +496,7 @@ public class Instrumentation {
          * @return total accumulated computing time by the timer.
          */
         public long getTotal() {
-            return totalTime;
+            return snapshot().totalTime;
         }
 
         /**
@@ -335,7 +505,7 @@ public class Instrumentation {
          * @return the number of times a cron was added to the timer.
          */
         public long getTicks() {
-            return ticks;
+            return snapshot().ticks;
         }
 
         /**
@@ -344,7 +514,7 @@ public class Instrumentation {
          * @return the sum of the square own timer.
          */
         public long getOwnSquareSum() {
-            return ownSquareTime;
+            return snapshot().ownSquareTime;
         }
 
         /**
@@ -353,7 +523,7 @@ public class Instrumentation {
          * @return the sum of the square own timer.
          */
         public long getTotalSquareSum() {
-            return totalSquareTime;
+            return snapshot().totalSquareTime;
         }
 
         /**
@@ -362,7 +532,7 @@ public class Instrumentation {
          * @return the own minimum time.
          */
         public long getOwnMin() {
-            return ownMinTime;
+            return snapshot().ownMinTime;
         }
 
         /**
@@ -371,7 +541,7 @@ public class Instrumentation {
          * @return the own maximum time.
          */
         public long getOwnMax() {
-            return ownMaxTime;
+            return snapshot().ownMaxTime;
         }
 
         /**
@@ -380,7 +550,7 @@ public class Instrumentation {
          * @return the total minimum time.
          */
         public long getTotalMin() {
-            return totalMinTime;
+            return snapshot().totalMinTime;
         }
 
         /**
@@ -389,7 +559,7 @@ public class Instrumentation {
          * @return the total maximum time.
          */
         public long getTotalMax() {
-            return totalMaxTime;
+            return snapshot().totalMaxTime;
         }
 
         /**
@@ -398,7 +568,8 @@ public class Instrumentation {
          * @return the own average time.
          */
         public long getOwnAvg() {
-            return (ticks != 0) ? ownTime / ticks : 0;
+            Timer timer = snapshot();
+            return (timer.ticks != 0) ? timer.ownTime / timer.ticks : 0;
         }
 
         /**
@@ -407,7 +578,8 @@ public class Instrumentation {
          * @return the total average time.
          */
         public long getTotalAvg() {
-            return (ticks != 0) ? totalTime / ticks : 0;
+            Timer timer = snapshot();
+            return (timer.ticks != 0) ? timer.totalTime / timer.ticks : 0;
         }
 
         /**
@@ -416,7 +588,8 @@ public class Instrumentation {
          * @return the total time standard deviation.
          */
         public double getTotalStdDev() {
-            return evalStdDev(ticks, totalTime, totalSquareTime);
+            Timer timer = snapshot();
+            return evalStdDev(timer.ticks, timer.totalTime, timer.totalSquareTime);
         }
 
         /**
@@ -425,7 +598,32 @@ public class Instrumentation {
          * @return the own time standard deviation.
          */
         public double getOwnStdDev() {
-            return evalStdDev(ticks, ownTime, ownSquareTime);
+            Timer timer = snapshot();
+            return evalStdDev(timer.ticks, timer.ownTime, timer.ownSquareTime);
+        }
+
+        /**
+         * Returns the own time at a given percentile. <p/> The value is the highest value of the histogram bucket the
+         * percentile falls in, its relative error is below 1/16.
+         *
+         * @param percentile percentile, between 0 and 100.
+         * @return the own time at the percentile.
+         */
+        public long getOwnPercentile(double percentile) {
+            Timer timer = snapshot();
+            return Histogram.getPercentile(timer.ownCounts, percentile, timer.ownMaxTime);
+        }
+
+        /**
+         * Returns the total time at a given percentile. <p/> The value is the highest value of the histogram bucket the
+         * percentile falls in, its relative error is below 1/16.
+         *
+         * @param percentile percentile, between 0 and 100.
+         * @return the total time at the percentile.
+         */
+        public long getTotalPercentile(double percentile) {
+            Timer timer = snapshot();
+            return Histogram.getPercentile(timer.totalCounts, percentile, timer.totalMaxTime);
         }
 
         private double evalStdDev(long n, long sn, long ssn) {
@@ -445,30 +643,18 @@ public class Instrumentation {
     public void addCron(String group, String name, Cron cron) {
         Map<String, Element<Timer>> map = timers.get(group);
         if (map == null) {
-            try {
-                timerLock.lock();
-                map = timers.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Timer>>();
-                    timers.put(group, map);
-                }
-            }
-            finally {
-                timerLock.unlock();
+            map = new ConcurrentHashMap<String, Element<Timer>>();
+            Map<String, Element<Timer>> existing = timers.putIfAbsent(group, map);
+            if (existing != null) {
+                map = existing;
             }
         }
         Timer timer = (Timer) map.get(name);
         if (timer == null) {
-            try {
-                timerLock.lock();
-                timer = (Timer) map.get(name);
-                if (timer == null) {
-                    timer = new Timer();
-                    map.put(name, timer);
-                }
-            }
-            finally {
-                timerLock.unlock();
+            timer = new Timer();
+            Timer existing = (Timer) ((ConcurrentMap<String, Element<Timer>>) map).putIfAbsent(name, timer);
+            if (existing != null) {
+                timer = existing;
             }
         }
         timer.addCron(cron);
@@ -485,30 +671,18 @@ public class Instrumentation {
     public void incr(String group, String name, long count) {
         Map<String, Element<Long>> map = counters.get(group);
         if (map == null) {
-            try {
-                counterLock.lock();
-                map = counters.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Long>>();
-                    counters.put(group, map);
-                }
-            }
-            finally {
-                counterLock.unlock();
+            map = new ConcurrentHashMap<String, Element<Long>>();
+            Map<String, Element<Long>> existing = counters.putIfAbsent(group, map);
+            if (existing != null) {
+                map = existing;
             }
         }
         Counter counter = (Counter) map.get(name);
         if (counter == null) {
-            try {
-                counterLock.lock();
-                counter = (Counter) map.get(name);
-                if (counter == null) {
-                    counter = new Counter();
-                    map.put(name, counter);
-                }
-            }
-            finally {
-                counterLock.unlock();
+            counter = new Counter();
+            Counter existing = (Counter) ((ConcurrentMap<String, Element<Long>>) map).putIfAbsent(name, counter);
+            if (existing != null) {
+                counter = existing;
             }
         }
         counter.addAndGet(count);
@@ -532,22 +706,15 @@ public class Instrumentation {
     public void addVariable(String group, String name, Variable variable) {
         Map<String, Element<Variable>> map = variables.get(group);
         if (map == null) {
-            try {
-                variableLock.lock();
-                map = variables.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Variable>>();
-                    variables.put(group, map);
-                }
-            }
-            finally {
-                variableLock.unlock();
+            map = new ConcurrentHashMap<String, Element<Variable>>();
+            Map<String, Element<Variable>> existing = variables.putIfAbsent(group, map);
+            if (existing != null) {
+                map = existing;
             }
         }
-        if (map.containsKey(name)) {
+        if (((ConcurrentMap<String, Element<Variable>>) map).putIfAbsent(name, variable) != null) {
             throw new RuntimeException(XLog.format("Variable group=[{0}] name=[{1}] already defined", group, name));
         }
-        map.put(name, variable);
     }
 
     /**
@@ -780,7 +947,7 @@ public class Instrumentation {
             if (map == null) {
                 map = samplers.get(group);
                 if (map == null) {
-                    map = new HashMap<String, Element<Double>>();
+                    map = new ConcurrentHashMap<String, Element<Double>>();
                     samplers.put(group, map);
                 }
             }
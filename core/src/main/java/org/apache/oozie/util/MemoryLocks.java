@@ -14,31 +14,73 @@
  */
 package org.apache.oozie.util;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.Lock;
 
 /**
  * In memory resource locking that provides READ/WRITE lock capabilities.
+ * <p/>
+ * The lock table is a <code>ConcurrentHashMap</code>, obtaining and releasing locks on unrelated resources do not
+ * contend on a shared monitor.
+ * <p/>
+ * Each lock entry is reference counted, the count is the number of threads holding or waiting for the lock. When the
+ * count drops to zero the entry is evicted from the table. An evicted entry is marked as dead (count <code>-1</code>)
+ * so a thread that looked it up concurrently retries with a fresh entry instead of locking an evicted one.
  */
 public class MemoryLocks {
-    final private HashMap<String, ReentrantReadWriteLock> locks = new HashMap<String, ReentrantReadWriteLock>();
+    final private ConcurrentHashMap<String, LockEntry> locks = new ConcurrentHashMap<String, LockEntry>();
 
     private static enum Type {
         READ, WRITE
     }
 
+    /**
+     * Reference counted lock table entry.
+     */
+    private static class LockEntry {
+        private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock(true);
+        private final AtomicInteger refs = new AtomicInteger(0);
+
+        /**
+         * Take a reference to the entry.
+         *
+         * @return <code>false</code> if the entry has been evicted and it cannot be used.
+         */
+        private boolean reference() {
+            while (true) {
+                int count = refs.get();
+                if (count < 0) {
+                    return false;
+                }
+                if (refs.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Release a reference to the entry.
+         *
+         * @return <code>true</code> if this was the last reference and the entry has been marked as evicted.
+         */
+        private boolean dereference() {
+            return refs.decrementAndGet() == 0 && refs.compareAndSet(0, -1);
+        }
+    }
+
     /**
      * Lock token returned when obtaining a lock, the token must be released when the lock is not needed anymore.
      */
     public class LockToken {
-        private final ReentrantReadWriteLock rwLock;
+        private final LockEntry entry;
         private final java.util.concurrent.locks.Lock lock;
         private final String resource;
 
-        private LockToken(ReentrantReadWriteLock rwLock, java.util.concurrent.locks.Lock lock, String resource) {
-            this.rwLock = rwLock;
+        private LockToken(LockEntry entry, java.util.concurrent.locks.Lock lock, String resource) {
+            this.entry = entry;
             this.lock = lock;
             this.resource = resource;
         }
@@ -47,13 +89,8 @@ public class MemoryLocks {
          * Release the lock.
          */
         public void release() {
-            int val = rwLock.getQueueLength();
-            if (val == 0) {
-                synchronized (locks) {
-                    locks.remove(resource);
-                }
-            }
             lock.unlock();
+            dereference(resource, entry);
         }
     }
 
@@ -90,41 +127,58 @@ public class MemoryLocks {
         return getLock(resource, Type.WRITE, wait);
     }
 
-    private LockToken getLock(String resource, Type type, long wait) throws InterruptedException {
-        ReentrantReadWriteLock lockEntry;
-        synchronized (locks) {
-            if (locks.containsKey(resource)) {
-                lockEntry = locks.get(resource);
+    /**
+     * Return a referenced lock entry for a resource, creating it if necessary.
+     *
+     * @param resource resource name.
+     * @return the referenced lock entry.
+     */
+    private LockEntry reference(String resource) {
+        while (true) {
+            LockEntry entry = locks.get(resource);
+            if (entry == null) {
+                LockEntry newEntry = new LockEntry();
+                entry = locks.putIfAbsent(resource, newEntry);
+                if (entry == null) {
+                    entry = newEntry;
+                }
             }
-            else {
-                lockEntry = new ReentrantReadWriteLock(true);
-                locks.put(resource, lockEntry);
+            if (entry.reference()) {
+                return entry;
             }
+            // the entry was evicted after the lookup, help removing it and retry
+            locks.remove(resource, entry);
         }
+    }
 
-        Lock lock = (type.equals(Type.READ)) ? lockEntry.readLock() : lockEntry.writeLock();
-
-        if (wait == -1) {
-            lock.lock();
+    private void dereference(String resource, LockEntry entry) {
+        if (entry.dereference()) {
+            locks.remove(resource, entry);
         }
-        else {
-            if (wait > 0) {
-                if (!lock.tryLock(wait, TimeUnit.MILLISECONDS)) {
-                    return null;
-                }
+    }
+
+    private LockToken getLock(String resource, Type type, long wait) throws InterruptedException {
+        LockEntry entry = reference(resource);
+        Lock lock = (type.equals(Type.READ)) ? entry.rwLock.readLock() : entry.rwLock.writeLock();
+        boolean locked = false;
+        try {
+            if (wait == -1) {
+                lock.lock();
+                locked = true;
+            }
+            else if (wait > 0) {
+                locked = lock.tryLock(wait, TimeUnit.MILLISECONDS);
             }
             else {
-                if (!lock.tryLock()) {
-                    return null;
-                }
+                locked = lock.tryLock();
             }
         }
-        synchronized (locks) {
-            if (!locks.containsKey(resource)) {
-                locks.put(resource, lockEntry);
+        finally {
+            if (!locked) {
+                dereference(resource, entry);
             }
         }
-        return new LockToken(lockEntry, lock, resource);
+        return (locked) ? new LockToken(entry, lock, resource) : null;
     }
 
 }
@@ -0,0 +1,596 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
+
+/**
+ * A Queue implementation that support queuing elements into the future and priority queuing, without a queue wide
+ * lock.
+ * <p/>
+ * It has the same semantics as the {@link PollablePriorityDelayQueue}, elements are consumed from the higher priority
+ * levels first, oldest first within a level, and only elements that are eligible to poll (see {@link
+ * #eligibleToPoll(QueueElement)}) are consumed.
+ * <p/>
+ * Each priority level is split in partitions, one per partition key (see {@link #getPartition(QueueElement)}). Each
+ * partition is a JDK <code>DelayQueue</code> with its own lock. Eligibility is checked once per partition, against the
+ * head of the partition, instead of once per element. All the elements of a partition are expected to share the same
+ * eligibility, for example when the partition key is the callable type and eligibility is the type concurrency.
+ * <p/>
+ * Polling costs <code>O(partitions + log n)</code>. Partitions are never removed, the number of partition keys is
+ * expected to be small and bounded.
+ * <p/>
+ * Anti-starvation is not run by the polling threads, the owner of the queue must invoke {@link #antiStarvation()}
+ * periodically, typically every {@link PriorityDelayQueue#ANTI_STARVATION_INTERVAL} milliseconds.
+ */
+public class PartitionedPriorityDelayQueue<E> extends AbstractQueue<QueueElement<E>>
+        implements BlockingQueue<QueueElement<E>> {
+
+    /**
+     * Partition key used when elements are not partitioned.
+     */
+    public static final String DEFAULT_PARTITION = "default";
+
+    protected int priorities;
+    protected List<ConcurrentHashMap<String, DelayQueue<QueueElement<E>>>> levels;
+    private long maxWait;
+    private int maxSize;
+    private AtomicInteger currentSize = new AtomicInteger();
+
+    /**
+     * Create a <code>PartitionedPriorityDelayQueue</code>.
+     *
+     * @param priorities number of priorities the queue will support.
+     * @param maxWait max wait time for elements before they are promoted to the next higher priority.
+     * @param unit time unit of the max wait time.
+     * @param maxSize maximum size of the queue, -1 means unbounded.
+     */
+    public PartitionedPriorityDelayQueue(int priorities, long maxWait, TimeUnit unit, int maxSize) {
+        if (priorities < 1) {
+            throw new IllegalArgumentException("priorities must be 1 or more");
+        }
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("maxWait must be greater than 0");
+        }
+        if (maxSize < -1 || maxSize == 0) {
+            throw new IllegalArgumentException("maxSize must be -1 or greater than 0");
+        }
+        this.priorities = priorities;
+        levels = new ArrayList<ConcurrentHashMap<String, DelayQueue<QueueElement<E>>>>(priorities);
+        for (int i = 0; i < priorities; i++) {
+            levels.add(new ConcurrentHashMap<String, DelayQueue<QueueElement<E>>>());
+        }
+        this.maxWait = unit.toMillis(maxWait);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return number of priorities the queue supports.
+     *
+     * @return number of priorities the queue supports.
+     */
+    public int getPriorities() {
+        return priorities;
+    }
+
+    /**
+     * Return the max wait time for elements before they are promoted to the next higher priority.
+     *
+     * @param unit time unit of the max wait time.
+     *
+     * @return the max wait time in the specified time unit.
+     */
+    public long getMaxWait(TimeUnit unit) {
+        return unit.convert(maxWait, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Return the maximum queue size.
+     *
+     * @return the maximum queue size. If <code>-1</code> the queue is unbounded.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Return the partition key of an element.
+     * <p/>
+     * This implementation returns {@link #DEFAULT_PARTITION}, all elements of a priority level are in the same
+     * partition. This method should be overriden to partition elements.
+     *
+     * @param element the element.
+     *
+     * @return the partition key of the element, it must not be <tt>NULL</tt>.
+     */
+    protected String getPartition(QueueElement<E> element) {
+        return DEFAULT_PARTITION;
+    }
+
+    /**
+     * Method for checking the QueueElement eligible to poll before remove it from queue.
+     * <p/>
+     * It is invoked with the head element of a partition, the result applies to the whole partition.
+     * <p/>
+     * This method should be overriden for checking purposes.
+     *
+     * @param element the element to check
+     *
+     * @return <tt>true</tt> if the element (and its partition) is eligible to poll.
+     */
+    protected boolean eligibleToPoll(QueueElement<?> element) {
+        return true;
+    }
+
+    /**
+     * Method for debugging purposes. This implementation is a <tt>NOP</tt>.
+     * <p/>
+     * This method should be overriden for logging purposes.
+     * <p/>
+     * Message templates used by this class are in JDK's <tt>MessageFormat</tt> syntax.
+     *
+     * @param msgTemplate message template.
+     * @param msgArgs arguments for the message template.
+     */
+    protected void debug(String msgTemplate, Object... msgArgs) {
+    }
+
+    /**
+     * Return the partition sub-queue for a priority level and partition key, creating it if necessary.
+     *
+     * @param priority priority level.
+     * @param partition partition key.
+     *
+     * @return the partition sub-queue.
+     */
+    private DelayQueue<QueueElement<E>> getPartitionQueue(int priority, String partition) {
+        ConcurrentHashMap<String, DelayQueue<QueueElement<E>>> level = levels.get(priority);
+        DelayQueue<QueueElement<E>> queue = level.get(partition);
+        if (queue == null) {
+            DelayQueue<QueueElement<E>> newQueue = new DelayQueue<QueueElement<E>>();
+            queue = level.putIfAbsent(partition, newQueue);
+            if (queue == null) {
+                queue = newQueue;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Return an iterator over all the {@link QueueElement} elements (both expired and unexpired) in this queue. The
+     * iterator does not return the elements in any particular order.  The returned <tt>Iterator</tt> is a "weakly
+     * consistent" iterator that will never throw {@link ConcurrentModificationException}, and guarantees to traverse
+     * elements as they existed upon construction of the iterator, and may (but is not guaranteed to) reflect any
+     * modifications subsequent to construction. The iterator <tt>remove()</tt> removes the element from the queue.
+     *
+     * @return an iterator over the {@link QueueElement} elements in this queue.
+     */
+    @Override
+    public Iterator<QueueElement<E>> iterator() {
+        List<QueueElement<E>> list = new ArrayList<QueueElement<E>>();
+        for (ConcurrentHashMap<String, DelayQueue<QueueElement<E>>> level : levels) {
+            for (DelayQueue<QueueElement<E>> queue : level.values()) {
+                list.addAll(queue);
+            }
+        }
+        final Iterator<QueueElement<E>> it = list.iterator();
+        return new Iterator<QueueElement<E>>() {
+            private QueueElement<E> last;
+
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            public QueueElement<E> next() {
+                last = it.next();
+                return last;
+            }
+
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                PartitionedPriorityDelayQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Remove a single instance of the specified {@link QueueElement} element from the queue, if present.
+     * <p/>
+     * The element is looked up in its partition on every priority level, as anti-starvation may have promoted it.
+     *
+     * @param o the element to remove.
+     *
+     * @return <tt>true</tt> if the element was removed.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        if (!(o instanceof QueueElement)) {
+            return false;
+        }
+        QueueElement<E> queueElement = (QueueElement<E>) o;
+        String partition = getPartition(queueElement);
+        for (ConcurrentHashMap<String, DelayQueue<QueueElement<E>>> level : levels) {
+            DelayQueue<QueueElement<E>> queue = level.get(partition);
+            if (queue != null && queue.remove(queueElement)) {
+                currentSize.decrementAndGet();
+                queueElement.inQueue = false;
+                debug("remove([{0}]), from P[{1}][{2}]", queueElement.getElement().toString(),
+                      queueElement.getPriority(), partition);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the number of elements in the queue.
+     *
+     * @return the number of elements in the queue.
+     */
+    @Override
+    public int size() {
+        return currentSize.get();
+    }
+
+    /**
+     * Return the number of elements on each priority level.
+     *
+     * @return the number of elements on each priority level.
+     */
+    public int[] sizes() {
+        int[] sizes = new int[priorities];
+        for (int i = 0; i < priorities; i++) {
+            for (DelayQueue<QueueElement<E>> queue : levels.get(i).values()) {
+                sizes[i] += queue.size();
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Insert the specified {@link QueueElement} element into the queue.
+     *
+     * @param queueElement the {@link QueueElement} element to add.
+     * @param ignoreSize if the queue is bound to a maximum size and the maximum size is reached, this parameter (if set
+     * to <tt>true</tt>) allows to ignore the maximum size and add the element to the queue.
+     *
+     * @return <tt>true</tt> if the element has been inserted, <tt>false</tt> if the element was not inserted (the queue
+     *         has reached its maximum size).
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    boolean offer(QueueElement<E> queueElement, boolean ignoreSize) {
+        if (queueElement == null) {
+            throw new NullPointerException("queueElement is NULL");
+        }
+        if (queueElement.getPriority() < 0 || queueElement.getPriority() >= priorities) {
+            throw new IllegalArgumentException("priority out of range");
+        }
+        if (queueElement.inQueue) {
+            throw new IllegalStateException("queueElement already in a queue");
+        }
+        if (ignoreSize || maxSize == -1) {
+            currentSize.incrementAndGet();
+        }
+        else {
+            int size;
+            do {
+                size = currentSize.get();
+                if (size >= maxSize) {
+                    return false;
+                }
+            } while (!currentSize.compareAndSet(size, size + 1));
+        }
+        queueElement.inQueue = true;
+        String partition = getPartition(queueElement);
+        getPartitionQueue(queueElement.getPriority(), partition).offer(queueElement);
+        debug("offer([{0}]), to P[{1}][{2}] delay[{3}ms]", queueElement.getElement().toString(),
+              queueElement.getPriority(), partition, queueElement.getDelay(TimeUnit.MILLISECONDS));
+        return true;
+    }
+
+    /**
+     * Insert the specified element into the queue.
+     *
+     * @param queueElement the element to add.
+     *
+     * @return <tt>true</tt> if the element has been inserted, <tt>false</tt> if the element was not inserted (the queue
+     *         has reached its maximum size).
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    @Override
+    public boolean offer(QueueElement<E> queueElement) {
+        return offer(queueElement, false);
+    }
+
+    /**
+     * Insert the specified element into the queue.
+     *
+     * @param queueElement the {@link QueueElement} element to add.
+     * @return <tt>true</tt> (as specified by {@link Collection#add})
+     * @throws IllegalStateException if the element cannot be added at this time due to capacity restrictions
+     */
+    @Override
+    public boolean add(QueueElement<E> queueElement) {
+        if (!offer(queueElement, false)) {
+            throw new IllegalStateException("Queue full");
+        }
+        return true;
+    }
+
+    /**
+     * Retrieve and remove the oldest eligible element of the highest priority level that has one, or return
+     * <tt>null</tt> if this queue has no eligible elements with an expired delay.
+     *
+     * @return the element of this queue, for which eligibleToPoll is true.
+     */
+    @Override
+    public QueueElement<E> poll() {
+        for (int i = priorities - 1; i >= 0; i--) {
+            QueueElement<E> e = poll(i);
+            if (e != null) {
+                currentSize.decrementAndGet();
+                e.inQueue = false;
+                debug("poll(): [{0}], from P[{1}]", e.getElement().toString(), i);
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve and remove the oldest eligible element with an expired delay of a priority level.
+     * <p/>
+     * The heads of the partitions of the level are compared, the partition with the oldest eligible head is polled. If
+     * another thread polled that partition in between, the lookup is retried.
+     *
+     * @param priority priority level.
+     *
+     * @return the polled element, or <tt>null</tt> if the level has no eligible elements with an expired delay.
+     */
+    private QueueElement<E> poll(int priority) {
+        while (true) {
+            DelayQueue<QueueElement<E>> candidate = null;
+            long candidateDelay = 0;
+            for (DelayQueue<QueueElement<E>> queue : levels.get(priority).values()) {
+                QueueElement<E> head = queue.peek();
+                if (head != null) {
+                    long delay = head.getDelay(TimeUnit.MILLISECONDS);
+                    if (delay <= 0 && (candidate == null || delay < candidateDelay)) {
+                        if (eligibleToPoll(head)) {
+                            candidate = queue;
+                            candidateDelay = delay;
+                        }
+                        else {
+                            debug("poll(): the head element [{0}], from P[{1}] is not eligible to poll",
+                                  head.getElement().toString(), priority);
+                        }
+                    }
+                }
+            }
+            if (candidate == null) {
+                return null;
+            }
+            QueueElement<E> e = candidate.poll();
+            if (e != null) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Retrieve, but does not remove, the head of this queue, or returns <tt>null</tt> if this queue is empty.  Unlike
+     * <tt>poll</tt>, if no expired elements are available in the queue, this method returns the element that will
+     * expire next, if one exists. Eligibility is not checked.
+     *
+     * @return the head of this queue, or <tt>null</tt> if this queue is empty.
+     */
+    @Override
+    public QueueElement<E> peek() {
+        QueueElement<E> next = null;
+        for (int i = priorities - 1; i >= 0; i--) {
+            QueueElement<E> expired = null;
+            for (DelayQueue<QueueElement<E>> queue : levels.get(i).values()) {
+                QueueElement<E> head = queue.peek();
+                if (head != null) {
+                    long delay = head.getDelay(TimeUnit.MILLISECONDS);
+                    if (delay <= 0 && (expired == null || delay < expired.getDelay(TimeUnit.MILLISECONDS))) {
+                        expired = head;
+                    }
+                    if (next == null || delay < next.getDelay(TimeUnit.MILLISECONDS)) {
+                        next = head;
+                    }
+                }
+            }
+            if (expired != null) {
+                return expired;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Promote elements beyond max wait time to the next higher priority level, within the same partition.
+     * <p/>
+     * This method is thread safe and it can run concurrently with offers and polls. It is not invoked by the queue, it
+     * must be invoked periodically by the owner of the queue.
+     */
+    public void antiStarvation() {
+        for (int i = 0; i < priorities - 1; i++) {
+            int moved = 0;
+            for (DelayQueue<QueueElement<E>> lowerQ : levels.get(i).values()) {
+                QueueElement<E> e = lowerQ.poll();
+                while (e != null && e.getDelay(TimeUnit.MILLISECONDS) < -maxWait) {
+                    e.setDelay(0, TimeUnit.MILLISECONDS);
+                    e.setPriority(i + 1);
+                    getPartitionQueue(i + 1, getPartition(e)).offer(e);
+                    e = lowerQ.poll();
+                    moved++;
+                }
+                if (e != null) {
+                    lowerQ.offer(e);
+                }
+            }
+            debug("anti-starvation, moved {0} element(s) from P[{1}] to P[{2}]", moved, i, i + 1);
+        }
+    }
+
+    /**
+     * Insert the specified element into this queue, the maximum size of the queue is ignored.
+     *
+     * @param e the element to add
+     */
+    @Override
+    public void put(QueueElement<E> e) throws InterruptedException {
+        offer(e, true);
+    }
+
+    /**
+     * Insert the specified element into this queue.
+     * <p/>
+     * IMPORTANT: This implementation forces the addition of the element to the queue regardless
+     * of the queue current size. The timeout value is ignored as the element is added immediately.
+     *
+     * @param e the element to add
+     * @param timeout ignored.
+     * @param unit ignored.
+     * @return <tt>true</tt>.
+     */
+    @Override
+    public boolean offer(QueueElement<E> e, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(e, true);
+    }
+
+    /**
+     * Retrieve and removes the head of this queue, waiting if necessary until an element becomes available.
+     * <p/>
+     * IMPORTANT: This implementation has a delay of up to 10ms (when the queue is empty) to detect a new element
+     * is available. It is doing a 10ms sleep. Elements become available because their delay expires or because their
+     * partition becomes eligible, the queue cannot be signaled of the latter.
+     *
+     * @return the head of this queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public QueueElement<E> take() throws InterruptedException {
+        QueueElement<E> e = poll();
+        while (e == null) {
+            Thread.sleep(10);
+            e = poll();
+        }
+        return e;
+    }
+
+    /**
+     * Retrieve and removes the head of this queue, waiting up to the specified wait time if necessary for an element to
+     * become available.
+     *
+     * @param timeout how long to wait before giving up, in units of <tt>unit</tt>
+     * @param unit a <tt>TimeUnit</tt> determining how to interpret the <tt>timeout</tt> parameter
+     * @return the head of this queue, or <tt>null</tt> if the specified waiting time elapses before an element is
+     *         available
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public QueueElement<E> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        QueueElement<E> e = poll();
+        long time = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (e == null && time > System.currentTimeMillis()) {
+            Thread.sleep(10);
+            e = poll();
+        }
+        return e;
+    }
+
+    /**
+     * Return the number of additional elements that this queue can accept, or <tt>Integer.MAX_VALUE</tt> if the queue
+     * is unbounded.
+     *
+     * @return the remaining capacity
+     */
+    @Override
+    public int remainingCapacity() {
+        return (maxSize == -1) ? Integer.MAX_VALUE : Math.max(0, maxSize - size());
+    }
+
+    /**
+     * Remove all available (eligible and with an expired delay) elements from this queue and adds them to the given
+     * collection.
+     *
+     * @param c the collection to transfer elements into
+     * @return the number of elements transferred
+     */
+    @Override
+    public int drainTo(Collection<? super QueueElement<E>> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Remove at most the given number of available (eligible and with an expired delay) elements from this queue and
+     * adds them to the given collection.
+     *
+     * @param c the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @return the number of elements transferred
+     */
+    @Override
+    public int drainTo(Collection<? super QueueElement<E>> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException("cannot drain a queue to itself");
+        }
+        int count = 0;
+        QueueElement<E> e = null;
+        while (count < maxElements && (e = poll()) != null) {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes all of the elements from this queue.
+     * <p/>
+     * This operation is not atomic, it is meant to be used when the queue is not in use anymore. Elements offered while
+     * the queue is being cleared may or may not be removed and the queue size may become inaccurate.
+     */
+    @Override
+    public void clear() {
+        for (ConcurrentHashMap<String, DelayQueue<QueueElement<E>>> level : levels) {
+            for (DelayQueue<QueueElement<E>> queue : level.values()) {
+                int size = queue.size();
+                queue.clear();
+                currentSize.addAndGet(-size);
+            }
+        }
+    }
+
+}
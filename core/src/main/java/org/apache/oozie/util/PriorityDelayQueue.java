@@ -114,6 +114,15 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
             return priority;
         }
 
+        /**
+         * Set the priority of the element, used when promoting the element to a higher priority sub-queue.
+         *
+         * @param priority the new priority of the element.
+         */
+        void setPriority(int priority) {
+            this.priority = priority;
+        }
+
         /**
          * Set the delay of the element.
          *
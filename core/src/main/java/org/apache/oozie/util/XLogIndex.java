@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of a rotated log file, it maps the values of a log info parameter (the job ID) to the byte ranges of the log
+ * file holding the log statements with that value.
+ * <p/>
+ * Rotated log files do not change, the index of a log file is built the first time the log file is streamed and it is
+ * stored next to it as <code>.&lt;LOG FILE NAME&gt;.idx</code>. The index is rebuilt if the length or the modification
+ * time of the log file, or the index pattern, are not the ones it was built for.
+ * <p/>
+ * A log statement is indexed only if its message matches the index pattern (see
+ * {@link XLogStreamer.Filter#getIndexPattern}), the log statements within the ranges of a value match a filter that
+ * sets only the indexed parameter to that value.
+ */
+public class XLogIndex {
+    private static final int MAGIC = 0x4F4C4958;
+    private static final int VERSION = 1;
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long[] NO_RANGES = new long[0];
+
+    // index builds are serialized per log file, concurrent streams of an unindexed file build its index once
+    private static final Object[] BUILD_LOCKS = new Object[32];
+
+    static {
+        for (int i = 0; i < BUILD_LOCKS.length; i++) {
+            BUILD_LOCKS[i] = new Object();
+        }
+    }
+
+    private String pattern;
+    private long logLength;
+    private long logModTime;
+    private Map<String, Ranges> ranges;
+
+    /**
+     * Byte ranges of the log statements of a parameter value, adjacent ranges are merged.
+     */
+    private static class Ranges {
+        private long[] offsets = new long[4];
+        private int size;
+
+        void add(long start, long end) {
+            if (size > 0 && offsets[size - 1] == start) {
+                offsets[size - 1] = end;
+            }
+            else {
+                if (size == offsets.length) {
+                    long[] newOffsets = new long[size * 2];
+                    System.arraycopy(offsets, 0, newOffsets, 0, size);
+                    offsets = newOffsets;
+                }
+                offsets[size++] = start;
+                offsets[size++] = end;
+            }
+        }
+
+        long[] toArray() {
+            long[] array = new long[size];
+            System.arraycopy(offsets, 0, array, 0, size);
+            return array;
+        }
+    }
+
+    private XLogIndex(String pattern, long logLength, long logModTime) {
+        this.pattern = pattern;
+        this.logLength = logLength;
+        this.logModTime = logModTime;
+        ranges = new HashMap<String, Ranges>();
+    }
+
+    /**
+     * Returns the index of a log file, loading it from its index file or building it if the index file is missing or
+     * stale.
+     * <p/>
+     * If the index file cannot be written the index is still returned.
+     *
+     * @param logFile log file.
+     * @param indexPattern index pattern, see {@link XLogStreamer.Filter#getIndexPattern}.
+     * @return the index of the log file.
+     * @throws IOException thrown if the log file could not be read.
+     */
+    public static XLogIndex getIndex(File logFile, Pattern indexPattern) throws IOException {
+        File indexFile = getIndexFile(logFile);
+        XLogIndex index = load(indexFile, logFile, indexPattern.pattern());
+        if (index == null) {
+            synchronized (BUILD_LOCKS[(logFile.getAbsolutePath().hashCode() & 0x7FFFFFFF) % BUILD_LOCKS.length]) {
+                // another stream may have built it while waiting
+                index = load(indexFile, logFile, indexPattern.pattern());
+                if (index == null) {
+                    index = build(logFile, indexPattern);
+                    try {
+                        index.store(indexFile);
+                    }
+                    catch (IOException ex) {
+                        XLog.getLog(XLogIndex.class).warn("Could not write log index [{0}], {1}", indexFile,
+                                                          ex.getMessage());
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index file of a log file.
+     *
+     * @param logFile log file.
+     * @return the index file of the log file.
+     */
+    public static File getIndexFile(File logFile) {
+        return new File(logFile.getParentFile(), "." + logFile.getName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Returns the byte ranges of the log statements with the given parameter value.
+     *
+     * @param value parameter value.
+     * @return the start and end offsets of the ranges, ordered, an empty array if there are none.
+     */
+    public long[] getRanges(String value) {
+        Ranges valueRanges = ranges.get(value);
+        return (valueRanges != null) ? valueRanges.toArray() : NO_RANGES;
+    }
+
+    /**
+     * Returns the number of parameter values in the index.
+     *
+     * @return the number of parameter values in the index.
+     */
+    public int size() {
+        return ranges.size();
+    }
+
+    static XLogIndex build(File logFile, Pattern indexPattern) throws IOException {
+        XLogIndex index = new XLogIndex(indexPattern.pattern(), logFile.length(), logFile.lastModified());
+        XLogStreamer.Filter splitter = new XLogStreamer.Filter();
+        FileChannel channel = new FileInputStream(logFile).getChannel();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] line = new byte[1024];
+            int lineLength = 0;
+            long position = 0;
+            long lineStart = 0;
+            long statementStart = 0;
+            String statementValue = null;
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) == -1;
+                buffer.flip();
+                while (buffer.hasRemaining() || (eof && lineLength > 0)) {
+                    boolean endOfLine = eof && !buffer.hasRemaining();
+                    if (!endOfLine) {
+                        byte b = buffer.get();
+                        position++;
+                        if (lineLength == line.length) {
+                            byte[] newLine = new byte[line.length * 2];
+                            System.arraycopy(line, 0, newLine, 0, lineLength);
+                            line = newLine;
+                        }
+                        line[lineLength++] = b;
+                        endOfLine = b == '\n';
+                    }
+                    if (endOfLine) {
+                        ArrayList<String> logParts = splitter.splitLogMessage(toString(line, lineLength));
+                        if (logParts != null) {
+                            if (statementValue != null) {
+                                index.add(statementValue, statementStart, lineStart);
+                            }
+                            statementStart = lineStart;
+                            Matcher matcher = indexPattern.matcher(logParts.get(1));
+                            statementValue = (matcher.matches()) ? matcher.group(2) : null;
+                        }
+                        lineStart = position;
+                        lineLength = 0;
+                    }
+                }
+                buffer.clear();
+            }
+            if (statementValue != null) {
+                index.add(statementValue, statementStart, position);
+            }
+        }
+        finally {
+            channel.close();
+        }
+        return index;
+    }
+
+    private static String toString(byte[] line, int length) {
+        if (length > 0 && line[length - 1] == '\n') {
+            length--;
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length);
+    }
+
+    private void add(String value, long start, long end) {
+        Ranges valueRanges = ranges.get(value);
+        if (valueRanges == null) {
+            valueRanges = new Ranges();
+            ranges.put(value, valueRanges);
+        }
+        valueRanges.add(start, end);
+    }
+
+    static XLogIndex load(File indexFile, File logFile, String pattern) {
+        if (!indexFile.exists()) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    return null;
+                }
+                XLogIndex index = new XLogIndex(in.readUTF(), in.readLong(), in.readLong());
+                if (!index.pattern.equals(pattern) || index.logLength != logFile.length()
+                        || index.logModTime != logFile.lastModified()) {
+                    return null;
+                }
+                int values = in.readInt();
+                for (int i = 0; i < values; i++) {
+                    String value = in.readUTF();
+                    Ranges valueRanges = new Ranges();
+                    int size = in.readInt();
+                    valueRanges.offsets = new long[Math.max(size, 2)];
+                    for (int j = 0; j < size; j++) {
+                        valueRanges.offsets[j] = in.readLong();
+                    }
+                    valueRanges.size = size;
+                    index.ranges.put(value, valueRanges);
+                }
+                return index;
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (IOException ex) {
+            XLog.getLog(XLogIndex.class).warn("Could not read log index [{0}], {1}", indexFile, ex.getMessage());
+            return null;
+        }
+    }
+
+    void store(File indexFile) throws IOException {
+        // a unique temporary file, the index file is replaced by a rename once it is completely written
+        File tmpFile = File.createTempFile(indexFile.getName() + ".", ".tmp",
+                                           indexFile.getAbsoluteFile().getParentFile());
+        DataOutputStream out = null;
+        boolean written = false;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(pattern);
+            out.writeLong(logLength);
+            out.writeLong(logModTime);
+            out.writeInt(ranges.size());
+            for (Map.Entry<String, Ranges> entry : ranges.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Ranges valueRanges = entry.getValue();
+                out.writeInt(valueRanges.size);
+                for (int i = 0; i < valueRanges.size; i++) {
+                    out.writeLong(valueRanges.offsets[i]);
+                }
+            }
+            out.close();
+            out = null;
+            written = true;
+        }
+        finally {
+            if (out != null) {
+                out.close();
+            }
+            if (!written) {
+                tmpFile.delete();
+            }
+        }
+        if (!tmpFile.renameTo(indexFile)) {
+            tmpFile.delete();
+            throw new IOException("Could not rename [" + tmpFile + "] to [" + indexFile + "]");
+        }
+    }
+
+}
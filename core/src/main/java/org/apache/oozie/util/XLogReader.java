@@ -32,11 +32,28 @@ public class XLogReader {
     private Writer logWriter;
     private boolean noFilter = false;
     private XLogStreamer.Filter logFilter;
+    private boolean parametersMatched;
 
     public XLogReader(InputStream logFileIS, XLogStreamer.Filter filter, Writer logWriter) {
+        this(logFileIS, filter, logWriter, false);
+    }
+
+    /**
+     * Creates a log reader.
+     * <p/>
+     * If the log statements of the input stream are known to match the filter parameters, for example because a log
+     * index selected them, only the log level filter is applied and the filter regular expression is not evaluated.
+     *
+     * @param logFileIS log input stream.
+     * @param filter log filter.
+     * @param logWriter writer to write the filtered log to.
+     * @param parametersMatched indicates if the log statements are known to match the filter parameters.
+     */
+    public XLogReader(InputStream logFileIS, XLogStreamer.Filter filter, Writer logWriter, boolean parametersMatched) {
         logReader = new BufferedReader(new InputStreamReader(logFileIS));
         logFilter = filter;
         this.logWriter = logWriter;
+        this.parametersMatched = parametersMatched;
     }
 
     /**
@@ -51,6 +68,9 @@ public class XLogReader {
         if (logFilter == null || !logFilter.isFilterPresent()) {
             noFilter = true;
         }
+        else if (parametersMatched) {
+            noFilter = !logFilter.isLogLevelFilterPresent();
+        }
         else {
             logFilter.constructPattern();
         }
@@ -58,6 +78,15 @@ public class XLogReader {
             if (noFilter) {
                 logWriter.write(line + "\n");
             }
+            else if (parametersMatched) {
+                String logLevel = logFilter.getLogLevel(line);
+                if (logLevel != null) {
+                    patternMatched = logFilter.matchesLogLevel(logLevel);
+                }
+                if (patternMatched) {
+                    logWriter.write(line + "\n");
+                }
+            }
             else {
                 ArrayList<String> logParts = logFilter.splitLogMessage(line);
                 if (logParts != null) {
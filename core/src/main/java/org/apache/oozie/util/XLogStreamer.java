@@ -19,12 +19,16 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,6 +45,7 @@ public class XLogStreamer {
     public static class Filter {
         private Map<String, Integer> logLevels;
         private Map<String, String> filterParams;
+        private Set<String> parametersSet;
         private static List<String> parameters = new ArrayList<String>();
         private boolean noFilter;
         private Pattern filterPattern;
@@ -55,9 +60,12 @@ public class XLogStreamer {
         private static final String PREFIX_REGEX = TIMESTAMP_REGEX + WHITE_SPACE_REGEX + LOG_LEVEL_REGEX
                 + WHITE_SPACE_REGEX;
         private static final Pattern SPLITTER_PATTERN = Pattern.compile(PREFIX_REGEX + ALLOW_ALL_REGEX);
+        private static final Pattern INDEX_VALUE_PATTERN = Pattern.compile("[\\w@-]+");
+        private static final int TIMESTAMP_LENGTH = 23;
 
         public Filter() {
             filterParams = new HashMap<String, String>();
+            parametersSet = new HashSet<String>();
             for (int i = 0; i < parameters.size(); i++) {
                 filterParams.put(parameters.get(i), DEFAULT_REGEX);
             }
@@ -87,6 +95,7 @@ public class XLogStreamer {
             if (filterParams.containsKey(filterParam)) {
                 noFilter = false;
                 filterParams.put(filterParam, value);
+                parametersSet.add(filterParam);
             }
         }
 
@@ -101,6 +110,42 @@ public class XLogStreamer {
             return true;
         }
 
+        /**
+         * Returns if the filter has a log level filter.
+         *
+         * @return <code>true</code> if the filter has a log level filter, <code>false</code> otherwise.
+         */
+        public boolean isLogLevelFilterPresent() {
+            return logLevels != null;
+        }
+
+        /**
+         * Returns if the given parameter is the only parameter set in the filter, the log level filter is not
+         * considered.
+         *
+         * @param filterParam filter parameter.
+         * @return <code>true</code> if the parameter is the only parameter set, <code>false</code> otherwise.
+         */
+        public boolean isOnlyParameter(String filterParam) {
+            return parametersSet.size() == 1 && parametersSet.contains(filterParam);
+        }
+
+        /**
+         * Returns the value of a parameter if it is set to a literal value that can be looked up in a log index, that
+         * is a value the filter matches by equality.
+         *
+         * @param filterParam filter parameter.
+         * @return the literal value of the parameter, <code>null</code> if the parameter is not set or its value is a
+         * regular expression.
+         */
+        public String getIndexValue(String filterParam) {
+            String value = (parametersSet.contains(filterParam)) ? filterParams.get(filterParam) : null;
+            if (value != null && INDEX_VALUE_PATTERN.matcher(value).matches()) {
+                return value;
+            }
+            return null;
+        }
+
         /**
          * Checks if the logLevel and logMessage goes through the logFilter.
          *
@@ -110,7 +155,7 @@ public class XLogStreamer {
         public boolean matches(ArrayList<String> logParts) {
             String logLevel = logParts.get(0);
             String logMessage = logParts.get(1);
-            if (this.logLevels == null || this.logLevels.containsKey(logLevel.toUpperCase())) {
+            if (matchesLogLevel(logLevel)) {
                 Matcher logMatcher = filterPattern.matcher(logMessage);
                 return logMatcher.matches();
             }
@@ -119,6 +164,83 @@ public class XLogStreamer {
             }
         }
 
+        /**
+         * Checks if the log level goes through the log level filter.
+         *
+         * @param logLevel log level.
+         * @return <code>true</code> if there is no log level filter or the log level is in it.
+         */
+        public boolean matchesLogLevel(String logLevel) {
+            return this.logLevels == null || this.logLevels.containsKey(logLevel.toUpperCase());
+        }
+
+        /**
+         * Returns the log level of a log line without using regular expressions. Returns <code>null</code> if the line
+         * is not the first line of a log statement, the same lines {@link #splitLogMessage} returns <code>null</code>
+         * for.
+         *
+         * @param logLine log line.
+         * @return the log level, <code>null</code> if the line does not start a log statement.
+         */
+        public String getLogLevel(String logLine) {
+            int length = logLine.length();
+            if (length <= TIMESTAMP_LENGTH) {
+                return null;
+            }
+            for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+                char c = logLine.charAt(i);
+                switch (i) {
+                    case 4:
+                    case 7:
+                        if (c != '-') {
+                            return null;
+                        }
+                        break;
+                    case 10:
+                        if (c != ' ') {
+                            return null;
+                        }
+                        break;
+                    case 13:
+                    case 16:
+                        if (c != ':') {
+                            return null;
+                        }
+                        break;
+                    case 19:
+                        if (c != ',') {
+                            return null;
+                        }
+                        break;
+                    default:
+                        if (c < '0' || c > '9') {
+                            return null;
+                        }
+                }
+            }
+            int start = TIMESTAMP_LENGTH;
+            while (start < length && isSpaceChar(logLine.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < length && isWordChar(logLine.charAt(end))) {
+                end++;
+            }
+            if (start == TIMESTAMP_LENGTH || end == start || end == length
+                    || !isSpaceChar(logLine.charAt(end))) {
+                return null;
+            }
+            return logLine.substring(start, end);
+        }
+
+        private static boolean isSpaceChar(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+        }
+
+        private static boolean isWordChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+        }
+
         /**
          * Splits the log line into timestamp, logLevel and remaining log message. Returns array containing logLevel and
          * logMessage if the pattern matches i.e A new log statement, else returns null.
@@ -163,6 +285,33 @@ public class XLogStreamer {
             filterPattern = Pattern.compile(sb.toString());
         }
 
+        /**
+         * Returns the regular expression a log message must match for a log index to index it by the value of the
+         * given parameter. It is the filter pattern with all parameters set to their defaults, the value of the indexed
+         * parameter is captured as group 2.
+         *
+         * @param indexParameter parameter to index the log by.
+         * @return the index pattern, <code>null</code> if the parameter is not defined.
+         */
+        public static Pattern getIndexPattern(String indexParameter) {
+            if (!parameters.contains(indexParameter)) {
+                return null;
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("(.* - ");
+            for (int i = 0; i < parameters.size(); i++) {
+                sb.append(parameters.get(i) + "\\[");
+                if (parameters.get(i).equals(indexParameter)) {
+                    sb.append("(" + DEFAULT_REGEX + ")\\] ");
+                }
+                else {
+                    sb.append(DEFAULT_REGEX + "\\] ");
+                }
+            }
+            sb.append(".*)");
+            return Pattern.compile(sb.toString());
+        }
+
         public static void reset() {
             parameters.clear();
         }
@@ -173,8 +322,28 @@ public class XLogStreamer {
     private Filter logFilter;
     private Writer logWriter;
     private long logRotation;
+    private String indexParameter;
 
     public XLogStreamer(Filter logFilter, Writer logWriter, String logPath, String logFile, long logRotationSecs) {
+        this(logFilter, logWriter, logPath, logFile, logRotationSecs, null);
+    }
+
+    /**
+     * Creates a log streamer that uses log indexes for the rotated log files.
+     * <p/>
+     * If the filter sets the index parameter to a literal value, only the byte ranges of the rotated log files the
+     * index has for the value are read. The current log file is always read in full.
+     *
+     * @param logFilter log filter.
+     * @param logWriter writer to stream the log to.
+     * @param logPath log directory.
+     * @param logFile log file name.
+     * @param logRotationSecs log rotation period in seconds.
+     * @param indexParameter parameter to index the rotated log files by, <code>null</code> to not use indexes.
+     */
+    public XLogStreamer(Filter logFilter, Writer logWriter, String logPath, String logFile, long logRotationSecs,
+                        String indexParameter) {
+        this.indexParameter = indexParameter;
         this.logWriter = logWriter;
         this.logFilter = logFilter;
         if (logFile == null) {
@@ -207,11 +376,90 @@ public class XLogStreamer {
         }
         File dir = new File(logPath);
         ArrayList<FileInfo> fileList = getFileList(dir, startTimeMillis, endTimeMillis, logRotation, logFile);
+        String indexValue = (indexParameter != null && logFilter != null) ? logFilter.getIndexValue(indexParameter)
+                : null;
+        Pattern indexPattern = (indexValue != null) ? Filter.getIndexPattern(indexParameter) : null;
         for (int i = 0; i < fileList.size(); i++) {
+            File file = new File(fileList.get(i).getFileName());
             InputStream ifs;
-            ifs = new FileInputStream(fileList.get(i).getFileName());
-            XLogReader logReader = new XLogReader(ifs, logFilter, logWriter);
-            logReader.processLog();
+            boolean parametersMatched = false;
+            if (indexPattern != null && !file.getName().equals(logFile)) {
+                long[] ranges = XLogIndex.getIndex(file, indexPattern).getRanges(indexValue);
+                if (ranges.length == 0) {
+                    continue;
+                }
+                ifs = new RangeInputStream(new FileInputStream(file).getChannel(), ranges);
+                parametersMatched = logFilter.isOnlyParameter(indexParameter);
+            }
+            else {
+                ifs = new FileInputStream(file);
+            }
+            try {
+                XLogReader logReader = new XLogReader(ifs, logFilter, logWriter, parametersMatched);
+                logReader.processLog();
+            }
+            finally {
+                ifs.close();
+            }
+        }
+    }
+
+    /**
+     * Input stream over byte ranges of a file, it reads the ranges with positional reads of the file channel.
+     */
+    static class RangeInputStream extends InputStream {
+        private FileChannel channel;
+        private long[] ranges;
+        private int range;
+        private long position;
+
+        /**
+         * Creates an input stream over byte ranges of a file.
+         *
+         * @param channel file channel, it is closed when the stream is closed.
+         * @param ranges start and end offsets of the ranges, ordered.
+         */
+        public RangeInputStream(FileChannel channel, long[] ranges) {
+            this.channel = channel;
+            this.ranges = ranges;
+            range = 0;
+            position = (ranges.length > 0) ? ranges[0] : 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int read = read(b, 0, 1);
+            return (read == -1) ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (range < ranges.length && position >= ranges[range + 1]) {
+                range += 2;
+                if (range < ranges.length) {
+                    position = ranges[range];
+                }
+            }
+            if (range >= ranges.length) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, ranges[range + 1] - position);
+            int read = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (read == -1) {
+                range = ranges.length;
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
         }
     }
 
@@ -17,15 +17,19 @@ package org.apache.oozie.util;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.text.CharacterIterator;
 import java.text.StringCharacterIterator;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -80,6 +84,86 @@ public class XmlUtils {
         return saxBuilder;
     }
 
+    /**
+     * Default maximum size, in bytes, of the XML documents kept by {@link #parseXmlCached(String)}.
+     */
+    public static final long PARSED_CACHE_DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Maximum length of the XML strings cached by {@link #parseXmlCached(String)}, longer ones are always parsed.
+     */
+    public static final int PARSED_CACHE_MAX_LENGTH = 64 * 1024;
+
+    private static final int MAX_VALIDATORS = 16;
+
+    // SAXBuilder and Validator instances are not thread safe but can be reused, each thread keeps its own ones
+    private static final ThreadLocal<SAXBuilder> SAX_BUILDER = new ThreadLocal<SAXBuilder>() {
+        @Override
+        protected SAXBuilder initialValue() {
+            return createSAXBuilder();
+        }
+    };
+
+    private static final ThreadLocal<Map<Schema, Validator>> VALIDATORS = new ThreadLocal<Map<Schema, Validator>>() {
+        @Override
+        protected Map<Schema, Validator> initialValue() {
+            return new HashMap<Schema, Validator>();
+        }
+    };
+
+    /**
+     * Parsed document cached with the XML string it was parsed from, the cache is keyed by the hash of the string.
+     */
+    private static class ParsedDocument {
+        private final String xml;
+        private final Element element;
+
+        private ParsedDocument(String xml, Element element) {
+            this.xml = xml;
+            this.element = element;
+        }
+
+        private long getBytes() {
+            return 2L * xml.length();
+        }
+    }
+
+    private static final Map<Integer, ParsedDocument> PARSED_CACHE =
+            new LinkedHashMap<Integer, ParsedDocument>(16, 0.75f, true);
+    private static long parsedCacheBytes;
+    private static long parsedCacheMaxBytes = PARSED_CACHE_DEFAULT_MAX_BYTES;
+    private static final AtomicLong PARSED_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong PARSED_CACHE_MISSES = new AtomicLong();
+
+    private static Document build(Reader reader) throws JDOMException, IOException {
+        boolean ok = false;
+        try {
+            Document document = SAX_BUILDER.get().build(reader);
+            ok = true;
+            return document;
+        }
+        finally {
+            if (!ok) {
+                // a failed parse may leave the underlying parser in an unknown state, it is not reused
+                SAX_BUILDER.remove();
+            }
+        }
+    }
+
+    private static Document build(InputStream is) throws JDOMException, IOException {
+        boolean ok = false;
+        try {
+            Document document = SAX_BUILDER.get().build(is);
+            ok = true;
+            return document;
+        }
+        finally {
+            if (!ok) {
+                SAX_BUILDER.remove();
+            }
+        }
+    }
+
     /**
      * Remove comments from any Xml String.
      *
@@ -92,8 +176,7 @@ public class XmlUtils {
             return null;
         }
         try {
-            SAXBuilder saxBuilder = createSAXBuilder();
-            Document document = saxBuilder.build(new StringReader(xmlStr));
+            Document document = build(new StringReader(xmlStr));
             removeComments(document);
             return prettyPrint(document.getRootElement()).toString();
         }
@@ -130,8 +213,7 @@ public class XmlUtils {
     public static Element parseXml(String xmlStr) throws JDOMException {
         ParamChecker.notNull(xmlStr, "xmlStr");
         try {
-            SAXBuilder saxBuilder = createSAXBuilder();
-            Document document = saxBuilder.build(new StringReader(xmlStr));
+            Document document = build(new StringReader(xmlStr));
             return document.getRootElement();
         }
         catch (IOException ex) {
@@ -139,6 +221,114 @@ public class XmlUtils {
         }
     }
 
+    /**
+     * Parse a string assuming it is a valid XML document and return an JDOM Element for it, using a bounded cache of
+     * parsed documents.
+     * <p/>
+     * It is meant for XML documents that are parsed over and over, like the configuration of an action that is checked
+     * periodically. The returned element is a detached copy of the cached one, callers can modify it. XML strings
+     * longer than {@link #PARSED_CACHE_MAX_LENGTH} are not cached, and nothing is cached if the cache size is zero,
+     * see {@link #setParsedCacheMaxBytes(long)}.
+     *
+     * @param xmlStr XML string to parse.
+     * @return JDOM element for the parsed XML string.
+     * @throws JDOMException thrown if an error happend while XML parsing.
+     */
+    public static Element parseXmlCached(String xmlStr) throws JDOMException {
+        ParamChecker.notNull(xmlStr, "xmlStr");
+        if (xmlStr.length() > PARSED_CACHE_MAX_LENGTH) {
+            return parseXml(xmlStr);
+        }
+        Integer key = xmlStr.hashCode();
+        Element element = null;
+        boolean enabled;
+        synchronized (PARSED_CACHE) {
+            enabled = parsedCacheMaxBytes > 0;
+            ParsedDocument cached = PARSED_CACHE.get(key);
+            // the key is only a hash, a different document with the same hash is a miss
+            if (cached != null && cached.xml.equals(xmlStr)) {
+                element = cached.element;
+            }
+        }
+        if (!enabled) {
+            return parseXml(xmlStr);
+        }
+        if (element != null) {
+            PARSED_CACHE_HITS.incrementAndGet();
+        }
+        else {
+            PARSED_CACHE_MISSES.incrementAndGet();
+            element = parseXml(xmlStr);
+            ParsedDocument parsed = new ParsedDocument(xmlStr, element);
+            synchronized (PARSED_CACHE) {
+                if (parsed.getBytes() <= parsedCacheMaxBytes) {
+                    ParsedDocument previous = PARSED_CACHE.put(key, parsed);
+                    if (previous != null) {
+                        parsedCacheBytes -= previous.getBytes();
+                    }
+                    parsedCacheBytes += parsed.getBytes();
+                    trimParsedCache();
+                }
+            }
+        }
+        return (Element) element.clone();
+    }
+
+    // evicts the least recently used documents until the cache fits in its maximum size, called holding the cache lock
+    private static void trimParsedCache() {
+        Iterator<ParsedDocument> it = PARSED_CACHE.values().iterator();
+        while (parsedCacheBytes > parsedCacheMaxBytes && it.hasNext()) {
+            parsedCacheBytes -= it.next().getBytes();
+            it.remove();
+        }
+    }
+
+    /**
+     * Set the maximum size, in bytes, of the XML documents kept by {@link #parseXmlCached(String)}. Zero disables the
+     * cache.
+     * <p/>
+     * The size of a cached document is the size of its XML string. The default is {@link
+     * #PARSED_CACHE_DEFAULT_MAX_BYTES}, the {@link SchemaService} sets it from its configuration.
+     *
+     * @param maxBytes maximum size of the cached documents, in bytes.
+     */
+    public static void setParsedCacheMaxBytes(long maxBytes) {
+        synchronized (PARSED_CACHE) {
+            parsedCacheMaxBytes = Math.max(maxBytes, 0);
+            trimParsedCache();
+        }
+    }
+
+    /**
+     * Return the size, in bytes, of the XML documents kept by {@link #parseXmlCached(String)}.
+     *
+     * @return the size of the cached documents, in bytes.
+     */
+    public static long getParsedCacheBytes() {
+        synchronized (PARSED_CACHE) {
+            return parsedCacheBytes;
+        }
+    }
+
+    /**
+     * Return the number of {@link #parseXmlCached(String)} calls served from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public static long getParsedCacheHits() {
+        return PARSED_CACHE_HITS.get();
+    }
+
+    /**
+     * Return the number of {@link #parseXmlCached(String)} calls, while the cache is enabled, that parsed their XML
+     * string.
+     *
+     * @return the number of cache misses, XML strings longer than {@link #PARSED_CACHE_MAX_LENGTH} are not counted.
+     */
+    public static long getParsedCacheMisses() {
+        return PARSED_CACHE_MISSES.get();
+    }
+
     /**
      * Parse a inputstream assuming it is a valid XML document and return an JDOM Element for it.
      *
@@ -149,8 +339,7 @@ public class XmlUtils {
      */
     public static Element parseXml(InputStream is) throws JDOMException, IOException {
         ParamChecker.notNull(is, "is");
-        SAXBuilder saxBuilder = createSAXBuilder();
-        Document document = saxBuilder.build(is);
+        Document document = build(is);
         return document.getRootElement();
     }
 
@@ -165,9 +354,8 @@ public class XmlUtils {
     public static String getRootAttribute(String filePath, String attributeName) {
         ParamChecker.notNull(filePath, "filePath");
         ParamChecker.notNull(attributeName, "attributeName");
-        SAXBuilder saxBuilder = createSAXBuilder();
         try {
-            Document doc = saxBuilder.build(Thread.currentThread().getContextClassLoader().getResourceAsStream(filePath));
+            Document doc = build(Thread.currentThread().getContextClassLoader().getResourceAsStream(filePath));
             return doc.getRootElement().getAttributeValue(attributeName);
         }
         catch (JDOMException e) {
@@ -269,14 +457,35 @@ public class XmlUtils {
 
     /**
      * Schema validation for a given xml. <p/>
+     * <p/>
+     * The validators are reused, each thread keeps one validator per schema.
      *
      * @param schema for validation
      * @param xml to be validated
      */
     public static void validateXml(Schema schema, String xml) throws SAXException, IOException {
-
-        Validator validator = schema.newValidator();
-        validator.validate(new StreamSource(new ByteArrayInputStream(xml.getBytes())));
+        Map<Schema, Validator> validators = VALIDATORS.get();
+        Validator validator = validators.get(schema);
+        if (validator == null) {
+            if (validators.size() >= MAX_VALIDATORS) {
+                validators.clear();
+            }
+            validator = schema.newValidator();
+            validators.put(schema, validator);
+        }
+        else {
+            validator.reset();
+        }
+        boolean ok = false;
+        try {
+            validator.validate(new StreamSource(new StringReader(xml)));
+            ok = true;
+        }
+        finally {
+            if (!ok) {
+                validators.remove(schema);
+            }
+        }
     }
 
     /**
@@ -111,9 +111,41 @@ public class SLADbOperations {
                                                  String slaId, SlaAppType appType, String user, String groupName, XLog log)
             throws Exception {
         // System.out.println("BBBBB SLA added");
-        if (eSla == null) {
+        SLAEventBean sla = createSlaRegistrationEvent(eSla, slaId, appType, user, groupName);
+        if (sla == null) {
             return;
         }
+        //SLAStore slaStore = (SLAStore) Services.get().get(StoreService.class)
+        //        .getStore(SLAStore.class, store);
+        //slaStore.insertSLAEvent(sla);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        if (jpaService != null) {
+            jpaService.execute(new SLAEventInsertJPAExecutor(sla));
+        }
+        else {
+            log.error(ErrorCode.E0610);
+        }
+    }
+
+    /**
+     * Create the SLA registration event bean for a SLA element, without storing it.
+     * <p/>
+     * It allows callers to insert the event in the same transaction as the job or action it registers.
+     *
+     * @param eSla SLA element, it may be <code>null</code>.
+     * @param slaId SLA id.
+     * @param appType application type.
+     * @param user user name.
+     * @param groupName group name.
+     * @return the SLA registration event, or <code>null</code> if the SLA element is <code>null</code>.
+     * @throws Exception thrown if the SLA element is not valid.
+     */
+    public static SLAEventBean createSlaRegistrationEvent(Element eSla, String slaId, SlaAppType appType,
+                                                          String user, String groupName) throws Exception {
+        if (eSla == null) {
+            return null;
+        }
         //System.out.println("Writing REG AAAAA " + slaId);
         SLAEventBean sla = new SLAEventBean();
         // sla.setClientId(getTagElement( eSla, "client-id"));
@@ -178,18 +210,7 @@ public class SLADbOperations {
         sla.setGroupName(groupName);
         sla.setJobStatus(Status.CREATED);
         sla.setStatusTimestamp(new Date());
-
-        //SLAStore slaStore = (SLAStore) Services.get().get(StoreService.class)
-        //        .getStore(SLAStore.class, store);
-        //slaStore.insertSLAEvent(sla);
-
-        JPAService jpaService = Services.get().get(JPAService.class);
-        if (jpaService != null) {
-            jpaService.execute(new SLAEventInsertJPAExecutor(sla));
-        }
-        else {
-            log.error(ErrorCode.E0610);
-        }
+        return sla;
     }
 
     public static void writeSlaStatusEvent(String id,
@@ -14,10 +14,15 @@
  */
 package org.apache.oozie.workflow.lite;
 
+import org.apache.oozie.service.LiteWorkflowStoreService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.service.WorkflowStoreService;
 import org.apache.oozie.service.XLogService;
 import org.apache.oozie.service.DagXLogInfoService;
 import org.apache.oozie.client.OozieClient;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.workflow.WorkflowApp;
@@ -29,19 +34,44 @@ import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.ErrorCode;
 
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ByteArrayOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 //TODO javadoc
 public class LiteWorkflowInstance implements Writable, WorkflowInstance {
     private static final String TRANSITION_TO = "transition.to";
 
+    /**
+     * Legacy serialization format, configuration as XML and all strings as UTF.
+     */
+    public static final int FORMAT_VERSION_1 = 1;
+
+    /**
+     * Versioned serialization format, configuration as key/value pairs and optionally compressed.
+     */
+    public static final int FORMAT_VERSION_2 = 2;
+
+    public static final String COMPRESSION_NONE = "none";
+    public static final String COMPRESSION_DEFLATE = "deflate";
+
+    static final int FORMAT_MAGIC = 0xFFFF;
+    static final byte CODEC_NONE = 0;
+    static final byte CODEC_DEFLATE = 1;
+
     private XLog log;
 
     private static String PATH_SEPARATOR = "/";
@@ -539,8 +569,55 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         this.status = status;
     }
 
+    /**
+     * Return the serialization format version to use when writing instances.
+     * <p/>
+     * It is read from the {@link LiteWorkflowStoreService#CONF_INSTANCE_FORMAT_VERSION} configuration property,
+     * if Oozie services are not initialized the legacy format is used.
+     *
+     * @return the format version.
+     */
+    private static int getWriteFormatVersion() {
+        Services services = Services.get();
+        return (services != null) ? services.getConf().getInt(LiteWorkflowStoreService.CONF_INSTANCE_FORMAT_VERSION,
+                                                               FORMAT_VERSION_1) : FORMAT_VERSION_1;
+    }
+
+    /**
+     * Return the compression codec to use when writing instances with the versioned format.
+     *
+     * @return the compression codec.
+     */
+    private static byte getWriteCompression() {
+        Services services = Services.get();
+        String codec = (services != null) ? services.getConf().get(LiteWorkflowStoreService.CONF_INSTANCE_COMPRESSION,
+                                                                   COMPRESSION_DEFLATE) : COMPRESSION_DEFLATE;
+        if (codec.equalsIgnoreCase(COMPRESSION_NONE)) {
+            return CODEC_NONE;
+        }
+        if (codec.equalsIgnoreCase(COMPRESSION_DEFLATE)) {
+            return CODEC_DEFLATE;
+        }
+        throw new IllegalArgumentException(XLog.format("Invalid workflow instance compression [{0}]", codec));
+    }
+
     @Override
     public void write(DataOutput dOut) throws IOException {
+        if (getWriteFormatVersion() == FORMAT_VERSION_1) {
+            writeV1(dOut);
+        }
+        else {
+            writeV2(dOut, getWriteCompression());
+        }
+    }
+
+    /**
+     * Write the instance in the legacy format, the configuration is written as XML and the definition inline.
+     *
+     * @param dOut data output.
+     * @throws IOException thrown if the instance could not be written.
+     */
+    void writeV1(DataOutput dOut) throws IOException {
         dOut.writeUTF(instanceId);
 
         //Hadoop Configuration has to get its act right
@@ -566,9 +643,87 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         }
     }
 
+    /**
+     * Write the instance in the versioned format.
+     * <p/>
+     * The header is the {@link #FORMAT_MAGIC} marker (it cannot be the length of the instance ID of the legacy
+     * format), the format version and the compression codec. The header is followed by the length of the body and the
+     * body, optionally compressed.
+     * <p/>
+     * In the body the configuration is written as key/value pairs, the definition is written as its content hash
+     * followed by its serialized form, and strings and counts are written with variable length encodings.
+     *
+     * @param dOut data output.
+     * @param codec compression codec for the body.
+     * @throws IOException thrown if the instance could not be written.
+     */
+    void writeV2(DataOutput dOut, byte codec) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = (codec == CODEC_DEFLATE) ? new DeflaterOutputStream(baos) : baos;
+        DataOutputStream body = new DataOutputStream(os);
+
+        Text.writeString(body, instanceId);
+        Text.writeString(body, status.toString());
+
+        List<Map.Entry<String, String>> props = new ArrayList<Map.Entry<String, String>>();
+        for (Map.Entry<String, String> entry : conf) {
+            props.add(entry);
+        }
+        WritableUtils.writeVInt(body, props.size());
+        for (Map.Entry<String, String> entry : props) {
+            Text.writeString(body, entry.getKey());
+            Text.writeString(body, entry.getValue());
+        }
+
+        byte[] defArray = org.apache.oozie.util.WritableUtils.toByteArray(def);
+        Text.writeString(body, getDefinitionHash(defArray));
+        WritableUtils.writeVInt(body, defArray.length);
+        body.write(defArray);
+
+        WritableUtils.writeVInt(body, executionPaths.size());
+        for (Map.Entry<String, NodeInstance> entry : executionPaths.entrySet()) {
+            Text.writeString(body, entry.getKey());
+            Text.writeString(body, entry.getValue().nodeName);
+            body.writeBoolean(entry.getValue().started);
+        }
+        WritableUtils.writeVInt(body, persistentVars.size());
+        for (Map.Entry<String, String> entry : persistentVars.entrySet()) {
+            Text.writeString(body, entry.getKey());
+            Text.writeString(body, entry.getValue());
+        }
+        body.close();
+
+        byte[] array = baos.toByteArray();
+        dOut.writeShort(FORMAT_MAGIC);
+        dOut.writeByte(FORMAT_VERSION_2);
+        dOut.writeByte(codec);
+        dOut.writeInt(array.length);
+        dOut.write(array);
+    }
+
     @Override
     public void readFields(DataInput dIn) throws IOException {
-        instanceId = dIn.readUTF();
+        int header = dIn.readUnsignedShort();
+        if (header == FORMAT_MAGIC) {
+            int version = dIn.readByte();
+            if (version != FORMAT_VERSION_2) {
+                throw new IOException(XLog.format("Unsupported workflow instance format version [{0}]", version));
+            }
+            readV2(dIn);
+        }
+        else {
+            // legacy format, the header is the length of the UTF instance ID
+            byte[] array = new byte[header + 2];
+            array[0] = (byte) (header >>> 8);
+            array[1] = (byte) header;
+            dIn.readFully(array, 2, header);
+            readV1(new DataInputStream(new ByteArrayInputStream(array)).readUTF(), dIn);
+        }
+        refreshLog();
+    }
+
+    private void readV1(String instanceId, DataInput dIn) throws IOException {
+        this.instanceId = instanceId;
 
         //Hadoop Configuration has to get its act right
         int len = dIn.readInt();
@@ -579,6 +734,12 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
 
         def = new LiteWorkflowApp();
         def.readFields(dIn);
+        LiteWorkflowStoreService storeService = getStoreService();
+        if (storeService != null) {
+            // the legacy format has no content hash, the definition XML the nodes were parsed from is used instead
+            String hash = getDefinitionHash((def.getName() + "\n" + def.getDefinition()).getBytes("UTF-8"));
+            def = storeService.internDefinition(conf.get(OozieClient.APP_PATH), FORMAT_VERSION_1 + ":" + hash, def);
+        }
         status = Status.valueOf(dIn.readUTF());
         int numExPaths = dIn.readInt();
         for (int x = 0; x < numExPaths; x++) {
@@ -595,7 +756,106 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
             String vVal = dIn.readUTF();
             persistentVars.put(vName, vVal);
         }
-        refreshLog();
+    }
+
+    private void readV2(DataInput dIn) throws IOException {
+        byte codec = dIn.readByte();
+        byte[] array = new byte[dIn.readInt()];
+        dIn.readFully(array);
+        InputStream is = new ByteArrayInputStream(array);
+        if (codec == CODEC_DEFLATE) {
+            is = new InflaterInputStream(is);
+        }
+        else if (codec != CODEC_NONE) {
+            throw new IOException(XLog.format("Unsupported workflow instance compression codec [{0}]", codec));
+        }
+        DataInputStream body = new DataInputStream(is);
+
+        instanceId = Text.readString(body);
+        status = Status.valueOf(Text.readString(body));
+
+        conf = new XConfiguration();
+        int numProps = WritableUtils.readVInt(body);
+        for (int x = 0; x < numProps; x++) {
+            String name = Text.readString(body);
+            conf.set(name, Text.readString(body));
+        }
+
+        String defHash = Text.readString(body);
+        byte[] defArray = new byte[WritableUtils.readVInt(body)];
+        body.readFully(defArray);
+        def = readDefinition(defHash, defArray);
+
+        int numExPaths = WritableUtils.readVInt(body);
+        for (int x = 0; x < numExPaths; x++) {
+            String path = Text.readString(body);
+            NodeInstance nodeInstance = new NodeInstance(Text.readString(body));
+            nodeInstance.started = body.readBoolean();
+            executionPaths.put(path, nodeInstance);
+        }
+        int numVars = WritableUtils.readVInt(body);
+        for (int x = 0; x < numVars; x++) {
+            String vName = Text.readString(body);
+            persistentVars.put(vName, Text.readString(body));
+        }
+        body.close();
+    }
+
+    /**
+     * Return the workflow definition of a versioned format instance.
+     * <p/>
+     * Definitions are shared among all the instances of the same application path and content hash using the
+     * {@link LiteWorkflowStoreService} definitions cache, they are only deserialized if not cached.
+     *
+     * @param hash content hash of the serialized definition.
+     * @param array serialized definition.
+     * @return the workflow definition.
+     * @throws IOException thrown if the definition could not be read.
+     */
+    private LiteWorkflowApp readDefinition(String hash, byte[] array) throws IOException {
+        LiteWorkflowStoreService storeService = getStoreService();
+        String appPath = conf.get(OozieClient.APP_PATH);
+        String key = FORMAT_VERSION_2 + ":" + hash;
+        LiteWorkflowApp app = (storeService != null) ? storeService.getDefinition(appPath, key) : null;
+        if (app == null) {
+            app = new LiteWorkflowApp();
+            app.readFields(new DataInputStream(new ByteArrayInputStream(array)));
+            if (storeService != null) {
+                app = storeService.internDefinition(appPath, key, app);
+            }
+        }
+        return app;
+    }
+
+    /**
+     * Return the lite workflow store service if Oozie services are initialized with one.
+     *
+     * @return the lite workflow store service, <code>null</code> if none.
+     */
+    private static LiteWorkflowStoreService getStoreService() {
+        Services services = Services.get();
+        WorkflowStoreService storeService = (services != null) ? services.get(WorkflowStoreService.class) : null;
+        return (storeService instanceof LiteWorkflowStoreService) ? (LiteWorkflowStoreService) storeService : null;
+    }
+
+    /**
+     * Return the content hash of a serialized workflow definition.
+     *
+     * @param array serialized definition.
+     * @return the hex encoded MD5 of the serialized definition.
+     */
+    static String getDefinitionHash(byte[] array) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(array);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
     }
 
     @Override
@@ -30,6 +30,8 @@ import org.apache.oozie.DagELFunctions;
 import org.apache.oozie.WorkflowActionBean;
 import org.apache.oozie.WorkflowJobBean;
 
+import java.util.Map;
+
 public class TestDagELFunctions extends XTestCase {
 
     protected void setUp() throws Exception {
@@ -104,4 +106,40 @@ public class TestDagELFunctions extends XTestCase {
         assertEquals("externalStatus", eval.evaluate("${wf:actionExternalStatus('actionName')}", String.class));
     }
 
+    public void testActionDataCache() throws Exception {
+        XConfiguration conf = new XConfiguration();
+        conf.set(OozieClient.APP_PATH, "appPath");
+        conf.set(OozieClient.USER_NAME, "user");
+        conf.set(OozieClient.GROUP_NAME, "group");
+        LiteWorkflowApp def =
+                new LiteWorkflowApp("name", "<workflow-app/>", new StartNodeDef("end")).addNode(new EndNodeDef("end"));
+        LiteWorkflowInstance job = new LiteWorkflowInstance(def, conf, "wfId");
+
+        WorkflowActionBean action = new WorkflowActionBean();
+        action.setId("actionId");
+        action.setName("actionName");
+        action.setData("b=B");
+        DagELFunctions.setActionInfo(job, action);
+
+        WorkflowJobBean wf = new WorkflowJobBean();
+        wf.setId(job.getId());
+        wf.setWorkflowInstance(job);
+        wf.setProtoActionConf(conf.toXmlString());
+
+        ELEvaluator eval = Services.get().get(ELService.class).createEvaluator("workflow");
+        DagELFunctions.configureEvaluator(eval, wf, action);
+
+        Map<?, ?> data = eval.evaluate("${wf:actionData('actionName')}", Map.class);
+        assertEquals("B", data.get("b"));
+        assertSame(data, eval.evaluate("${wf:actionData('actionName')}", Map.class));
+        assertTrue(eval.evaluate("${wf:actionData('otherAction')}", Map.class).isEmpty());
+
+        // a new workflow instance in the job bean invalidates the cached action data
+        WorkflowInstance wfInstance = wf.getWorkflowInstance();
+        action.setData("b=C");
+        DagELFunctions.setActionInfo(wfInstance, action);
+        wf.setWorkflowInstance(wfInstance);
+        assertEquals("C", eval.evaluate("${wf:actionData('actionName')['b']}", String.class));
+    }
+
 }
@@ -14,9 +14,12 @@
  */
 package org.apache.oozie.action.email;
 
+import java.net.ServerSocket;
+
 import org.apache.oozie.WorkflowActionBean;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.action.hadoop.ActionExecutorTestCase;
+import org.apache.oozie.service.EmailService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.WorkflowAppService;
 import org.apache.oozie.util.XConfiguration;
@@ -43,6 +46,10 @@ public class TestEmailActionExecutor extends ActionExecutorTestCase {
     protected void setSystemProps() {
         super.setSystemProps();
         setSystemProperty("oozie.service.ActionService.executor.classes", EmailActionExecutor.class.getName());
+        String servicesExt = System.getProperty("oozie.services.ext", "").trim();
+        setSystemProperty("oozie.services.ext", ((servicesExt.length() > 0) ? servicesExt + "," : "")
+                + EmailService.class.getName());
+        setSystemProperty(EmailService.CONF_MAX_RETRIES, "0");
     }
 
     private Context createNormalContext(String actionXml) throws Exception {
@@ -116,6 +123,62 @@ public class TestEmailActionExecutor extends ActionExecutorTestCase {
         assertEquals("bod", GreenMailUtil.getBody(server.getReceivedMessages()[0]));
     }
 
+    public void testDoAsyncEmail() throws Exception {
+        EmailActionExecutor email = new EmailActionExecutor();
+        Context ctx = createNormalContext(XmlUtils.prettyPrint(prepareEmailElement(true)).toString());
+        final WorkflowActionBean action = (WorkflowActionBean) ctx.getAction();
+        final EmailService emailService = Services.get().get(EmailService.class);
+
+        email.start(ctx, action);
+        assertTrue(ctx.isStarted());
+        assertFalse(ctx.isExecuted());
+        assertFalse(email.isCompleted(action.getExternalStatus()));
+
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return !EmailService.STATUS_PENDING.equals(emailService.getStatus(action.getId()));
+            }
+        });
+        assertEquals(EmailService.STATUS_OK, emailService.getStatus(action.getId()));
+        assertEquals("bod", GreenMailUtil.getBody(server.getReceivedMessages()[0]));
+
+        email.check(ctx, action);
+        assertTrue(ctx.isExecuted());
+        assertEquals("OK", action.getExternalStatus());
+
+        // the delivery status is kept until the action ends
+        assertEquals(EmailService.STATUS_OK, emailService.getStatus(action.getId()));
+        email.end(ctx, action);
+        assertTrue(ctx.isEnded());
+        assertNull(emailService.getStatus(action.getId()));
+    }
+
+    public void testAsyncEmailDeliveryFailure() throws Exception {
+        EmailActionExecutor email = new EmailActionExecutor();
+        Context ctx = createNormalContext(XmlUtils.prettyPrint(prepareEmailElement(false)).toString());
+        final WorkflowActionBean action = (WorkflowActionBean) ctx.getAction();
+        final EmailService emailService = Services.get().get(EmailService.class);
+
+        // Nothing listens on the port once the socket is closed.
+        ServerSocket socket = new ServerSocket(0);
+        Services.get().getConf().setInt("oozie.email.smtp.port", socket.getLocalPort());
+        socket.close();
+
+        email.start(ctx, action);
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return !EmailService.STATUS_PENDING.equals(emailService.getStatus(action.getId()));
+            }
+        });
+        assertEquals(EmailService.STATUS_ERROR, emailService.getStatus(action.getId()));
+        assertEquals(0, server.getReceivedMessages().length);
+
+        email.check(ctx, action);
+        assertTrue(ctx.isExecuted());
+        assertEquals("ERROR", action.getExternalStatus());
+        assertEquals("EM007", action.getErrorCode());
+    }
+
     public void testValidation() throws Exception {
         EmailActionExecutor email = new EmailActionExecutor();
 
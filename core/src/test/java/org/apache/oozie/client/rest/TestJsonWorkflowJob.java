@@ -16,6 +16,9 @@ package org.apache.oozie.client.rest;
 
 import junit.framework.TestCase;
 import org.apache.oozie.client.WorkflowJob;
+import org.json.simple.JSONValue;
+
+import java.io.StringWriter;
 import java.util.Arrays;
 
 public class TestJsonWorkflowJob extends TestCase {
@@ -61,4 +64,18 @@ public class TestJsonWorkflowJob extends TestCase {
         assertEquals(1, wf.getActions().size());
     }
 
+    public void testWriteJSONString() throws Exception {
+        JsonWorkflowJob wf = createWorkflow();
+        wf.setActions(Arrays.asList((JsonWorkflowAction) TestJsonWorkflowAction.createNode(),
+                                    (JsonWorkflowAction) TestJsonWorkflowAction.createNode()));
+        StringWriter writer = new StringWriter();
+        wf.writeJSONString(writer);
+        assertEquals(JSONValue.parse(wf.toJSONObject().toJSONString()), JSONValue.parse(writer.toString()));
+
+        JsonBeanArray array = new JsonBeanArray(Arrays.asList(wf, wf));
+        assertEquals(JSONValue.parse(JsonWorkflowJob.toJSONArray(Arrays.asList(wf, wf)).toJSONString()),
+                     JSONValue.parse(array.toJSONString()));
+        assertEquals("[]", new JsonBeanArray(null).toJSONString());
+    }
+
 }
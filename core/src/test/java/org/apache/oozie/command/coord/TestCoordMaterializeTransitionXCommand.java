@@ -19,9 +19,11 @@ import java.util.Date;
 import java.util.List;
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.ErrorCode;
 import org.apache.oozie.SLAEventBean;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.CoordinatorJob.Timeunit;
+import org.apache.oozie.command.CommandException;
 import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
@@ -99,6 +101,40 @@ public class TestCoordMaterializeTransitionXCommand extends XDataTestCase {
         checkCoordActions(job.getId(), 0, CoordinatorJob.Status.PAUSED);
     }
 
+    public void testActionMaterBatch() throws Exception {
+        Date startTime = DateUtils.parseDateUTC("2009-03-06T10:00Z");
+        Date endTime = DateUtils.parseDateUTC("2009-03-06T10:14Z");
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, startTime, endTime, null);
+        new CoordMaterializeTransitionXCommand(job.getId(), 3600).call();
+        checkCoordActions(job.getId(), 3, null);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        CoordinatorJobBean coordJob = jpaService.execute(new CoordJobGetJPAExecutor(job.getId()));
+        assertEquals(3, coordJob.getLastActionNumber());
+        List<CoordinatorActionBean> actions = jpaService.execute(new CoordJobGetActionsJPAExecutor(job.getId()));
+        String conf = actions.get(0).getCreatedConf();
+        assertNotNull(conf);
+        for (CoordinatorActionBean action : actions) {
+            assertEquals(conf, action.getCreatedConf());
+            assertEquals(conf, action.getRunConf());
+        }
+    }
+
+    public void testActionMaterFailure() throws Exception {
+        Date startTime = DateUtils.parseDateUTC("2009-03-06T10:00Z");
+        Date endTime = DateUtils.parseDateUTC("2009-03-06T10:14Z");
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, startTime, endTime, null);
+        new CoordMaterializeTransitionXCommand(job.getId(), 3600) {
+            @Override
+            protected String materializeActions(boolean dryrun) throws Exception {
+                super.materializeActions(dryrun);
+                throw new CommandException(ErrorCode.E1012, "failure after the actions are materialized");
+            }
+        }.call();
+        // the job is failed, none of the actions materialized before the failure is stored
+        checkCoordActions(job.getId(), 0, CoordinatorJob.Status.FAILED);
+    }
+
     public void testTimeout() throws Exception {
         Date startTime = DateUtils.parseDateUTC("2009-03-06T10:00Z");
         Date endTime = DateUtils.parseDateUTC("2009-03-06T10:14Z");
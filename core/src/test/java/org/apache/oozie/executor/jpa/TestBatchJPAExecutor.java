@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.workflow.WorkflowInstance;
+
+public class TestBatchJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testBatchUpdate() throws Exception {
+        WorkflowJobBean job = this.addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        WorkflowActionBean action = addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.PREP);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        action.setStatus(WorkflowAction.Status.RUNNING);
+        job.setStatus(WorkflowJob.Status.SUSPENDED);
+        BatchJPAExecutor batch = new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(action));
+        batch.add(new WorkflowJobUpdateJPAExecutor(job)).add(new WorkflowJobGetJPAExecutor(job.getId()));
+        assertEquals(3, batch.size());
+        List<Object> results = jpaService.execute(batch);
+        assertEquals(3, results.size());
+        assertEquals(WorkflowJob.Status.SUSPENDED, ((WorkflowJobBean) results.get(2)).getStatus());
+
+        action = jpaService.execute(new WorkflowActionGetJPAExecutor(action.getId()));
+        assertEquals(WorkflowAction.Status.RUNNING, action.getStatus());
+        job = jpaService.execute(new WorkflowJobGetJPAExecutor(job.getId()));
+        assertEquals(WorkflowJob.Status.SUSPENDED, job.getStatus());
+    }
+
+    public void testBatchRollback() throws Exception {
+        WorkflowJobBean job = this.addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        WorkflowActionBean action = addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.PREP);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        action.setStatus(WorkflowAction.Status.RUNNING);
+        job.setStatus(WorkflowJob.Status.SUSPENDED);
+        BatchJPAExecutor batch = new BatchJPAExecutor(new WorkflowActionUpdateJPAExecutor(action),
+                new WorkflowJobUpdateJPAExecutor(job), new JPAExecutor<Void>() {
+                    @Override
+                    public String getName() {
+                        return "FailingJPAExecutor";
+                    }
+
+                    @Override
+                    public Void execute(EntityManager em) throws JPAExecutorException {
+                        throw new JPAExecutorException(ErrorCode.E0603, getName(), "failure");
+                    }
+                });
+        try {
+            jpaService.execute(batch);
+            fail();
+        }
+        catch (JPAExecutorException ex) {
+            assertEquals(ErrorCode.E0603, ex.getErrorCode());
+        }
+
+        action = jpaService.execute(new WorkflowActionGetJPAExecutor(action.getId()));
+        assertEquals(WorkflowAction.Status.PREP, action.getStatus());
+        job = jpaService.execute(new WorkflowJobGetJPAExecutor(job.getId()));
+        assertEquals(WorkflowJob.Status.RUNNING, job.getStatus());
+    }
+
+    public void testEmptyBatch() throws Exception {
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        BatchJPAExecutor batch = new BatchJPAExecutor();
+        assertTrue(batch.isEmpty());
+        assertTrue(jpaService.execute(batch).isEmpty());
+    }
+
+}
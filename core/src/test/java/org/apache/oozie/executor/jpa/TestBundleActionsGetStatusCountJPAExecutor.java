@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import org.apache.oozie.BundleActionBean;
+import org.apache.oozie.BundleJobBean;
+import org.apache.oozie.client.Job;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestBundleActionsGetStatusCountJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testBundleActionsStatusCountGet() throws Exception {
+        BundleJobBean job = this.addRecordToBundleJobTable(Job.Status.RUNNING, false);
+        this.addRecordToBundleActionTable(job.getId(), "action1", 0, Job.Status.SUCCEEDED);
+        this.addRecordToBundleActionTable(job.getId(), "action2", 0, Job.Status.SUCCEEDED);
+        this.addRecordToBundleActionTable(job.getId(), "action3", 0, Job.Status.RUNNING);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        BundleActionsGetStatusCountJPAExecutor.StatusCount statusCount = jpaService
+                .execute(new BundleActionsGetStatusCountJPAExecutor(job.getId()));
+        assertEquals(3, statusCount.getTotalCount());
+        assertEquals(0, statusCount.getPendingCount());
+        assertEquals(2, statusCount.getNonPendingCount().size());
+        assertEquals(Integer.valueOf(2), statusCount.getNonPendingCount().get(Job.Status.SUCCEEDED));
+        assertEquals(Integer.valueOf(1), statusCount.getNonPendingCount().get(Job.Status.RUNNING));
+
+        this.addRecordToBundleActionTable(job.getId(), "action4", 1, Job.Status.RUNNING);
+        this.addRecordToBundleActionTable(job.getId(), "action5", 2, Job.Status.RUNNING);
+
+        statusCount = jpaService.execute(new BundleActionsGetStatusCountJPAExecutor(job.getId()));
+        assertEquals(5, statusCount.getTotalCount());
+        assertEquals(2, statusCount.getPendingCount());
+        assertEquals(Integer.valueOf(1), statusCount.getNonPendingCount().get(Job.Status.RUNNING));
+    }
+
+    public void testBundleActionsFailedSubmissionCountGet() throws Exception {
+        BundleJobBean job = this.addRecordToBundleJobTable(Job.Status.RUNNING, false);
+        this.addRecordToBundleActionTable(job.getId(), "action1", 0, Job.Status.FAILED);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        assertEquals(0, jpaService.execute(new BundleActionsFailedSubmissionCountGetJPAExecutor(job.getId()))
+                .intValue());
+
+        BundleActionBean action = createBundleAction(job.getId(), "action2", 0, Job.Status.KILLED);
+        action.setCoordId(null);
+        jpaService.execute(new BundleActionInsertJPAExecutor(action));
+        assertEquals(1, jpaService.execute(new BundleActionsFailedSubmissionCountGetJPAExecutor(job.getId()))
+                .intValue());
+    }
+
+}
@@ -38,6 +38,45 @@ public class TestCoordActionUpdateJPAExecutor extends XDataTestCase {
         _testCoordActionUpdate(action);
     }
 
+    public void testCoordActionUpdateUnmodifiedLobs() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        CoordinatorActionBean action = addRecordToCoordActionTable(job.getId(), 1,
+                CoordinatorAction.Status.WAITING, "coord-action-get.xml", 0);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        CoordinatorActionBean action1 = jpaService.execute(new CoordActionGetJPAExecutor(action.getId()));
+        CoordinatorActionBean action2 = jpaService.execute(new CoordActionGetJPAExecutor(action.getId()));
+        assertTrue(action1.getDirtyLobFields().isEmpty());
+
+        action2.setMissingDependencies("hdfs:///tmp/missing");
+        assertEquals(1, action2.getDirtyLobFields().size());
+        jpaService.execute(new CoordActionUpdateJPAExecutor(action2));
+
+        // action1 has a stale missing dependencies value that must not be written
+        action1.setStatus(CoordinatorAction.Status.READY);
+        jpaService.execute(new CoordActionUpdateJPAExecutor(action1));
+
+        CoordinatorActionBean newAction = jpaService.execute(new CoordActionGetJPAExecutor(action.getId()));
+        assertEquals(CoordinatorAction.Status.READY, newAction.getStatus());
+        assertEquals("hdfs:///tmp/missing", newAction.getMissingDependencies());
+        assertEquals(action.getActionXml(), newAction.getActionXml());
+    }
+
+    public void testCoordActionUpdateNotInDatabase() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        CoordinatorActionBean action = createCoordAction(job.getId(), 1, CoordinatorAction.Status.WAITING,
+                "coord-action-get.xml", 0);
+        jpaService.execute(new CoordActionUpdateJPAExecutor(action));
+
+        CoordinatorActionBean newAction = jpaService.execute(new CoordActionGetJPAExecutor(action.getId()));
+        assertEquals(CoordinatorAction.Status.WAITING, newAction.getStatus());
+        assertEquals(action.getActionXml(), newAction.getActionXml());
+    }
+
     private void _testCoordActionUpdate(CoordinatorActionBean action) throws Exception {
         JPAService jpaService = Services.get().get(JPAService.class);
         assertNotNull(jpaService);
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.List;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordActionsGetForRecoveryColumnsJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testCoordActionsGetForRecoveryColumns() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        CoordinatorActionBean action = addRecordToCoordActionTable(job.getId(), 1,
+                CoordinatorAction.Status.WAITING, "coord-action-get.xml", 0);
+        addRecordToCoordActionTable(job.getId(), 2, CoordinatorAction.Status.SUCCEEDED, "coord-action-get.xml", 0);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        List<CoordinatorActionBean> ret = jpaService.execute(new CoordActionsGetForRecoveryColumnsJPAExecutor(0, "",
+                10));
+        assertNotNull(ret);
+        assertEquals(1, ret.size());
+        CoordinatorActionBean bean = ret.get(0);
+        assertEquals(action.getId(), bean.getId());
+        assertEquals(job.getId(), bean.getJobId());
+        assertEquals(CoordinatorAction.Status.WAITING, bean.getStatus());
+        assertEquals(action.getExternalId(), bean.getExternalId());
+        assertNull(bean.getActionXml());
+    }
+
+    public void testCoordActionsGetForRecoveryColumnsPaged() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        addRecordToCoordActionTable(job.getId(), 1, CoordinatorAction.Status.WAITING, "coord-action-get.xml", 0);
+        addRecordToCoordActionTable(job.getId(), 2, CoordinatorAction.Status.SUBMITTED, "coord-action-get.xml", 0);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        List<CoordinatorActionBean> first = jpaService.execute(new CoordActionsGetForRecoveryColumnsJPAExecutor(0,
+                "", 1));
+        assertEquals(1, first.size());
+        List<CoordinatorActionBean> second = jpaService.execute(new CoordActionsGetForRecoveryColumnsJPAExecutor(0,
+                first.get(0).getId(), 1));
+        assertEquals(1, second.size());
+        assertTrue(first.get(0).getId().compareTo(second.get(0).getId()) < 0);
+        List<CoordinatorActionBean> third = jpaService.execute(new CoordActionsGetForRecoveryColumnsJPAExecutor(0,
+                second.get(0).getId(), 1));
+        assertEquals(0, third.size());
+    }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.DateUtils;
+
+public class TestCoordJobsToBeMaterializedWithActiveCountJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testCoordJobsToBeMaterializedWithActiveCount() throws Exception {
+        Date start = DateUtils.parseDateUTC("2009-02-01T01:00Z");
+        Date end = DateUtils.parseDateUTC("2009-02-20T23:59Z");
+        CoordinatorJobBean job1 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, start, end, false, false, 0);
+        addRecordToCoordActionTable(job1.getId(), 1, CoordinatorAction.Status.WAITING, "coord-action-get.xml", 0);
+        addRecordToCoordActionTable(job1.getId(), 2, CoordinatorAction.Status.WAITING, "coord-action-get.xml", 0);
+        addRecordToCoordActionTable(job1.getId(), 3, CoordinatorAction.Status.RUNNING, "coord-action-get.xml", 0);
+        CoordinatorJobBean job2 = addRecordToCoordJobTable(CoordinatorJob.Status.PREP, start, end, false, false, 0);
+        // not a candidate
+        addRecordToCoordJobTable(CoordinatorJob.Status.SUCCEEDED, start, end, false, true, 0);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        List<CoordJobsToBeMaterializedWithActiveCountJPAExecutor.Candidate> candidates = jpaService
+                .execute(new CoordJobsToBeMaterializedWithActiveCountJPAExecutor(new Date(), 50));
+        assertEquals(2, candidates.size());
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (CoordJobsToBeMaterializedWithActiveCountJPAExecutor.Candidate candidate : candidates) {
+            assertEquals(1, candidate.getMatThrottling());
+            counts.put(candidate.getJobId(), candidate.getActiveCount());
+        }
+        assertEquals(new Integer(2), counts.get(job1.getId()));
+        assertEquals(new Integer(0), counts.get(job2.getId()));
+
+        // page size
+        candidates = jpaService.execute(new CoordJobsToBeMaterializedWithActiveCountJPAExecutor(new Date(), 1));
+        assertEquals(1, candidates.size());
+
+        // no candidates before the start time
+        candidates = jpaService.execute(new CoordJobsToBeMaterializedWithActiveCountJPAExecutor(
+                DateUtils.parseDateUTC("2009-01-01T01:00Z"), 50));
+        assertEquals(0, candidates.size());
+    }
+
+}
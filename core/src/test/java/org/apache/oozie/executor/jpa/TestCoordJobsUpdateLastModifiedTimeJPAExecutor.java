@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordJobsUpdateLastModifiedTimeJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testCoordJobsUpdateLastModifiedTime() throws Exception {
+        CoordinatorJobBean job1 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        CoordinatorJobBean job2 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        CoordinatorJobBean job3 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        Date lastModifiedTime = new Date(job3.getLastModifiedTime().getTime() + 60 * 1000);
+        int updated = jpaService.execute(new CoordJobsUpdateLastModifiedTimeJPAExecutor(
+                Arrays.asList(job1.getId(), job2.getId()), lastModifiedTime));
+        assertEquals(2, updated);
+
+        assertEquals(lastModifiedTime.getTime() / 1000,
+                     jpaService.execute(new CoordJobGetJPAExecutor(job1.getId())).getLastModifiedTime().getTime() / 1000);
+        assertEquals(lastModifiedTime.getTime() / 1000,
+                     jpaService.execute(new CoordJobGetJPAExecutor(job2.getId())).getLastModifiedTime().getTime() / 1000);
+        assertTrue(jpaService.execute(new CoordJobGetJPAExecutor(job3.getId())).getLastModifiedTime()
+                .before(lastModifiedTime));
+    }
+
+    public void testCoordJobsUpdateLastModifiedTimeInChunks() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < CoordJobsUpdateLastModifiedTimeJPAExecutor.IDS_PER_UPDATE * 2; i++) {
+            ids.add("unknown-" + i);
+        }
+        ids.add(job.getId());
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        int updated = jpaService.execute(new CoordJobsUpdateLastModifiedTimeJPAExecutor(ids, new Date()));
+        assertEquals(1, updated);
+    }
+
+}
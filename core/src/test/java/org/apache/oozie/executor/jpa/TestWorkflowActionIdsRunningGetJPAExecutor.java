@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.List;
+
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.workflow.WorkflowInstance;
+
+public class TestWorkflowActionIdsRunningGetJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testWfActionIdsRunningGet() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.OK);
+        WorkflowActionBean action = addRecordToWfActionTableWithRunningStatus(job.getId(), "2",
+                WorkflowAction.Status.RUNNING);
+        Thread.sleep(2000);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        List<String> ids = jpaService.execute(new WorkflowActionIdsRunningGetJPAExecutor(1, "", 10));
+        assertNotNull(ids);
+        assertEquals(1, ids.size());
+        assertEquals(action.getId(), ids.get(0));
+    }
+
+    public void testWfActionIdsRunningGetPaged() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        addRecordToWfActionTableWithRunningStatus(job.getId(), "1", WorkflowAction.Status.RUNNING);
+        addRecordToWfActionTableWithRunningStatus(job.getId(), "2", WorkflowAction.Status.RUNNING);
+        Thread.sleep(2000);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        List<String> first = jpaService.execute(new WorkflowActionIdsRunningGetJPAExecutor(1, "", 1));
+        assertEquals(1, first.size());
+        List<String> second = jpaService.execute(new WorkflowActionIdsRunningGetJPAExecutor(1, first.get(0), 1));
+        assertEquals(1, second.size());
+        assertTrue(first.get(0).compareTo(second.get(0)) < 0);
+        List<String> third = jpaService.execute(new WorkflowActionIdsRunningGetJPAExecutor(1, second.get(0), 1));
+        assertEquals(0, third.size());
+    }
+
+    protected WorkflowActionBean addRecordToWfActionTableWithRunningStatus(String wfId, String actionName,
+            WorkflowAction.Status status) throws Exception {
+        WorkflowActionBean action = createWorkflowAction(wfId, actionName, status);
+        action.setPending();
+        try {
+            JPAService jpaService = Services.get().get(JPAService.class);
+            assertNotNull(jpaService);
+            WorkflowActionInsertJPAExecutor actionInsertCmd = new WorkflowActionInsertJPAExecutor(action);
+            jpaService.execute(actionInsertCmd);
+        }
+        catch (JPAExecutorException je) {
+            je.printStackTrace();
+            fail("Unable to insert the test wf action record to table");
+            throw je;
+        }
+        return action;
+    }
+
+}
@@ -49,6 +49,30 @@ public class TestWorkflowActionUpdateJPAExecutor extends XDataTestCase {
         _testUpdateAction(action.getId());
     }
 
+    public void testWorkflowActionUpdateUnmodifiedLobs() throws Exception {
+        WorkflowJobBean job = this.addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        WorkflowActionBean action = addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.PREP);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        WorkflowActionBean action1 = jpaService.execute(new WorkflowActionGetJPAExecutor(action.getId()));
+        WorkflowActionBean action2 = jpaService.execute(new WorkflowActionGetJPAExecutor(action.getId()));
+        assertTrue(action1.getDirtyLobFields().isEmpty());
+
+        action2.setData("a=b");
+        assertEquals(1, action2.getDirtyLobFields().size());
+        jpaService.execute(new WorkflowActionUpdateJPAExecutor(action2));
+
+        // action1 has a stale data value that must not be written
+        action1.setStatus(WorkflowAction.Status.RUNNING);
+        jpaService.execute(new WorkflowActionUpdateJPAExecutor(action1));
+
+        WorkflowActionBean action3 = jpaService.execute(new WorkflowActionGetJPAExecutor(action.getId()));
+        assertEquals(WorkflowAction.Status.RUNNING, action3.getStatus());
+        assertEquals("a=b", action3.getData());
+        assertEquals(action.getConf(), action3.getConf());
+    }
+
     private void _testUpdateAction(String actionId) throws Exception {
         JPAService jpaService = Services.get().get(JPAService.class);
         assertNotNull(jpaService);
@@ -14,12 +14,17 @@
  */
 package org.apache.oozie.executor.jpa;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.WorkflowsInfo;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
@@ -50,6 +55,65 @@ public class TestWorkflowsJobGetJPAExecutor extends XDataTestCase {
         System.out.println("testWfJobsGet Successful");
     }
 
+    public void testWfJobsGetKeyset() throws Exception {
+        addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+
+        WorkflowsInfo wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, "", 2));
+        assertEquals(3, wfInfo.getTotal());
+        List<WorkflowJobBean> page1 = wfInfo.getWorkflows();
+        assertEquals(2, page1.size());
+        wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, page1.get(1).getId(), 2));
+        List<WorkflowJobBean> page2 = wfInfo.getWorkflows();
+        assertEquals(1, page2.size());
+        Set<String> ids = new HashSet<String>();
+        for (WorkflowJobBean bean : page1) {
+            ids.add(bean.getId());
+        }
+        ids.add(page2.get(0).getId());
+        assertEquals(3, ids.size());
+        assertTrue(page1.get(1).getCreatedTime().compareTo(page2.get(0).getCreatedTime()) >= 0);
+
+        List<String> status = new ArrayList<String>();
+        status.add(WorkflowJob.Status.PREP.toString());
+        filter.put(OozieClient.FILTER_STATUS, status);
+        wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, "", 1));
+        assertEquals(2, wfInfo.getTotal());
+        page1 = wfInfo.getWorkflows();
+        assertEquals(1, page1.size());
+        wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, page1.get(0).getId(), 2));
+        page2 = wfInfo.getWorkflows();
+        assertEquals(1, page2.size());
+        assertEquals(WorkflowJob.Status.PREP, page2.get(0).getStatus());
+        assertFalse(page1.get(0).getId().equals(page2.get(0).getId()));
+
+        try {
+            jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, "invalid-id", 2));
+            fail();
+        }
+        catch (JPAExecutorException ex) {
+            assertEquals(ErrorCode.E0604, ex.getErrorCode());
+        }
+    }
+
+    public void testWfJobsCountCache() throws Exception {
+        services.destroy();
+        setSystemProperty(JPAService.CONF_JOBS_COUNT_TTL, "600");
+        services = new Services();
+        services.init();
+        addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        assertEquals(1, jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, 1, 10)).getTotal());
+        addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        WorkflowsInfo wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, 1, 10));
+        assertEquals(2, wfInfo.getWorkflows().size());
+        assertEquals(1, wfInfo.getTotal());
+    }
+
     private void _testGetWFInfos() throws JPAExecutorException {
         JPAService jpaService = Services.get().get(JPAService.class);
         assertNotNull(jpaService);
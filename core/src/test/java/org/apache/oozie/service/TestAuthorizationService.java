@@ -19,6 +19,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -35,6 +37,7 @@ import org.apache.oozie.client.Job;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.executor.jpa.WorkflowJobDeleteJPAExecutor;
 import org.apache.oozie.test.XDataTestCase;
 import org.apache.oozie.util.IOUtils;
 import org.apache.oozie.util.XConfiguration;
@@ -259,4 +262,44 @@ public class TestAuthorizationService extends XDataTestCase {
         }
     }
 
+    public void testAuthorizeForJobs() throws Exception {
+        services.setService(ForTestAuthorizationService.class);
+        AuthorizationService as = services.get(AuthorizationService.class);
+
+        WorkflowJobBean wfJob = addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        CoordinatorJobBean coordJob = addRecordToCoordJobTable(CoordinatorJob.Status.PREP, false, false);
+        BundleJobBean bundleJob = addRecordToBundleJobTable(Job.Status.PREP, false);
+        List<String> jobIds = Arrays.asList(wfJob.getId(), coordJob.getId(), bundleJob.getId());
+
+        as.authorizeForJobs(getTestUser(), jobIds, true);
+        as.authorizeForJobs("admin", jobIds, true);
+        as.authorizeForJobs(getTestUser3(), jobIds, false);
+        try {
+            as.authorizeForJobs(getTestUser3(), jobIds, true);
+            fail();
+        }
+        catch (AuthorizationException ex) {
+            assertEquals(ErrorCode.E0508, ex.getErrorCode());
+        }
+        try {
+            as.authorizeForJobs(getTestUser3(), Arrays.asList(coordJob.getId(), bundleJob.getId()), true);
+            fail();
+        }
+        catch (AuthorizationException ex) {
+            assertEquals(ErrorCode.E0509, ex.getErrorCode());
+        }
+
+        // job owners are cached, they are not read again from the database
+        services.get(JPAService.class).execute(new WorkflowJobDeleteJPAExecutor(wfJob.getId()));
+        as.authorizeForJob(getTestUser(), wfJob.getId(), true);
+
+        try {
+            as.authorizeForJobs(getTestUser(), Arrays.asList(coordJob.getId(), "1"), true);
+            fail();
+        }
+        catch (AuthorizationException ex) {
+            assertEquals(ErrorCode.E0604, ex.getErrorCode());
+        }
+    }
+
 }
@@ -14,6 +14,7 @@
  */
 package org.apache.oozie.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -286,6 +287,49 @@ public class TestCallableQueueService extends XTestCase {
         services.destroy();
     }
 
+    public void testConcurrencyLimitWithConcurrentQueuing() throws Exception {
+        setSystemProperty(CallableQueueService.CONF_THREADS, "20");
+        Services services = new Services();
+        services.init();
+
+        CLCallable.resetConcurrency();
+        final CallableQueueService queueservice = services.get(CallableQueueService.class);
+
+        List<Thread> producers = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread producer = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 3; j++) {
+                        queueservice.queue(new CLCallable(), 10);
+                    }
+                }
+            };
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        float originalRatio = XTestCase.WAITFOR_RATIO;
+        try{
+            XTestCase.WAITFOR_RATIO = 1;
+            waitFor(5000, new Predicate() {
+                public boolean evaluate() throws Exception {
+                    return queueservice.queueSize() == 0;
+                }
+            });
+        }
+        finally {
+            XTestCase.WAITFOR_RATIO = originalRatio;
+        }
+
+        assertEquals(0, queueservice.queueSize());
+        assertTrue(CLCallable.getConcurrency() <= 3);
+
+        services.destroy();
+    }
+
     /**
      * When using config 'oozie.service.CallableQueueService.callable.next.eligible' true, the next other type of callables
      * should be invoked when top one in the queue is reached max concurrency.
@@ -343,6 +387,51 @@ public class TestCallableQueueService extends XTestCase {
         services.destroy();
     }
 
+    public void testPartitionedQueueConcurrencyReachedAndChooseNextEligible() throws Exception {
+        setSystemProperty(CallableQueueService.CONF_QUEUE_PARTITIONED, "true");
+        Services services = new Services();
+        services.init();
+
+        final CallableQueueService queueservice = services.get(CallableQueueService.class);
+
+        final MyCallable callable1 = new MyCallable(0, 100);
+        final MyCallable callable2 = new MyCallable(0, 100);
+        final MyCallable callable3 = new MyCallable(0, 100);
+        final MyCallable callable4 = new MyCallable(0, 100);
+        final MyCallable callable5 = new MyCallable(0, 100);
+        final MyCallable callable6 = new MyCallable(0, 100);
+        List<MyCallable> callables = Arrays.asList(callable1, callable2, callable3, callable4, callable5, callable6);
+
+        final MyCallable callableOther = new MyCallable("other", 0, 100);
+        queueservice.queue(callableOther, 1000);
+
+        for (MyCallable c : callables) {
+            queueservice.queue(c, 10);
+        }
+
+        float originalRatio = XTestCase.WAITFOR_RATIO;
+        try{
+            XTestCase.WAITFOR_RATIO = 1;
+            waitFor(2000, new Predicate() {
+                public boolean evaluate() throws Exception {
+                    return queueservice.queueSize() == 0;
+                }
+            });
+        }
+        finally {
+            XTestCase.WAITFOR_RATIO = originalRatio;
+        }
+
+        long last = Long.MIN_VALUE;
+        for (MyCallable c : callables) {
+            assertTrue(c.executed != 0);
+            last = Math.max(last, c.executed);
+        }
+        assertTrue(callableOther.executed < last);
+
+        services.destroy();
+    }
+
     public void testSerialConcurrencyLimit() throws Exception {
         EXEC_ORDER = new AtomicLong();
         Services services = new Services();
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.oozie.test.XFsTestCase;
+import org.apache.oozie.util.Instrumentation;
+
+public class TestDependencyAvailabilityService extends XFsTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setSystemProperty(DependencyAvailabilityService.CONF_NEGATIVE_CACHE_TTL, "1");
+        setSystemProperty(DependencyAvailabilityService.CONF_NOTIFICATION_INTERVAL, "3600");
+        new Services().init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Services.get().destroy();
+        super.tearDown();
+    }
+
+    private long getVariable(String name) {
+        Map<String, Instrumentation.Element<Instrumentation.Variable>> vars =
+                Services.get().get(InstrumentationService.class).get().getVariables().get("dependencies");
+        return (Long) ((Instrumentation.Variable) vars.get(name)).getValue();
+    }
+
+    public void testService() throws Exception {
+        assertNotNull(Services.get().get(DependencyAvailabilityService.class));
+    }
+
+    public void testExists() throws Exception {
+        DependencyAvailabilityService service = Services.get().get(DependencyAvailabilityService.class);
+        Path a1 = new Path(getFsTestCaseDir(), "a/1");
+        Path a2 = new Path(getFsTestCaseDir(), "a/2");
+        Path a3 = new Path(getFsTestCaseDir(), "a/3");
+        Path b1 = new Path(getFsTestCaseDir(), "b/1");
+        getFileSystem().mkdirs(a1);
+        getFileSystem().mkdirs(a2);
+
+        boolean[] exist = service.exists(Arrays.asList(a1.toString(), a2.toString(), a3.toString(), b1.toString()),
+                                         getTestUser(), getTestGroup());
+        assertTrue(exist[0]);
+        assertTrue(exist[1]);
+        assertFalse(exist[2]);
+        assertFalse(exist[3]);
+        // a/1, a/2 and a/3 with a single listing, b/1 with a single existence check
+        assertEquals(1, getVariable("liststatus.calls"));
+        assertEquals(1, getVariable("exists.calls"));
+        assertEquals(2, getVariable("cache.existing"));
+        assertEquals(2, getVariable("cache.missing"));
+
+        // all cached
+        getFileSystem().mkdirs(a3);
+        exist = service.exists(Arrays.asList(a1.toString(), a2.toString(), a3.toString(), b1.toString()),
+                               getTestUser(), getTestGroup());
+        assertTrue(exist[0]);
+        assertTrue(exist[1]);
+        assertFalse(exist[2]);
+        assertFalse(exist[3]);
+        assertEquals(4, getVariable("cache.hits"));
+        assertEquals(1, getVariable("liststatus.calls"));
+        assertEquals(1, getVariable("exists.calls"));
+
+        // missing paths expire from the cache
+        Thread.sleep(1100);
+        assertTrue(service.exists(a3.toString(), getTestUser(), getTestGroup()));
+        assertFalse(service.exists(b1.toString(), getTestUser(), getTestGroup()));
+        assertEquals(3, getVariable("exists.calls"));
+        assertEquals(3, getVariable("cache.existing"));
+
+        // missing parent directory
+        Path c1 = new Path(getFsTestCaseDir(), "c/1");
+        Path c2 = new Path(getFsTestCaseDir(), "c/2");
+        exist = service.exists(Arrays.asList(c1.toString(), c2.toString()), getTestUser(), getTestGroup());
+        assertFalse(exist[0]);
+        assertFalse(exist[1]);
+        assertEquals(2, getVariable("liststatus.calls"));
+
+        // paths are cached per user
+        assertTrue(service.exists(a1.toString(), getTestUser2(), getTestGroup()));
+        assertEquals(4, getVariable("exists.calls"));
+        assertEquals(4, getVariable("cache.existing"));
+    }
+
+    public void testWaitingActionNotification() throws Exception {
+        DependencyAvailabilityService service = Services.get().get(DependencyAvailabilityService.class);
+        Path a1 = new Path(getFsTestCaseDir(), "a/1");
+        assertFalse(service.exists(a1.toString(), getTestUser(), getTestGroup()));
+        service.addWaitingAction(a1.toString(), "0000000-000000000000000-oozie-C@1", getTestUser(), getTestGroup());
+        service.addWaitingAction(a1.toString(), "0000000-000000000000000-oozie-C@2", getTestUser(), getTestGroup());
+        assertEquals(1, getVariable("waiting.paths"));
+
+        service.notifyWaitingActions();
+        assertEquals(0, getVariable("notifications"));
+        assertEquals(1, getVariable("waiting.paths"));
+
+        // the notification ignores the missing paths cache
+        getFileSystem().mkdirs(a1);
+        service.notifyWaitingActions();
+        assertEquals(2, getVariable("notifications"));
+        assertEquals(0, getVariable("waiting.paths"));
+        assertTrue(service.exists(a1.toString(), getTestUser(), getTestGroup()));
+    }
+
+    public void testWaitingActionExpiration() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(DependencyAvailabilityService.CONF_WAITING_TTL, "0");
+        new Services().init();
+        DependencyAvailabilityService service = Services.get().get(DependencyAvailabilityService.class);
+        Path a1 = new Path(getFsTestCaseDir(), "a/1");
+        service.addWaitingAction(a1.toString(), "0000000-000000000000000-oozie-C@1", getTestUser(), getTestGroup());
+        assertEquals(1, getVariable("waiting.paths"));
+        Thread.sleep(10);
+        service.notifyWaitingActions();
+        assertEquals(0, getVariable("waiting.paths"));
+        assertEquals(0, getVariable("notifications"));
+    }
+
+}
@@ -15,9 +15,12 @@
 package org.apache.oozie.service;
 
 import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.JobClient;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 
 import java.net.URI;
 
@@ -78,4 +81,73 @@ public class TestHadoopAccessorService extends XTestCase {
         assertNotNull(fs);
     }
 
+    public void testFileSystemCache() throws Exception {
+        HadoopAccessorService has = Services.get().get(HadoopAccessorService.class);
+        Configuration conf = new Configuration();
+        URI uri = new URI("file:///");
+
+        FileSystem fs = has.createFileSystem(getTestUser(), getTestGroup(), uri, conf);
+        assertNotNull(fs);
+        assertSame(fs, has.createFileSystem(getTestUser(), getTestGroup(), new URI("file:///tmp"), conf));
+        assertTrue(fs.exists(new Path(getTestCaseDir())));
+        // cached handles are closed on eviction, they are not shared through the Hadoop FileSystem cache
+        assertTrue(fs.getConf().getBoolean("fs.file.impl.disable.cache", false));
+        assertNotSame(FileSystem.get(uri, conf), fs);
+        assertNotSame(has.newFileSystem(getTestUser(), getTestGroup(), uri, conf), fs);
+
+        Instrumentation instr = Services.get().get(InstrumentationService.class).get();
+        assertEquals(1L, getVariable(instr, "filesystem.hits"));
+        assertEquals(1L, getVariable(instr, "filesystem.misses"));
+        assertEquals(1L, getVariable(instr, "filesystem.cached"));
+
+        has.createFileSystem(getTestUser2(), getTestGroup(), uri, conf);
+        assertEquals(2L, getVariable(instr, "filesystem.misses"));
+        assertEquals(2L, getVariable(instr, "filesystem.cached"));
+    }
+
+    public void testFileSystemCacheDisabled() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(HadoopAccessorService.HANDLE_CACHE_SIZE, "0");
+        new Services().init();
+        HadoopAccessorService has = Services.get().get(HadoopAccessorService.class);
+        Configuration conf = new Configuration();
+
+        assertNotNull(has.createFileSystem(getTestUser(), getTestGroup(), new URI("file:///"), conf));
+        assertNotNull(has.createFileSystem(getTestUser(), getTestGroup(), new URI("file:///"), conf));
+        Instrumentation instr = Services.get().get(InstrumentationService.class).get();
+        assertEquals(0L, getVariable(instr, "filesystem.hits"));
+        assertEquals(0L, getVariable(instr, "filesystem.cached"));
+    }
+
+    public void testEvictedFileSystemClosed() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(HadoopAccessorService.HANDLE_CACHE_SIZE, "1");
+        setSystemProperty(HadoopAccessorService.HANDLE_CACHE_TTL, "0");
+        new Services().init();
+        HadoopAccessorService has = Services.get().get(HadoopAccessorService.class);
+        JobConf conf = new JobConf();
+        conf.set("fs.default.name", getNameNodeUri());
+        injectKerberosInfo(conf);
+        URI uri = new URI(getNameNodeUri());
+        Path root = new Path("/");
+
+        FileSystem shared = has.newFileSystem(getTestUser(), getTestGroup(), uri, conf);
+        FileSystem fs = has.createFileSystem(getTestUser(), getTestGroup(), uri, conf);
+        assertNotSame(shared, fs);
+        assertTrue(fs.exists(root));
+
+        // the handle of another user evicts the first one, which is closed as the TTL is zero
+        has.createFileSystem(getTestUser2(), getTestGroup(), uri, conf);
+        Instrumentation instr = Services.get().get(InstrumentationService.class).get();
+        assertTrue(getVariable(instr, "filesystem.closed") >= 1L);
+
+        // closing the evicted handle does not close the instances shared through the Hadoop FileSystem cache
+        assertTrue(shared.exists(root));
+        assertTrue(FileSystem.get(uri, conf).exists(root));
+    }
+
+    private long getVariable(Instrumentation instr, String name) {
+        return (Long) ((Instrumentation.Variable) instr.getVariables().get("hadoop.handles").get(name)).getValue();
+    }
+
 }
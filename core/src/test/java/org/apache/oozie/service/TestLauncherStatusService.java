@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import org.apache.hadoop.mapred.JobClient;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.oozie.test.XTestCase;
+
+public class TestLauncherStatusService extends XTestCase {
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        String servicesExt = System.getProperty(Services.CONF_SERVICE_EXT_CLASSES, "").trim();
+        setSystemProperty(Services.CONF_SERVICE_EXT_CLASSES, ((servicesExt.length() > 0) ? servicesExt + "," : "")
+                + LauncherStatusService.class.getName());
+        Services services = new Services();
+        services.init();
+    }
+
+    protected void tearDown() throws Exception {
+        Services.get().destroy();
+        super.tearDown();
+    }
+
+    public void testService() throws Exception {
+        assertNotNull(Services.get().get(LauncherStatusService.class));
+    }
+
+    public void testJobClientPool() throws Exception {
+        LauncherStatusService lss = Services.get().get(LauncherStatusService.class);
+        JobConf conf = createJobConf();
+
+        JobClient jc = lss.getJobClient(getTestUser(), getTestGroup(), conf);
+        assertNotNull(jc);
+        assertSame(jc, lss.getJobClient(getTestUser(), getTestGroup(), conf));
+        assertNotSame(jc, lss.getJobClient(getTestUser2(), getTestGroup(), conf));
+
+        lss.discardJobClient(getTestUser(), getTestGroup(), conf);
+        JobClient newJc = lss.getJobClient(getTestUser(), getTestGroup(), conf);
+        assertNotNull(newJc);
+        assertNotSame(jc, newJc);
+
+        try {
+            lss.getJobClient(null, getTestGroup(), conf);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+    }
+
+    public void testIsRunning() throws Exception {
+        LauncherStatusService lss = Services.get().get(LauncherStatusService.class);
+        JobConf conf = createJobConf();
+        assertFalse(lss.isRunning(getTestUser(), getTestGroup(), conf, "job_201001010000_0001"));
+    }
+
+    private JobConf createJobConf() {
+        JobConf conf = new JobConf();
+        conf.set("mapred.job.tracker", getJobTrackerUri());
+        conf.set("fs.default.name", getNameNodeUri());
+        injectKerberosInfo(conf);
+        return conf;
+    }
+
+}
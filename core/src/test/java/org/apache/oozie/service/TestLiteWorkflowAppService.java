@@ -15,6 +15,8 @@
 package org.apache.oozie.service;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.workflow.WorkflowApp;
@@ -481,4 +483,63 @@ public class TestLiteWorkflowAppService extends XTestCase {
         }
     }
 
+    public void testAppCache() throws Exception {
+        Services services = new Services();
+        try {
+            services.init();
+            Reader reader = IOUtils.getResourceAsReader("wf-schema-valid.xml", -1);
+            Writer writer = new FileWriter(getTestCaseDir() + "/workflow.xml");
+            IOUtils.copyCharStream(reader, writer);
+            createTestCaseSubDir("lib");
+            writer = new FileWriter(getTestCaseDir() + "/lib/maputil.jar");
+            writer.write("bla bla");
+            writer.close();
+            writer = new FileWriter(getTestCaseDir() + "/config-default.xml");
+            writer.write("<configuration><property><name>a</name><value>A</value></property></configuration>");
+            writer.close();
+
+            WorkflowAppService wps = services.get(WorkflowAppService.class);
+            Configuration jobConf = new XConfiguration();
+            jobConf.set(OozieClient.APP_PATH, "file://" + getTestCaseDir() + File.separator + "workflow.xml");
+            jobConf.set(OozieClient.USER_NAME, getTestUser());
+            jobConf.set(OozieClient.GROUP_NAME, getTestGroup());
+            injectKerberosInfo(jobConf);
+
+            WorkflowApp app = wps.parseDef(jobConf, "authToken");
+            assertSame(app, wps.parseDef(jobConf, "authToken"));
+            assertEquals(1, wps.createProtoActionConf(jobConf, "authToken", true)
+                    .getStrings(WorkflowAppService.APP_LIB_PATH_LIST).length);
+
+            // a changed workflow definition is read and parsed again
+            writer = new FileWriter(getTestCaseDir() + "/workflow.xml", true);
+            writer.write("\n");
+            writer.close();
+            WorkflowApp changedApp = wps.parseDef(jobConf, "authToken");
+            assertNotSame(app, changedApp);
+            assertEquals(app.getName(), changedApp.getName());
+
+            // adding a file to the lib directory changes its modification time, the listing is read again
+            writer = new FileWriter(getTestCaseDir() + "/lib/reduceutil.so");
+            writer.write("bla bla");
+            writer.close();
+            File libDir = new File(getTestCaseDir(), "lib");
+            libDir.setLastModified(libDir.lastModified() + 2000);
+            assertEquals(2, wps.createProtoActionConf(jobConf, "authToken", true)
+                    .getStrings(WorkflowAppService.APP_LIB_PATH_LIST).length);
+
+            FileSystem fs = services.get(HadoopAccessorService.class).createFileSystem(getTestUser(), getTestGroup(),
+                    new Path("file://" + getTestCaseDir()).toUri(), new Configuration());
+            Configuration defaultConf = wps.readDefaultConf(fs, new Path(getTestCaseDir(), "config-default.xml"),
+                                                            getTestUser());
+            assertEquals("A", defaultConf.get("a"));
+            defaultConf.set("a", "B");
+            assertEquals("A", wps.readDefaultConf(fs, new Path(getTestCaseDir(), "config-default.xml"),
+                                                  getTestUser()).get("a"));
+            assertNull(wps.readDefaultConf(fs, new Path(getTestCaseDir(), "missing.xml"), getTestUser()));
+        }
+        finally {
+            services.destroy();
+        }
+    }
+
 }
@@ -17,6 +17,12 @@ package org.apache.oozie.service;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.WorkflowStoreService;
 import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.workflow.lite.EndNodeDef;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
+import org.apache.oozie.workflow.lite.StartNodeDef;
+
+import java.util.Map;
 
 public class TestLiteWorkflowStoreService extends XTestCase {
 
@@ -40,5 +46,55 @@ public class TestLiteWorkflowStoreService extends XTestCase {
         assertNotNull(wls.create());
     }
 
+    public void testDefinitionCache() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(LiteWorkflowStoreService.CONF_DEFINITION_CACHE_SIZE, "2");
+        new Services().init();
+        LiteWorkflowStoreService wls = (LiteWorkflowStoreService) Services.get().get(WorkflowStoreService.class);
+
+        LiteWorkflowApp app1 = createApp();
+        LiteWorkflowApp app2 = createApp();
+        assertNull(wls.getDefinition("/app", "h1"));
+        assertSame(app1, wls.internDefinition("/app", "h1", app1));
+        assertSame(app1, wls.internDefinition("/app", "h1", app2));
+        assertSame(app1, wls.getDefinition("/app", "h1"));
+        assertNull(wls.getDefinition("/app", "h2"));
+        assertNull(wls.getDefinition("/other", "h1"));
+        assertSame(app2, wls.internDefinition(null, "h1", app2));
+        assertSame(app2, wls.getDefinition(null, "h1"));
+
+        // the least recently used definition is evicted
+        assertSame(app1, wls.getDefinition("/app", "h1"));
+        LiteWorkflowApp app3 = createApp();
+        assertSame(app3, wls.internDefinition("/app", "h3", app3));
+        assertNull(wls.getDefinition(null, "h1"));
+        assertSame(app1, wls.getDefinition("/app", "h1"));
+        assertSame(app3, wls.getDefinition("/app", "h3"));
+
+        Map<String, Instrumentation.Element<Instrumentation.Variable>> vars =
+                Services.get().get(InstrumentationService.class).get().getVariables().get("workflow.definitions");
+        assertEquals(2L, ((Instrumentation.Variable) vars.get("resident")).getValue());
+        assertEquals(6L, ((Instrumentation.Variable) vars.get("hits")).getValue());
+        assertEquals(3L, ((Instrumentation.Variable) vars.get("misses")).getValue());
+        assertEquals(6d / 9, ((Instrumentation.Variable) vars.get("hit.ratio")).getValue());
+    }
+
+    public void testDefinitionCacheDisabled() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(LiteWorkflowStoreService.CONF_DEFINITION_CACHE_SIZE, "0");
+        new Services().init();
+        LiteWorkflowStoreService wls = (LiteWorkflowStoreService) Services.get().get(WorkflowStoreService.class);
+
+        LiteWorkflowApp app1 = createApp();
+        LiteWorkflowApp app2 = createApp();
+        assertSame(app1, wls.internDefinition("/app", "h1", app1));
+        assertSame(app2, wls.internDefinition("/app", "h1", app2));
+        assertNull(wls.getDefinition("/app", "h1"));
+    }
+
+    private LiteWorkflowApp createApp() throws Exception {
+        return new LiteWorkflowApp("wf", "<worklfow-app/>", new StartNodeDef("end")).addNode(new EndNodeDef("end"));
+    }
+
 
 }
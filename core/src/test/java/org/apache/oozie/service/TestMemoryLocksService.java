@@ -15,6 +15,8 @@
 package org.apache.oozie.service;
 
 import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.MemoryLocks;
 
 public class TestMemoryLocksService extends XTestCase {
 
@@ -24,4 +26,19 @@ public class TestMemoryLocksService extends XTestCase {
         Services.get().destroy();
     }
 
+    public void testLockWaitInstrumentation() throws Exception {
+        new Services().init();
+        MemoryLocksService service = Services.get().get(MemoryLocksService.class);
+        MemoryLocks.LockToken token = service.getWriteLock("a", -1, "test-command");
+        assertNotNull(token);
+        token.release();
+        token = service.getReadLock("a", -1, "test-command");
+        assertNotNull(token);
+        token.release();
+        Instrumentation instr = Services.get().get(InstrumentationService.class).get();
+        Instrumentation.Timer timer = instr.getTimers().get("locks").get("test-command.wait").getValue();
+        assertEquals(2, timer.getTicks());
+        Services.get().destroy();
+    }
+
 }
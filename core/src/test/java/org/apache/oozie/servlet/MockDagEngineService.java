@@ -184,6 +184,13 @@ public class MockDagEngineService extends DagEngineService {
             return new WorkflowsInfo((List) workflows, start, len, workflows.size());
         }
 
+        @Override
+        public WorkflowsInfo getJobs(String filter, String after, int len) throws DagEngineException {
+            parseFilter(filter);
+            did = RestConstants.JOBS_AFTER_PARAM;
+            return new WorkflowsInfo((List) workflows, 1, len, workflows.size());
+        }
+
         @Override
         public String getJobIdForExternalId(String externalId) throws DagEngineException {
             did = RestConstants.JOBS_EXTERNAL_ID_PARAM;
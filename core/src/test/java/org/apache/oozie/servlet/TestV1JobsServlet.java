@@ -147,6 +147,19 @@ public class TestV1JobsServlet extends DagServletTestCase {
                     assertNotNull(((JSONObject) array.get(i)).get(JsonTags.WORKFLOW_APP_PATH));
                 }
 
+                params = new HashMap<String, String>();
+                params.put(RestConstants.JOBS_FILTER_PARAM, "name=x");
+                params.put(RestConstants.JOBS_AFTER_PARAM, MockDagEngineService.JOB_ID + "0");
+                params.put(RestConstants.LEN_PARAM, "100");
+                url = createURL("", params);
+                conn = (HttpURLConnection) url.openConnection();
+                conn.setRequestMethod("GET");
+                assertEquals(HttpServletResponse.SC_OK, conn.getResponseCode());
+                assertEquals(RestConstants.JOBS_AFTER_PARAM, MockDagEngineService.did);
+                json = (JSONObject) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
+                array = (JSONArray) json.get(JsonTags.WORKFLOWS_JOBS);
+                assertEquals(MockDagEngineService.INIT_WF_COUNT, array.size());
+
                 params = new HashMap<String, String>();
                 params.put(RestConstants.JOBTYPE_PARAM, "wf");
                 params.put(RestConstants.JOBS_EXTERNAL_ID_PARAM, "external-valid");
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import junit.framework.TestCase;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class TestDateUtils extends TestCase {
+
+    private static final String[] TIME_ZONES = {"UTC", "America/Los_Angeles", "Europe/London", "Asia/Kolkata",
+            "Australia/Lord_Howe", "America/Sao_Paulo"};
+
+    private static final int[] UNITS = {Calendar.MINUTE, Calendar.HOUR, Calendar.DATE, Calendar.MONTH};
+
+    private static final long[] UNIT_MILLIS = {60L * 1000, 60L * 60 * 1000, 24L * 60 * 60 * 1000,
+            31L * 24 * 60 * 60 * 1000};
+
+    /**
+     * Reference implementation, the instance by instance iteration previously used by the coordinator EL functions.
+     */
+    private static int getInstanceCountByIteration(Calendar initial, Date effective, int unit, int frequency) {
+        Calendar calEffectiveTime = Calendar.getInstance();
+        calEffectiveTime.setTime(effective);
+        calEffectiveTime.setTimeZone(initial.getTimeZone());
+        Calendar current = (Calendar) initial.clone();
+        int count = 0;
+        while (current.compareTo(calEffectiveTime) <= 0) {
+            current = (Calendar) initial.clone();
+            count++;
+            current.add(unit, count * frequency);
+        }
+        return count - 1;
+    }
+
+    private static Calendar getCalendar(String date, String tz) throws Exception {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(DateUtils.parseDateUTC(date));
+        cal.setTimeZone(TimeZone.getTimeZone(tz));
+        return cal;
+    }
+
+    public void testInstanceCount() throws Exception {
+        Calendar initial = getCalendar("2009-01-01T00:00Z", "UTC");
+        assertEquals(0, DateUtils.getInstanceCount(initial, initial.getTime(), Calendar.MINUTE, 5));
+        assertEquals(0, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2009-01-01T00:04Z"),
+                                                   Calendar.MINUTE, 5));
+        assertEquals(1, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2009-01-01T00:05Z"),
+                                                   Calendar.MINUTE, 5));
+        assertEquals(24, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2009-01-02T00:00Z"),
+                                                    Calendar.HOUR, 1));
+        assertEquals(365, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-01-01T00:00Z"),
+                                                     Calendar.DATE, 1));
+        assertEquals(11, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2009-12-31T23:59Z"),
+                                                    Calendar.MONTH, 1));
+        try {
+            DateUtils.getInstanceCount(initial, initial.getTime(), Calendar.MINUTE, 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            //nop
+        }
+        try {
+            DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2008-12-31T23:59Z"), Calendar.MINUTE, 5);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            //nop
+        }
+    }
+
+    public void testInstanceCountAcrossDST() throws Exception {
+        // daily instances at 08:00 UTC are 00:00 PST, 01:00 PDT after the DST change
+        Calendar initial = getCalendar("2010-03-13T08:00Z", "America/Los_Angeles");
+        assertEquals(0, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-03-14T07:30Z"),
+                                                   Calendar.DATE, 1));
+        assertEquals(1, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-03-14T08:00Z"),
+                                                   Calendar.DATE, 1));
+        assertEquals(1, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-03-15T06:59Z"),
+                                                   Calendar.DATE, 1));
+        assertEquals(2, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-03-15T07:00Z"),
+                                                   Calendar.DATE, 1));
+        assertEquals(getInstanceCountByIteration(initial, DateUtils.parseDateUTC("2010-11-08T07:59Z"),
+                                                 Calendar.DATE, 1),
+                     DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-11-08T07:59Z"),
+                                                Calendar.DATE, 1));
+    }
+
+    public void testInstanceCountEndOfMonth() throws Exception {
+        // monthly instances from the 31st are clamped to the last day of shorter months
+        Calendar initial = getCalendar("2010-01-31T00:00Z", "UTC");
+        assertEquals(0, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-02-27T23:59Z"),
+                                                   Calendar.MONTH, 1));
+        assertEquals(1, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-02-28T00:00Z"),
+                                                   Calendar.MONTH, 1));
+        assertEquals(1, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-03-30T00:00Z"),
+                                                   Calendar.MONTH, 1));
+        assertEquals(2, DateUtils.getInstanceCount(initial, DateUtils.parseDateUTC("2010-03-31T00:00Z"),
+                                                   Calendar.MONTH, 1));
+    }
+
+    public void testInstanceCountEquivalence() throws Exception {
+        Random random = new Random(20101018L);
+        long base = DateUtils.parseDateUTC("2005-01-01T00:00Z").getTime();
+        for (int i = 0; i < 5000; i++) {
+            String tz = TIME_ZONES[random.nextInt(TIME_ZONES.length)];
+            int unitIndex = random.nextInt(UNITS.length);
+            int unit = UNITS[unitIndex];
+            int frequency = 1 + random.nextInt(random.nextBoolean() ? 3 : 60);
+
+            Calendar initial = Calendar.getInstance();
+            initial.setTime(new Date(base + (random.nextInt(10 * 365 * 24 * 60) * 60L * 1000)));
+            initial.setTimeZone(TimeZone.getTimeZone(tz));
+
+            // up to 500 instances, with the effective time close to an instance boundary half of the times
+            long span = (long) random.nextInt(500) * frequency * UNIT_MILLIS[unitIndex];
+            if (random.nextBoolean()) {
+                Calendar cal = (Calendar) initial.clone();
+                cal.add(unit, random.nextInt(500) * frequency);
+                span = cal.getTimeInMillis() - initial.getTimeInMillis() + (random.nextInt(3) - 1) * 60L * 1000;
+            }
+            Date effective = new Date(initial.getTimeInMillis() + Math.max(0, span));
+
+            int expected = getInstanceCountByIteration(initial, effective, unit, frequency);
+            int actual = DateUtils.getInstanceCount(initial, effective, unit, frequency);
+            assertEquals("initial=" + initial.getTime() + " tz=" + tz + " effective=" + effective + " unit=" + unit
+                    + " frequency=" + frequency, expected, actual);
+        }
+    }
+
+    public void testInstanceCountPerformance() throws Exception {
+        // 5 minutes dataset with an initial instance 3 years before the effective time
+        Calendar initial = getCalendar("2008-01-01T00:00Z", "America/Los_Angeles");
+        Date effective = DateUtils.parseDateUTC("2011-01-01T00:00Z");
+        int runs = 20;
+
+        long start = System.currentTimeMillis();
+        int expected = 0;
+        for (int i = 0; i < runs; i++) {
+            expected = getInstanceCountByIteration(initial, effective, Calendar.MINUTE, 5);
+        }
+        long iteration = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        int actual = 0;
+        for (int i = 0; i < runs; i++) {
+            actual = DateUtils.getInstanceCount(initial, effective, Calendar.MINUTE, 5);
+        }
+        long closedForm = System.currentTimeMillis() - start;
+
+        assertEquals(expected, actual);
+        XLog.getLog(getClass()).info("Instance count of [{0}] instances, [{1}] runs: iteration [{2}]ms, " +
+                                     "closed form [{3}]ms", expected, runs, iteration, closedForm);
+    }
+
+}
@@ -164,4 +164,53 @@ public class TestELEvaluator extends XTestCase {
         }
     }
 
+    public void testParentContext() throws Exception {
+        ELEvaluator.Context parent = new ELEvaluator.Context();
+        parent.setVariable("a", "A");
+        parent.setVariable("b", "B");
+        parent.addFunction("a", "a", functionA);
+
+        ELEvaluator.Context support = new ELEvaluator.Context(parent);
+        support.setVariable("b", "BB");
+        support.setVariable("c", "C");
+        assertEquals("A", support.getVariable("a"));
+        assertEquals("BB", support.getVariable("b"));
+        assertEquals("C", support.resolveVariable("c"));
+        assertEquals(functionA, support.resolveFunction("a", "a"));
+        assertNull(support.resolveFunction("b", "b"));
+
+        // the parent context is not modified
+        assertEquals("B", parent.getVariable("b"));
+        assertNull(parent.getVariable("c"));
+        try {
+            parent.resolveVariable("c");
+            fail();
+        }
+        catch (ELException ex) {
+            //nop
+        }
+
+        ELEvaluator evaluator = new ELEvaluator(support);
+        assertEquals("aBBC", evaluator.evaluate("${a:a()}${b}${c}", String.class));
+    }
+
+    public void testParsedExpressionCache() throws Exception {
+        ELEvaluator.Context support = new ELEvaluator.Context();
+        support.setVariable("a", "A");
+        ELEvaluator evaluator = new ELEvaluator(support);
+        assertEquals("xA", evaluator.evaluate("x${a}", String.class));
+        support.setVariable("a", "B");
+        assertEquals("xB", evaluator.evaluate("x${a}", String.class));
+        assertEquals(1, (int) evaluator.evaluate("${1}", Integer.class));
+        assertEquals("plain", evaluator.evaluate("plain", String.class));
+        assertEquals("", evaluator.evaluate("", String.class));
+
+        StringBuilder longExpr = new StringBuilder();
+        for (int i = 0; i < ELEvaluator.PARSED_CACHE_MAX_LENGTH; i++) {
+            longExpr.append('x');
+        }
+        longExpr.append("${a}");
+        assertEquals(longExpr.toString().replace("${a}", "B"), evaluator.evaluate(longExpr.toString(), String.class));
+    }
+
 }
@@ -300,4 +300,105 @@ public class TestInstrumentation extends XTestCase {
                 get("timers").get("a").get("1")).getValue()).getOwn());
     }
 
+    private static class FixedCron extends Instrumentation.Cron {
+        private long own;
+        private long total;
+
+        FixedCron(long own, long total) {
+            this.own = own;
+            this.total = total;
+        }
+
+        @Override
+        public long getOwn() {
+            return own;
+        }
+
+        @Override
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    public void testHistogramBuckets() throws Exception {
+        int previous = -1;
+        for (long value = 0; value < 10 * 1000 * 1000; value += 1 + value / 100) {
+            int bucket = Instrumentation.Histogram.getBucket(value);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+            long bucketValue = Instrumentation.Histogram.getBucketValue(bucket);
+            assertTrue(bucketValue >= value);
+            assertTrue(bucketValue - value <= value / Instrumentation.Histogram.SUB_BUCKETS);
+            assertEquals(bucket, Instrumentation.Histogram.getBucket(bucketValue));
+        }
+        assertEquals(0, Instrumentation.Histogram.getBucket(-1));
+        assertEquals(Instrumentation.Histogram.BUCKETS - 1, Instrumentation.Histogram.getBucket(Long.MAX_VALUE));
+    }
+
+    public void testTimerPercentiles() throws Exception {
+        Instrumentation.Timer timer = new Instrumentation.Timer();
+        assertEquals(0, timer.getOwnPercentile(50));
+        assertEquals(0, timer.getTotalPercentile(99));
+        for (int i = 1; i <= 1000; i++) {
+            timer.addCron(new FixedCron(i, 2 * i));
+        }
+        Instrumentation.Timer snapshot = timer.getValue();
+        assertEquals(1000, snapshot.getTicks());
+        assertEquals(1, snapshot.getOwnMin());
+        assertEquals(1000, snapshot.getOwnMax());
+        assertEquals(2000, snapshot.getTotalMax());
+        assertEquals(500, snapshot.getOwnPercentile(50), 500 / 16);
+        assertEquals(950, snapshot.getOwnPercentile(95), 950 / 16);
+        assertEquals(990, snapshot.getOwnPercentile(99), 990 / 16);
+        assertEquals(999, snapshot.getOwnPercentile(99.9), 999 / 16);
+        assertEquals(1000, snapshot.getOwnPercentile(100));
+        assertEquals(1000, snapshot.getTotalPercentile(50), 1000 / 16);
+        assertEquals(1998, snapshot.getTotalPercentile(99.9), 1998 / 16);
+        assertTrue(snapshot.getOwnPercentile(50) >= 500);
+        assertTrue(snapshot.getOwnPercentile(99) >= 990);
+
+        // the snapshot does not change
+        timer.addCron(new FixedCron(100000, 100000));
+        assertEquals(1000, snapshot.getTicks());
+        assertEquals(1000, snapshot.getOwnPercentile(100));
+        assertEquals(100000, timer.getOwnPercentile(100));
+    }
+
+    public void testConcurrentTimersAndCounters() throws Exception {
+        final Instrumentation inst = new Instrumentation();
+        final int threads = 8;
+        final int iterations = 10000;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < iterations; j++) {
+                        inst.incr("g" + (j % 2), "c", 1);
+                        inst.addCron("g" + (j % 2), "t", new FixedCron(j % 100, j % 100));
+                    }
+                }
+            };
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(2, inst.getCounters().size());
+        assertEquals(2, inst.getTimers().size());
+        long count = 0;
+        long ticks = 0;
+        for (int i = 0; i < 2; i++) {
+            count += inst.getCounters().get("g" + i).get("c").getValue();
+            Instrumentation.Timer timer = inst.getTimers().get("g" + i).get("t").getValue();
+            ticks += timer.getTicks();
+            // even values are in group 0, odd values in group 1
+            assertEquals(i, timer.getOwnMin());
+            assertEquals(98 + i, timer.getOwnMax());
+        }
+        assertEquals(threads * iterations, count);
+        assertEquals(threads * iterations, ticks);
+    }
+
 }
@@ -94,4 +94,64 @@ public class TestLogStreamer extends XTestCase {
         assertEquals(true, out[2].contains("_L4_"));
         assertEquals(true, out[3].contains("_L7_"));
     }
+
+    public void testStreamLogWithIndex() throws IOException {
+        long currTime = System.currentTimeMillis();
+        XLogStreamer.Filter.reset();
+        XLogStreamer.Filter.defineParameter("USER");
+        XLogStreamer.Filter.defineParameter("GROUP");
+        XLogStreamer.Filter.defineParameter("TOKEN");
+        XLogStreamer.Filter.defineParameter("APP");
+        XLogStreamer.Filter.defineParameter("JOB");
+        XLogStreamer.Filter.defineParameter("ACTION");
+
+        String job1 = "14-200904160239--example-forkjoinwf";
+        String job2 = "15-200904160239--example-forkjoinwf";
+        for (int i = 0; i < 3; i++) {
+            String name = (i == 0) ? "test.log" : "test.log." + i;
+            FileWriter fw = new FileWriter(getTestCaseDir() + "/" + name);
+            for (int j = 0; j < 100; j++) {
+                String job = (j % 3 == 0) ? job2 : job1;
+                String level = (j % 2 == 0) ? "DEBUG" : " INFO";
+                fw.write("2009-06-24 02:43:13,958 " + level + " _F" + i + "L" + j + "_:323 - USER[oozie] GROUP[-] "
+                        + "TOKEN[-] APP[example-forkjoinwf] JOB[" + job + "] ACTION[-] statement\n");
+                if (j % 10 == 0) {
+                    fw.write("_F" + i + "L" + j + "A_ continuation\n");
+                }
+                if (j % 7 == 0) {
+                    fw.write("2009-06-24 02:43:13,958  WARN _F" + i + "L" + j + "B_:323 - no log info\n");
+                }
+            }
+            fw.close();
+            new File(getTestCaseDir() + "/" + name).setLastModified(currTime - 3000 * i);
+        }
+
+        String[][] filters = {{job1, null}, {job2, "DEBUG"}, {job1, "INFO|WARN"}, {"14-.*", null}};
+        for (String[] filter : filters) {
+            XLogStreamer.Filter xf = new XLogStreamer.Filter();
+            xf.setParameter("JOB", filter[0]);
+            xf.setLogLevel(filter[1]);
+            StringWriter plain = new StringWriter();
+            new XLogStreamer(xf, plain, getTestCaseDir(), "test.log", 1).streamLog(null, null);
+            for (int i = 0; i < 2; i++) {
+                StringWriter indexed = new StringWriter();
+                new XLogStreamer(xf, indexed, getTestCaseDir(), "test.log", 1, "JOB").streamLog(null, null);
+                assertTrue(plain.toString().length() > 0);
+                assertEquals(plain.toString(), indexed.toString());
+            }
+        }
+
+        XLogStreamer.Filter xf = new XLogStreamer.Filter();
+        xf.setParameter("JOB", job1);
+        xf.setParameter("ACTION", "-");
+        StringWriter plain = new StringWriter();
+        new XLogStreamer(xf, plain, getTestCaseDir(), "test.log", 1).streamLog(null, null);
+        StringWriter indexed = new StringWriter();
+        new XLogStreamer(xf, indexed, getTestCaseDir(), "test.log", 1, "JOB").streamLog(null, null);
+        assertEquals(plain.toString(), indexed.toString());
+
+        assertFalse(XLogIndex.getIndexFile(new File(getTestCaseDir(), "test.log")).exists());
+        assertTrue(XLogIndex.getIndexFile(new File(getTestCaseDir(), "test.log.1")).exists());
+        assertTrue(XLogIndex.getIndexFile(new File(getTestCaseDir(), "test.log.2")).exists());
+    }
 }
@@ -14,6 +14,10 @@
  */
 package org.apache.oozie.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.oozie.test.XTestCase;
 
 public class TestMemoryLocks extends XTestCase {
@@ -214,4 +218,60 @@ public class TestMemoryLocks extends XTestCase {
         assertEquals("a:1-L a:1-U a:2-L a:2-U", sb.toString().trim());
     }
 
+    public void testLockEviction() throws Exception {
+        MemoryLocks.LockToken token1 = locks.getWriteLock("a", 0);
+        assertNotNull(token1);
+        // locks are reentrant, the entry is evicted when the last token is released
+        MemoryLocks.LockToken reentrant = locks.getWriteLock("a", 0);
+        assertNotNull(reentrant);
+        assertEquals(1, locks.size());
+        reentrant.release();
+        assertEquals(1, locks.size());
+        MemoryLocks.LockToken token2 = locks.getReadLock("b", 0);
+        assertNotNull(token2);
+        assertEquals(2, locks.size());
+        token1.release();
+        assertEquals(1, locks.size());
+        token2.release();
+        assertEquals(0, locks.size());
+    }
+
+    public void testConcurrentLockingAndEviction() throws Exception {
+        final int threads = 16;
+        final int iterations = 2000;
+        final int[] counters = new int[4];
+        final AtomicInteger failures = new AtomicInteger();
+        List<Thread> list = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < iterations; i++) {
+                            int resource = i % counters.length;
+                            MemoryLocks.LockToken token = locks.getWriteLock("r" + resource, -1);
+                            // the write lock makes the unsynchronized increment safe
+                            counters[resource]++;
+                            token.release();
+                        }
+                    }
+                    catch (Exception ex) {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            list.add(thread);
+            thread.start();
+        }
+        for (Thread thread : list) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+        int total = 0;
+        for (int counter : counters) {
+            total += counter;
+        }
+        assertEquals(threads * iterations, total);
+        assertEquals(0, locks.size());
+    }
+
 }
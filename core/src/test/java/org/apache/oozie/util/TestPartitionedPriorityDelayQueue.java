@@ -0,0 +1,365 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
+
+public class TestPartitionedPriorityDelayQueue extends TestCase {
+
+    /**
+     * System property with the comma separated queue sizes used by {@link #testThroughputComparison()}.
+     */
+    public static final String BENCHMARK_SIZES = "oozie.test.queue.benchmark.sizes";
+
+    private static final String BUSY = "busy";
+
+    // partitions Integer elements by parity, odd elements are 'busy'
+    public static class ParityQueue extends PartitionedPriorityDelayQueue<Integer> {
+        boolean busyEligible = true;
+
+        public ParityQueue(int priorities, long maxWait, TimeUnit unit, int maxSize) {
+            super(priorities, maxWait, unit, maxSize);
+        }
+
+        @Override
+        protected String getPartition(QueueElement<Integer> element) {
+            return (element.getElement() % 2 == 0) ? "even" : BUSY;
+        }
+
+        @Override
+        protected boolean eligibleToPoll(QueueElement<?> element) {
+            return busyEligible || ((Integer) element.getElement()) % 2 == 0;
+        }
+    }
+
+    public void testQueueConstructor() throws Exception {
+        try {
+            new PartitionedPriorityDelayQueue<Integer>(0, 1000, TimeUnit.MILLISECONDS, -1);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+        try {
+            new PartitionedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+        try {
+            new PartitionedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, -2);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+        PartitionedPriorityDelayQueue<Integer> q = new PartitionedPriorityDelayQueue<Integer>(3, 1000,
+                TimeUnit.MILLISECONDS, 10);
+        assertEquals(3, q.getPriorities());
+        assertEquals(1000, q.getMaxWait(TimeUnit.MILLISECONDS));
+        assertEquals(10, q.getMaxSize());
+    }
+
+    public void testBoundUnboundQueueSize() throws Exception {
+        PartitionedPriorityDelayQueue<Integer> q =
+                new PartitionedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, -1);
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(3, q.size());
+
+        q = new PartitionedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, 1);
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertFalse(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(1, q.size());
+        assertNotNull(q.poll());
+        assertEquals(0, q.size());
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(1, q.size());
+        assertTrue(q.offer(new QueueElement<Integer>(1), 0, TimeUnit.MILLISECONDS));
+        assertEquals(2, q.size());
+        assertEquals(0, q.remainingCapacity());
+    }
+
+    public void testPoll() throws Exception {
+        PartitionedPriorityDelayQueue<Integer> q =
+                new PartitionedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+
+        q.offer(new QueueElement<Integer>(1));
+        assertEquals((Integer) 1, q.poll().getElement());
+        assertEquals(0, q.size());
+
+        q.offer(new QueueElement<Integer>(2, 0, 10, TimeUnit.MILLISECONDS));
+        assertNull(q.poll());
+        Thread.sleep(11);
+        assertEquals((Integer) 2, q.poll().getElement());
+        assertEquals(0, q.size());
+
+        q.offer(new QueueElement<Integer>(10, 0, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(30, 2, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 0, TimeUnit.MILLISECONDS));
+        assertEquals((Integer) 30, q.poll().getElement());
+        assertEquals((Integer) 20, q.poll().getElement());
+        assertEquals((Integer) 10, q.poll().getElement());
+        assertNull(q.poll());
+        assertEquals(0, q.size());
+    }
+
+    public void testPollOldestAcrossPartitions() throws Exception {
+        ParityQueue q = new ParityQueue(1, 500, TimeUnit.MILLISECONDS, -1);
+        q.offer(new QueueElement<Integer>(1, 0, 0, TimeUnit.MILLISECONDS));
+        Thread.sleep(5);
+        q.offer(new QueueElement<Integer>(2, 0, 0, TimeUnit.MILLISECONDS));
+        Thread.sleep(5);
+        q.offer(new QueueElement<Integer>(3, 0, 0, TimeUnit.MILLISECONDS));
+        assertEquals((Integer) 1, q.poll().getElement());
+        assertEquals((Integer) 2, q.poll().getElement());
+        assertEquals((Integer) 3, q.poll().getElement());
+    }
+
+    public void testEligibility() throws Exception {
+        ParityQueue q = new ParityQueue(3, 500, TimeUnit.MILLISECONDS, -1);
+        q.busyEligible = false;
+        q.offer(new QueueElement<Integer>(1, 2, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(3, 2, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(2, 0, 0, TimeUnit.MILLISECONDS));
+
+        assertEquals((Integer) 2, q.poll().getElement());
+        assertNull(q.poll());
+        assertEquals(2, q.size());
+
+        q.busyEligible = true;
+        assertEquals((Integer) 1, q.poll().getElement());
+        assertEquals((Integer) 3, q.poll().getElement());
+        assertEquals(0, q.size());
+    }
+
+    public void testPeek() throws Exception {
+        PartitionedPriorityDelayQueue<Integer> q =
+                new PartitionedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+        assertNull(q.peek());
+
+        q.offer(new QueueElement<Integer>(1, 2, 100, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(2, 1, 10, TimeUnit.MILLISECONDS));
+        assertEquals((Integer) 2, q.peek().getElement());
+
+        q.offer(new QueueElement<Integer>(3, 0, 0, TimeUnit.MILLISECONDS));
+        assertEquals((Integer) 3, q.peek().getElement());
+        assertEquals(3, q.size());
+    }
+
+    public void testAntiStarvation() throws Exception {
+        ParityQueue q = new ParityQueue(3, 10, TimeUnit.MILLISECONDS, -1);
+        q.offer(new QueueElement<Integer>(1, 0, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(2, 0, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(4, 0, 100, TimeUnit.MILLISECONDS));
+        Thread.sleep(20);
+
+        q.antiStarvation();
+        int[] sizes = q.sizes();
+        assertEquals(1, sizes[0]);
+        assertEquals(2, sizes[1]);
+        assertEquals(0, sizes[2]);
+
+        Thread.sleep(20);
+        q.antiStarvation();
+        sizes = q.sizes();
+        assertEquals(1, sizes[0]);
+        assertEquals(0, sizes[1]);
+        assertEquals(2, sizes[2]);
+
+        QueueElement<Integer> e = q.poll();
+        assertEquals(2, e.getPriority());
+        assertEquals(2, q.size());
+    }
+
+    public void testClearAndDrain() throws Exception {
+        ParityQueue q = new ParityQueue(3, 500, TimeUnit.MILLISECONDS, -1);
+        for (int i = 0; i < 10; i++) {
+            q.offer(new QueueElement<Integer>(i, i % 3, 0, TimeUnit.MILLISECONDS));
+        }
+        int count = 0;
+        for (QueueElement<Integer> e : q) {
+            count++;
+        }
+        assertEquals(10, count);
+
+        List<QueueElement<Integer>> list = new ArrayList<QueueElement<Integer>>();
+        assertEquals(4, q.drainTo(list, 4));
+        assertEquals(6, q.size());
+
+        q.clear();
+        assertEquals(0, q.size());
+        assertNull(q.poll());
+    }
+
+    public void testRemove() throws Exception {
+        ParityQueue q = new ParityQueue(3, 500, TimeUnit.MILLISECONDS, -1);
+        List<QueueElement<Integer>> elements = new ArrayList<QueueElement<Integer>>();
+        for (int i = 0; i < 6; i++) {
+            QueueElement<Integer> e = new QueueElement<Integer>(i, i % 3, 0, TimeUnit.MILLISECONDS);
+            elements.add(e);
+            q.offer(e);
+        }
+        assertTrue(q.remove(elements.get(1)));
+        assertFalse(q.remove(elements.get(1)));
+        assertFalse(q.remove("not an element"));
+        assertEquals(5, q.size());
+
+        // removing through the iterator removes from the queue
+        for (Iterator<QueueElement<Integer>> it = q.iterator(); it.hasNext();) {
+            if (it.next().getElement() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(2, q.size());
+        List<Integer> polled = new ArrayList<Integer>();
+        QueueElement<Integer> e;
+        while ((e = q.poll()) != null) {
+            polled.add(e.getElement());
+        }
+        assertEquals(2, polled.size());
+        assertTrue(polled.contains(3));
+        assertTrue(polled.contains(5));
+
+        // a removed element can be queued again
+        q.offer(elements.get(1));
+        assertEquals(1, q.size());
+    }
+
+    public void testConcurrentProducersConsumers() throws Exception {
+        final int producers = 8;
+        final int consumers = 8;
+        final int perProducer = 5000;
+        final ParityQueue q = new ParityQueue(3, 10, TimeUnit.MILLISECONDS, -1);
+        final ConcurrentHashMap<Integer, Integer> seen = new ConcurrentHashMap<Integer, Integer>();
+        final AtomicInteger consumed = new AtomicInteger();
+        final AtomicInteger duplicates = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            threads.add(new Thread() {
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        q.offer(new QueueElement<Integer>(base + i, i % 3, i % 5, TimeUnit.MILLISECONDS));
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread() {
+                public void run() {
+                    while (consumed.get() < producers * perProducer) {
+                        QueueElement<Integer> e = q.poll();
+                        if (e != null) {
+                            if (seen.put(e.getElement(), e.getElement()) != null) {
+                                duplicates.incrementAndGet();
+                            }
+                            consumed.incrementAndGet();
+                        }
+                        else {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+        }
+        Thread antiStarvation = new Thread() {
+            public void run() {
+                while (consumed.get() < producers * perProducer) {
+                    q.antiStarvation();
+                    try {
+                        Thread.sleep(1);
+                    }
+                    catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+            }
+        };
+        threads.add(antiStarvation);
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join(60 * 1000);
+        }
+        assertEquals(producers * perProducer, consumed.get());
+        assertEquals(producers * perProducer, seen.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(0, q.size());
+    }
+
+    /**
+     * Compares the time to drain the eligible elements of a queue where most elements belong to a type that reached
+     * its max concurrency. Sizes can be set with the {@link #BENCHMARK_SIZES} system property, for example
+     * <code>10000,100000,1000000</code>.
+     */
+    public void testThroughputComparison() throws Exception {
+        String[] sizes = System.getProperty(BENCHMARK_SIZES, "10000").split(",");
+        for (String size : sizes) {
+            int n = Integer.parseInt(size.trim());
+            PollablePriorityDelayQueue<Integer> pollable =
+                    new PollablePriorityDelayQueue<Integer>(3, 30000, TimeUnit.MILLISECONDS, -1) {
+                        @Override
+                        protected boolean eligibleToPoll(QueueElement<?> element) {
+                            return element != null && ((Integer) element.getElement()) % 10 == 0;
+                        }
+                    };
+            PartitionedPriorityDelayQueue<Integer> partitioned =
+                    new PartitionedPriorityDelayQueue<Integer>(3, 30000, TimeUnit.MILLISECONDS, -1) {
+                        @Override
+                        protected String getPartition(QueueElement<Integer> element) {
+                            return (element.getElement() % 10 == 0) ? "free" : BUSY;
+                        }
+
+                        @Override
+                        protected boolean eligibleToPoll(QueueElement<?> element) {
+                            return ((Integer) element.getElement()) % 10 == 0;
+                        }
+                    };
+            long pollableTime = drain(pollable, n);
+            long partitionedTime = drain(partitioned, n);
+            XLog.getLog(getClass()).info("Queue size [{0}], PollablePriorityDelayQueue [{1}ms], "
+                    + "PartitionedPriorityDelayQueue [{2}ms]", n, pollableTime, partitionedTime);
+            assertEquals(n - n / 10, pollable.size());
+            assertEquals(n - n / 10, partitioned.size());
+        }
+    }
+
+    private long drain(BlockingQueue<QueueElement<Integer>> q, int n) {
+        for (int i = 0; i < n; i++) {
+            q.offer(new QueueElement<Integer>(i, i % 3, 0, TimeUnit.MILLISECONDS));
+        }
+        long start = System.currentTimeMillis();
+        int polled = 0;
+        while (polled < n / 10) {
+            if (q.poll() != null) {
+                polled++;
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+}
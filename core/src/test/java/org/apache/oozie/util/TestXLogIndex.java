@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.RandomAccessFile;
+import java.util.regex.Pattern;
+
+import org.apache.oozie.test.XTestCase;
+
+public class TestXLogIndex extends XTestCase {
+
+    private static final String JOB1 = "0000001-101018000000000-oozie-oozi-W";
+    private static final String JOB2 = "0000002-101018000000000-oozie-oozi-W";
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        XLogStreamer.Filter.reset();
+        XLogStreamer.Filter.defineParameter("USER");
+        XLogStreamer.Filter.defineParameter("GROUP");
+        XLogStreamer.Filter.defineParameter("TOKEN");
+        XLogStreamer.Filter.defineParameter("APP");
+        XLogStreamer.Filter.defineParameter("JOB");
+        XLogStreamer.Filter.defineParameter("ACTION");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        XLogStreamer.Filter.reset();
+        super.tearDown();
+    }
+
+    private static String statement(String level, String line, String job) {
+        return "2010-10-18 10:00:00,000 " + level + " " + line + ":1 - USER[oozie] GROUP[-] TOKEN[-] APP[app] JOB["
+                + job + "] ACTION[-] message\n";
+    }
+
+    private String[] createLog(File file) throws Exception {
+        String[] statements = {statement("INFO", "_L1_", JOB1), statement("DEBUG", "_L2_", JOB1),
+                statement("INFO", "_L3_", JOB2) + "_L3A_ continuation\n",
+                statement("WARN", "_L4_", JOB1) + "_L4A_ continuation\n",
+                "2010-10-18 10:00:00,000 INFO _L5_:1 - no log info\n",
+                statement("INFO", "_L6_", JOB1)};
+        FileWriter writer = new FileWriter(file);
+        for (String statement : statements) {
+            writer.write(statement);
+        }
+        writer.close();
+        return statements;
+    }
+
+    public void testBuild() throws Exception {
+        File file = new File(getTestCaseDir(), "oozie.log.2010-10-18-10");
+        String[] statements = createLog(file);
+        Pattern pattern = XLogStreamer.Filter.getIndexPattern("JOB");
+        XLogIndex index = XLogIndex.getIndex(file, pattern);
+        assertEquals(2, index.size());
+
+        long[] offsets = new long[statements.length + 1];
+        for (int i = 0; i < statements.length; i++) {
+            offsets[i + 1] = offsets[i] + statements[i].length();
+        }
+        long[] ranges = index.getRanges(JOB1);
+        assertEquals(6, ranges.length);
+        assertEquals(offsets[0], ranges[0]);
+        assertEquals(offsets[2], ranges[1]);
+        assertEquals(offsets[3], ranges[2]);
+        assertEquals(offsets[4], ranges[3]);
+        assertEquals(offsets[5], ranges[4]);
+        assertEquals(offsets[6], ranges[5]);
+
+        ranges = index.getRanges(JOB2);
+        assertEquals(2, ranges.length);
+        assertEquals(offsets[2], ranges[0]);
+        assertEquals(offsets[3], ranges[1]);
+
+        assertEquals(0, index.getRanges("0000003-101018000000000-oozie-oozi-W").length);
+    }
+
+    public void testStoreAndLoad() throws Exception {
+        File file = new File(getTestCaseDir(), "oozie.log.2010-10-18-10");
+        createLog(file);
+        Pattern pattern = XLogStreamer.Filter.getIndexPattern("JOB");
+        XLogIndex index = XLogIndex.getIndex(file, pattern);
+        File indexFile = XLogIndex.getIndexFile(file);
+        assertTrue(indexFile.exists());
+        assertEquals("." + file.getName() + ".idx", indexFile.getName());
+
+        XLogIndex loaded = XLogIndex.load(indexFile, file, pattern.pattern());
+        assertNotNull(loaded);
+        assertEquals(index.size(), loaded.size());
+        assertTrue(java.util.Arrays.equals(index.getRanges(JOB1), loaded.getRanges(JOB1)));
+        assertTrue(java.util.Arrays.equals(index.getRanges(JOB2), loaded.getRanges(JOB2)));
+
+        // a different index pattern makes the index stale
+        XLogStreamer.Filter.defineParameter("EXTRA");
+        assertNull(XLogIndex.load(indexFile, file, XLogStreamer.Filter.getIndexPattern("JOB").pattern()));
+
+        // a log file change makes the index stale
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(raf.length());
+        raf.write(statement("INFO", "_L7_", JOB2).getBytes());
+        raf.close();
+        assertNull(XLogIndex.load(indexFile, file, pattern.pattern()));
+        index = XLogIndex.getIndex(file, pattern);
+        assertEquals(4, index.getRanges(JOB2).length);
+        assertNotNull(XLogIndex.load(indexFile, file, pattern.pattern()));
+    }
+
+    public void testConcurrentBuild() throws Exception {
+        final File file = new File(getTestCaseDir(), "oozie.log.2010-10-18-11");
+        createLog(file);
+        final Pattern pattern = XLogStreamer.Filter.getIndexPattern("JOB");
+        final XLogIndex[] indexes = new XLogIndex[8];
+        final Exception[] errors = new Exception[indexes.length];
+        Thread[] threads = new Thread[indexes.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int n = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        indexes[n] = XLogIndex.getIndex(file, pattern);
+                    }
+                    catch (Exception ex) {
+                        errors[n] = ex;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+            assertNull(errors[i]);
+            assertNotNull(indexes[i]);
+            assertTrue(java.util.Arrays.equals(indexes[0].getRanges(JOB1), indexes[i].getRanges(JOB1)));
+        }
+        assertNotNull(XLogIndex.load(XLogIndex.getIndexFile(file), file, pattern.pattern()));
+
+        // no temporary index file is left behind
+        for (String name : file.getParentFile().list()) {
+            assertFalse(name, name.endsWith(".tmp"));
+        }
+    }
+
+    public void testRangeInputStream() throws Exception {
+        File file = new File(getTestCaseDir(), "data");
+        FileWriter writer = new FileWriter(file);
+        writer.write("0123456789abcdefghij");
+        writer.close();
+        long[] ranges = {2, 5, 5, 7, 10, 12, 19, 30};
+        XLogStreamer.RangeInputStream is = new XLogStreamer.RangeInputStream(
+                new RandomAccessFile(file, "r").getChannel(), ranges);
+        StringBuilder sb = new StringBuilder();
+        byte[] buffer = new byte[2];
+        int read = is.read(buffer, 0, buffer.length);
+        while (read != -1) {
+            sb.append(new String(buffer, 0, read));
+            read = is.read(buffer, 0, buffer.length);
+        }
+        is.close();
+        assertEquals("23456abj", sb.toString());
+    }
+
+}
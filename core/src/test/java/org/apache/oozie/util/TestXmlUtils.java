@@ -14,8 +14,14 @@
  */
 package org.apache.oozie.util;
 
+import java.io.ByteArrayInputStream;
+
+import javax.xml.validation.Schema;
+
 import org.apache.oozie.test.XTestCase;
 import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.xml.sax.SAXException;
 
 public class TestXmlUtils extends XTestCase {
 
@@ -33,4 +39,89 @@ public class TestXmlUtils extends XTestCase {
         String result = XmlUtils.removeComments(xmlStr);
         System.out.println("Result After Comments removal :\n" + result);
     }
+
+    public void testParseXmlReuse() throws Exception {
+        Element e = XmlUtils.parseXml("<a><b>1</b></a>");
+        assertEquals("1", e.getChildText("b"));
+        try {
+            XmlUtils.parseXml("<a><b>1</a>");
+            fail();
+        }
+        catch (JDOMException ex) {
+            // expected
+        }
+        e = XmlUtils.parseXml("<c><d>2</d></c>");
+        assertEquals("2", e.getChildText("d"));
+    }
+
+    public void testParseXmlCached() throws Exception {
+        String xml = "<a><b>1</b></a>";
+        Element e1 = XmlUtils.parseXmlCached(xml);
+        assertEquals("1", e1.getChildText("b"));
+        e1.getChild("b").setText("2");
+        Element e2 = XmlUtils.parseXmlCached(xml);
+        assertNotSame(e1, e2);
+        assertEquals("1", e2.getChildText("b"));
+        assertNull(e2.getParent());
+    }
+
+    public void testParsedCacheCounters() throws Exception {
+        String xml = "<a><b>counters</b></a>";
+        long hits = XmlUtils.getParsedCacheHits();
+        long misses = XmlUtils.getParsedCacheMisses();
+        XmlUtils.parseXmlCached(xml);
+        XmlUtils.parseXmlCached(xml);
+        assertEquals(hits + 1, XmlUtils.getParsedCacheHits());
+        assertEquals(misses + 1, XmlUtils.getParsedCacheMisses());
+
+        // "Aa" and "BB" have the same hash code, documents with the same hash are told apart by their content
+        assertEquals("<a>Aa</a>".hashCode(), "<a>BB</a>".hashCode());
+        assertEquals("Aa", XmlUtils.parseXmlCached("<a>Aa</a>").getText());
+        assertEquals("BB", XmlUtils.parseXmlCached("<a>BB</a>").getText());
+        assertEquals("Aa", XmlUtils.parseXmlCached("<a>Aa</a>").getText());
+    }
+
+    public void testParsedCacheMaxBytes() throws Exception {
+        String xml1 = "<a><b>1</b></a>";
+        String xml2 = "<a><b>2</b></a>";
+        try {
+            XmlUtils.setParsedCacheMaxBytes(2 * xml1.length());
+            XmlUtils.parseXmlCached(xml1);
+            assertEquals(2 * xml1.length(), XmlUtils.getParsedCacheBytes());
+
+            // the cache holds a single document, the least recently used one is evicted
+            XmlUtils.parseXmlCached(xml2);
+            assertEquals(2 * xml2.length(), XmlUtils.getParsedCacheBytes());
+            long misses = XmlUtils.getParsedCacheMisses();
+            XmlUtils.parseXmlCached(xml1);
+            assertEquals(misses + 1, XmlUtils.getParsedCacheMisses());
+
+            XmlUtils.setParsedCacheMaxBytes(0);
+            assertEquals(0, XmlUtils.getParsedCacheBytes());
+            long hits = XmlUtils.getParsedCacheHits();
+            assertEquals("1", XmlUtils.parseXmlCached(xml1).getChildText("b"));
+            assertEquals("1", XmlUtils.parseXmlCached(xml1).getChildText("b"));
+            assertEquals(hits, XmlUtils.getParsedCacheHits());
+            assertEquals(0, XmlUtils.getParsedCacheBytes());
+        }
+        finally {
+            XmlUtils.setParsedCacheMaxBytes(XmlUtils.PARSED_CACHE_DEFAULT_MAX_BYTES);
+        }
+    }
+
+    private static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+            + "<xs:element name=\"a\" type=\"xs:int\"/></xs:schema>";
+
+    public void testValidateXml() throws Exception {
+        Schema schema = XmlUtils.createSchema(new ByteArrayInputStream(XSD.getBytes()));
+        XmlUtils.validateXml(schema, "<a>1</a>");
+        try {
+            XmlUtils.validateXml(schema, "<a>x</a>");
+            fail();
+        }
+        catch (SAXException ex) {
+            // expected
+        }
+        XmlUtils.validateXml(schema, "<a>2</a>");
+    }
 }
@@ -15,6 +15,7 @@
 package org.apache.oozie.workflow.lite;
 
 
+import org.apache.oozie.service.LiteWorkflowStoreService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.workflow.WorkflowException;
 import org.apache.oozie.workflow.WorkflowInstance;
@@ -22,6 +23,7 @@ import org.apache.oozie.test.XTestCase;
 import org.apache.oozie.util.WritableUtils;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.OozieClient;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -704,6 +706,111 @@ public class TestLiteWorkflowLib extends XTestCase {
         assertEquals(WorkflowInstance.Status.SUCCEEDED, job.getStatus());
     }
 
+    public void testJobPersistanceVersionedFormat() throws Exception {
+        LiteWorkflowApp def = new LiteWorkflowApp("wf", "<worklfow-app/>", new StartNodeDef("one"))
+                .addNode(new NodeDef("one", null, AsynchNodeHandler.class, Arrays.asList(new String[]{"end"})))
+                .addNode(new EndNodeDef("end"));
+        XConfiguration conf = new XConfiguration();
+        conf.set("a", "A");
+        conf.set("b", "\u00e9");
+
+        for (String compression : new String[]{LiteWorkflowInstance.COMPRESSION_NONE,
+                LiteWorkflowInstance.COMPRESSION_DEFLATE}) {
+            services.getConf().setInt(LiteWorkflowStoreService.CONF_INSTANCE_FORMAT_VERSION,
+                                      LiteWorkflowInstance.FORMAT_VERSION_2);
+            services.getConf().set(LiteWorkflowStoreService.CONF_INSTANCE_COMPRESSION, compression);
+
+            LiteWorkflowInstance job = new LiteWorkflowInstance(def, conf, "1");
+            job.setVar("a", "A");
+            job.setTransientVar("b", "B");
+            job.start();
+
+            byte[] array = WritableUtils.toByteArray(job);
+            assertEquals(0xFF, array[0] & 0xFF);
+            assertEquals(0xFF, array[1] & 0xFF);
+            job = WritableUtils.fromByteArray(array, LiteWorkflowInstance.class);
+            assertEquals(WorkflowInstance.Status.RUNNING, job.getStatus());
+            assertEquals("A", job.getVar("a"));
+            assertEquals(null, job.getTransientVar("b"));
+            assertEquals("1", job.getId());
+            assertEquals("A", job.getConf().get("a"));
+            assertEquals("\u00e9", job.getConf().get("b"));
+            assertEquals("wf", job.getApp().getName());
+            assertEquals("<worklfow-app/>", job.getApp().getDefinition());
+
+            // instances written in the versioned format are readable when writing in the legacy format
+            services.getConf().setInt(LiteWorkflowStoreService.CONF_INSTANCE_FORMAT_VERSION,
+                                      LiteWorkflowInstance.FORMAT_VERSION_1);
+            job = WritableUtils.fromByteArray(array, LiteWorkflowInstance.class);
+            job.signal("/", "");
+            assertEquals(WorkflowInstance.Status.SUCCEEDED, job.getStatus());
+        }
+    }
+
+    public void testSharedDefinition() throws Exception {
+        LiteWorkflowApp def = new LiteWorkflowApp("wf", "<worklfow-app/>", new StartNodeDef("one"))
+                .addNode(new NodeDef("one", null, AsynchNodeHandler.class, Arrays.asList(new String[]{"end"})))
+                .addNode(new EndNodeDef("end"));
+        XConfiguration conf = new XConfiguration();
+        conf.set(OozieClient.APP_PATH, "hdfs://nn/app");
+
+        for (int version : new int[]{LiteWorkflowInstance.FORMAT_VERSION_1, LiteWorkflowInstance.FORMAT_VERSION_2}) {
+            services.getConf().setInt(LiteWorkflowStoreService.CONF_INSTANCE_FORMAT_VERSION, version);
+            byte[] array1 = WritableUtils.toByteArray(new LiteWorkflowInstance(def, conf, "1"));
+            byte[] array2 = WritableUtils.toByteArray(new LiteWorkflowInstance(def, conf, "2"));
+
+            LiteWorkflowInstance job1 = WritableUtils.fromByteArray(array1, LiteWorkflowInstance.class);
+            LiteWorkflowInstance job2 = WritableUtils.fromByteArray(array2, LiteWorkflowInstance.class);
+            assertEquals("1", job1.getId());
+            assertEquals("2", job2.getId());
+            assertNotSame(def, job1.getApp());
+            assertSame(job1.getApp(), job2.getApp());
+
+            // same definition in a different application path is not shared
+            XConfiguration otherConf = new XConfiguration();
+            otherConf.set(OozieClient.APP_PATH, "hdfs://nn/other");
+            byte[] array3 = WritableUtils.toByteArray(new LiteWorkflowInstance(def, otherConf, "3"));
+            LiteWorkflowInstance job3 = WritableUtils.fromByteArray(array3, LiteWorkflowInstance.class);
+            assertNotSame(job1.getApp(), job3.getApp());
+
+            job1.start();
+            job2.start();
+            job1.signal("/", "");
+            assertEquals(WorkflowInstance.Status.SUCCEEDED, job1.getStatus());
+            assertEquals(WorkflowInstance.Status.RUNNING, job2.getStatus());
+        }
+    }
+
+    public void testReadLegacyFormat() throws Exception {
+        LiteWorkflowApp def = new LiteWorkflowApp("wf", "<worklfow-app/>", new StartNodeDef("one"))
+                .addNode(new NodeDef("one", null, AsynchNodeHandler.class, Arrays.asList(new String[]{"end"})))
+                .addNode(new EndNodeDef("end"));
+        XConfiguration conf = new XConfiguration();
+        conf.set("a", "A");
+
+        services.getConf().setInt(LiteWorkflowStoreService.CONF_INSTANCE_FORMAT_VERSION,
+                                  LiteWorkflowInstance.FORMAT_VERSION_1);
+        LiteWorkflowInstance job = new LiteWorkflowInstance(def, conf, "1");
+        job.setVar("a", "A");
+        job.start();
+        byte[] legacy = WritableUtils.toByteArray(job);
+
+        services.getConf().setInt(LiteWorkflowStoreService.CONF_INSTANCE_FORMAT_VERSION,
+                                  LiteWorkflowInstance.FORMAT_VERSION_2);
+        job = WritableUtils.fromByteArray(legacy, LiteWorkflowInstance.class);
+        assertEquals(WorkflowInstance.Status.RUNNING, job.getStatus());
+        assertEquals("A", job.getVar("a"));
+        assertEquals("1", job.getId());
+        assertEquals("A", job.getConf().get("a"));
+
+        // migrating the instance to the versioned format makes it smaller
+        byte[] array = WritableUtils.toByteArray(job);
+        assertTrue(array.length < legacy.length);
+        job = WritableUtils.fromByteArray(array, LiteWorkflowInstance.class);
+        job.signal("/", "");
+        assertEquals(WorkflowInstance.Status.SUCCEEDED, job.getStatus());
+    }
+
 
     public void testImmediateError() throws WorkflowException {
         LiteWorkflowApp workflowDef = new LiteWorkflowApp("testWf", "<worklfow-app/>", new StartNodeDef("one"))